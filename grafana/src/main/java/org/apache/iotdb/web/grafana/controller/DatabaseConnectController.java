@@ -120,7 +120,7 @@ public class DatabaseConnectController {
         if (type.equals("table")) {
           setJsonTable(obj, target, timeRange);
         } else if (type.equals("timeserie")) {
-          setJsonTimeseries(obj, target, timeRange);
+          setJsonTimeseries(obj, target, timeRange, getMaxDataPoints(jsonObject));
         }
         result.add(i, obj);
       }
@@ -165,10 +165,23 @@ public class DatabaseConnectController {
     obj.put("values", values);
   }
 
+  /**
+   * get the max number of points the panel can draw, 0 if not given.
+   */
+  private long getMaxDataPoints(JSONObject jsonObject) {
+    Object maxDataPoints = jsonObject.get("maxDataPoints");
+    if (maxDataPoints instanceof Number) {
+      return ((Number) maxDataPoints).longValue();
+    }
+    return 0;
+  }
+
   private void setJsonTimeseries(JSONObject obj, String target,
-      Pair<ZonedDateTime, ZonedDateTime> timeRange)
+      Pair<ZonedDateTime, ZonedDateTime> timeRange, long maxDataPoints)
       throws JSONException {
-    List<TimeValues> timeValues = databaseConnectService.querySeries(target, timeRange);
+    // maxDataPoints is the width of the panel in pixels, so an interval is at most one pixel wide
+    List<TimeValues> timeValues = databaseConnectService
+        .querySeries(target, timeRange, maxDataPoints);
     logger.info("query size: {}", timeValues.size());
     JSONArray dataPoints = new JSONArray();
     for (TimeValues tv : timeValues) {
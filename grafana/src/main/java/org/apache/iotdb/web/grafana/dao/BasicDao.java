@@ -30,6 +30,9 @@ public interface BasicDao {
 
   List<TimeValues> querySeries(String s, Pair<ZonedDateTime, ZonedDateTime> timeRange);
 
+  List<TimeValues> querySeries(String s, Pair<ZonedDateTime, ZonedDateTime> timeRange,
+      long maxDataPoints);
+
   List<String> getMetaData();
 
 }
@@ -34,6 +34,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
@@ -86,6 +87,38 @@ public class BasicDaoImpl implements BasicDao {
     return rows;
   }
 
+  /**
+   * query the series downsampled to at most maxDataPoints intervals. For each interval, its first,
+   * min, max and last values are returned (M4 aggregation), which is enough to draw the same line
+   * as the raw data when an interval is not wider than a pixel. The aggregations are computed from
+   * chunk and page statistics on the server whenever possible, so the cost hardly grows with the
+   * width of the time range.
+   */
+  @Override
+  public List<TimeValues> querySeries(String s, Pair<ZonedDateTime, ZonedDateTime> timeRange,
+      long maxDataPoints) {
+    Long from = zonedCovertToLong(timeRange.left);
+    Long to = zonedCovertToLong(timeRange.right);
+    long interval = maxDataPoints > 0 ? (to - from) / maxDataPoints : 0;
+    // the interval of GROUP BY is at least 1ms
+    if (interval <= 0) {
+      return querySeries(s, timeRange);
+    }
+    String measurement = s.substring(s.lastIndexOf('.') + 1);
+    String sql = String.format("SELECT first(%1$s), min_value(%1$s), max_value(%1$s), last(%1$s)"
+            + " FROM root.%2$s GROUP BY (%3$dms, %4$d, [%4$d, %5$d])", measurement,
+        s.substring(0, s.lastIndexOf('.')), interval, from, to);
+    logger.info(sql);
+    M4RowCallbackHandler handler = new M4RowCallbackHandler(interval);
+    try {
+      jdbcTemplate.query(sql, handler);
+    } catch (Exception e) {
+      logger.error(e.getMessage());
+      return null;
+    }
+    return handler.rows;
+  }
+
   private Long zonedCovertToLong(ZonedDateTime time) {
     return time.toInstant().toEpochMilli();
   }
@@ -106,20 +139,60 @@ public class BasicDaoImpl implements BasicDao {
       tv.setTime(resultSet.getLong("Time"));
       String valueString = resultSet.getString(columnName);
       if (valueString != null) {
-        if (TRUE_STR.equalsIgnoreCase(valueString)) {
-          tv.setValue(1);
-        } else if (FALSE_STR.equalsIgnoreCase(valueString)) {
-          tv.setValue(0);
-        } else {
-          try {
-            tv.setValue(resultSet.getFloat(columnName));
-          } catch (Exception e) {
-            tv.setValue(0);
-          }
-        }
+        tv.setValue(parseValue(valueString));
       }
       return tv;
     }
+
+    static float parseValue(String valueString) {
+      if (TRUE_STR.equalsIgnoreCase(valueString)) {
+        return 1;
+      } else if (FALSE_STR.equalsIgnoreCase(valueString)) {
+        return 0;
+      } else {
+        try {
+          return Float.parseFloat(valueString);
+        } catch (Exception e) {
+          return 0;
+        }
+      }
+    }
+  }
+
+  /**
+   * turns each row of first, min, max and last values of an interval into points. The min and max
+   * are placed in the middle of the interval since their times are unknown, which does not change
+   * the pixel they are drawn in.
+   */
+  static class M4RowCallbackHandler implements RowCallbackHandler {
+
+    private long interval;
+    private List<TimeValues> rows = new ArrayList<>();
+
+    M4RowCallbackHandler(long interval) {
+      this.interval = interval;
+    }
+
+    @Override
+    public void processRow(ResultSet resultSet) throws SQLException {
+      String first = resultSet.getString(2);
+      // no data in the interval
+      if (first == null) {
+        return;
+      }
+      long startTime = resultSet.getLong("Time");
+      addPoint(startTime, first);
+      addPoint(startTime + interval / 2, resultSet.getString(3));
+      addPoint(startTime + interval / 2, resultSet.getString(4));
+      addPoint(startTime + interval - 1, resultSet.getString(5));
+    }
+
+    private void addPoint(long time, String valueString) {
+      TimeValues tv = new TimeValues();
+      tv.setTime(time);
+      tv.setValue(TimeValuesRowMapper.parseValue(valueString));
+      rows.add(tv);
+    }
   }
 
 }
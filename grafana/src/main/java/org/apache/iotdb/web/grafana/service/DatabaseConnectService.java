@@ -29,6 +29,9 @@ public interface DatabaseConnectService {
 
   List<TimeValues> querySeries(String s, Pair<ZonedDateTime, ZonedDateTime> timeRange);
 
+  List<TimeValues> querySeries(String s, Pair<ZonedDateTime, ZonedDateTime> timeRange,
+      long maxDataPoints);
+
   List<String> getMetaData();
 
 }
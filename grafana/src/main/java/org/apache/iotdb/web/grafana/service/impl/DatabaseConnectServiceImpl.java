@@ -43,6 +43,12 @@ public class DatabaseConnectServiceImpl implements DatabaseConnectService {
     return basicDao.querySeries(s, timeRange);
   }
 
+  @Override
+  public List<TimeValues> querySeries(String s, Pair<ZonedDateTime, ZonedDateTime> timeRange,
+      long maxDataPoints) {
+    return basicDao.querySeries(s, timeRange, maxDataPoints);
+  }
+
   @Override
   public List<String> getMetaData() {
     return basicDao.getMetaData();
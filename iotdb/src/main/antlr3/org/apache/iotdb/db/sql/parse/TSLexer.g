@@ -63,6 +63,9 @@ KW_SELECT : 'SELECT';
 KW_INSERT : 'INSERT';
 KW_ON : 'ON';
 KW_SHOW: 'SHOW';
+KW_QUERIES: 'QUERIES';
+KW_QUERY: 'QUERY';
+KW_CONTINUOUS: 'CONTINUOUS';
 
 KW_LOAD: 'LOAD';
 
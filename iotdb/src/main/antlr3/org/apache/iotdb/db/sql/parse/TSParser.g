@@ -32,6 +32,11 @@ tokens {
 
 //update
 TOK_SHOW_METADATA;
+TOK_SHOW_QUERIES;
+TOK_CREATE_CONTINUOUS_QUERY;
+TOK_DROP_CONTINUOUS_QUERY;
+TOK_SHOW_CONTINUOUS_QUERIES;
+TOK_INTO;
 TOK_MERGE;
 TOK_QUIT;
 TOK_PRIVILEGES;
@@ -72,11 +77,14 @@ TOK_DELETE;
 TOK_INDEX_KV;
 TOK_FUNC;
 TOK_SELECT_INDEX;
+TOK_SELECT_LAST;
 TOK_LIST;
 TOK_ALL;
 TOK_SLIMIT;
 TOK_SOFFSET;
 TOK_LIMIT;
+TOK_OFFSET;
+TOK_ORDERBY_TIME;
 
 /*
   BELOW IS THE METADATA TOKEN
@@ -131,6 +139,7 @@ ArrayList<ParseError> errors = new ArrayList<ParseError>();
         xlateMap.put("KW_LIKE", "LIKE");
 
         xlateMap.put("KW_BY", "BY");
+        xlateMap.put("KW_ORDER", "ORDER");
         xlateMap.put("KW_GROUP", "GROUP");
         xlateMap.put("KW_FILL", "FILL");
         xlateMap.put("KW_LINEAR", "LINEAR");
@@ -150,6 +159,9 @@ ArrayList<ParseError> errors = new ArrayList<ParseError>();
         xlateMap.put("KW_ROOT", "ROOT");
 
         xlateMap.put("KW_SHOW", "SHOW");
+        xlateMap.put("KW_QUERIES", "QUERIES");
+        xlateMap.put("KW_QUERY", "QUERY");
+        xlateMap.put("KW_CONTINUOUS", "CONTINUOUS");
 
         xlateMap.put("KW_CLUSTER", "CLUSTER");
 
@@ -338,6 +350,8 @@ execStatement
     | indexStatement
     | quitStatement
     | listStatement
+    | showQueriesStatement
+    | continuousQueryStatement
     ;
 
 
@@ -470,12 +484,45 @@ quitStatement
     -> ^(TOK_QUIT)
     ;
 
+showQueriesStatement
+    :
+    KW_SHOW KW_QUERIES
+    -> ^(TOK_SHOW_QUERIES)
+    ;
+
+continuousQueryStatement
+    : createContinuousQuery
+    | dropContinuousQuery
+    | showContinuousQueries
+    ;
+
+createContinuousQuery
+    :
+    KW_CREATE KW_CONTINUOUS KW_QUERY name=Identifier
+    KW_SELECT clusteredPath (COMMA clusteredPath)* KW_INTO prefixPath fromClause
+    KW_GROUP KW_BY LPAREN value=integer unit=Identifier (COMMA timeOrigin=dateFormatWithNumber)? RPAREN
+    -> ^(TOK_CREATE_CONTINUOUS_QUERY $name ^(TOK_SELECT clusteredPath+) ^(TOK_INTO prefixPath) fromClause ^(TOK_GROUPBY ^(TOK_TIMEUNIT $value $unit) ^(TOK_TIMEORIGIN $timeOrigin)?))
+    ;
+
+dropContinuousQuery
+    :
+    KW_DROP KW_CONTINUOUS KW_QUERY name=Identifier
+    -> ^(TOK_DROP_CONTINUOUS_QUERY $name)
+    ;
+
+showContinuousQueries
+    :
+    KW_SHOW KW_CONTINUOUS KW_QUERIES
+    -> ^(TOK_SHOW_CONTINUOUS_QUERIES)
+    ;
+
 queryStatement
    :
    selectClause
    whereClause?
+   orderByTimeClause?
    specialClause?
-   -> ^(TOK_QUERY selectClause whereClause? specialClause?)
+   -> ^(TOK_QUERY selectClause whereClause? orderByTimeClause? specialClause?)
    ;
 
 specialClause
@@ -706,6 +753,8 @@ identifier
 selectClause
     : KW_SELECT KW_INDEX func=Identifier LPAREN p1=timeseries COMMA p2=timeseries COMMA n1=dateFormatWithNumber COMMA n2=dateFormatWithNumber COMMA epsilon=Float (COMMA alpha=Float COMMA beta=Float)? RPAREN (fromClause)?
     -> ^(TOK_SELECT_INDEX $func $p1 $p2 $n1 $n2 $epsilon ($alpha $beta)?) fromClause?
+    | (KW_SELECT Identifier suffixPath)=> KW_SELECT func=Identifier suffixPath (COMMA suffixPath)* fromClause
+    -> ^(TOK_SELECT_LAST $func suffixPath+) fromClause
     | KW_SELECT clusteredPath (COMMA clusteredPath)* fromClause
     -> ^(TOK_SELECT clusteredPath+) fromClause
     ;
@@ -740,15 +789,22 @@ fillClause
     -> ^(TOK_FILL typeClause+)
     ;
 
+orderByTimeClause
+    :
+    KW_ORDER KW_BY KW_TIME (order=Identifier)?
+    -> ^(TOK_ORDERBY_TIME $order?)
+    ;
+
 limitClause
     :
     KW_LIMIT N=NonNegativeInteger offsetClause?
-    -> ^(TOK_LIMIT $N)
+    -> ^(TOK_LIMIT $N) offsetClause?
     ;
 
 offsetClause
     :
     KW_OFFSET OFFSETValue=NonNegativeInteger
+    -> ^(TOK_OFFSET $OFFSETValue)
     ;
 
 slimitClause
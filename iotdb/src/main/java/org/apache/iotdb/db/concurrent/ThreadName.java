@@ -33,13 +33,16 @@ public enum ThreadName {
   STAT_MONITOR("StatMonitor-ServerServiceImpl"),
   FLUSH_SERVICE("Flush-ServerServiceImpl"),
   FLUSH_SUB_TASK_SERVICE("Flush-SubTask-ServerServiceImpl"),
+  QUERY_IO_SERVICE("Query-IO-ServerServiceImpl"),
+  QUERY_SERVICE("Query-ServerServiceImpl"),
   WAL_DAEMON("IoTDB-MultiFileLogNodeManager-Sync-Thread"),
   WAL_FORCE_DAEMON("IoTDB-MultiFileLogNodeManager-Force-Thread"),
   INDEX_SERVICE("Index-ServerServiceImpl"),
   SYNC_CLIENT("Sync-Client"),
   SYNC_SERVER("Sync-Server"),
   SYNC_MONITOR("Sync-Monitor"),
-  TIME_COST_STATSTIC("TIME_COST_STATSTIC");
+  TIME_COST_STATSTIC("TIME_COST_STATSTIC"),
+  CONTINUOUS_QUERY_SERVICE("ContinuousQuery-ServerServiceImpl");
 
   private String name;
 
@@ -22,7 +22,9 @@ import java.io.File;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.iotdb.db.metadata.MManager;
 import org.apache.iotdb.db.service.TSServiceImpl;
 import org.slf4j.Logger;
@@ -219,6 +221,104 @@ public class IoTDBConfig {
    */
   private boolean chunkBufferPoolEnable = false;
 
+  /**
+   * When reading a sequence TsFile, chunks of a series whose headers lie within this many bytes
+   * are fetched by one read. When <= 0, every chunk is read separately and synchronously.
+   */
+  private long coalescedChunkReadSize = 4 * 1024 * 1024L;
+
+  /**
+   * How many threads can concurrently read chunks ahead of queries. When <= 0, use CPU core
+   * number.
+   */
+  private int concurrentQueryIOThread = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * How many groups of chunks of a sequence TsFile, and how many following sequence TsFiles'
+   * metadata, a series reader reads ahead of consumption. When <= 0, nothing is read ahead.
+   */
+  private int queryPrefetchDepth = 2;
+
+  /**
+   * How many threads can concurrently read series for queries. When <= 0, use CPU core number.
+   */
+  private int concurrentQueryThread = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * How many batches of a series a raw data query reads ahead of consumption.
+   */
+  private int rawQueryBlockingQueueCapacity = 5;
+
+  /**
+   * How many series an aggregation query aggregates concurrently in the query thread pool, so that
+   * an aggregation over many series does not occupy all the threads. When <= 0, use half of
+   * <code>concurrentQueryThread</code>.
+   */
+  private int concurrentAggregationSeriesPerQuery = Math
+      .max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+  /**
+   * Memory budget of the chunk cache shared by all queries, in byte. When <= 0, chunks are not
+   * cached.
+   */
+  private long chunkCacheSizeInByte = allocateMemoryForRead / 3;
+
+  /**
+   * Memory budget of the TsFileMetaData cache, in byte. When <= 0, the metadata is not cached.
+   */
+  private long tsFileMetaDataCacheSizeInByte = allocateMemoryForRead / 20;
+
+  /**
+   * Memory budget of the device metadata cache, in byte. When <= 0, the metadata is not cached.
+   */
+  private long deviceMetaDataCacheSizeInByte = allocateMemoryForRead / 10;
+
+  /**
+   * Memory budget of the cache of query results, in byte. When <= 0, the results are not cached.
+   */
+  private long queryResultCacheSizeInByte = 0;
+
+  /**
+   * Memory shared by the buffers of all queries, in byte. When <= 0, the memory of queries is
+   * tracked but not limited.
+   */
+  private long queryMemoryPoolSizeInByte = allocateMemoryForRead / 2;
+
+  /**
+   * Max memory of the buffers of a query, in byte. When <= 0, a query is limited only by the query
+   * memory pool.
+   */
+  private long maxQueryMemoryInByte = 0;
+
+  /**
+   * Max memory of the buffers of a query of the given users, in byte, which overrides
+   * maxQueryMemoryInByte.
+   */
+  private Map<String, Long> userMaxQueryMemoryInByte = new HashMap<>();
+
+  /**
+   * How long a query waits for the other queries to release memory when the query memory pool is
+   * exhausted, after which the query fails.
+   */
+  private long queryMemoryWaitTimeInMs = 10000;
+
+  /**
+   * Max running time of a query in ms, after which the query is killed. A query may ask for a
+   * shorter limit. 0 means no limit.
+   */
+  private long queryTimeoutThresholdInMs = 0;
+
+  /**
+   * Whether to cache the latest point of each queried series for LAST queries.
+   */
+  private boolean enableLastCache = true;
+
+  /**
+   * How often the continuous queries roll up the data flushed since their last execution, in ms.
+   * When <= 0, they are executed right after each flush.
+   */
+  private long continuousQueryExecutionIntervalInMs = 0;
+
   public IoTDBConfig() {
     // empty constructor
   }
@@ -375,7 +475,7 @@ public class IoTDBConfig {
     return fetchSize;
   }
 
-  void setFetchSize(int fetchSize) {
+  public void setFetchSize(int fetchSize) {
     this.fetchSize = fetchSize;
   }
 
@@ -590,4 +690,140 @@ public class IoTDBConfig {
   public void setMemtableSizeThreshold(long memtableSizeThreshold) {
     this.memtableSizeThreshold = memtableSizeThreshold;
   }
+
+  public long getChunkCacheSizeInByte() {
+    return chunkCacheSizeInByte;
+  }
+
+  public void setChunkCacheSizeInByte(long chunkCacheSizeInByte) {
+    this.chunkCacheSizeInByte = chunkCacheSizeInByte;
+  }
+
+  public long getTsFileMetaDataCacheSizeInByte() {
+    return tsFileMetaDataCacheSizeInByte;
+  }
+
+  public void setTsFileMetaDataCacheSizeInByte(long tsFileMetaDataCacheSizeInByte) {
+    this.tsFileMetaDataCacheSizeInByte = tsFileMetaDataCacheSizeInByte;
+  }
+
+  public long getDeviceMetaDataCacheSizeInByte() {
+    return deviceMetaDataCacheSizeInByte;
+  }
+
+  public void setDeviceMetaDataCacheSizeInByte(long deviceMetaDataCacheSizeInByte) {
+    this.deviceMetaDataCacheSizeInByte = deviceMetaDataCacheSizeInByte;
+  }
+
+  public long getQueryResultCacheSizeInByte() {
+    return queryResultCacheSizeInByte;
+  }
+
+  public void setQueryResultCacheSizeInByte(long queryResultCacheSizeInByte) {
+    this.queryResultCacheSizeInByte = queryResultCacheSizeInByte;
+  }
+
+  public long getQueryMemoryPoolSizeInByte() {
+    return queryMemoryPoolSizeInByte;
+  }
+
+  void setQueryMemoryPoolSizeInByte(long queryMemoryPoolSizeInByte) {
+    this.queryMemoryPoolSizeInByte = queryMemoryPoolSizeInByte;
+  }
+
+  public long getMaxQueryMemoryInByte() {
+    return maxQueryMemoryInByte;
+  }
+
+  void setMaxQueryMemoryInByte(long maxQueryMemoryInByte) {
+    this.maxQueryMemoryInByte = maxQueryMemoryInByte;
+  }
+
+  public Map<String, Long> getUserMaxQueryMemoryInByte() {
+    return userMaxQueryMemoryInByte;
+  }
+
+  void setUserMaxQueryMemoryInByte(Map<String, Long> userMaxQueryMemoryInByte) {
+    this.userMaxQueryMemoryInByte = userMaxQueryMemoryInByte;
+  }
+
+  public long getQueryMemoryWaitTimeInMs() {
+    return queryMemoryWaitTimeInMs;
+  }
+
+  void setQueryMemoryWaitTimeInMs(long queryMemoryWaitTimeInMs) {
+    this.queryMemoryWaitTimeInMs = queryMemoryWaitTimeInMs;
+  }
+
+  public long getQueryTimeoutThresholdInMs() {
+    return queryTimeoutThresholdInMs;
+  }
+
+  void setQueryTimeoutThresholdInMs(long queryTimeoutThresholdInMs) {
+    this.queryTimeoutThresholdInMs = queryTimeoutThresholdInMs;
+  }
+
+  public boolean isEnableLastCache() {
+    return enableLastCache;
+  }
+
+  void setEnableLastCache(boolean enableLastCache) {
+    this.enableLastCache = enableLastCache;
+  }
+
+  public long getContinuousQueryExecutionIntervalInMs() {
+    return continuousQueryExecutionIntervalInMs;
+  }
+
+  void setContinuousQueryExecutionIntervalInMs(long continuousQueryExecutionIntervalInMs) {
+    this.continuousQueryExecutionIntervalInMs = continuousQueryExecutionIntervalInMs;
+  }
+
+  public long getCoalescedChunkReadSize() {
+    return coalescedChunkReadSize;
+  }
+
+  public void setCoalescedChunkReadSize(long coalescedChunkReadSize) {
+    this.coalescedChunkReadSize = coalescedChunkReadSize;
+  }
+
+  public int getConcurrentQueryIOThread() {
+    return concurrentQueryIOThread;
+  }
+
+  void setConcurrentQueryIOThread(int concurrentQueryIOThread) {
+    this.concurrentQueryIOThread = concurrentQueryIOThread;
+  }
+
+  public int getQueryPrefetchDepth() {
+    return queryPrefetchDepth;
+  }
+
+  void setQueryPrefetchDepth(int queryPrefetchDepth) {
+    this.queryPrefetchDepth = queryPrefetchDepth;
+  }
+
+  public int getConcurrentAggregationSeriesPerQuery() {
+    return concurrentAggregationSeriesPerQuery;
+  }
+
+  public void setConcurrentAggregationSeriesPerQuery(int concurrentAggregationSeriesPerQuery) {
+    this.concurrentAggregationSeriesPerQuery = concurrentAggregationSeriesPerQuery;
+  }
+
+  public int getConcurrentQueryThread() {
+    return concurrentQueryThread;
+  }
+
+  void setConcurrentQueryThread(int concurrentQueryThread) {
+    this.concurrentQueryThread = concurrentQueryThread;
+  }
+
+  public int getRawQueryBlockingQueueCapacity() {
+    return rawQueryBlockingQueueCapacity;
+  }
+
+  void setRawQueryBlockingQueueCapacity(int rawQueryBlockingQueueCapacity) {
+    this.rawQueryBlockingQueueCapacity = rawQueryBlockingQueueCapacity;
+  }
 }
@@ -61,4 +61,22 @@ public class IoTDBConstant {
   public static final String USER = "User";
   public static final String PRIVILEGE = "Privilege";
 
+  // columns of SHOW QUERIES
+  public static final String JOB_ID = "JobId";
+  public static final String STATEMENT = "Statement";
+  public static final String USED_MEMORY = "UsedMemory";
+  public static final String PEAK_MEMORY = "PeakMemory";
+  public static final String MEMORY_LIMIT = "MemoryLimit";
+
+  // columns of SHOW CONTINUOUS QUERIES
+  public static final String CONTINUOUS_QUERY_NAME = "Name";
+  public static final String CONTINUOUS_QUERY_SELECT = "Query";
+  public static final String CONTINUOUS_QUERY_TARGET = "Target";
+  public static final String CONTINUOUS_QUERY_INTERVAL = "Interval";
+  public static final String CONTINUOUS_QUERY_ORIGIN = "Origin";
+
+  // columns of LAST queries
+  public static final String TIMESERIES = "Timeseries";
+  public static final String VALUE = "Value";
+
 }
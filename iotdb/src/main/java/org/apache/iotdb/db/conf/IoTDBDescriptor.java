@@ -24,6 +24,8 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 import org.apache.iotdb.db.utils.FilePathUtils;
 import org.slf4j.Logger;
@@ -204,6 +206,85 @@ public class IoTDBDescriptor {
         conf.setConcurrentFlushThread(Runtime.getRuntime().availableProcessors());
       }
 
+      conf.setCoalescedChunkReadSize(Long
+          .parseLong(properties.getProperty("coalesced_chunk_read_size",
+              Long.toString(conf.getCoalescedChunkReadSize())).trim()));
+
+      conf.setConcurrentQueryIOThread(Integer
+          .parseInt(properties.getProperty("concurrent_query_io_thread",
+              Integer.toString(conf.getConcurrentQueryIOThread())).trim()));
+
+      if (conf.getConcurrentQueryIOThread() <= 0) {
+        conf.setConcurrentQueryIOThread(Runtime.getRuntime().availableProcessors());
+      }
+
+      conf.setQueryPrefetchDepth(Integer
+          .parseInt(properties.getProperty("query_prefetch_depth",
+              Integer.toString(conf.getQueryPrefetchDepth())).trim()));
+
+      conf.setConcurrentQueryThread(Integer
+          .parseInt(properties.getProperty("concurrent_query_thread",
+              Integer.toString(conf.getConcurrentQueryThread())).trim()));
+
+      if (conf.getConcurrentQueryThread() <= 0) {
+        conf.setConcurrentQueryThread(Runtime.getRuntime().availableProcessors());
+      }
+
+      conf.setConcurrentAggregationSeriesPerQuery(Integer
+          .parseInt(properties.getProperty("concurrent_aggregation_series_per_query",
+              Integer.toString(conf.getConcurrentAggregationSeriesPerQuery())).trim()));
+
+      if (conf.getConcurrentAggregationSeriesPerQuery() <= 0) {
+        conf.setConcurrentAggregationSeriesPerQuery(
+            Math.max(1, conf.getConcurrentQueryThread() / 2));
+      }
+
+      conf.setRawQueryBlockingQueueCapacity(Integer
+          .parseInt(properties.getProperty("raw_query_blocking_queue_capacity",
+              Integer.toString(conf.getRawQueryBlockingQueueCapacity())).trim()));
+
+      conf.setChunkCacheSizeInByte(Long
+          .parseLong(properties.getProperty("chunk_cache_size_in_byte",
+              Long.toString(conf.getAllocateMemoryForRead() / 3)).trim()));
+
+      conf.setTsFileMetaDataCacheSizeInByte(Long
+          .parseLong(properties.getProperty("tsfile_metadata_cache_size_in_byte",
+              Long.toString(conf.getAllocateMemoryForRead() / 20)).trim()));
+
+      conf.setDeviceMetaDataCacheSizeInByte(Long
+          .parseLong(properties.getProperty("device_metadata_cache_size_in_byte",
+              Long.toString(conf.getAllocateMemoryForRead() / 10)).trim()));
+
+      conf.setQueryResultCacheSizeInByte(Long
+          .parseLong(properties.getProperty("query_result_cache_size_in_byte",
+              Long.toString(conf.getQueryResultCacheSizeInByte())).trim()));
+
+      conf.setQueryMemoryPoolSizeInByte(Long
+          .parseLong(properties.getProperty("query_memory_pool_size_in_byte",
+              Long.toString(conf.getAllocateMemoryForRead() / 2)).trim()));
+
+      conf.setMaxQueryMemoryInByte(Long
+          .parseLong(properties.getProperty("max_query_memory_in_byte",
+              Long.toString(conf.getMaxQueryMemoryInByte())).trim()));
+
+      conf.setUserMaxQueryMemoryInByte(parseUserMaxQueryMemory(
+          properties.getProperty("user_max_query_memory_in_byte", "")));
+
+      conf.setQueryMemoryWaitTimeInMs(Long
+          .parseLong(properties.getProperty("query_memory_wait_time_in_ms",
+              Long.toString(conf.getQueryMemoryWaitTimeInMs())).trim()));
+
+      conf.setQueryTimeoutThresholdInMs(Long
+          .parseLong(properties.getProperty("query_timeout_threshold_in_ms",
+              Long.toString(conf.getQueryTimeoutThresholdInMs())).trim()));
+
+      conf.setEnableLastCache(Boolean.parseBoolean(properties.getProperty("enable_last_cache",
+          Boolean.toString(conf.isEnableLastCache())).trim()));
+
+      conf.setContinuousQueryExecutionIntervalInMs(Long.parseLong(properties
+          .getProperty("continuous_query_execution_interval_in_ms",
+              Long.toString(conf.getContinuousQueryExecutionIntervalInMs())).trim()));
+
       conf.setmManagerCacheSize(Integer
           .parseInt(properties.getProperty("schema_manager_cache_size",
               Integer.toString(conf.getmManagerCacheSize())).trim()));
@@ -244,6 +325,21 @@ public class IoTDBDescriptor {
     }
   }
 
+  /**
+   * parse the max query memory of users, e.g., "user1:1073741824,user2:2147483648".
+   */
+  private Map<String, Long> parseUserMaxQueryMemory(String userMaxQueryMemory) {
+    Map<String, Long> userMaxQueryMemoryMap = new HashMap<>();
+    for (String userMemory : userMaxQueryMemory.split(",")) {
+      if (userMemory.trim().isEmpty()) {
+        continue;
+      }
+      String[] userAndMemory = userMemory.split(":");
+      userMaxQueryMemoryMap.put(userAndMemory[0].trim(), Long.parseLong(userAndMemory[1].trim()));
+    }
+    return userMaxQueryMemoryMap;
+  }
+
   private void initMemoryAllocate(Properties properties) {
     String memoryAllocateProportion = properties.getProperty("write_read_free_memory_proportion");
     if (memoryAllocateProportion != null) {
@@ -0,0 +1,321 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.cq;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.Pair;
+
+/**
+ * A continuous query rolls up its source series by a GROUP BY query with a fixed interval and
+ * writes the results into the series under its target path. The result of aggregation
+ * <code>func</code> over <code>root.a.b.c</code> goes to <code>target.a.b.c.func</code>.
+ * <p>
+ * It remembers the intervals into which the source data flushed since its last execution falls,
+ * and only those intervals are computed again, so that a late point does not cause the history
+ * between it and the latest data to be computed again. When source data is deleted, the results
+ * computed from it are deleted from the target series before the intervals are computed again.
+ */
+public class ContinuousQuery {
+
+  private static final String SEPARATOR = "\t";
+  private static final String RANGE_SEPARATOR = ";";
+  private static final String BOUND_SEPARATOR = ",";
+
+  private final String name;
+  /**
+   * the source series, which may contain wildcards.
+   */
+  private final List<Path> paths;
+  private final List<String> aggregations;
+  private final Path targetPath;
+  private final long unit;
+  private final long origin;
+
+  private final List<String[]> pathNodes = new ArrayList<>();
+
+  /**
+   * start time -> end time (exclusive) of the intervals changed since the last execution. The
+   * ranges are aligned to the intervals of the query, and overlapping or adjacent ones are merged.
+   */
+  private final TreeMap<Long, Long> dirtyRanges = new TreeMap<>();
+
+  /**
+   * target series -> the time up to which (inclusive) its points are to be deleted before the
+   * next execution, as the source data they are computed from is deleted.
+   */
+  private final TreeMap<String, Long> targetDeletions = new TreeMap<>();
+
+  public ContinuousQuery(String name, List<Path> paths, List<String> aggregations,
+      Path targetPath, long unit, long origin) {
+    this.name = name;
+    this.paths = paths;
+    this.aggregations = aggregations;
+    this.targetPath = targetPath;
+    this.unit = unit;
+    this.origin = origin;
+    for (Path path : paths) {
+      pathNodes.add(splitPath(path.getFullPath()));
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public List<Path> getPaths() {
+    return paths;
+  }
+
+  public List<String> getAggregations() {
+    return aggregations;
+  }
+
+  public Path getTargetPath() {
+    return targetPath;
+  }
+
+  public long getUnit() {
+    return unit;
+  }
+
+  public long getOrigin() {
+    return origin;
+  }
+
+  /**
+   * whether the series is one of the source series.
+   */
+  public boolean matches(String seriesPath) {
+    String[] nodes = splitPath(seriesPath);
+    for (String[] patternNodes : pathNodes) {
+      if (matches(patternNodes, nodes)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean matches(String[] patternNodes, String[] nodes) {
+    if (patternNodes.length != nodes.length) {
+      return false;
+    }
+    for (int i = 0; i < nodes.length; i++) {
+      if (!"*".equals(patternNodes[i]) && !patternNodes[i].equals(nodes[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String[] splitPath(String path) {
+    return path.split("\\" + IoTDBConstant.PATH_SEPARATOR);
+  }
+
+  /**
+   * the series that holds the result of the aggregation over the source series.
+   */
+  public Path getTargetSeries(Path sourceSeries, String aggregation) {
+    String relativePath = sourceSeries.getFullPath().substring(IoTDBConstant.PATH_ROOT.length());
+    return new Path(targetPath.getFullPath() + relativePath + IoTDBConstant.PATH_SEPARATOR
+        + aggregation);
+  }
+
+  /**
+   * the start time of the interval that contains the time.
+   */
+  public long getIntervalStartTime(long time) {
+    return origin + Math.floorDiv(time - origin, unit) * unit;
+  }
+
+  /**
+   * record that the source data between startTime and endTime (both inclusive) is changed, so the
+   * intervals that contain them are computed again.
+   */
+  public synchronized void markDirty(long startTime, long endTime) {
+    addDirtyRange(getIntervalStartTime(startTime), getIntervalStartTime(endTime) + unit);
+  }
+
+  /**
+   * add [start, end) into the dirty ranges, merging it with the ranges it overlaps or touches.
+   */
+  private void addDirtyRange(long start, long end) {
+    Entry<Long, Long> floor = dirtyRanges.floorEntry(start);
+    if (floor != null && floor.getValue() >= start) {
+      start = floor.getKey();
+      end = Math.max(end, floor.getValue());
+    }
+    Iterator<Entry<Long, Long>> iterator = dirtyRanges.tailMap(start, true).entrySet()
+        .iterator();
+    while (iterator.hasNext()) {
+      Entry<Long, Long> entry = iterator.next();
+      if (entry.getKey() > end) {
+        break;
+      }
+      end = Math.max(end, entry.getValue());
+      iterator.remove();
+    }
+    dirtyRanges.put(start, end);
+  }
+
+  /**
+   * get and clear the changed intervals.
+   *
+   * @return the ranges of the intervals in ascending order, start inclusive and end exclusive,
+   * empty if no data is changed
+   */
+  public synchronized List<Pair<Long, Long>> takeDirtyRanges() {
+    List<Pair<Long, Long>> ranges = new ArrayList<>(dirtyRanges.size());
+    for (Entry<Long, Long> entry : dirtyRanges.entrySet()) {
+      ranges.add(new Pair<>(entry.getKey(), entry.getValue()));
+    }
+    dirtyRanges.clear();
+    return ranges;
+  }
+
+  /**
+   * add back the ranges taken by {@link #takeDirtyRanges()}, e.g., when they fail to be computed.
+   */
+  public synchronized void restoreDirtyRanges(List<Pair<Long, Long>> ranges) {
+    for (Pair<Long, Long> range : ranges) {
+      addDirtyRange(range.left, range.right);
+    }
+  }
+
+  /**
+   * record that the data of a source series whose timestamp <= the given one is deleted. The
+   * results of the series up to the time are to be deleted, and the interval that contains the time
+   * is computed again from the data left in it.
+   *
+   * @return whether the series is one of the source series
+   */
+  public synchronized boolean markDeleted(String seriesPath, long timestamp) {
+    String[] nodes = splitPath(seriesPath);
+    boolean matched = false;
+    for (int i = 0; i < pathNodes.size(); i++) {
+      if (matches(pathNodes.get(i), nodes)) {
+        targetDeletions.merge(getTargetSeries(new Path(seriesPath), aggregations.get(i))
+            .getFullPath(), timestamp, Math::max);
+        matched = true;
+      }
+    }
+    if (matched) {
+      markDirty(timestamp, timestamp);
+    }
+    return matched;
+  }
+
+  /**
+   * get and clear the target series whose results are to be deleted.
+   *
+   * @return target series -> the time up to which its points are deleted
+   */
+  public synchronized Map<String, Long> takeTargetDeletions() {
+    Map<String, Long> deletions = new HashMap<>(targetDeletions);
+    targetDeletions.clear();
+    return deletions;
+  }
+
+  /**
+   * add back the deletions taken by {@link #takeTargetDeletions()}, e.g., when they fail.
+   */
+  public synchronized void restoreTargetDeletions(Map<String, Long> deletions) {
+    for (Entry<String, Long> entry : deletions.entrySet()) {
+      targetDeletions.merge(entry.getKey(), entry.getValue(), Math::max);
+    }
+  }
+
+  /**
+   * @return e.g., "avg(root.sg.d1.s1), max_value(root.sg.d1.s1)"
+   */
+  public String getSelectString() {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < paths.size(); i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append(aggregations.get(i)).append('(').append(paths.get(i).getFullPath())
+          .append(')');
+    }
+    return builder.toString();
+  }
+
+  /**
+   * serialize the definition, the changed intervals and the pending deletions into one line.
+   */
+  public synchronized String serialize() {
+    StringBuilder builder = new StringBuilder();
+    builder.append(name).append(SEPARATOR).append(targetPath.getFullPath()).append(SEPARATOR)
+        .append(unit).append(SEPARATOR).append(origin).append(SEPARATOR);
+    boolean first = true;
+    for (Entry<Long, Long> entry : dirtyRanges.entrySet()) {
+      if (!first) {
+        builder.append(RANGE_SEPARATOR);
+      }
+      builder.append(entry.getKey()).append(BOUND_SEPARATOR).append(entry.getValue());
+      first = false;
+    }
+    builder.append(SEPARATOR);
+    first = true;
+    for (Entry<String, Long> entry : targetDeletions.entrySet()) {
+      if (!first) {
+        builder.append(RANGE_SEPARATOR);
+      }
+      builder.append(entry.getKey()).append(BOUND_SEPARATOR).append(entry.getValue());
+      first = false;
+    }
+    for (int i = 0; i < paths.size(); i++) {
+      builder.append(SEPARATOR).append(aggregations.get(i)).append(SEPARATOR)
+          .append(paths.get(i).getFullPath());
+    }
+    return builder.toString();
+  }
+
+  public static ContinuousQuery deserialize(String line) {
+    String[] items = line.split(SEPARATOR);
+    List<Path> paths = new ArrayList<>();
+    List<String> aggregations = new ArrayList<>();
+    for (int i = 6; i + 1 < items.length; i += 2) {
+      aggregations.add(items[i]);
+      paths.add(new Path(items[i + 1]));
+    }
+    ContinuousQuery continuousQuery = new ContinuousQuery(items[0], paths, aggregations,
+        new Path(items[1]), Long.parseLong(items[2]), Long.parseLong(items[3]));
+    if (!items[4].isEmpty()) {
+      for (String range : items[4].split(RANGE_SEPARATOR)) {
+        String[] bounds = range.split(BOUND_SEPARATOR);
+        continuousQuery.dirtyRanges.put(Long.parseLong(bounds[0]), Long.parseLong(bounds[1]));
+      }
+    }
+    if (!items[5].isEmpty()) {
+      for (String deletion : items[5].split(RANGE_SEPARATOR)) {
+        String[] fields = deletion.split(BOUND_SEPARATOR);
+        continuousQuery.targetDeletions.put(fields[0], Long.parseLong(fields[1]));
+      }
+    }
+    return continuousQuery;
+  }
+}
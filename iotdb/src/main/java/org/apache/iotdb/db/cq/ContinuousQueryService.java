@@ -0,0 +1,570 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.cq;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.engine.memtable.IMemTable;
+import org.apache.iotdb.db.engine.memtable.IWritableMemChunk;
+import org.apache.iotdb.db.exception.MetadataErrorException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.db.exception.StartupException;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.metadata.MManager;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.qp.physical.sys.CreateContinuousQueryPlan;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.QueryResourceManager;
+import org.apache.iotdb.db.query.executor.EngineQueryRouter;
+import org.apache.iotdb.db.query.factory.AggreFuncFactory;
+import org.apache.iotdb.db.service.IService;
+import org.apache.iotdb.db.service.ServiceType;
+import org.apache.iotdb.db.utils.datastructure.TVList;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This service keeps the rollups registered by CREATE CONTINUOUS QUERY up to date. When a memtable
+ * is flushed, the intervals into which its data in the source series of each continuous query falls
+ * are recorded, and those intervals are computed again by a GROUP BY query and
+ * written into the target series, either right after the flush or every
+ * <code>continuous_query_execution_interval_in_ms</code>. Late data is handled in the same way, as
+ * the intervals it falls into are computed again and overwritten. When source data is deleted, the
+ * results computed from it are deleted as well before the interval of the deletion is computed
+ * again.
+ * <p>
+ * The continuous queries and their pending intervals are persisted in
+ * <code>system/continuous_queries</code>.
+ */
+public class ContinuousQueryService implements IService {
+
+  private static final Logger logger = LoggerFactory.getLogger(ContinuousQueryService.class);
+  private static final String LOG_FILE_NAME = "continuous_queries";
+
+  private static final ContinuousQueryService INSTANCE = new ContinuousQueryService();
+
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private final Map<String, ContinuousQuery> continuousQueries = new ConcurrentHashMap<>();
+  private volatile ScheduledExecutorService executor;
+  private File logFile;
+
+  private ContinuousQueryService() {
+  }
+
+  public static ContinuousQueryService getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * register a continuous query. The source data already in the database is rolled up at once.
+   */
+  public void register(CreateContinuousQueryPlan plan) throws ProcessorException {
+    if (continuousQueries.containsKey(plan.getName())) {
+      throw new ProcessorException(
+          String.format("Continuous query %s already exists", plan.getName()));
+    }
+    ContinuousQuery continuousQuery = new ContinuousQuery(plan.getName(), plan.getPaths(),
+        plan.getAggregations(), plan.getTargetPath(), plan.getUnit(), plan.getOrigin());
+
+    String targetStorageGroup;
+    try {
+      targetStorageGroup = MManager.getInstance()
+          .getStorageGroupNameByPath(plan.getTargetPath().getFullPath());
+    } catch (PathErrorException e) {
+      throw new ProcessorException(String.format(
+          "The storage group of %s should be set before creating a continuous query into it",
+          plan.getTargetPath()), e);
+    }
+    List<Pair<Path, String>> sources = getSourceSeries(continuousQuery);
+    for (Pair<Path, String> source : sources) {
+      try {
+        if (MManager.getInstance().getStorageGroupNameByPath(source.left.getFullPath())
+            .equals(targetStorageGroup)) {
+          throw new ProcessorException(String.format(
+              "The target of a continuous query should be in another storage group than %s",
+              source.left));
+        }
+        AggreFuncFactory.getAggrFuncByName(source.right,
+            MManager.getInstance().getSeriesType(source.left.getFullPath()));
+      } catch (PathErrorException e) {
+        throw new ProcessorException(e);
+      }
+    }
+
+    Pair<Long, Long> dataRange = getDataTimeRange(sources);
+    if (dataRange != null) {
+      continuousQuery.markDirty(dataRange.left, dataRange.right);
+    }
+    synchronized (this) {
+      if (continuousQueries.putIfAbsent(plan.getName(), continuousQuery) != null) {
+        throw new ProcessorException(
+            String.format("Continuous query %s already exists", plan.getName()));
+      }
+      writeLog();
+    }
+    if (dataRange != null && executor != null) {
+      executor.execute(this::executeAll);
+    }
+  }
+
+  public void deregister(String name) throws ProcessorException {
+    synchronized (this) {
+      if (continuousQueries.remove(name) == null) {
+        throw new ProcessorException(String.format("Continuous query %s does not exist", name));
+      }
+      writeLog();
+    }
+  }
+
+  public List<ContinuousQuery> getContinuousQueries() {
+    List<ContinuousQuery> ret = new ArrayList<>(continuousQueries.values());
+    ret.sort((a, b) -> a.getName().compareTo(b.getName()));
+    return ret;
+  }
+
+  /**
+   * record the intervals of the data of a flushed memtable for the continuous queries over it.
+   * Called by the flush thread before the memtable is released, so it only scans the memtable.
+   */
+  public void onMemTableFlushed(IMemTable memTable) {
+    if (continuousQueries.isEmpty()) {
+      return;
+    }
+    boolean changed = false;
+    for (ContinuousQuery continuousQuery : continuousQueries.values()) {
+      for (Entry<String, Map<String, IWritableMemChunk>> deviceEntry : memTable.getMemTableMap()
+          .entrySet()) {
+        for (Entry<String, IWritableMemChunk> chunkEntry : deviceEntry.getValue().entrySet()) {
+          // the list has been sorted by the flush, so it is not sorted again
+          TVList tvList = chunkEntry.getValue().getSortedTVList();
+          if (tvList == null || tvList.size() == 0 || !continuousQuery.matches(
+              deviceEntry.getKey() + IoTDBConstant.PATH_SEPARATOR + chunkEntry.getKey())) {
+            continue;
+          }
+          markDirty(continuousQuery, tvList);
+          changed = true;
+        }
+      }
+    }
+    if (changed) {
+      scheduleExecution();
+    }
+  }
+
+  /**
+   * record that the data of a series whose timestamp <= the given one is deleted. Called by the
+   * storage group of the series while it is locked, so the results in the target series, which
+   * belong to another storage group, are deleted later in the thread of this service.
+   */
+  public void markDeleted(String seriesPath, long timestamp) {
+    if (continuousQueries.isEmpty()) {
+      return;
+    }
+    boolean changed = false;
+    for (ContinuousQuery continuousQuery : continuousQueries.values()) {
+      changed |= continuousQuery.markDeleted(seriesPath, timestamp);
+    }
+    if (changed) {
+      scheduleExecution();
+    }
+  }
+
+  /**
+   * persist the changes of the continuous queries and execute them unless they are executed
+   * periodically.
+   */
+  private void scheduleExecution() {
+    ScheduledExecutorService currentExecutor = executor;
+    if (currentExecutor == null) {
+      return;
+    }
+    try {
+      currentExecutor.execute(() -> {
+        synchronized (this) {
+          writeLog();
+        }
+        if (config.getContinuousQueryExecutionIntervalInMs() <= 0) {
+          executeAll();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      // the service is stopping, the changed ranges are persisted by stop()
+      logger.debug("Continuous query service is stopped, rolling up is postponed");
+    }
+  }
+
+  /**
+   * mark the intervals that hold the points of a sorted list. The points in consecutive intervals
+   * are marked together, while an interval without any point separates them, so that a late point
+   * does not drag in the intervals between it and the other points.
+   */
+  private void markDirty(ContinuousQuery continuousQuery, TVList tvList) {
+    long runStartTime = tvList.getTime(0);
+    long runEndTime = runStartTime;
+    long intervalEndTime = continuousQuery.getIntervalStartTime(runStartTime)
+        + continuousQuery.getUnit();
+    for (int i = 1; i < tvList.size(); i++) {
+      long time = tvList.getTime(i);
+      if (time >= intervalEndTime) {
+        long intervalStartTime = continuousQuery.getIntervalStartTime(time);
+        if (intervalStartTime > intervalEndTime) {
+          continuousQuery.markDirty(runStartTime, runEndTime);
+          runStartTime = time;
+        }
+        intervalEndTime = intervalStartTime + continuousQuery.getUnit();
+      }
+      runEndTime = time;
+    }
+    continuousQuery.markDirty(runStartTime, runEndTime);
+  }
+
+  /**
+   * roll up the changed data of all continuous queries. Only called in the thread of this
+   * service.
+   */
+  private void executeAll() {
+    boolean executed = false;
+    for (ContinuousQuery continuousQuery : getContinuousQueries()) {
+      // a deletion always marks its interval dirty, so the ranges are not empty if it is pending
+      Map<String, Long> deletions = continuousQuery.takeTargetDeletions();
+      List<Pair<Long, Long>> ranges = continuousQuery.takeDirtyRanges();
+      if (ranges.isEmpty()) {
+        continue;
+      }
+      executed = true;
+      try {
+        deleteTargetData(deletions);
+        execute(continuousQuery, ranges);
+      } catch (Exception e) {
+        logger.error("Continuous query {} failed to roll up the data in {} ranges from {} to {}, "
+                + "retry later", continuousQuery.getName(), ranges.size(), ranges.get(0).left,
+            ranges.get(ranges.size() - 1).right, e);
+        continuousQuery.restoreTargetDeletions(deletions);
+        continuousQuery.restoreDirtyRanges(ranges);
+      }
+    }
+    if (executed) {
+      synchronized (this) {
+        writeLog();
+      }
+    }
+  }
+
+  /**
+   * delete the results whose source data is deleted. A deletion may be repeated after a failure,
+   * which does no harm.
+   *
+   * @param deletions target series -> the time up to which its points are deleted
+   */
+  private void deleteTargetData(Map<String, Long> deletions) throws StorageEngineException {
+    for (Entry<String, Long> deletion : deletions.entrySet()) {
+      Path target = new Path(deletion.getKey());
+      StorageEngine.getInstance().delete(target.getDevice(), target.getMeasurement(),
+          deletion.getValue());
+    }
+  }
+
+  /**
+   * compute the intervals in the ranges again and write the results into the target series.
+   *
+   * @param ranges aligned ranges in ascending order, start inclusive and end exclusive
+   */
+  private void execute(ContinuousQuery continuousQuery, List<Pair<Long, Long>> ranges)
+      throws ProcessorException, StorageEngineException, IOException {
+    List<Pair<Path, String>> sources = getSourceSeries(continuousQuery);
+    if (sources.isEmpty()) {
+      return;
+    }
+    List<Path> selectedSeries = new ArrayList<>();
+    List<String> aggregations = new ArrayList<>();
+    List<Path> targetSeries = new ArrayList<>();
+    List<TSDataType> targetTypes = new ArrayList<>();
+    for (Pair<Path, String> source : sources) {
+      selectedSeries.add(source.left);
+      aggregations.add(source.right);
+      Path target = continuousQuery.getTargetSeries(source.left, source.right);
+      targetSeries.add(target);
+      targetTypes.add(createTargetSeriesIfAbsent(source.left, source.right, target));
+    }
+
+    // the intervals of GROUP BY are inclusive on both ends and only take positive times
+    List<Pair<Long, Long>> intervals = new ArrayList<>(ranges.size());
+    for (Pair<Long, Long> range : ranges) {
+      if (range.right > 1) {
+        intervals.add(new Pair<>(Math.max(range.left, 1), range.right - 1));
+      }
+    }
+    if (intervals.isEmpty()) {
+      return;
+    }
+    long jobId = QueryResourceManager.getInstance().assignJobId();
+    try {
+      QueryDataSet dataSet = new EngineQueryRouter().groupBy(selectedSeries, aggregations, null,
+          continuousQuery.getUnit(), continuousQuery.getOrigin(), intervals,
+          new QueryContext(jobId));
+      while (dataSet.hasNext()) {
+        writeResults(dataSet.next(), targetSeries, targetTypes);
+      }
+    } catch (PathErrorException | ProcessorException e) {
+      throw new ProcessorException(e);
+    } catch (Exception e) {
+      throw new IOException(e);
+    } finally {
+      QueryResourceManager.getInstance().endQueryForGivenJob(jobId);
+    }
+    logger.debug("Continuous query {} rolled up the data in {} ranges from {} to {}",
+        continuousQuery.getName(), ranges.size(), ranges.get(0).left,
+        ranges.get(ranges.size() - 1).right);
+  }
+
+  /**
+   * write a row of results, the results of the same target device are inserted together.
+   */
+  private void writeResults(RowRecord record, List<Path> targetSeries,
+      List<TSDataType> targetTypes) throws StorageEngineException {
+    Map<String, List<Integer>> deviceColumns = new HashMap<>();
+    for (int i = 0; i < record.getFields().size(); i++) {
+      Field field = record.getFields().get(i);
+      if (field.getDataType() == null || field.isNull()) {
+        continue;
+      }
+      deviceColumns.computeIfAbsent(targetSeries.get(i).getDevice(), k -> new ArrayList<>())
+          .add(i);
+    }
+    for (Entry<String, List<Integer>> entry : deviceColumns.entrySet()) {
+      List<Integer> columns = entry.getValue();
+      String[] measurements = new String[columns.size()];
+      String[] values = new String[columns.size()];
+      TSDataType[] dataTypes = new TSDataType[columns.size()];
+      for (int i = 0; i < columns.size(); i++) {
+        int column = columns.get(i);
+        measurements[i] = targetSeries.get(column).getMeasurement();
+        values[i] = record.getFields().get(column).getStringValue();
+        dataTypes[i] = targetTypes.get(column);
+      }
+      InsertPlan insertPlan = new InsertPlan(entry.getKey(), record.getTimestamp(), measurements,
+          values);
+      insertPlan.setDataTypes(dataTypes);
+      StorageEngine.getInstance().insert(insertPlan);
+    }
+  }
+
+  /**
+   * @return the type of the target series
+   */
+  private TSDataType createTargetSeriesIfAbsent(Path source, String aggregation, Path target)
+      throws ProcessorException, StorageEngineException {
+    try {
+      TSDataType dataType = AggreFuncFactory.getAggrFuncByName(aggregation,
+          MManager.getInstance().getSeriesType(source.getFullPath())).getResultDataType();
+      if (!MManager.getInstance().pathExist(target.getFullPath())) {
+        TSEncoding encoding = dataType == TSDataType.TEXT ? TSEncoding.PLAIN : TSEncoding.RLE;
+        CompressionType compressor = CompressionType.valueOf(TSFileConfig.compressor);
+        if (MManager.getInstance().addPathToMTree(target, dataType, encoding, compressor,
+            Collections.emptyMap())) {
+          StorageEngine.getInstance().addTimeSeries(target, dataType, encoding, compressor,
+              Collections.emptyMap());
+        }
+      }
+      return dataType;
+    } catch (PathErrorException | MetadataErrorException e) {
+      throw new ProcessorException(e);
+    }
+  }
+
+  /**
+   * resolve the wildcards in the source series of a continuous query.
+   *
+   * @return pairs of a series and its aggregation
+   */
+  private List<Pair<Path, String>> getSourceSeries(ContinuousQuery continuousQuery) {
+    List<Pair<Path, String>> sources = new ArrayList<>();
+    for (int i = 0; i < continuousQuery.getPaths().size(); i++) {
+      List<String> paths;
+      try {
+        paths = MManager.getInstance().getPaths(continuousQuery.getPaths().get(i).getFullPath());
+      } catch (MetadataErrorException e) {
+        // the series are not created yet
+        continue;
+      }
+      for (String path : paths) {
+        sources.add(new Pair<>(new Path(path), continuousQuery.getAggregations().get(i)));
+      }
+    }
+    return sources;
+  }
+
+  /**
+   * @return the min and max time of the data of the series, or null if there is no data
+   */
+  private Pair<Long, Long> getDataTimeRange(List<Pair<Path, String>> sources)
+      throws ProcessorException {
+    if (sources.isEmpty()) {
+      return null;
+    }
+    List<Path> paths = new ArrayList<>();
+    List<String> aggregations = new ArrayList<>();
+    for (Pair<Path, String> source : sources) {
+      paths.add(source.left);
+      aggregations.add(IoTDBConstant.MIN_TIME);
+      paths.add(source.left);
+      aggregations.add(IoTDBConstant.MAX_TIME);
+    }
+    long jobId = QueryResourceManager.getInstance().assignJobId();
+    try {
+      RowRecord record = new EngineQueryRouter()
+          .aggregate(paths, aggregations, null, new QueryContext(jobId)).next();
+      long minTime = Long.MAX_VALUE;
+      long maxTime = Long.MIN_VALUE;
+      for (int i = 0; i < record.getFields().size(); i += 2) {
+        Field min = record.getFields().get(i);
+        Field max = record.getFields().get(i + 1);
+        if (min.getDataType() != null && !min.isNull()) {
+          minTime = Math.min(minTime, min.getLongV());
+          maxTime = Math.max(maxTime, max.getLongV());
+        }
+      }
+      return minTime <= maxTime ? new Pair<>(minTime, maxTime) : null;
+    } catch (Exception e) {
+      throw new ProcessorException(e);
+    } finally {
+      try {
+        QueryResourceManager.getInstance().endQueryForGivenJob(jobId);
+      } catch (StorageEngineException e) {
+        logger.error("Failed to release the resources of query {}", jobId, e);
+      }
+    }
+  }
+
+  private void writeLog() {
+    File tmpFile = new File(logFile.getPath() + ".tmp");
+    try (BufferedWriter writer = Files.newBufferedWriter(tmpFile.toPath(),
+        StandardCharsets.UTF_8)) {
+      for (ContinuousQuery continuousQuery : continuousQueries.values()) {
+        writer.write(continuousQuery.serialize());
+        writer.newLine();
+      }
+    } catch (IOException e) {
+      logger.error("Failed to write the continuous queries into {}", tmpFile, e);
+      return;
+    }
+    try {
+      Files.move(tmpFile.toPath(), logFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      logger.error("Failed to replace {} with {}", logFile, tmpFile, e);
+    }
+  }
+
+  private void readLog() throws IOException {
+    if (!logFile.exists()) {
+      return;
+    }
+    try (BufferedReader reader = Files.newBufferedReader(logFile.toPath(),
+        StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.isEmpty()) {
+          ContinuousQuery continuousQuery = ContinuousQuery.deserialize(line);
+          continuousQueries.put(continuousQuery.getName(), continuousQuery);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void start() throws StartupException {
+    File systemDir = new File(config.getSystemDir());
+    if (!systemDir.exists() && !systemDir.mkdirs()) {
+      throw new StartupException(String.format("Failed to create %s", systemDir));
+    }
+    logFile = new File(systemDir, LOG_FILE_NAME);
+    try {
+      readLog();
+    } catch (IOException e) {
+      throw new StartupException(
+          String.format("Failed to start %s because of %s", getID().getName(), e.getMessage()),
+          e);
+    }
+    executor = IoTDBThreadPoolFactory
+        .newSingleThreadScheduledExecutor(ThreadName.CONTINUOUS_QUERY_SERVICE.getName());
+    long interval = config.getContinuousQueryExecutionIntervalInMs();
+    if (interval > 0) {
+      executor.scheduleWithFixedDelay(this::executeAll, interval, interval,
+          TimeUnit.MILLISECONDS);
+    } else {
+      // the data flushed before the last shutdown
+      executor.execute(this::executeAll);
+    }
+  }
+
+  @Override
+  public void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+      try {
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      executor = null;
+    }
+    synchronized (this) {
+      if (logFile != null) {
+        writeLog();
+      }
+    }
+    continuousQueries.clear();
+  }
+
+  @Override
+  public ServiceType getID() {
+    return ServiceType.CONTINUOUS_QUERY_SERVICE;
+  }
+}
@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import java.io.IOException;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.controller.ChunkLoader;
+
+/**
+ * Load chunks through the {@link ChunkCache} shared by all queries. Chunks that are not cached
+ * are read by the given disk loader, or directly from the file if there is none.
+ */
+public class CachedChunkLoader implements ChunkLoader {
+
+  private TsFileSequenceReader reader;
+  private ChunkLoader diskLoader;
+
+  public CachedChunkLoader(TsFileSequenceReader reader) {
+    this(reader, null);
+  }
+
+  /**
+   * @param reader reader of the file
+   * @param diskLoader loads the chunks missing in the cache, e.g., a {@link
+   * org.apache.iotdb.tsfile.read.controller.CoalescedChunkLoader}. Null to read them one by one.
+   */
+  public CachedChunkLoader(TsFileSequenceReader reader, ChunkLoader diskLoader) {
+    this.reader = reader;
+    this.diskLoader = diskLoader;
+  }
+
+  @Override
+  public Chunk getChunk(ChunkMetaData chunkMetaData) throws IOException {
+    Chunk chunk = ChunkCache.getInstance().get(reader.getFileName(), chunkMetaData,
+        diskLoader != null ? diskLoader::getChunk : reader::readMemChunk);
+    Chunk chunkRet = new Chunk(chunk.getHeader(), chunk.getData().duplicate());
+    chunkRet.setDeletedAt(chunkMetaData.getDeletedAt());
+    return chunkRet;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (diskLoader != null) {
+      diskLoader.close();
+    } else {
+      reader.close();
+    }
+  }
+}
@@ -0,0 +1,210 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.StartupException;
+import org.apache.iotdb.db.service.IService;
+import org.apache.iotdb.db.service.JMXService;
+import org.apache.iotdb.db.service.ServiceType;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class caches the chunks of TsFiles read by all queries. A chunk is identified by the path
+ * of its file and the offset of its header, and the cache is bounded by the total size of the
+ * cached chunks, see <code>chunk_cache_size_in_byte</code>. The chunks of a file must be removed
+ * by {@link #remove(String)} when the file is deleted.
+ */
+public class ChunkCache implements ChunkCacheMBean, IService {
+
+  private static final Logger logger = LoggerFactory.getLogger(ChunkCache.class);
+
+  /**
+   * estimated memory of a cache entry besides the chunk data and header, i.e., the key, the Chunk
+   * object, the ByteBuffer object and the node of the LinkedHashMap.
+   */
+  private static final long ENTRY_OVERHEAD_IN_BYTE = 200;
+
+  private static final ChunkCache INSTANCE = new ChunkCache();
+
+  private final String mbeanName = String
+      .format("%s:%s=%s", IoTDBConstant.IOTDB_PACKAGE, IoTDBConstant.JMX_TYPE,
+          getID().getJmxName());
+
+  private WeightedLRUCache<ChunkCacheKey, Chunk> cache;
+
+  private ChunkCache() {
+    long memoryBudget = IoTDBDescriptor.getInstance().getConfig().getChunkCacheSizeInByte();
+    cache = new WeightedLRUCache<ChunkCacheKey, Chunk>(memoryBudget) {
+      @Override
+      protected long estimateSize(ChunkCacheKey key, Chunk chunk) {
+        return chunk.getData().capacity() + chunk.getHeader().getSerializedSize()
+            + key.filePath.length() * 2L + ENTRY_OVERHEAD_IN_BYTE;
+      }
+    };
+  }
+
+  public static ChunkCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * get a chunk of a file, read it by the loader if it is not cached. The returned chunk is shared
+   * by all queries, so the caller must not change the position of its data.
+   *
+   * @param filePath path of the file that contains the chunk
+   * @param chunkMetaData meta data of the chunk
+   * @param loader reads the chunk from the file when it is not cached
+   */
+  public Chunk get(String filePath, ChunkMetaData chunkMetaData,
+      WeightedLRUCache.Loader<ChunkMetaData, Chunk> loader) throws IOException {
+    return cache.get(new ChunkCacheKey(filePath, chunkMetaData.getOffsetOfChunkHeader()),
+        key -> compact(loader.load(chunkMetaData)));
+  }
+
+  /**
+   * the data of a chunk read along with its neighbours is a slice of a larger buffer, copy it so
+   * that the cache does not hold the whole buffer.
+   */
+  private Chunk compact(Chunk chunk) {
+    ByteBuffer data = chunk.getData();
+    if (data.hasArray() && data.arrayOffset() == 0 && data.position() == 0
+        && data.array().length == data.limit()) {
+      return chunk;
+    }
+    ByteBuffer copy = ByteBuffer.allocate(data.remaining());
+    copy.put(data.duplicate());
+    copy.flip();
+    return new Chunk(chunk.getHeader(), copy);
+  }
+
+  public boolean contains(String filePath, ChunkMetaData chunkMetaData) {
+    return cache.contains(new ChunkCacheKey(filePath, chunkMetaData.getOffsetOfChunkHeader()));
+  }
+
+  /**
+   * remove all the chunks of a file. It is called when the file is deleted.
+   */
+  public void remove(String filePath) {
+    cache.removeIf(key -> key.filePath.equals(filePath));
+    logger.debug("Chunks of {} are removed from the chunk cache", filePath);
+  }
+
+  public void clear() {
+    cache.clear();
+  }
+
+  @Override
+  public long getHitCount() {
+    return cache.getHitCount();
+  }
+
+  @Override
+  public long getMissCount() {
+    return cache.getMissCount();
+  }
+
+  @Override
+  public long getEvictionCount() {
+    return cache.getEvictionCount();
+  }
+
+  @Override
+  public long getRejectionCount() {
+    return cache.getRejectionCount();
+  }
+
+  @Override
+  public double getHitRate() {
+    return cache.getHitRate();
+  }
+
+  @Override
+  public long getMemoryBudget() {
+    return cache.getMemoryBudget();
+  }
+
+  @Override
+  public long getUsedMemory() {
+    return cache.getUsedMemory();
+  }
+
+  @Override
+  public int getEntryNumber() {
+    return cache.getEntryNumber();
+  }
+
+  @Override
+  public void start() throws StartupException {
+    try {
+      JMXService.registerMBean(INSTANCE, mbeanName);
+    } catch (Exception e) {
+      String errorMessage = String
+          .format("Failed to start %s because of %s", this.getID().getName(),
+              e.getMessage());
+      throw new StartupException(errorMessage, e);
+    }
+  }
+
+  @Override
+  public void stop() {
+    JMXService.deregisterMBean(mbeanName);
+    cache.clear();
+  }
+
+  @Override
+  public ServiceType getID() {
+    return ServiceType.CHUNK_CACHE_SERVICE;
+  }
+
+  private static class ChunkCacheKey {
+
+    private final String filePath;
+    private final long offset;
+
+    private ChunkCacheKey(String filePath, long offset) {
+      this.filePath = filePath;
+      this.offset = offset;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      ChunkCacheKey that = (ChunkCacheKey) o;
+      return offset == that.offset && filePath.equals(that.filePath);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(filePath, offset);
+    }
+  }
+}
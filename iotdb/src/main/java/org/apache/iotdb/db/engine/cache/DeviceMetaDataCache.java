@@ -19,33 +19,62 @@
 package org.apache.iotdb.db.engine.cache;
 
 import java.io.IOException;
-import java.util.LinkedHashMap;
-import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicLong;
+import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.StartupException;
+import org.apache.iotdb.db.service.IService;
+import org.apache.iotdb.db.service.JMXService;
+import org.apache.iotdb.db.service.ServiceType;
+import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetaData;
 import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TsFileMetaData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * This class is used to cache <code>DeviceMetaDataCache</code> of tsfile in IoTDB.
+ * This class is used to cache <code>TsDeviceMetadata</code> of tsfile in IoTDB. The cache is
+ * bounded by the estimated size of the cached metadata, see
+ * <code>device_metadata_cache_size_in_byte</code>, and the metadata of a device is read only once
+ * even if several queries ask for it at the same time.
  */
-public class DeviceMetaDataCache {
+public class DeviceMetaDataCache implements DeviceMetaDataCacheMBean, IService {
 
   private static final Logger logger = LoggerFactory.getLogger(DeviceMetaDataCache.class);
 
-  private static final int CACHE_SIZE = 100;
   /**
-   * key: the file path + deviceId.
+   * estimated memory of a cache entry besides the serialized metadata, i.e., the key, the
+   * TsDeviceMetadata object and the node of the LinkedHashMap.
    */
-  private LinkedHashMap<String, TsDeviceMetadata> lruCache;
+  private static final long ENTRY_OVERHEAD_IN_BYTE = 200;
 
-  private AtomicLong cacheHintNum = new AtomicLong();
-  private AtomicLong cacheRequestNum = new AtomicLong();
-
-  private DeviceMetaDataCache(int cacheSize) {
-    lruCache = new LruLinkedHashMap(cacheSize, true);
+  /**
+   * estimated memory of the objects of a ChunkGroupMetaData or a ChunkMetaData besides its
+   * serialized content, e.g., object headers, lists and boxed statistics.
+   */
+  private static final long METADATA_OBJECT_OVERHEAD_IN_BYTE = 150;
+
+  private final String mbeanName = String
+      .format("%s:%s=%s", IoTDBConstant.IOTDB_PACKAGE, IoTDBConstant.JMX_TYPE,
+          getID().getJmxName());
+
+  private WeightedLRUCache<DeviceMetaDataKey, TsDeviceMetadata> cache;
+
+  private DeviceMetaDataCache() {
+    long memoryBudget = IoTDBDescriptor.getInstance().getConfig()
+        .getDeviceMetaDataCacheSizeInByte();
+    cache = new WeightedLRUCache<DeviceMetaDataKey, TsDeviceMetadata>(memoryBudget) {
+      @Override
+      protected long estimateSize(DeviceMetaDataKey key, TsDeviceMetadata deviceMetadata) {
+        long size = ENTRY_OVERHEAD_IN_BYTE + deviceMetadata.getSerializedSize()
+            + (key.filePath.length() + key.deviceId.length()) * 2L;
+        for (ChunkGroupMetaData chunkGroupMetaData : deviceMetadata.getChunkGroupMetaDataList()) {
+          size += (chunkGroupMetaData.getChunkMetaDataList().size() + 1)
+              * METADATA_OBJECT_OVERHEAD_IN_BYTE;
+        }
+        return size;
+      }
+    };
   }
 
   public static DeviceMetaDataCache getInstance() {
@@ -54,83 +83,110 @@ public class DeviceMetaDataCache {
 
   /**
    * get {@link TsDeviceMetadata}. THREAD SAFE.
+   *
+   * @return the metadata of the device, or null if the file does not contain the device. The
+   * absence of a device is not cached.
    */
   public TsDeviceMetadata get(String filePath, String deviceId, TsFileMetaData fileMetaData)
       throws IOException {
-    // The key(the tsfile path and deviceId) for the lruCache
-
-    String jointPath = filePath + deviceId;
-    Object jointPathObject = jointPath.intern();
-    synchronized (lruCache) {
-      cacheRequestNum.incrementAndGet();
-      if (lruCache.containsKey(jointPath)) {
-        cacheHintNum.incrementAndGet();
-        if (logger.isDebugEnabled()) {
-          logger.debug(
-              "Cache hint: the number of requests for cache is {}, "
-                  + "the number of hints for cache is {}",
-              cacheRequestNum.get(), cacheHintNum.get());
-        }
-        return lruCache.get(jointPath);
-      }
-    }
-    synchronized (jointPathObject) {
-      synchronized (lruCache) {
-        if (lruCache.containsKey(jointPath)) {
-          return lruCache.get(jointPath);
-        }
-      }
-      if (logger.isDebugEnabled()) {
-        logger.debug("Cache didn't hint: the number of requests for cache is {}",
-            cacheRequestNum.get());
-      }
-      TsDeviceMetadata blockMetaData = TsFileMetadataUtils
-          .getTsRowGroupBlockMetaData(filePath, deviceId,
-              fileMetaData);
-      synchronized (lruCache) {
-        lruCache.put(jointPath, blockMetaData);
-        return lruCache.get(jointPath);
-      }
-    }
+    return cache.get(new DeviceMetaDataKey(filePath, deviceId),
+        key -> TsFileMetadataUtils.getTsRowGroupBlockMetaData(filePath, deviceId, fileMetaData));
+  }
+
+  /**
+   * remove the metadata of all the devices of a file. It is called when the file is deleted.
+   */
+  public void remove(String filePath) {
+    cache.removeIf(key -> key.filePath.equals(filePath));
+    logger.debug("Device metadata of {} is removed from the device metadata cache", filePath);
   }
 
   /**
    * clear LRUCache.
    */
   public void clear() {
-    synchronized (lruCache) {
-      lruCache.clear();
+    cache.clear();
+  }
+
+  @Override
+  public long getHitCount() {
+    return cache.getHitCount();
+  }
+
+  @Override
+  public long getMissCount() {
+    return cache.getMissCount();
+  }
+
+  @Override
+  public long getEvictionCount() {
+    return cache.getEvictionCount();
+  }
+
+  @Override
+  public long getRejectionCount() {
+    return cache.getRejectionCount();
+  }
+
+  @Override
+  public double getHitRate() {
+    return cache.getHitRate();
+  }
+
+  @Override
+  public long getMemoryBudget() {
+    return cache.getMemoryBudget();
+  }
+
+  @Override
+  public long getUsedMemory() {
+    return cache.getUsedMemory();
+  }
+
+  @Override
+  public int getEntryNumber() {
+    return cache.getEntryNumber();
+  }
+
+  @Override
+  public void start() throws StartupException {
+    try {
+      JMXService.registerMBean(getInstance(), mbeanName);
+    } catch (Exception e) {
+      String errorMessage = String
+          .format("Failed to start %s because of %s", this.getID().getName(),
+              e.getMessage());
+      throw new StartupException(errorMessage, e);
     }
   }
 
-  /**
-   * the default LRU cache size is 100. The singleton pattern.
-   */
-  private static class RowGroupBlockMetaDataCacheSingleton {
+  @Override
+  public void stop() {
+    JMXService.deregisterMBean(mbeanName);
+    cache.clear();
+  }
 
-    private static final DeviceMetaDataCache INSTANCE = new
-        DeviceMetaDataCache(CACHE_SIZE);
+  @Override
+  public ServiceType getID() {
+    return ServiceType.DEVICE_METADATA_CACHE_SERVICE;
   }
 
   /**
-   * This class is a map used to cache the <code>RowGroupBlockMetaData</code>. The caching strategy
-   * is LRU.
-   *
+   * The singleton pattern.
    */
-  private class LruLinkedHashMap extends LinkedHashMap<String, TsDeviceMetadata> {
+  private static class RowGroupBlockMetaDataCacheSingleton {
 
-    private static final long serialVersionUID = 1290160928914532649L;
-    private static final float LOAD_FACTOR_MAP = 0.75f;
-    private int maxCapacity;
+    private static final DeviceMetaDataCache INSTANCE = new DeviceMetaDataCache();
+  }
 
-    public LruLinkedHashMap(int maxCapacity, boolean isLru) {
-      super(maxCapacity, LOAD_FACTOR_MAP, isLru);
-      this.maxCapacity = maxCapacity;
-    }
+  private static class DeviceMetaDataKey {
 
-    @Override
-    protected boolean removeEldestEntry(Map.Entry<String, TsDeviceMetadata> eldest) {
-      return size() > maxCapacity;
+    private final String filePath;
+    private final String deviceId;
+
+    private DeviceMetaDataKey(String filePath, String deviceId) {
+      this.filePath = filePath;
+      this.deviceId = deviceId;
     }
 
     @Override
@@ -141,27 +197,13 @@ public class DeviceMetaDataCache {
       if (o == null || getClass() != o.getClass()) {
         return false;
       }
-      return super.equals(o);
+      DeviceMetaDataKey that = (DeviceMetaDataKey) o;
+      return filePath.equals(that.filePath) && deviceId.equals(that.deviceId);
     }
 
     @Override
     public int hashCode() {
-      return super.hashCode();
+      return Objects.hash(filePath, deviceId);
     }
   }
-
-  @Override
-  public boolean equals(Object o) {
-    if (this == o) return true;
-    if (o == null || getClass() != o.getClass()) return false;
-    DeviceMetaDataCache that = (DeviceMetaDataCache) o;
-    return Objects.equals(lruCache, that.lruCache) &&
-            Objects.equals(cacheHintNum, that.cacheHintNum) &&
-            Objects.equals(cacheRequestNum, that.cacheRequestNum);
-  }
-
-  @Override
-  public int hashCode() {
-    return Objects.hash(lruCache, cacheHintNum, cacheRequestNum);
-  }
 }
@@ -0,0 +1,179 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.TsPrimitiveType;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+/**
+ * This class caches the latest point of the series queried by LAST queries, see
+ * <code>enable_last_cache</code>.
+ * <p>
+ * The latest point of a series is loaded from the files the first time it is queried, and then
+ * kept up to date by the insertions, so that the following queries are answered from memory. Only
+ * the queried series are cached, the insertions of the others cost a single map lookup. A
+ * deletion drops the cached point of the series if the point may be deleted.
+ */
+public class LastValueCache {
+
+  private static final LastValueCache INSTANCE = new LastValueCache();
+
+  private final boolean enabled = IoTDBDescriptor.getInstance().getConfig().isEnableLastCache();
+
+  /**
+   * full path of a series -> its cached point.
+   */
+  private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+  private LastValueCache() {
+  }
+
+  public static LastValueCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * get the latest point of a series, load it by the loader if it is not cached.
+   *
+   * @param path full path of the series
+   * @param loader loads the latest point from the files and memtables
+   * @return the latest point, or null if the series has no data
+   */
+  public TimeValuePair get(String path, Loader loader) throws StorageEngineException {
+    if (!enabled) {
+      return loader.load(path);
+    }
+    Entry entry = cache.computeIfAbsent(path, k -> new Entry());
+    synchronized (entry) {
+      if (entry.loaded) {
+        return entry.point;
+      }
+    }
+    // insertions during the loading are kept in the entry and merged with the loaded point
+    TimeValuePair loaded = loader.load(path);
+    synchronized (entry) {
+      // an insertion of the same time may not be seen by the loader
+      if (loaded != null && (entry.point == null
+          || loaded.getTimestamp() > entry.point.getTimestamp())) {
+        entry.point = loaded;
+      }
+      entry.loaded = true;
+      return entry.point;
+    }
+  }
+
+  /**
+   * update the cached points of the series in an insertion.
+   */
+  public void update(InsertPlan insertPlan) {
+    if (!enabled || cache.isEmpty()) {
+      return;
+    }
+    String[] measurements = insertPlan.getMeasurements();
+    for (int i = 0; i < measurements.length; i++) {
+      Entry entry = cache.get(insertPlan.getDeviceId() + "." + measurements[i]);
+      if (entry != null) {
+        TimeValuePair point = new TimeValuePair(insertPlan.getTime(),
+            parseValue(insertPlan.getDataTypes()[i], insertPlan.getValues()[i]));
+        synchronized (entry) {
+          entry.update(point);
+        }
+      }
+    }
+  }
+
+  /**
+   * called when the points of a series not later than the given time are deleted.
+   */
+  public void delete(String path, long time) {
+    Entry entry = cache.get(path);
+    if (entry == null) {
+      return;
+    }
+    synchronized (entry) {
+      if (!entry.loaded || entry.point != null && entry.point.getTimestamp() <= time) {
+        cache.remove(path, entry);
+      }
+    }
+  }
+
+  /**
+   * called when all the data of a storage group is deleted.
+   */
+  public void deleteStorageGroup(String storageGroupName) {
+    String prefix = storageGroupName + ".";
+    cache.keySet().removeIf(path -> path.startsWith(prefix));
+  }
+
+  public void clear() {
+    cache.clear();
+  }
+
+  private static TsPrimitiveType parseValue(TSDataType dataType, String value) {
+    switch (dataType) {
+      case BOOLEAN:
+        return new TsPrimitiveType.TsBoolean(Boolean.parseBoolean(value));
+      case INT32:
+        return new TsPrimitiveType.TsInt(Integer.parseInt(value));
+      case INT64:
+        return new TsPrimitiveType.TsLong(Long.parseLong(value));
+      case FLOAT:
+        return new TsPrimitiveType.TsFloat(Float.parseFloat(value));
+      case DOUBLE:
+        return new TsPrimitiveType.TsDouble(Double.parseDouble(value));
+      case TEXT:
+        return new TsPrimitiveType.TsBinary(Binary.valueOf(value));
+      default:
+        throw new UnSupportedDataTypeException("Unsupported data type:" + dataType);
+    }
+  }
+
+  @FunctionalInterface
+  public interface Loader {
+
+    TimeValuePair load(String path) throws StorageEngineException;
+  }
+
+  private static class Entry {
+
+    /**
+     * whether the point has been loaded from the files, before which the point only reflects the
+     * insertions and cannot be returned.
+     */
+    private boolean loaded = false;
+    private TimeValuePair point;
+
+    /**
+     * keep the later point, a point of the same time overwrites the cached one.
+     */
+    private void update(TimeValuePair newPoint) {
+      if (newPoint != null && (point == null || newPoint.getTimestamp() >= point.getTimestamp())) {
+        point = newPoint;
+      }
+    }
+  }
+}
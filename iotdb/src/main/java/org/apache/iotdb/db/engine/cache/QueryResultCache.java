@@ -0,0 +1,522 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.db.exception.StartupException;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.AggregationPlan;
+import org.apache.iotdb.db.qp.physical.crud.GroupByPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.qp.physical.crud.QueryPlan;
+import org.apache.iotdb.db.query.dataset.ListDataSet;
+import org.apache.iotdb.db.service.IService;
+import org.apache.iotdb.db.service.JMXService;
+import org.apache.iotdb.db.service.ServiceType;
+import org.apache.iotdb.tsfile.exception.filter.QueryFilterOptimizationException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.IBinaryExpression;
+import org.apache.iotdb.tsfile.read.expression.IExpression;
+import org.apache.iotdb.tsfile.read.expression.IUnaryExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class caches the results of raw data, aggregation and GROUP BY queries, so that a query
+ * executed again, e.g., by a dashboard that refreshes itself every few seconds, is answered from
+ * memory without reading any file. See <code>query_result_cache_size_in_byte</code>.
+ * <p>
+ * A result is identified by the physical plan of its query, which includes the series, the
+ * filters and the time intervals. The result of a query is recorded while it is fetched by the
+ * client, and cached when it is completely fetched unless it is larger than the share of a
+ * segment of the cache. An insertion or a deletion drops the cached results that read the
+ * changed series in a time range that the changed points may fall into, including the results
+ * still being recorded, so a cached result is always the same as the query would return. Only the
+ * series read by cached results are looked up by the insertions.
+ */
+public class QueryResultCache implements QueryResultCacheMBean, IService {
+
+  private static final Logger logger = LoggerFactory.getLogger(QueryResultCache.class);
+
+  /**
+   * estimated memory of a cache entry besides its records, i.e., the entry object, the lists and
+   * the node of the LinkedHashMap.
+   */
+  private static final long ENTRY_OVERHEAD_IN_BYTE = 200;
+
+  private static final QueryResultCache INSTANCE = new QueryResultCache();
+
+  private final String mbeanName = String
+      .format("%s:%s=%s", IoTDBConstant.IOTDB_PACKAGE, IoTDBConstant.JMX_TYPE,
+          getID().getJmxName());
+
+  private final WeightedLRUCache<String, CachedResult> cache;
+
+  /**
+   * full path of a series -> key of a cached result that reads the series -> the data read by the
+   * result.
+   */
+  private final Map<String, Map<String, ReadData>> seriesIndex = new ConcurrentHashMap<>();
+
+  /**
+   * results being recorded, which are forgotten if their datasets are dropped before the end.
+   */
+  private final Set<ResultRecorder> recorders = Collections
+      .synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+  private final AtomicLong invalidationCount = new AtomicLong();
+
+  private QueryResultCache() {
+    this(IoTDBDescriptor.getInstance().getConfig().getQueryResultCacheSizeInByte());
+  }
+
+  QueryResultCache(long memoryBudget) {
+    cache = new WeightedLRUCache<String, CachedResult>(memoryBudget) {
+      @Override
+      protected long estimateSize(String key, CachedResult result) {
+        return key.length() * 2L + result.size;
+      }
+
+      @Override
+      protected void onEviction(String key, CachedResult result) {
+        removeFromIndex(key, result.readData);
+      }
+    };
+  }
+
+  public static QueryResultCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * get the result of a query from the cache, or load it by the loader and record it for the
+   * following queries.
+   */
+  public QueryDataSet get(PhysicalPlan plan, DataSetLoader loader)
+      throws PathErrorException, QueryFilterOptimizationException, StorageEngineException,
+      ProcessorException, IOException {
+    if (cache.getMemoryBudget() == 0 || !isCacheable(plan)) {
+      return loader.load();
+    }
+    String key = getKey((QueryPlan) plan);
+    CachedResult result = cache.getIfPresent(key);
+    if (result != null) {
+      return new ListDataSet(result.paths, result.dataTypes, result.records);
+    }
+
+    // registered before the data is read, so that it misses no change of the data
+    ResultRecorder recorder = new ResultRecorder(key, new ReadData((QueryPlan) plan));
+    recorders.add(recorder);
+    try {
+      return new RecordingDataSet(loader.load(), recorder);
+    } catch (Exception e) {
+      recorders.remove(recorder);
+      throw e;
+    }
+  }
+
+  /**
+   * plans of FILL and LAST queries are not cached, as FILL queries are seldom repeated and LAST
+   * queries have their own cache.
+   */
+  private static boolean isCacheable(PhysicalPlan plan) {
+    return plan.getClass() == QueryPlan.class || plan.getClass() == AggregationPlan.class
+        || plan.getClass() == GroupByPlan.class;
+  }
+
+  private static String getKey(QueryPlan plan) {
+    StringBuilder builder = new StringBuilder(plan.getClass().getSimpleName());
+    builder.append(plan.getPaths());
+    if (plan instanceof AggregationPlan) {
+      builder.append(((AggregationPlan) plan).getAggregations());
+    }
+    if (plan instanceof GroupByPlan) {
+      GroupByPlan groupByPlan = (GroupByPlan) plan;
+      builder.append(groupByPlan.getUnit()).append(',').append(groupByPlan.getOrigin())
+          .append(groupByPlan.getIntervals());
+    }
+    builder.append(plan.getExpression()).append(plan.getRowLimit()).append(',')
+        .append(plan.getRowOffset()).append(',').append(plan.isOrderByTimeDesc());
+    return builder.toString();
+  }
+
+  /**
+   * called after a point is inserted.
+   */
+  public void invalidate(InsertPlan insertPlan) {
+    if (cache.getMemoryBudget() == 0) {
+      return;
+    }
+    String[] measurements = insertPlan.getMeasurements();
+    String[] paths = new String[measurements.length];
+    for (int i = 0; i < measurements.length; i++) {
+      paths[i] = insertPlan.getDeviceId() + IoTDBConstant.PATH_SEPARATOR + measurements[i];
+    }
+    invalidate(paths, insertPlan.getTime(), insertPlan.getTime());
+  }
+
+  /**
+   * called after the points of a series not later than the given time are deleted.
+   */
+  public void invalidate(String path, long time) {
+    if (cache.getMemoryBudget() == 0) {
+      return;
+    }
+    invalidate(new String[]{path}, Long.MIN_VALUE, time);
+  }
+
+  /**
+   * drop the results that may read the points of the series in [startTime, endTime]. The results
+   * being recorded are checked before the cached ones, as a recorder puts its result into the
+   * cache and the index when it is removed.
+   */
+  private void invalidate(String[] paths, long startTime, long endTime) {
+    if (!recorders.isEmpty()) {
+      synchronized (recorders) {
+        for (ResultRecorder recorder : recorders) {
+          if (!recorder.invalid && recorder.readData.mayRead(paths, startTime, endTime)) {
+            recorder.invalid = true;
+          }
+        }
+      }
+    }
+    if (seriesIndex.isEmpty()) {
+      return;
+    }
+    for (String path : paths) {
+      Map<String, ReadData> results = seriesIndex.get(path);
+      if (results == null) {
+        continue;
+      }
+      for (Map.Entry<String, ReadData> entry : results.entrySet()) {
+        if (entry.getValue().mayRead(startTime, endTime)) {
+          cache.remove(entry.getKey());
+          removeFromIndex(entry.getKey(), entry.getValue());
+          invalidationCount.incrementAndGet();
+        }
+      }
+    }
+  }
+
+  /**
+   * called when all the data of a storage group is deleted.
+   */
+  public void clear() {
+    synchronized (recorders) {
+      for (ResultRecorder recorder : recorders) {
+        recorder.invalid = true;
+      }
+    }
+    cache.clear();
+    seriesIndex.clear();
+  }
+
+  private void put(ResultRecorder recorder, CachedResult result) {
+    synchronized (recorders) {
+      if (!recorders.remove(recorder) || recorder.invalid) {
+        return;
+      }
+      for (String path : recorder.readData.series) {
+        seriesIndex.computeIfAbsent(path, k -> new ConcurrentHashMap<>())
+            .put(recorder.key, recorder.readData);
+      }
+      cache.put(recorder.key, result);
+      if (!cache.contains(recorder.key)) {
+        removeFromIndex(recorder.key, recorder.readData);
+      }
+    }
+  }
+
+  private void removeFromIndex(String key, ReadData readData) {
+    for (String path : readData.series) {
+      seriesIndex.computeIfPresent(path, (k, results) -> {
+        results.remove(key, readData);
+        return results.isEmpty() ? null : results;
+      });
+    }
+  }
+
+  private static long estimateSize(RowRecord record) {
+    // RowRecord object, timestamp, field list and reference
+    long size = 16 + 8 + 40 + 8;
+    for (Field field : record.getFields()) {
+      // Field object with its primitive fields and reference
+      size += 48 + 8;
+      if (field.getDataType() == TSDataType.TEXT && field.getBinaryV() != null) {
+        size += 48 + field.getBinaryV().getLength();
+      }
+    }
+    return size;
+  }
+
+  @Override
+  public long getHitCount() {
+    return cache.getHitCount();
+  }
+
+  @Override
+  public long getMissCount() {
+    return cache.getMissCount();
+  }
+
+  @Override
+  public long getEvictionCount() {
+    return cache.getEvictionCount();
+  }
+
+  @Override
+  public long getRejectionCount() {
+    return cache.getRejectionCount();
+  }
+
+  @Override
+  public long getInvalidationCount() {
+    return invalidationCount.get();
+  }
+
+  @Override
+  public double getHitRate() {
+    return cache.getHitRate();
+  }
+
+  @Override
+  public long getMemoryBudget() {
+    return cache.getMemoryBudget();
+  }
+
+  @Override
+  public long getUsedMemory() {
+    return cache.getUsedMemory();
+  }
+
+  @Override
+  public int getEntryNumber() {
+    return cache.getEntryNumber();
+  }
+
+  @Override
+  public void start() throws StartupException {
+    try {
+      JMXService.registerMBean(INSTANCE, mbeanName);
+    } catch (Exception e) {
+      String errorMessage = String
+          .format("Failed to start %s because of %s", this.getID().getName(),
+              e.getMessage());
+      throw new StartupException(errorMessage, e);
+    }
+  }
+
+  @Override
+  public void stop() {
+    JMXService.deregisterMBean(mbeanName);
+    clear();
+  }
+
+  @Override
+  public ServiceType getID() {
+    return ServiceType.QUERY_RESULT_CACHE_SERVICE;
+  }
+
+  @FunctionalInterface
+  public interface DataSetLoader {
+
+    QueryDataSet load() throws PathErrorException, QueryFilterOptimizationException,
+        StorageEngineException, ProcessorException, IOException;
+  }
+
+  /**
+   * the series and the time range read by a query.
+   */
+  private static class ReadData {
+
+    private final Set<String> series = new HashSet<>();
+    private final IExpression expression;
+    private final List<Pair<Long, Long>> intervals;
+
+    private ReadData(QueryPlan plan) {
+      for (Path path : plan.getPaths()) {
+        series.add(path.getFullPath());
+      }
+      expression = plan.getExpression();
+      if (expression != null) {
+        addFilterSeries(expression);
+      }
+      intervals = plan instanceof GroupByPlan ? ((GroupByPlan) plan).getIntervals() : null;
+    }
+
+    private void addFilterSeries(IExpression expression) {
+      if (expression instanceof IBinaryExpression) {
+        addFilterSeries(((IBinaryExpression) expression).getLeft());
+        addFilterSeries(((IBinaryExpression) expression).getRight());
+      } else if (expression instanceof SingleSeriesExpression) {
+        series.add(((SingleSeriesExpression) expression).getSeriesPath().getFullPath());
+      }
+    }
+
+    private boolean mayRead(String[] paths, long startTime, long endTime) {
+      for (String path : paths) {
+        if (series.contains(path)) {
+          return mayRead(startTime, endTime);
+        }
+      }
+      return false;
+    }
+
+    /**
+     * @return false if the query is sure not to read any point in [startTime, endTime]
+     */
+    private boolean mayRead(long startTime, long endTime) {
+      if (intervals != null) {
+        boolean overlapped = false;
+        for (Pair<Long, Long> interval : intervals) {
+          if (interval.left <= endTime && startTime <= interval.right) {
+            overlapped = true;
+            break;
+          }
+        }
+        if (!overlapped) {
+          return false;
+        }
+      }
+      return expression == null || mayRead(expression, startTime, endTime);
+    }
+
+    private static boolean mayRead(IExpression expression, long startTime, long endTime) {
+      switch (expression.getType()) {
+        case AND:
+          return mayRead(((IBinaryExpression) expression).getLeft(), startTime, endTime)
+              && mayRead(((IBinaryExpression) expression).getRight(), startTime, endTime);
+        case OR:
+          return mayRead(((IBinaryExpression) expression).getLeft(), startTime, endTime)
+              || mayRead(((IBinaryExpression) expression).getRight(), startTime, endTime);
+        case SERIES:
+        case GLOBAL_TIME:
+          // value filters accept any time range
+          return ((IUnaryExpression) expression).getFilter()
+              .satisfyStartEndTime(startTime, endTime);
+        default:
+          return true;
+      }
+    }
+  }
+
+  private static class CachedResult {
+
+    private final List<Path> paths;
+    private final List<TSDataType> dataTypes;
+    private final List<RowRecord> records;
+    private final ReadData readData;
+    private final long size;
+
+    private CachedResult(List<Path> paths, List<TSDataType> dataTypes, List<RowRecord> records,
+        ReadData readData, long size) {
+      this.paths = paths;
+      this.dataTypes = dataTypes;
+      this.records = records;
+      this.readData = readData;
+      this.size = size;
+    }
+  }
+
+  private static class ResultRecorder {
+
+    private final String key;
+    private final ReadData readData;
+    /**
+     * set when the data read by the query is changed, guarded by the set of recorders.
+     */
+    private boolean invalid;
+
+    private ResultRecorder(String key, ReadData readData) {
+      this.key = key;
+      this.readData = readData;
+    }
+  }
+
+  /**
+   * a dataset that records the records fetched from another one, and caches them when all of
+   * them are fetched.
+   */
+  private class RecordingDataSet extends QueryDataSet {
+
+    private final QueryDataSet dataSet;
+    private final ResultRecorder recorder;
+    private List<RowRecord> records = new ArrayList<>();
+    private long size = ENTRY_OVERHEAD_IN_BYTE;
+
+    private RecordingDataSet(QueryDataSet dataSet, ResultRecorder recorder) {
+      super(dataSet.getPaths(), dataSet.getDataTypes());
+      this.dataSet = dataSet;
+      this.recorder = recorder;
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+      boolean hasNext = dataSet.hasNext();
+      if (!hasNext && records != null) {
+        put(recorder, new CachedResult(dataSet.getPaths(), dataSet.getDataTypes(), records,
+            recorder.readData, size));
+        logger.debug("Result of {} is recorded, {} records", recorder.key, records.size());
+        records = null;
+      }
+      return hasNext;
+    }
+
+    @Override
+    public RowRecord next() throws IOException {
+      RowRecord record = dataSet.next();
+      if (records != null) {
+        size += estimateSize(record);
+        if (size > cache.getMaxEntrySize()) {
+          // too large to be cached
+          recorders.remove(recorder);
+          records = null;
+        } else {
+          records.add(record);
+        }
+      }
+      return record;
+    }
+
+    @Override
+    public List<TSDataType> getDataTypes() {
+      return dataSet.getDataTypes();
+    }
+  }
+}
@@ -19,73 +19,163 @@
 package org.apache.iotdb.db.engine.cache;
 
 import java.io.IOException;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.StartupException;
+import org.apache.iotdb.db.service.IService;
+import org.apache.iotdb.db.service.JMXService;
+import org.apache.iotdb.db.service.ServiceType;
+import org.apache.iotdb.tsfile.file.metadata.TsDeviceIndexPageMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TsFileMetaData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * This class is used to cache <code>TsFileMetaData</code> of tsfile in IoTDB.
+ * This class is used to cache <code>TsFileMetaData</code> of tsfile in IoTDB. The cache is bounded
+ * by the estimated size of the cached metadata, see <code>tsfile_metadata_cache_size_in_byte</code>,
+ * and the metadata of a file is read only once even if several queries ask for it at the same
+ * time.
  */
-public class TsFileMetaDataCache {
+public class TsFileMetaDataCache implements TsFileMetaDataCacheMBean, IService {
 
   private static final Logger logger = LoggerFactory.getLogger(TsFileMetaDataCache.class);
+
+  /**
+   * estimated memory of a TsFileMetaData object and its cache entry besides its maps.
+   */
+  private static final long ENTRY_OVERHEAD_IN_BYTE = 300;
+
+  /**
+   * estimated memory of a map node and the objects of its value besides the strings.
+   */
+  private static final long DEVICE_INDEX_OVERHEAD_IN_BYTE = 100;
+  private static final long MEASUREMENT_SCHEMA_OVERHEAD_IN_BYTE = 200;
+  private static final long INDEX_PAGE_OVERHEAD_IN_BYTE = 60;
+
+  private final String mbeanName = String
+      .format("%s:%s=%s", IoTDBConstant.IOTDB_PACKAGE, IoTDBConstant.JMX_TYPE,
+          getID().getJmxName());
+
   /**
    * key: The file seriesPath of tsfile.
    */
-  private ConcurrentHashMap<String, TsFileMetaData> cache;
-  private AtomicLong cacheHintNum = new AtomicLong();
-  private AtomicLong cacheRequestNum = new AtomicLong();
+  private WeightedLRUCache<String, TsFileMetaData> cache;
 
   private TsFileMetaDataCache() {
-    cache = new ConcurrentHashMap<>();
+    long memoryBudget = IoTDBDescriptor.getInstance().getConfig()
+        .getTsFileMetaDataCacheSizeInByte();
+    cache = new WeightedLRUCache<String, TsFileMetaData>(memoryBudget) {
+      @Override
+      protected long estimateSize(String path, TsFileMetaData fileMetaData) {
+        return path.length() * 2L + estimateMetaDataSize(fileMetaData);
+      }
+    };
   }
 
   public static TsFileMetaDataCache getInstance() {
     return TsFileMetaDataCacheHolder.INSTANCE;
   }
 
+  private static long estimateMetaDataSize(TsFileMetaData fileMetaData) {
+    long size = ENTRY_OVERHEAD_IN_BYTE;
+    for (String device : fileMetaData.getDeviceMap().keySet()) {
+      size += device.length() * 2L + DEVICE_INDEX_OVERHEAD_IN_BYTE;
+    }
+    for (String measurement : fileMetaData.getMeasurementSchema().keySet()) {
+      size += measurement.length() * 2L + MEASUREMENT_SCHEMA_OVERHEAD_IN_BYTE;
+    }
+    if (fileMetaData.isDeviceIndexPaged()) {
+      for (TsDeviceIndexPageMetadata page : fileMetaData.getDeviceIndexPages()) {
+        size += page.getFirstDevice().length() * 2L + INDEX_PAGE_OVERHEAD_IN_BYTE;
+      }
+    }
+    return size;
+  }
+
   /**
    * get the TsFileMetaData for the given path.
    *
    * @param path -given path
    */
   public TsFileMetaData get(String path) throws IOException {
-
-    Object internPath = path.intern();
-    synchronized (internPath) {
-      cacheRequestNum.incrementAndGet();
-      if (!cache.containsKey(path)) {
-        // read value from tsfile
-        TsFileMetaData fileMetaData = TsFileMetadataUtils.getTsFileMetaData(path);
-        cache.put(path, fileMetaData);
-        if (logger.isDebugEnabled()) {
-          logger.debug("Cache didn't hint: the number of requests for cache is {}",
-              cacheRequestNum.get());
-        }
-        return cache.get(path);
-      } else {
-        cacheHintNum.incrementAndGet();
-        if (logger.isDebugEnabled()) {
-          logger.debug(
-              "Cache hint: the number of requests for cache is {}, the number of hints for cache "
-                  + "is {}",
-              cacheRequestNum.get(), cacheHintNum.get());
-        }
-        return cache.get(path);
-      }
-    }
+    return cache.get(path, TsFileMetadataUtils::getTsFileMetaData);
   }
 
+  /**
+   * remove the metadata of a file. It is called when the file is deleted.
+   */
   public void remove(String path) {
     cache.remove(path);
+    logger.debug("Metadata of {} is removed from the TsFileMetaData cache", path);
   }
 
   public void clear() {
     cache.clear();
   }
 
+  @Override
+  public long getHitCount() {
+    return cache.getHitCount();
+  }
+
+  @Override
+  public long getMissCount() {
+    return cache.getMissCount();
+  }
+
+  @Override
+  public long getEvictionCount() {
+    return cache.getEvictionCount();
+  }
+
+  @Override
+  public long getRejectionCount() {
+    return cache.getRejectionCount();
+  }
+
+  @Override
+  public double getHitRate() {
+    return cache.getHitRate();
+  }
+
+  @Override
+  public long getMemoryBudget() {
+    return cache.getMemoryBudget();
+  }
+
+  @Override
+  public long getUsedMemory() {
+    return cache.getUsedMemory();
+  }
+
+  @Override
+  public int getEntryNumber() {
+    return cache.getEntryNumber();
+  }
+
+  @Override
+  public void start() throws StartupException {
+    try {
+      JMXService.registerMBean(getInstance(), mbeanName);
+    } catch (Exception e) {
+      String errorMessage = String
+          .format("Failed to start %s because of %s", this.getID().getName(),
+              e.getMessage());
+      throw new StartupException(errorMessage, e);
+    }
+  }
+
+  @Override
+  public void stop() {
+    JMXService.deregisterMBean(mbeanName);
+    cache.clear();
+  }
+
+  @Override
+  public ServiceType getID() {
+    return ServiceType.TSFILE_METADATA_CACHE_SERVICE;
+  }
+
   /*
    * Singleton pattern
    */
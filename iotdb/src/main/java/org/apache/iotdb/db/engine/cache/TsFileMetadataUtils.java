@@ -19,8 +19,8 @@
 package org.apache.iotdb.db.engine.cache;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadata;
+import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadataIndex;
 import org.apache.iotdb.tsfile.file.metadata.TsFileMetaData;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 
@@ -56,17 +56,15 @@ public class TsFileMetadataUtils {
    */
   public static TsDeviceMetadata getTsRowGroupBlockMetaData(String filePath, String deviceId,
       TsFileMetaData fileMetaData) throws IOException {
-    if (!fileMetaData.getDeviceMap().containsKey(deviceId)) {
+    if (!fileMetaData.isDeviceIndexPaged() && !fileMetaData.containsDevice(deviceId)) {
       return null;
-    } else {
-      try (TsFileSequenceReader reader = new TsFileSequenceReader(filePath)) {
-        long offset = fileMetaData.getDeviceMap().get(deviceId).getOffset();
-        int size = fileMetaData.getDeviceMap().get(deviceId).getLen();
-        ByteBuffer data = ByteBuffer.allocate(size);
-        reader.readRaw(offset, size, data);
-        data.flip();
-        return TsDeviceMetadata.deserializeFrom(data);
+    }
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(filePath)) {
+      TsDeviceMetadataIndex index = reader.readDeviceMetadataIndex(fileMetaData, deviceId);
+      if (index == null) {
+        return null;
       }
+      return reader.readTsDeviceMetaData(index);
     }
   }
 }
@@ -0,0 +1,391 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import java.io.IOException;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * A thread safe LRU cache whose capacity is the estimated memory size of its entries rather than
+ * their number.
+ * <p>
+ * The entries are spread over several segments by the hash of their keys. Each segment is an
+ * access-ordered LinkedHashMap guarded by its own lock and owns an equal share of the memory
+ * budget, so that concurrent queries seldom wait for each other. A missing entry is loaded only
+ * once even if several threads ask for it at the same time: the first thread loads it and the
+ * others wait for its result.
+ * <p>
+ * An entry larger than the share of a segment evicts all the other entries of its segment. The
+ * oversized entries of all segments together use at most the memory budget, so the cache uses at
+ * most twice its budget. An entry that does not fit in this limit is not cached and is counted as
+ * a rejection.
+ *
+ * @param <K> key, which must implement equals and hashCode
+ * @param <V> value
+ */
+public abstract class WeightedLRUCache<K, V> {
+
+  private static final int SEGMENT_NUM = 16;
+
+  private final long memoryBudget;
+  private final Segment<K, V>[] segments;
+  private final Map<K, FutureTask<V>> loadingMap = new ConcurrentHashMap<>();
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+  private final AtomicLong rejectionCount = new AtomicLong();
+  /**
+   * the memory used by the entries larger than the share of a segment, in all segments.
+   */
+  private final AtomicLong oversizedMemory = new AtomicLong();
+
+  /**
+   * @param memoryBudget max total estimated size of the entries in byte. When it is not positive,
+   * nothing is cached and every get loads the value.
+   */
+  @SuppressWarnings("unchecked")
+  protected WeightedLRUCache(long memoryBudget) {
+    this.memoryBudget = Math.max(memoryBudget, 0);
+    this.segments = new Segment[SEGMENT_NUM];
+    for (int i = 0; i < SEGMENT_NUM; i++) {
+      segments[i] = new Segment<>(this.memoryBudget / SEGMENT_NUM, this.memoryBudget,
+          oversizedMemory);
+    }
+  }
+
+  /**
+   * estimate the memory occupied by an entry of the cache, in byte.
+   */
+  protected abstract long estimateSize(K key, V value);
+
+  /**
+   * called after an entry is evicted to make room for another one, outside the lock of its
+   * segment.
+   */
+  protected void onEviction(K key, V value) {
+    // nothing to do by default
+  }
+
+  /**
+   * get the value of the key, load it by the loader if it is not cached.
+   */
+  public V get(K key, Loader<K, V> loader) throws IOException {
+    if (memoryBudget == 0) {
+      missCount.incrementAndGet();
+      return loader.load(key);
+    }
+    Segment<K, V> segment = segmentFor(key);
+    V value = segment.get(key);
+    if (value != null) {
+      hitCount.incrementAndGet();
+      return value;
+    }
+
+    missCount.incrementAndGet();
+    FutureTask<V> task = new FutureTask<>(() -> {
+      // another thread may have loaded the value before this task was registered
+      V loaded = segment.get(key);
+      if (loaded == null) {
+        loaded = loader.load(key);
+        put(key, loaded);
+      }
+      return loaded;
+    });
+    FutureTask<V> runningTask = loadingMap.putIfAbsent(key, task);
+    if (runningTask == null) {
+      runningTask = task;
+      try {
+        task.run();
+      } finally {
+        loadingMap.remove(key, task);
+      }
+    }
+    return getResult(runningTask);
+  }
+
+  /**
+   * get the value of the key if it is cached, otherwise null.
+   */
+  public V getIfPresent(K key) {
+    V value = memoryBudget == 0 ? null : segmentFor(key).get(key);
+    if (value != null) {
+      hitCount.incrementAndGet();
+    } else {
+      missCount.incrementAndGet();
+    }
+    return value;
+  }
+
+  private V getResult(FutureTask<V> task) throws IOException {
+    try {
+      return task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for a cache entry to be loaded", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  /**
+   * put an entry into the cache, evicting the least recently used entries of its segment if
+   * necessary. An entry with a null value is not cached.
+   */
+  public void put(K key, V value) {
+    if (value == null || memoryBudget == 0) {
+      return;
+    }
+    long size = estimateSize(key, value);
+    List<Entry<K, V>> evicted = segmentFor(key).put(key, value, size);
+    if (evicted == null) {
+      rejectionCount.incrementAndGet();
+      return;
+    }
+    evictionCount.addAndGet(evicted.size());
+    for (Entry<K, V> entry : evicted) {
+      onEviction(entry.getKey(), entry.getValue());
+    }
+  }
+
+  public boolean contains(K key) {
+    return segmentFor(key).contains(key);
+  }
+
+  public void remove(K key) {
+    segmentFor(key).remove(key);
+  }
+
+  /**
+   * remove all the entries whose keys satisfy the predicate.
+   */
+  public void removeIf(Predicate<K> predicate) {
+    for (Segment<K, V> segment : segments) {
+      segment.removeIf(predicate);
+    }
+  }
+
+  public void clear() {
+    for (Segment<K, V> segment : segments) {
+      segment.clear();
+    }
+  }
+
+  private Segment<K, V> segmentFor(K key) {
+    int hash = key.hashCode();
+    hash ^= hash >>> 16;
+    return segments[(hash & Integer.MAX_VALUE) % SEGMENT_NUM];
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  /**
+   * @return the number of entries that were not cached because they were too large
+   */
+  public long getRejectionCount() {
+    return rejectionCount.get();
+  }
+
+  public double getHitRate() {
+    long hit = hitCount.get();
+    long request = hit + missCount.get();
+    return request == 0 ? 0 : (double) hit / request;
+  }
+
+  public long getMemoryBudget() {
+    return memoryBudget;
+  }
+
+  /**
+   * @return the estimated size of the largest entry that can be cached without evicting the other
+   * entries of its segment, i.e., the share of a segment
+   */
+  public long getMaxEntrySize() {
+    return memoryBudget / SEGMENT_NUM;
+  }
+
+  public long getUsedMemory() {
+    long usedMemory = 0;
+    for (Segment<K, V> segment : segments) {
+      usedMemory += segment.getUsedMemory();
+    }
+    return usedMemory;
+  }
+
+  public int getEntryNumber() {
+    int entryNumber = 0;
+    for (Segment<K, V> segment : segments) {
+      entryNumber += segment.size();
+    }
+    return entryNumber;
+  }
+
+  @FunctionalInterface
+  public interface Loader<K, V> {
+
+    V load(K key) throws IOException;
+  }
+
+  private static class SizedValue<V> {
+
+    private V value;
+    private long size;
+
+    private SizedValue(V value, long size) {
+      this.value = value;
+      this.size = size;
+    }
+  }
+
+  private static class Segment<K, V> {
+
+    private final long capacity;
+    private final long oversizedLimit;
+    private final AtomicLong oversizedMemory;
+    private long usedMemory;
+    private LinkedHashMap<K, SizedValue<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param oversizedLimit max memory of the oversized entries of all segments together
+     * @param oversizedMemory memory of the oversized entries of all segments, shared by them
+     */
+    private Segment(long capacity, long oversizedLimit, AtomicLong oversizedMemory) {
+      this.capacity = capacity;
+      this.oversizedLimit = oversizedLimit;
+      this.oversizedMemory = oversizedMemory;
+    }
+
+    private synchronized V get(K key) {
+      SizedValue<V> sizedValue = map.get(key);
+      return sizedValue == null ? null : sizedValue.value;
+    }
+
+    private synchronized boolean contains(K key) {
+      return map.containsKey(key);
+    }
+
+    /**
+     * @return the evicted entries, or null if the entry is too large to be cached
+     */
+    private synchronized List<Entry<K, V>> put(K key, V value, long size) {
+      remove(key);
+      if (size > capacity && !reserveOversized(size)) {
+        return null;
+      }
+      List<Entry<K, V>> evicted = Collections.emptyList();
+      Iterator<Entry<K, SizedValue<V>>> iterator = map.entrySet().iterator();
+      while (usedMemory + size > capacity && iterator.hasNext()) {
+        Entry<K, SizedValue<V>> entry = iterator.next();
+        release(entry.getValue());
+        iterator.remove();
+        if (evicted.isEmpty()) {
+          evicted = new ArrayList<>();
+        }
+        evicted.add(new SimpleImmutableEntry<>(entry.getKey(), entry.getValue().value));
+      }
+      map.put(key, new SizedValue<>(value, size));
+      usedMemory += size;
+      return evicted;
+    }
+
+    /**
+     * reserve the memory of an oversized entry in the limit of all oversized entries, taking into
+     * account that the oversized entry of this segment, if any, will be evicted.
+     */
+    private boolean reserveOversized(long size) {
+      long evictedOversized = usedMemory > capacity ? usedMemory : 0;
+      long current;
+      do {
+        current = oversizedMemory.get();
+        if (current - evictedOversized + size > oversizedLimit) {
+          return false;
+        }
+      } while (!oversizedMemory.compareAndSet(current, current + size));
+      return true;
+    }
+
+    /**
+     * release the memory of a removed entry.
+     */
+    private void release(SizedValue<V> removed) {
+      usedMemory -= removed.size;
+      if (removed.size > capacity) {
+        oversizedMemory.addAndGet(-removed.size);
+      }
+    }
+
+    private synchronized void remove(K key) {
+      SizedValue<V> removed = map.remove(key);
+      if (removed != null) {
+        release(removed);
+      }
+    }
+
+    private synchronized void removeIf(Predicate<K> predicate) {
+      Iterator<Entry<K, SizedValue<V>>> iterator = map.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Entry<K, SizedValue<V>> entry = iterator.next();
+        if (predicate.test(entry.getKey())) {
+          release(entry.getValue());
+          iterator.remove();
+        }
+      }
+    }
+
+    private synchronized void clear() {
+      for (SizedValue<V> sizedValue : map.values()) {
+        release(sizedValue);
+      }
+      map.clear();
+    }
+
+    private synchronized long getUsedMemory() {
+      return usedMemory;
+    }
+
+    private synchronized int size() {
+      return map.size();
+    }
+  }
+}
@@ -47,4 +47,13 @@ public class MemSeriesLazyMerger implements TimeValuePairSorter {
     }
     return res;
   }
+
+  @Override
+  public long count() {
+    long count = 0;
+    for (ReadOnlyMemChunk memSeries : memSeriesList) {
+      count += memSeries.count();
+    }
+    return count;
+  }
 }
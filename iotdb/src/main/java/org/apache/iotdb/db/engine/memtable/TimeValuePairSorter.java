@@ -52,4 +52,15 @@ public interface TimeValuePairSorter {
   default boolean isEmpty() {
     return getSortedTimeValuePairList().isEmpty();
   }
+
+  /**
+   * notice, by default implementation, calling this method will cause calling
+   * getSortedTimeValuePairList().
+   *
+   * @return the number of points in this sorter, which may count the duplicated timestamps if the
+   * points are not sorted yet.
+   */
+  default long count() {
+    return getSortedTimeValuePairList().size();
+  }
 }
@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.pool;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.ProcessorException;
+
+/**
+ * Thread pool for the I/O that queries issue ahead of consumption, e.g., reading the next chunks
+ * of a sequence TsFile while the current ones are decoded.
+ */
+public class QueryIOPoolManager {
+
+  private ExecutorService pool;
+  private int threadCnt;
+
+  private QueryIOPoolManager() {
+    this.threadCnt = IoTDBDescriptor.getInstance().getConfig().getConcurrentQueryIOThread();
+    this.pool = IoTDBThreadPoolFactory
+        .newFixedThreadPool(threadCnt, ThreadName.QUERY_IO_SERVICE.getName());
+  }
+
+  public static QueryIOPoolManager getInstance() {
+    return InstanceHolder.instance;
+  }
+
+  /**
+   * Block new submits and exit when all RUNNING THREADS AND TASKS IN THE QUEUE end.
+   *
+   * @param block if set to true, this method will wait for timeOut milliseconds.
+   * @param timeout block time out in milliseconds.
+   * @throws ProcessorException if timeOut is reached or being interrupted while waiting to exit.
+   */
+  public void close(boolean block, long timeout) throws ProcessorException {
+    pool.shutdown();
+    if (block) {
+      try {
+        if (!pool.awaitTermination(timeout, TimeUnit.MILLISECONDS)) {
+          throw new ProcessorException("Query IO thread pool doesn't exit after "
+              + timeout + " ms");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ProcessorException("Interrupted while waiting query IO thread pool to exit. ",
+            e);
+      }
+    }
+  }
+
+  public void execute(Runnable task) {
+    pool.execute(task);
+  }
+
+  public <T> Future<T> submit(Callable<T> task) {
+    return pool.submit(task);
+  }
+
+  public int getActiveCnt() {
+    return ((ThreadPoolExecutor) pool).getActiveCount();
+  }
+
+  public int getThreadCnt() {
+    return threadCnt;
+  }
+
+  public int getWaitingTasksNumber() {
+    return ((ThreadPoolExecutor) pool).getQueue().size();
+  }
+
+  private static class InstanceHolder {
+
+    private InstanceHolder() {
+      //allowed to do nothing
+    }
+
+    private static QueryIOPoolManager instance = new QueryIOPoolManager();
+  }
+}
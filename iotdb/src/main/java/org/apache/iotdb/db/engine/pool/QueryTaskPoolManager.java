@@ -0,0 +1,224 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.pool;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.ProcessorException;
+
+/**
+ * Thread pool that drives the series readers of queries, e.g., each series of a raw data query is
+ * read into batches by this pool ahead of consumption. It is separated from {@link
+ * QueryIOPoolManager} because its tasks may wait for the I/O issued to that pool.
+ */
+public class QueryTaskPoolManager {
+
+  private ExecutorService pool;
+  private int threadCnt;
+
+  private QueryTaskPoolManager() {
+    this.threadCnt = IoTDBDescriptor.getInstance().getConfig().getConcurrentQueryThread();
+    this.pool = IoTDBThreadPoolFactory
+        .newFixedThreadPool(threadCnt, ThreadName.QUERY_SERVICE.getName());
+  }
+
+  public static QueryTaskPoolManager getInstance() {
+    return InstanceHolder.instance;
+  }
+
+  /**
+   * Block new submits and exit when all RUNNING THREADS AND TASKS IN THE QUEUE end.
+   *
+   * @param block if set to true, this method will wait for timeOut milliseconds.
+   * @param timeout block time out in milliseconds.
+   * @throws ProcessorException if timeOut is reached or being interrupted while waiting to exit.
+   */
+  public void close(boolean block, long timeout) throws ProcessorException {
+    pool.shutdown();
+    if (block) {
+      try {
+        if (!pool.awaitTermination(timeout, TimeUnit.MILLISECONDS)) {
+          throw new ProcessorException("Query thread pool doesn't exit after "
+              + timeout + " ms");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ProcessorException("Interrupted while waiting query thread pool to exit. ",
+            e);
+      }
+    }
+  }
+
+  public void execute(Runnable task) {
+    pool.execute(task);
+  }
+
+  public <T> Future<T> submit(Callable<T> task) {
+    return pool.submit(task);
+  }
+
+  /**
+   * remove a task passed to {@link #execute(Runnable)} if it has not started yet.
+   *
+   * @return true if the task is removed, so that it will not run
+   */
+  public boolean remove(Runnable task) {
+    return ((ThreadPoolExecutor) pool).remove(task);
+  }
+
+  /**
+   * run the tasks in this pool with at most <code>parallelism</code> of them at a time and wait
+   * for all of them, so that a query with many tasks cannot occupy the whole pool. The tasks are
+   * run one by one in the calling thread if <code>parallelism</code> is not greater than 1. Once a
+   * task fails, the tasks not started yet are cancelled, the running ones are waited for, as they
+   * use the resources of the query, and its exception is thrown.
+   */
+  public void runAll(List<QueryTask> tasks, int parallelism)
+      throws IOException, ProcessorException {
+    if (parallelism <= 1 || tasks.size() <= 1) {
+      for (QueryTask task : tasks) {
+        task.run();
+      }
+      return;
+    }
+
+    CompletionService<Void> completionService = new ExecutorCompletionService<>(pool);
+    List<SubmittedTask> submittedTasks = new ArrayList<>();
+    int submittedNum = 0;
+    try {
+      for (; submittedNum < Math.min(parallelism, tasks.size()); submittedNum++) {
+        submittedTasks.add(new SubmittedTask(completionService, tasks.get(submittedNum)));
+      }
+      for (int finishedNum = 0; finishedNum < tasks.size(); finishedNum++) {
+        completionService.take().get();
+        if (submittedNum < tasks.size()) {
+          submittedTasks.add(new SubmittedTask(completionService, tasks.get(submittedNum)));
+          submittedNum++;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ProcessorException("Interrupted while waiting for query tasks", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      } else if (e.getCause() instanceof ProcessorException) {
+        throw (ProcessorException) e.getCause();
+      }
+      throw new ProcessorException(e.getCause());
+    } finally {
+      for (SubmittedTask submittedTask : submittedTasks) {
+        submittedTask.cancelOrWait();
+      }
+    }
+  }
+
+  public int getActiveCnt() {
+    return ((ThreadPoolExecutor) pool).getActiveCount();
+  }
+
+  public int getThreadCnt() {
+    return threadCnt;
+  }
+
+  public int getWaitingTasksNumber() {
+    return ((ThreadPoolExecutor) pool).getQueue().size();
+  }
+
+  /**
+   * a part of a query, e.g., the aggregation of one series.
+   */
+  @FunctionalInterface
+  public interface QueryTask {
+
+    void run() throws IOException, ProcessorException;
+  }
+
+  /**
+   * a task of {@link #runAll(List, int)} in the pool, which either starts or is cancelled.
+   */
+  private static class SubmittedTask {
+
+    /**
+     * set by the first of the pool thread starting the task and the caller cancelling it.
+     */
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private final Future<Void> future;
+
+    private SubmittedTask(CompletionService<Void> completionService, QueryTask task) {
+      future = completionService.submit(() -> {
+        if (!claimed.compareAndSet(false, true)) {
+          return null;
+        }
+        try {
+          task.run();
+        } finally {
+          finished.countDown();
+        }
+        return null;
+      });
+    }
+
+    /**
+     * cancel the task if it has not started, otherwise wait until it ends.
+     */
+    private void cancelOrWait() {
+      if (claimed.compareAndSet(false, true)) {
+        future.cancel(false);
+        return;
+      }
+      boolean interrupted = false;
+      while (true) {
+        try {
+          finished.await();
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static class InstanceHolder {
+
+    private InstanceHolder() {
+      //allowed to do nothing
+    }
+
+    private static QueryTaskPoolManager instance = new QueryTaskPoolManager();
+  }
+}
@@ -24,7 +24,9 @@ import java.util.List;
 import java.util.Map;
 import org.apache.iotdb.db.engine.memtable.MemSeriesLazyMerger;
 import org.apache.iotdb.db.engine.memtable.TimeValuePairSorter;
+import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.utils.MathUtils;
+import org.apache.iotdb.db.utils.MemUtils;
 import org.apache.iotdb.db.utils.TimeValuePair;
 import org.apache.iotdb.db.utils.TsPrimitiveType.TsDouble;
 import org.apache.iotdb.db.utils.TsPrimitiveType.TsFloat;
@@ -57,6 +59,15 @@ public class ReadOnlyMemChunk implements TimeValuePairSorter {
     }
   }
 
+  /**
+   * charge the memory of the sorted copy of the data to the query, until the query ends. The copy
+   * is made lazily, possibly by a thread of the query pool that must not wait for memory, so its
+   * memory is reserved beforehand by the thread building the data source.
+   */
+  public void reserveMemory(QueryContext context) {
+    context.reserveMemory(MemUtils.estimateTimeValuePairListMem(dataType, count()));
+  }
+
   private void checkInitialized() {
     if (!initialized) {
       init();
@@ -107,4 +118,9 @@ public class ReadOnlyMemChunk implements TimeValuePairSorter {
     checkInitialized();
     return sortedTimeValuePairList.isEmpty();
   }
+
+  @Override
+  public long count() {
+    return initialized ? sortedTimeValuePairList.size() : memSeries.count();
+  }
 }
@@ -35,7 +35,13 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.apache.commons.io.FileUtils;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.conf.directories.DirectoryManager;
+import org.apache.iotdb.db.cq.ContinuousQueryService;
 import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.db.engine.cache.DeviceMetaDataCache;
+import org.apache.iotdb.db.engine.cache.LastValueCache;
+import org.apache.iotdb.db.engine.cache.QueryResultCache;
+import org.apache.iotdb.db.engine.cache.TsFileMetaDataCache;
 import org.apache.iotdb.db.engine.modification.Deletion;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
@@ -381,9 +387,15 @@ public class StorageGroupProcessor {
     try {
       for (TsFileResource tsFileResource : unSequenceFileList) {
         tsFileResource.close();
+        ChunkCache.getInstance().remove(tsFileResource.getFile().getPath());
+        TsFileMetaDataCache.getInstance().remove(tsFileResource.getFile().getPath());
+        DeviceMetaDataCache.getInstance().remove(tsFileResource.getFile().getPath());
       }
       for (TsFileResource tsFileResource : sequenceFileList) {
         tsFileResource.close();
+        ChunkCache.getInstance().remove(tsFileResource.getFile().getPath());
+        TsFileMetaDataCache.getInstance().remove(tsFileResource.getFile().getPath());
+        DeviceMetaDataCache.getInstance().remove(tsFileResource.getFile().getPath());
       }
       List<String> folder = DirectoryManager.getInstance().getAllSequenceFileFolders();
       folder.addAll(DirectoryManager.getInstance().getAllUnSequenceFileFolders());
@@ -403,6 +415,8 @@ public class StorageGroupProcessor {
       this.unSequenceFileList.clear();
       this.latestFlushedTimeForEachDevice.clear();
       this.latestTimeForEachDevice.clear();
+      LastValueCache.getInstance().deleteStorageGroup(storageGroupName);
+      QueryResultCache.getInstance().clear();
     } catch (IOException e) {
       logger.error("Cannot delete files in storage group {}, because", storageGroupName, e);
     } finally {
@@ -553,6 +567,9 @@ public class StorageGroupProcessor {
 
       deleteDataInFiles(sequenceFileList, deletion, updatedModFiles);
       deleteDataInFiles(unSequenceFileList, deletion, updatedModFiles);
+      LastValueCache.getInstance().delete(fullPath.getFullPath(), timestamp);
+      QueryResultCache.getInstance().invalidate(fullPath.getFullPath(), timestamp);
+      ContinuousQueryService.getInstance().markDeleted(fullPath.getFullPath(), timestamp);
 
     } catch (Exception e) {
       // roll back
@@ -31,7 +31,10 @@ import java.util.function.Supplier;
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.conf.adapter.CompressionRatio;
+import org.apache.iotdb.db.cq.ContinuousQueryService;
 import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.engine.cache.LastValueCache;
+import org.apache.iotdb.db.engine.cache.QueryResultCache;
 import org.apache.iotdb.db.engine.memtable.IMemTable;
 import org.apache.iotdb.db.engine.memtable.MemSeriesLazyMerger;
 import org.apache.iotdb.db.engine.memtable.MemTableFlushTask;
@@ -161,6 +164,8 @@ public class TsFileProcessor {
 
     // insert insertPlan to the work memtable
     workMemTable.insert(insertPlan);
+    LastValueCache.getInstance().update(insertPlan);
+    QueryResultCache.getInstance().invalidate(insertPlan);
 
     return true;
   }
@@ -374,9 +379,11 @@ public class TsFileProcessor {
     if (!memTableToFlush.isSignalMemTable()) {
       MemTableFlushTask flushTask = new MemTableFlushTask(memTableToFlush, fileSchema, writer,
           storageGroupName);
+      boolean flushed = false;
       try {
         writer.mark();
         flushTask.syncFlushMemTable();
+        flushed = true;
       } catch (ExecutionException | InterruptedException | IOException e) {
         logger.error("meet error when flushing a memtable, change system mode to read-only", e);
         IoTDBDescriptor.getInstance().getConfig().setReadOnly(true);
@@ -389,6 +396,16 @@ public class TsFileProcessor {
         Thread.currentThread().interrupt();
       }
 
+      if (flushed) {
+        try {
+          ContinuousQueryService.getInstance().onMemTableFlushed(memTableToFlush);
+        } catch (RuntimeException e) {
+          // the flushed data is safe, only its rollups are postponed
+          logger.error("storage group {} fails to notify the continuous queries of a flushed "
+              + "memtable", storageGroupName, e);
+        }
+      }
+
       if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
         getLogNode().notifyEndFlush();
       }
@@ -512,6 +529,8 @@ public class TsFileProcessor {
    */
   public Pair<ReadOnlyMemChunk, List<ChunkMetaData>> query(String deviceId,
       String measurementId, TSDataType dataType, Map<String, String> props, QueryContext context) {
+    ReadOnlyMemChunk timeValuePairSorter;
+    List<ChunkMetaData> chunkMetaDataList;
     flushQueryLock.readLock().lock();
     try {
       MemSeriesLazyMerger memSeriesLazyMerger = new MemSeriesLazyMerger();
@@ -533,22 +552,23 @@ public class TsFileProcessor {
       }
       // memSeriesLazyMerger has handled the props,
       // so we do not need to handle it again in the following readOnlyMemChunk
-      ReadOnlyMemChunk timeValuePairSorter = new ReadOnlyMemChunk(dataType, memSeriesLazyMerger,
+      timeValuePairSorter = new ReadOnlyMemChunk(dataType, memSeriesLazyMerger,
           Collections.emptyMap());
 
       ModificationFile modificationFile = tsFileResource.getModFile();
       List<Modification> modifications = context.getPathModifications(modificationFile,
           deviceId + IoTDBConstant.PATH_SEPARATOR + measurementId);
 
-      List<ChunkMetaData> chunkMetaDataList = writer
+      chunkMetaDataList = writer
           .getVisibleMetadataList(deviceId, measurementId, dataType);
       QueryUtils.modifyChunkMetaData(chunkMetaDataList,
           modifications);
-
-      return new Pair<>(timeValuePairSorter, chunkMetaDataList);
     } finally {
       flushQueryLock.readLock().unlock();
     }
+    // wait for the memory out of the lock, which would block the flushes otherwise
+    timeValuePairSorter.reserveMemory(context);
+    return new Pair<>(timeValuePairSorter, chunkMetaDataList);
   }
 
 }
@@ -33,6 +33,7 @@ import org.apache.iotdb.db.qp.logical.RootOperator;
 import org.apache.iotdb.db.qp.logical.crud.FilterOperator;
 import org.apache.iotdb.db.qp.logical.crud.SFWOperator;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.strategy.InsertStatementParser;
 import org.apache.iotdb.db.qp.strategy.LogicalGenerator;
 import org.apache.iotdb.db.qp.strategy.PhysicalGenerator;
 import org.apache.iotdb.db.qp.strategy.optimizer.ConcatPathOptimizer;
@@ -69,6 +70,21 @@ public class QueryProcessor {
   public PhysicalPlan parseSQLToPhysicalPlan(String sqlStr, ZoneId zoneId)
       throws QueryProcessorException, ArgsErrorException,
       MetadataErrorException {
+    // inserts in the canonical form, which are most of the statements of writers, skip the
+    // grammar parser
+    PhysicalPlan insertPlan = InsertStatementParser.parse(sqlStr);
+    if (insertPlan != null) {
+      return insertPlan;
+    }
+    return parseSQLToPhysicalPlanByGrammar(sqlStr, zoneId);
+  }
+
+  /**
+   * parse a statement by the grammar, without trying {@link InsertStatementParser} first.
+   */
+  public PhysicalPlan parseSQLToPhysicalPlanByGrammar(String sqlStr, ZoneId zoneId)
+      throws QueryProcessorException, ArgsErrorException,
+      MetadataErrorException {
     AstNode astNode = parseSQLToAST(sqlStr);
     Operator operator = parseASTToOperator(astNode, zoneId);
     operator = logicalOptimize(operator, executor);
@@ -138,6 +154,10 @@ public class QueryProcessor {
       case INSERT:
       case INDEX:
       case INDEXQUERY:
+      case SHOW_QUERIES:
+      case CREATE_CONTINUOUS_QUERY:
+      case DROP_CONTINUOUS_QUERY:
+      case SHOW_CONTINUOUS_QUERIES:
         return operator;
       case QUERY:
       case UPDATE:
@@ -89,6 +89,10 @@ public class SQLConstant {
   public static final int TOK_PROPERTY_LINK = 57;
   public static final int TOK_PROPERTY_UNLINK = 58;
   public static final int TOK_LIST = 59;
+  public static final int TOK_SHOW_QUERIES = 60;
+  public static final int TOK_CREATE_CONTINUOUS_QUERY = 61;
+  public static final int TOK_DROP_CONTINUOUS_QUERY = 62;
+  public static final int TOK_SHOW_CONTINUOUS_QUERIES = 63;
 
   public static final Map<Integer, String> tokenSymbol = new HashMap<>();
   public static final Map<Integer, String> tokenNames = new HashMap<>();
@@ -144,6 +148,10 @@ public class SQLConstant {
     tokenNames.put(TOK_PROPERTY_UNLINK, "TOK_PROPERTY_UNLINK");
 
     tokenNames.put(TOK_LIST, "TOK_LIST");
+    tokenNames.put(TOK_SHOW_QUERIES, "TOK_SHOW_QUERIES");
+    tokenNames.put(TOK_CREATE_CONTINUOUS_QUERY, "TOK_CREATE_CONTINUOUS_QUERY");
+    tokenNames.put(TOK_DROP_CONTINUOUS_QUERY, "TOK_DROP_CONTINUOUS_QUERY");
+    tokenNames.put(TOK_SHOW_CONTINUOUS_QUERIES, "TOK_SHOW_CONTINUOUS_QUERIES");
   }
 
   static {
@@ -18,9 +18,26 @@
  */
 package org.apache.iotdb.db.qp.executor;
 
+import static org.apache.iotdb.db.conf.IoTDBConstant.CONTINUOUS_QUERY_INTERVAL;
+import static org.apache.iotdb.db.conf.IoTDBConstant.CONTINUOUS_QUERY_NAME;
+import static org.apache.iotdb.db.conf.IoTDBConstant.CONTINUOUS_QUERY_ORIGIN;
+import static org.apache.iotdb.db.conf.IoTDBConstant.CONTINUOUS_QUERY_SELECT;
+import static org.apache.iotdb.db.conf.IoTDBConstant.CONTINUOUS_QUERY_TARGET;
+import static org.apache.iotdb.db.conf.IoTDBConstant.JOB_ID;
+import static org.apache.iotdb.db.conf.IoTDBConstant.MEMORY_LIMIT;
+import static org.apache.iotdb.db.conf.IoTDBConstant.PEAK_MEMORY;
+import static org.apache.iotdb.db.conf.IoTDBConstant.STATEMENT;
+import static org.apache.iotdb.db.conf.IoTDBConstant.USED_MEMORY;
+import static org.apache.iotdb.db.conf.IoTDBConstant.USER;
+
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import org.apache.iotdb.db.cq.ContinuousQuery;
+import org.apache.iotdb.db.cq.ContinuousQueryService;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.MetadataErrorException;
 import org.apache.iotdb.db.exception.PathErrorException;
@@ -31,15 +48,26 @@ import org.apache.iotdb.db.qp.physical.crud.AggregationPlan;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.FillQueryPlan;
 import org.apache.iotdb.db.qp.physical.crud.GroupByPlan;
+import org.apache.iotdb.db.qp.physical.crud.LastQueryPlan;
 import org.apache.iotdb.db.qp.physical.crud.QueryPlan;
 import org.apache.iotdb.db.qp.physical.sys.AuthorPlan;
+import org.apache.iotdb.db.qp.physical.sys.ShowContinuousQueriesPlan;
+import org.apache.iotdb.db.qp.physical.sys.ShowQueriesPlan;
 import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.context.QueryMemoryTracker;
+import org.apache.iotdb.db.query.dataset.LimitedQueryDataSet;
+import org.apache.iotdb.db.query.dataset.ListDataSet;
 import org.apache.iotdb.db.query.executor.EngineQueryRouter;
 import org.apache.iotdb.db.query.executor.IEngineQueryRouter;
+import org.apache.iotdb.db.rescon.QueryMemoryPool;
 import org.apache.iotdb.tsfile.exception.filter.QueryFilterOptimizationException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Field;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.iotdb.tsfile.read.expression.QueryExpression;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Binary;
 
 public abstract class AbstractQueryProcessExecutor implements IQueryProcessExecutor {
 
@@ -54,16 +82,96 @@ public abstract class AbstractQueryProcessExecutor implements IQueryProcessExecu
       return processDataQuery((QueryPlan) queryPlan, context);
     } else if (queryPlan instanceof AuthorPlan) {
       return processAuthorQuery((AuthorPlan) queryPlan, context);
+    } else if (queryPlan instanceof ShowQueriesPlan) {
+      return processShowQueries();
+    } else if (queryPlan instanceof ShowContinuousQueriesPlan) {
+      return processShowContinuousQueries();
     } else {
       throw new ProcessorException(String.format("Unrecognized query plan %s", queryPlan));
     }
   }
 
+  /**
+   * list the running queries and their memory usage.
+   */
+  private QueryDataSet processShowQueries() {
+    List<Path> headerList = Arrays.asList(new Path(JOB_ID), new Path(USER), new Path(STATEMENT),
+        new Path(USED_MEMORY), new Path(PEAK_MEMORY), new Path(MEMORY_LIMIT));
+    List<TSDataType> typeList = Arrays.asList(TSDataType.INT64, TSDataType.TEXT, TSDataType.TEXT,
+        TSDataType.INT64, TSDataType.INT64, TSDataType.INT64);
+    ListDataSet dataSet = new ListDataSet(new ArrayList<>(headerList), new ArrayList<>(typeList));
+    int index = 0;
+    for (QueryMemoryTracker tracker : QueryMemoryPool.getInstance().getTrackers()) {
+      RowRecord record = new RowRecord(index++);
+      record.addField(longField(tracker.getJobId()));
+      record.addField(textField(tracker.getUser()));
+      record.addField(textField(tracker.getStatement()));
+      record.addField(longField(tracker.getUsedMemory()));
+      record.addField(longField(tracker.getPeakMemory()));
+      record.addField(longField(tracker.getMemoryLimit()));
+      dataSet.putRecord(record);
+    }
+    return dataSet;
+  }
+
+  /**
+   * list the continuous queries.
+   */
+  private QueryDataSet processShowContinuousQueries() {
+    List<Path> headerList = Arrays.asList(new Path(CONTINUOUS_QUERY_NAME),
+        new Path(CONTINUOUS_QUERY_SELECT), new Path(CONTINUOUS_QUERY_TARGET),
+        new Path(CONTINUOUS_QUERY_INTERVAL), new Path(CONTINUOUS_QUERY_ORIGIN));
+    List<TSDataType> typeList = Arrays.asList(TSDataType.TEXT, TSDataType.TEXT, TSDataType.TEXT,
+        TSDataType.INT64, TSDataType.INT64);
+    ListDataSet dataSet = new ListDataSet(new ArrayList<>(headerList), new ArrayList<>(typeList));
+    int index = 0;
+    for (ContinuousQuery continuousQuery : ContinuousQueryService.getInstance()
+        .getContinuousQueries()) {
+      RowRecord record = new RowRecord(index++);
+      record.addField(textField(continuousQuery.getName()));
+      record.addField(textField(continuousQuery.getSelectString()));
+      record.addField(textField(continuousQuery.getTargetPath().getFullPath()));
+      record.addField(longField(continuousQuery.getUnit()));
+      record.addField(longField(continuousQuery.getOrigin()));
+      dataSet.putRecord(record);
+    }
+    return dataSet;
+  }
+
+  private static Field longField(long value) {
+    Field field = new Field(TSDataType.INT64);
+    field.setLongV(value);
+    return field;
+  }
+
+  private static Field textField(String value) {
+    Field field = new Field(TSDataType.TEXT);
+    field.setBinaryV(new Binary(value == null ? "" : value));
+    return field;
+  }
+
   protected abstract QueryDataSet processAuthorQuery(AuthorPlan plan, QueryContext context)
       throws ProcessorException;
 
   private QueryDataSet processDataQuery(QueryPlan queryPlan, QueryContext context)
       throws StorageEngineException, QueryFilterOptimizationException, PathErrorException, ProcessorException, IOException {
+    if (queryPlan instanceof GroupByPlan || queryPlan instanceof AggregationPlan
+        || queryPlan instanceof FillQueryPlan || queryPlan instanceof LastQueryPlan) {
+      QueryDataSet dataSet = processNonRawDataQuery(queryPlan, context);
+      if (queryPlan.hasLimit() || queryPlan.getRowOffset() > 0) {
+        return new LimitedQueryDataSet(dataSet, queryPlan.getRowLimit(),
+            queryPlan.getRowOffset());
+      }
+      return dataSet;
+    }
+    QueryExpression queryExpression = QueryExpression.create().setSelectSeries(queryPlan.getPaths())
+            .setExpression(queryPlan.getExpression());
+    return queryRouter.query(queryExpression, context, queryPlan.getRowLimit(),
+        queryPlan.getRowOffset(), queryPlan.isOrderByTimeDesc());
+  }
+
+  private QueryDataSet processNonRawDataQuery(QueryPlan queryPlan, QueryContext context)
+      throws StorageEngineException, QueryFilterOptimizationException, PathErrorException, ProcessorException, IOException {
     if (queryPlan instanceof GroupByPlan) {
       GroupByPlan groupByPlan = (GroupByPlan) queryPlan;
       return groupBy(groupByPlan.getPaths(), groupByPlan.getAggregations(),
@@ -76,14 +184,13 @@ public abstract class AbstractQueryProcessExecutor implements IQueryProcessExecu
           queryPlan.getExpression(), context);
     }
 
-    if (queryPlan instanceof FillQueryPlan) {
-      FillQueryPlan fillQueryPlan = (FillQueryPlan) queryPlan;
-      return fill(queryPlan.getPaths(), fillQueryPlan.getQueryTime(),
-          fillQueryPlan.getFillType(), context);
+    if (queryPlan instanceof LastQueryPlan) {
+      return queryRouter.last(queryPlan.getPaths(), context);
     }
-    QueryExpression queryExpression = QueryExpression.create().setSelectSeries(queryPlan.getPaths())
-            .setExpression(queryPlan.getExpression());
-    return queryRouter.query(queryExpression, context);
+
+    FillQueryPlan fillQueryPlan = (FillQueryPlan) queryPlan;
+    return fill(queryPlan.getPaths(), fillQueryPlan.getQueryTime(),
+        fillQueryPlan.getFillType(), context);
   }
 
 
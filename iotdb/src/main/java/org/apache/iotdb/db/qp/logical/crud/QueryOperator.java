@@ -36,9 +36,14 @@ public class QueryOperator extends SFWOperator {
   private boolean isGroupBy = false;
   private Map<TSDataType, IFill> fillTypes;
   private boolean isFill = false;
+  private boolean isLast = false;
   private int seriesLimit;
   private int seriesOffset;
   private boolean hasSlimit = false; // false if sql does not contain SLIMIT clause
+  private int rowLimit = 0; // 0 if sql does not contain LIMIT clause
+  private int rowOffset = 0;
+  private boolean orderByTimeDesc = false; // true if sql contains ORDER BY TIME DESC
+
   public QueryOperator(int tokenIntType) {
     super(tokenIntType);
     operatorType = Operator.OperatorType.QUERY;
@@ -60,6 +65,14 @@ public class QueryOperator extends SFWOperator {
     this.fillTypes = fillTypes;
   }
 
+  public boolean isLast() {
+    return isLast;
+  }
+
+  public void setLast(boolean isLast) {
+    this.isLast = isLast;
+  }
+
   public boolean isGroupBy() {
     return isGroupBy;
   }
@@ -93,6 +106,30 @@ public class QueryOperator extends SFWOperator {
     return hasSlimit;
   }
 
+  public int getRowLimit() {
+    return rowLimit;
+  }
+
+  public void setRowLimit(int rowLimit) {
+    this.rowLimit = rowLimit;
+  }
+
+  public int getRowOffset() {
+    return rowOffset;
+  }
+
+  public void setRowOffset(int rowOffset) {
+    this.rowOffset = rowOffset;
+  }
+
+  public boolean isOrderByTimeDesc() {
+    return orderByTimeDesc;
+  }
+
+  public void setOrderByTimeDesc(boolean orderByTimeDesc) {
+    this.orderByTimeDesc = orderByTimeDesc;
+  }
+
   public long getUnit() {
     return unit;
   }
@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.qp.logical.sys;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.db.qp.logical.RootOperator;
+import org.apache.iotdb.tsfile.read.common.Path;
+
+/**
+ * this class represents the CREATE CONTINUOUS QUERY statement, which registers a GROUP BY query
+ * whose results are written into the series under the target path.
+ */
+public class CreateContinuousQueryOperator extends RootOperator {
+
+  private String name;
+  private List<Path> selectedPaths = new ArrayList<>();
+  private List<String> aggregations = new ArrayList<>();
+  private List<Path> fromPaths = new ArrayList<>();
+  private Path targetPath;
+  private long unit;
+  private long origin;
+
+  public CreateContinuousQueryOperator(int tokenIntType, String name) {
+    super(tokenIntType);
+    operatorType = OperatorType.CREATE_CONTINUOUS_QUERY;
+    this.name = name;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void addSelectedPath(Path path, String aggregation) {
+    selectedPaths.add(path);
+    aggregations.add(aggregation);
+  }
+
+  public List<Path> getSelectedPaths() {
+    return selectedPaths;
+  }
+
+  public List<String> getAggregations() {
+    return aggregations;
+  }
+
+  public void addFromPath(Path path) {
+    fromPaths.add(path);
+  }
+
+  public List<Path> getFromPaths() {
+    return fromPaths;
+  }
+
+  public Path getTargetPath() {
+    return targetPath;
+  }
+
+  public void setTargetPath(Path targetPath) {
+    this.targetPath = targetPath;
+  }
+
+  public long getUnit() {
+    return unit;
+  }
+
+  public void setUnit(long unit) {
+    this.unit = unit;
+  }
+
+  public long getOrigin() {
+    return origin;
+  }
+
+  public void setOrigin(long origin) {
+    this.origin = origin;
+  }
+}
@@ -31,6 +31,21 @@ public class QueryPlan extends PhysicalPlan {
   private List<Path> paths = null;
   private IExpression expression = null;
 
+  /**
+   * max number of rows to return, 0 if there is no LIMIT clause.
+   */
+  private int rowLimit = 0;
+
+  /**
+   * number of rows to skip before the first returned row.
+   */
+  private int rowOffset = 0;
+
+  /**
+   * true to return the rows from the latest to the earliest.
+   */
+  private boolean orderByTimeDesc = false;
+
   public QueryPlan() {
     super(true);
     setOperatorType(Operator.OperatorType.QUERY);
@@ -67,4 +82,32 @@ public class QueryPlan extends PhysicalPlan {
   public void setPaths(List<Path> paths) {
     this.paths = paths;
   }
+
+  public int getRowLimit() {
+    return rowLimit;
+  }
+
+  public void setRowLimit(int rowLimit) {
+    this.rowLimit = rowLimit;
+  }
+
+  public int getRowOffset() {
+    return rowOffset;
+  }
+
+  public void setRowOffset(int rowOffset) {
+    this.rowOffset = rowOffset;
+  }
+
+  public boolean isOrderByTimeDesc() {
+    return orderByTimeDesc;
+  }
+
+  public void setOrderByTimeDesc(boolean orderByTimeDesc) {
+    this.orderByTimeDesc = orderByTimeDesc;
+  }
+
+  public boolean hasLimit() {
+    return rowLimit > 0;
+  }
 }
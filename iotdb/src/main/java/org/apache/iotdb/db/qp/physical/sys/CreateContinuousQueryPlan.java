@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.qp.physical.sys;
+
+import java.util.List;
+import java.util.Objects;
+import org.apache.iotdb.db.qp.logical.Operator;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.tsfile.read.common.Path;
+
+public class CreateContinuousQueryPlan extends PhysicalPlan {
+
+  private String name;
+  /**
+   * the source series, which may contain wildcards.
+   */
+  private List<Path> paths;
+  private List<String> aggregations;
+  private Path targetPath;
+  private long unit;
+  private long origin;
+
+  /**
+   * Constructor of CreateContinuousQueryPlan.
+   */
+  public CreateContinuousQueryPlan(String name, List<Path> paths, List<String> aggregations,
+      Path targetPath, long unit, long origin) {
+    super(false, Operator.OperatorType.CREATE_CONTINUOUS_QUERY);
+    this.name = name;
+    this.paths = paths;
+    this.aggregations = aggregations;
+    this.targetPath = targetPath;
+    this.unit = unit;
+    this.origin = origin;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public List<Path> getPaths() {
+    return paths;
+  }
+
+  @Override
+  public List<String> getAggregations() {
+    return aggregations;
+  }
+
+  public Path getTargetPath() {
+    return targetPath;
+  }
+
+  public long getUnit() {
+    return unit;
+  }
+
+  public long getOrigin() {
+    return origin;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof CreateContinuousQueryPlan)) {
+      return false;
+    }
+    CreateContinuousQueryPlan that = (CreateContinuousQueryPlan) o;
+    return unit == that.unit && origin == that.origin && Objects.equals(name, that.name)
+        && Objects.equals(paths, that.paths) && Objects.equals(aggregations, that.aggregations)
+        && Objects.equals(targetPath, that.targetPath);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(name, paths, aggregations, targetPath, unit, origin);
+  }
+}
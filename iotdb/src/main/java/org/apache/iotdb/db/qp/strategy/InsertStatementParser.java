@@ -0,0 +1,310 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.qp.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.apache.iotdb.db.qp.constant.SQLConstant;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.sql.parse.TSParser;
+
+/**
+ * Parse the canonical form of an insert statement, i.e., "INSERT INTO root.sg.d1(timestamp, s1,
+ * s2) VALUES (1, 1.0, 'a')", into an InsertPlan directly by scanning the string once, which costs
+ * much less than the ANTLR parser and the generators.
+ * <p>
+ * It accepts a statement only if the ANTLR parser would turn it into the same plan, and returns
+ * null for anything else, e.g., a time in the date format, a string with escaped quotes or a path
+ * with whitespace inside, which is then left to the full parser to handle or to report the error.
+ */
+public class InsertStatementParser {
+
+  /**
+   * the keywords cannot be identifiers, e.g., a measurement named "value" is rejected by the
+   * ANTLR parser.
+   */
+  private static final Set<String> KEYWORDS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+  static {
+    for (String tokenName : TSParser.tokenNames) {
+      if (tokenName.startsWith("KW_")) {
+        KEYWORDS.add(tokenName.substring(3));
+      }
+    }
+    KEYWORDS.add("TRUE");
+    KEYWORDS.add("FALSE");
+  }
+
+  private final String sql;
+  private int pos;
+
+  private InsertStatementParser(String sql) {
+    this.sql = sql;
+  }
+
+  /**
+   * @return the plan of the statement, or null if it is not an insert statement in the canonical
+   * form
+   */
+  public static InsertPlan parse(String sql) {
+    return new InsertStatementParser(sql).parse();
+  }
+
+  private InsertPlan parse() {
+    skipWhitespace();
+    if (!matchKeyword("INSERT") || !skipWhitespace() || !matchKeyword("INTO")
+        || !skipWhitespace()) {
+      return null;
+    }
+    String deviceId = parseDeviceId();
+    if (deviceId == null || !matchSymbol('(') || !matchKeyword("TIMESTAMP")) {
+      return null;
+    }
+    List<String> measurements = new ArrayList<>();
+    while (matchSymbol(',')) {
+      String measurement = parseIdentifier();
+      if (measurement == null) {
+        return null;
+      }
+      measurements.add(measurement);
+    }
+    if (!matchSymbol(')') || !matchKeyword("VALUES") || !matchSymbol('(')) {
+      return null;
+    }
+
+    skipWhitespace();
+    long time = parseTime();
+    // the full parser reports the error of a time that is not positive
+    if (time <= 0) {
+      return null;
+    }
+    String[] values = new String[measurements.size()];
+    for (int i = 0; i < values.length; i++) {
+      if (!matchSymbol(',')) {
+        return null;
+      }
+      skipWhitespace();
+      values[i] = parseValue();
+      if (values[i] == null) {
+        return null;
+      }
+    }
+    if (!matchSymbol(')')) {
+      return null;
+    }
+    skipWhitespace();
+    if (pos != sql.length()) {
+      return null;
+    }
+    return new InsertPlan(deviceId, time, measurements.toArray(new String[0]), values);
+  }
+
+  /**
+   * skip the whitespace before the symbol and match it.
+   */
+  private boolean matchSymbol(char symbol) {
+    skipWhitespace();
+    if (pos < sql.length() && sql.charAt(pos) == symbol) {
+      pos++;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * skip the whitespace before the keyword and match it, ignoring the case.
+   */
+  private boolean matchKeyword(String keyword) {
+    skipWhitespace();
+    int end = pos + keyword.length();
+    if (end > sql.length() || !sql.regionMatches(true, pos, keyword, 0, keyword.length())
+        || (end < sql.length() && isIdentifierPart(sql.charAt(end)))) {
+      return false;
+    }
+    pos = end;
+    return true;
+  }
+
+  /**
+   * @return whether there is any whitespace
+   */
+  private boolean skipWhitespace() {
+    int start = pos;
+    while (pos < sql.length()) {
+      char c = sql.charAt(pos);
+      if (c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+        break;
+      }
+      pos++;
+    }
+    return pos > start;
+  }
+
+  /**
+   * parse a path like root.sg.d1 whose nodes are identifiers without whitespace in between. The
+   * root is in lower case as it is in the paths generated by the full parser.
+   */
+  private String parseDeviceId() {
+    if (!matchKeyword(SQLConstant.ROOT)) {
+      return null;
+    }
+    int start = pos;
+    while (pos < sql.length() && sql.charAt(pos) == '.') {
+      pos++;
+      int nodeStart = pos;
+      while (pos < sql.length() && isIdentifierPart(sql.charAt(pos))) {
+        pos++;
+      }
+      if (!isIdentifier(nodeStart, pos)) {
+        return null;
+      }
+    }
+    return SQLConstant.ROOT + sql.substring(start, pos);
+  }
+
+  private String parseIdentifier() {
+    skipWhitespace();
+    int start = pos;
+    while (pos < sql.length() && isIdentifierPart(sql.charAt(pos))) {
+      pos++;
+    }
+    return isIdentifier(start, pos) ? sql.substring(start, pos) : null;
+  }
+
+  private boolean isIdentifier(int start, int end) {
+    if (start == end) {
+      return false;
+    }
+    char first = sql.charAt(start);
+    return (first == '_' || isLetter(first)) && !KEYWORDS.contains(sql.substring(start, end));
+  }
+
+  /**
+   * @return the time, or -1 if it is not a positive integer
+   */
+  private long parseTime() {
+    int start = pos;
+    long time = 0;
+    while (pos < sql.length() && isDigit(sql.charAt(pos))) {
+      if (time > (Long.MAX_VALUE - 9) / 10) {
+        return -1;
+      }
+      time = time * 10 + (sql.charAt(pos) - '0');
+      pos++;
+    }
+    if (pos == start || (pos < sql.length() && !isDelimiter(sql.charAt(pos)))) {
+      return -1;
+    }
+    return time;
+  }
+
+  /**
+   * parse a number, a boolean or a string in quotes. The value is returned as it is written,
+   * including the quotes, like the text of the token given by the full parser.
+   */
+  private String parseValue() {
+    if (pos >= sql.length()) {
+      return null;
+    }
+    int start = pos;
+    char first = sql.charAt(pos);
+    if (first == '\'' || first == '"') {
+      pos++;
+      while (pos < sql.length() && sql.charAt(pos) != first) {
+        // the escapes are left to the full parser
+        if (sql.charAt(pos) == '\\') {
+          return null;
+        }
+        pos++;
+      }
+      if (pos == sql.length() || (pos + 1 < sql.length() && sql.charAt(pos + 1) == first)) {
+        return null;
+      }
+      pos++;
+    } else if (isLetter(first)) {
+      while (pos < sql.length() && isIdentifierPart(sql.charAt(pos))) {
+        pos++;
+      }
+      String word = sql.substring(start, pos);
+      if (!word.equalsIgnoreCase(SQLConstant.BOOLEN_TRUE)
+          && !word.equalsIgnoreCase(SQLConstant.BOOLEN_FALSE)) {
+        return null;
+      }
+    } else if (!parseNumber()) {
+      return null;
+    }
+    if (pos < sql.length() && !isDelimiter(sql.charAt(pos))) {
+      return null;
+    }
+    return sql.substring(start, pos);
+  }
+
+  /**
+   * match an integer or a float like -1.5e10.
+   */
+  private boolean parseNumber() {
+    char first = sql.charAt(pos);
+    if (first == '+' || first == '-') {
+      pos++;
+    }
+    if (!skipDigits()) {
+      return false;
+    }
+    if (pos < sql.length() && sql.charAt(pos) == '.') {
+      pos++;
+      if (!skipDigits()) {
+        return false;
+      }
+      if (pos < sql.length() && (sql.charAt(pos) == 'e' || sql.charAt(pos) == 'E')) {
+        pos++;
+        if (pos < sql.length() && (sql.charAt(pos) == '+' || sql.charAt(pos) == '-')) {
+          pos++;
+        }
+        return skipDigits();
+      }
+    }
+    return true;
+  }
+
+  private boolean skipDigits() {
+    int start = pos;
+    while (pos < sql.length() && isDigit(sql.charAt(pos))) {
+      pos++;
+    }
+    return pos > start;
+  }
+
+  private static boolean isDelimiter(char c) {
+    return c == ',' || c == ')' || c == ' ' || c == '\t' || c == '\r' || c == '\n';
+  }
+
+  private static boolean isLetter(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isIdentifierPart(char c) {
+    return isLetter(c) || isDigit(c) || c == '_' || c == '-';
+  }
+}
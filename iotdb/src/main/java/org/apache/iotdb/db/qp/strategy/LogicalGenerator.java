@@ -47,9 +47,13 @@ import org.apache.iotdb.db.qp.logical.crud.SFWOperator;
 import org.apache.iotdb.db.qp.logical.crud.SelectOperator;
 import org.apache.iotdb.db.qp.logical.crud.UpdateOperator;
 import org.apache.iotdb.db.qp.logical.sys.AuthorOperator;
+import org.apache.iotdb.db.qp.logical.sys.CreateContinuousQueryOperator;
+import org.apache.iotdb.db.qp.logical.sys.DropContinuousQueryOperator;
 import org.apache.iotdb.db.qp.logical.sys.LoadDataOperator;
 import org.apache.iotdb.db.qp.logical.sys.MetadataOperator;
 import org.apache.iotdb.db.qp.logical.sys.PropertyOperator;
+import org.apache.iotdb.db.qp.logical.sys.ShowContinuousQueriesOperator;
+import org.apache.iotdb.db.qp.logical.sys.ShowQueriesOperator;
 import org.apache.iotdb.db.query.fill.IFill;
 import org.apache.iotdb.db.query.fill.LinearFill;
 import org.apache.iotdb.db.query.fill.PreviousFill;
@@ -57,6 +61,7 @@ import org.apache.iotdb.db.sql.parse.AstNode;
 import org.apache.iotdb.db.sql.parse.Node;
 import org.apache.iotdb.db.sql.parse.TSParser;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.constant.StatisticConstant;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -106,6 +111,9 @@ public class LogicalGenerator {
       case TSParser.TOK_SELECT:
         analyzeSelectedPath(astNode);
         return;
+      case TSParser.TOK_SELECT_LAST:
+        analyzeSelectLast(astNode);
+        return;
       case TSParser.TOK_FROM:
         analyzeFrom(astNode);
         return;
@@ -194,9 +202,29 @@ public class LogicalGenerator {
       case TSParser.TOK_LIST:
         analyzeList(astNode);
         return;
+      case TSParser.TOK_SHOW_QUERIES:
+        initializedOperator = new ShowQueriesOperator(SQLConstant.TOK_SHOW_QUERIES);
+        return;
+      case TSParser.TOK_CREATE_CONTINUOUS_QUERY:
+        analyzeCreateContinuousQuery(astNode);
+        return;
+      case TSParser.TOK_DROP_CONTINUOUS_QUERY:
+        initializedOperator = new DropContinuousQueryOperator(
+            SQLConstant.TOK_DROP_CONTINUOUS_QUERY, astNode.getChild(0).getText());
+        return;
+      case TSParser.TOK_SHOW_CONTINUOUS_QUERIES:
+        initializedOperator = new ShowContinuousQueriesOperator(
+            SQLConstant.TOK_SHOW_CONTINUOUS_QUERIES);
+        return;
       case TSParser.TOK_LIMIT:
         analyzeLimit(astNode);
         return;
+      case TSParser.TOK_OFFSET:
+        analyzeOffset(astNode);
+        return;
+      case TSParser.TOK_ORDERBY_TIME:
+        analyzeOrderByTime(astNode);
+        return;
       case TSParser.TOK_SLIMIT:
         analyzeSlimit(astNode);
         return;
@@ -211,6 +239,49 @@ public class LogicalGenerator {
     }
   }
 
+  /**
+   * analyze CREATE CONTINUOUS QUERY name SELECT func(suffixPath), ... INTO prefixPath FROM
+   * prefixPath, ... GROUP BY (unit[, origin]).
+   */
+  private void analyzeCreateContinuousQuery(AstNode astNode) throws LogicalOperatorException {
+    CreateContinuousQueryOperator operator = new CreateContinuousQueryOperator(
+        SQLConstant.TOK_CREATE_CONTINUOUS_QUERY, astNode.getChild(0).getText());
+
+    AstNode selectNode = astNode.getChild(1);
+    for (int i = 0; i < selectNode.getChildCount(); i++) {
+      AstNode child = selectNode.getChild(i);
+      if (child.getChild(0).getType() != TSParser.TOK_CLUSTER) {
+        throw new LogicalOperatorException(
+            "Continuous query must bind each seriesPath with an aggregation function");
+      }
+      AstNode cluster = child.getChild(0);
+      operator.addSelectedPath(parsePath(cluster.getChild(0)), cluster.getChild(1).getText());
+    }
+
+    operator.setTargetPath(parsePath(astNode.getChild(2).getChild(0)));
+
+    AstNode fromNode = astNode.getChild(3);
+    for (int i = 0; i < fromNode.getChildCount(); i++) {
+      operator.addFromPath(parsePath(fromNode.getChild(i)));
+    }
+
+    AstNode groupByNode = astNode.getChild(4);
+    operator.setUnit(parseTimeUnit(groupByNode.getChild(0)));
+    long originTime;
+    if (groupByNode.getChildCount() == 2) {
+      AstNode originNode = groupByNode.getChild(1).getChild(0);
+      if (originNode.getType() == TSParser.TOK_DATETIME) {
+        originTime = Long.valueOf(parseTokenTime(originNode));
+      } else {
+        originTime = Long.valueOf(originNode.getText());
+      }
+    } else {
+      originTime = parseTimeFormat(SQLConstant.START_TIME_STR);
+    }
+    operator.setOrigin(originTime);
+    initializedOperator = operator;
+  }
+
   private void analyzeSlimit(AstNode astNode) throws LogicalOperatorException {
     AstNode unit = astNode.getChild(0);
     int seriesLimit;
@@ -253,6 +324,31 @@ public class LogicalGenerator {
       throw new LogicalOperatorException(
           "LIMIT <N>: N must be a positive integer and can not be zero.");
     }
+    ((QueryOperator) initializedOperator).setRowLimit(rowsLimit);
+  }
+
+  private void analyzeOffset(AstNode astNode) throws LogicalOperatorException {
+    AstNode unit = astNode.getChild(0);
+    try {
+      // NOTE rowsOffset is ensured to be a non negative integer after the lexical examination.
+      ((QueryOperator) initializedOperator)
+          .setRowOffset(Integer.parseInt(unit.getText().trim()));
+    } catch (NumberFormatException e) {
+      throw new LogicalOperatorException("OFFSET <OFFSETValue>: OFFSETValue should be Int32.");
+    }
+  }
+
+  private void analyzeOrderByTime(AstNode astNode) throws LogicalOperatorException {
+    if (astNode.getChildCount() == 0) {
+      return;
+    }
+    String order = astNode.getChild(0).getText();
+    if ("desc".equalsIgnoreCase(order)) {
+      ((QueryOperator) initializedOperator).setOrderByTimeDesc(true);
+    } else if (!"asc".equalsIgnoreCase(order)) {
+      throw new LogicalOperatorException(
+          String.format("ORDER BY TIME %s: the order should be ASC or DESC.", order));
+    }
   }
 
   private void analyzeList(AstNode astNode) {
@@ -577,6 +673,20 @@ public class LogicalGenerator {
     ((SFWOperator) initializedOperator).setSelectOperator(selectOp);
   }
 
+  private void analyzeSelectLast(AstNode astNode) throws LogicalOperatorException {
+    String func = astNode.getChild(0).getText();
+    if (!StatisticConstant.LAST.equalsIgnoreCase(func)) {
+      throw new LogicalOperatorException(
+          String.format("%s is not supported before the selected paths, only LAST is.", func));
+    }
+    SelectOperator selectOp = new SelectOperator(TSParser.TOK_SELECT);
+    for (int i = 1; i < astNode.getChildCount(); i++) {
+      selectOp.addSelectPath(parsePath(astNode.getChild(i)));
+    }
+    ((QueryOperator) initializedOperator).setSelectOperator(selectOp);
+    ((QueryOperator) initializedOperator).setLast(true);
+  }
+
   private void analyzeWhere(AstNode astNode) throws LogicalOperatorException {
     if (astNode.getType() != TSParser.TOK_WHERE) {
       throw new LogicalOperatorException(
@@ -1118,6 +1228,9 @@ public class LogicalGenerator {
 
   private void checkDataTypeEncoding(TSDataType tsDataType, TSEncoding tsEncoding)
       throws MetadataErrorException {
+    if (tsEncoding.equals(TSEncoding.AUTO)) {
+      return;
+    }
     boolean throwExp = false;
     switch (tsDataType) {
       case BOOLEAN:
@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.qp.strategy;
 
+import java.util.ArrayList;
 import java.util.List;
 import org.apache.iotdb.db.auth.AuthException;
 import org.apache.iotdb.db.exception.qp.LogicalOperatorException;
@@ -31,6 +32,8 @@ import org.apache.iotdb.db.qp.logical.crud.FilterOperator;
 import org.apache.iotdb.db.qp.logical.crud.InsertOperator;
 import org.apache.iotdb.db.qp.logical.crud.QueryOperator;
 import org.apache.iotdb.db.qp.logical.sys.AuthorOperator;
+import org.apache.iotdb.db.qp.logical.sys.CreateContinuousQueryOperator;
+import org.apache.iotdb.db.qp.logical.sys.DropContinuousQueryOperator;
 import org.apache.iotdb.db.qp.logical.sys.LoadDataOperator;
 import org.apache.iotdb.db.qp.logical.sys.MetadataOperator;
 import org.apache.iotdb.db.qp.logical.sys.PropertyOperator;
@@ -39,12 +42,17 @@ import org.apache.iotdb.db.qp.physical.crud.AggregationPlan;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.FillQueryPlan;
 import org.apache.iotdb.db.qp.physical.crud.GroupByPlan;
+import org.apache.iotdb.db.qp.physical.crud.LastQueryPlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.QueryPlan;
 import org.apache.iotdb.db.qp.physical.sys.AuthorPlan;
+import org.apache.iotdb.db.qp.physical.sys.CreateContinuousQueryPlan;
+import org.apache.iotdb.db.qp.physical.sys.DropContinuousQueryPlan;
 import org.apache.iotdb.db.qp.physical.sys.LoadDataPlan;
 import org.apache.iotdb.db.qp.physical.sys.MetadataPlan;
 import org.apache.iotdb.db.qp.physical.sys.PropertyPlan;
+import org.apache.iotdb.db.qp.physical.sys.ShowContinuousQueriesPlan;
+import org.apache.iotdb.db.qp.physical.sys.ShowQueriesPlan;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.expression.IExpression;
 
@@ -75,6 +83,14 @@ public class PhysicalGenerator {
       case LOADDATA:
         LoadDataOperator loadData = (LoadDataOperator) operator;
         return new LoadDataPlan(loadData.getInputFilePath(), loadData.getMeasureType());
+      case SHOW_QUERIES:
+        return new ShowQueriesPlan();
+      case CREATE_CONTINUOUS_QUERY:
+        return transformCreateContinuousQuery((CreateContinuousQueryOperator) operator);
+      case DROP_CONTINUOUS_QUERY:
+        return new DropContinuousQueryPlan(((DropContinuousQueryOperator) operator).getName());
+      case SHOW_CONTINUOUS_QUERIES:
+        return new ShowContinuousQueriesPlan();
       case SET_STORAGE_GROUP:
       case CREATE_TIMESERIES:
       case DELETE_TIMESERIES:
@@ -126,6 +142,23 @@ public class PhysicalGenerator {
     }
   }
 
+  /**
+   * concat the selected paths with the FROM paths. The wildcards are kept so that the series
+   * created later are also rolled up.
+   */
+  private PhysicalPlan transformCreateContinuousQuery(CreateContinuousQueryOperator operator) {
+    List<Path> paths = new ArrayList<>();
+    List<String> aggregations = new ArrayList<>();
+    for (Path fromPath : operator.getFromPaths()) {
+      for (int i = 0; i < operator.getSelectedPaths().size(); i++) {
+        paths.add(Path.addPrefixPath(operator.getSelectedPaths().get(i), fromPath));
+        aggregations.add(operator.getAggregations().get(i));
+      }
+    }
+    return new CreateContinuousQueryPlan(operator.getName(), paths, aggregations,
+        operator.getTargetPath(), operator.getUnit(), operator.getOrigin());
+  }
+
   // /**
   // * for update command, time should have start and end time range.
   // *
@@ -235,6 +268,9 @@ public class PhysicalGenerator {
     QueryPlan queryPlan;
 
     if (queryOperator.isGroupBy()) {
+      if (queryOperator.isOrderByTimeDesc()) {
+        throw new QueryProcessorException("GROUP BY query does not support ORDER BY TIME DESC");
+      }
       queryPlan = new GroupByPlan();
       ((GroupByPlan) queryPlan).setUnit(queryOperator.getUnit());
       ((GroupByPlan) queryPlan).setOrigin(queryOperator.getOrigin());
@@ -249,6 +285,11 @@ public class PhysicalGenerator {
       long time = Long.parseLong(((BasicFunctionOperator) timeFilter).getValue());
       ((FillQueryPlan) queryPlan).setQueryTime(time);
       ((FillQueryPlan) queryPlan).setFillType(queryOperator.getFillTypes());
+    } else if (queryOperator.isLast()) {
+      if (queryOperator.getFilterOperator() != null) {
+        throw new QueryProcessorException("LAST query does not support WHERE clause");
+      }
+      queryPlan = new LastQueryPlan();
     } else if (queryOperator.hasAggregation()) { // ordinary query
       queryPlan = new AggregationPlan();
       ((AggregationPlan) queryPlan)
@@ -269,6 +310,10 @@ public class PhysicalGenerator {
       queryPlan.setExpression(expression);
     }
 
+    queryPlan.setRowLimit(queryOperator.getRowLimit());
+    queryPlan.setRowOffset(queryOperator.getRowOffset());
+    queryPlan.setOrderByTimeDesc(queryOperator.isOrderByTimeDesc());
+
     queryPlan.checkPaths(executor);
     return queryPlan;
   }
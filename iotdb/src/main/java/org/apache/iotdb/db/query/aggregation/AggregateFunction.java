@@ -24,6 +24,7 @@ import org.apache.iotdb.db.exception.ProcessorException;
 import org.apache.iotdb.db.query.reader.IPointReader;
 import org.apache.iotdb.db.query.reader.IReaderByTimestamp;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 
@@ -56,6 +57,18 @@ public abstract class AggregateFunction {
   public abstract void calculateValueFromPageHeader(PageHeader pageHeader)
       throws ProcessorException;
 
+  /**
+   * <p>
+   * Calculate the aggregation using the <code>ChunkMetaData</code> of a whole chunk, without
+   * reading the chunk.
+   * </p>
+   *
+   * @param chunkMetaData <code>ChunkMetaData</code>
+   * @throws IOException statistics in chunk digest read exception
+   */
+  public abstract void calculateValueFromChunkMetaData(ChunkMetaData chunkMetaData)
+      throws IOException, ProcessorException;
+
   /**
    * <p>
    * Could not calculate using <method>calculateValueFromPageHeader</method> directly. Calculate the
@@ -25,6 +25,7 @@ import org.apache.iotdb.db.query.aggregation.AggregateFunction;
 import org.apache.iotdb.db.query.reader.IPointReader;
 import org.apache.iotdb.db.query.reader.IReaderByTimestamp;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.slf4j.Logger;
@@ -62,6 +63,13 @@ public class CountAggrFunc extends AggregateFunction {
 
   }
 
+  @Override
+  public void calculateValueFromChunkMetaData(ChunkMetaData chunkMetaData) {
+    long preValue = resultData.getLongRet();
+    preValue += chunkMetaData.getNumOfPoints();
+    resultData.setLongRet(preValue);
+  }
+
   @Override
   public void calculateValueFromPageData(BatchData dataInThisPage, IPointReader unsequenceReader)
       throws IOException {
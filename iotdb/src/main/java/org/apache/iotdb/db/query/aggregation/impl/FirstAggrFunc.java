@@ -26,7 +26,9 @@ import org.apache.iotdb.db.query.aggregation.AggregateFunction;
 import org.apache.iotdb.db.query.reader.IPointReader;
 import org.apache.iotdb.db.query.reader.IReaderByTimestamp;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 
 public class FirstAggrFunc extends AggregateFunction {
@@ -58,6 +60,20 @@ public class FirstAggrFunc extends AggregateFunction {
     resultData.putTimeAndValue(0, firstVal);
   }
 
+  @Override
+  public void calculateValueFromChunkMetaData(ChunkMetaData chunkMetaData)
+      throws IOException, ProcessorException {
+    if (resultData.isSetTime()) {
+      return;
+    }
+
+    Statistics<?> statistics = chunkMetaData.getStatistics();
+    if (statistics == null) {
+      throw new ProcessorException("ChunkMetaData contains no FIRST value");
+    }
+    resultData.putTimeAndValue(0, statistics.getFirst());
+  }
+
   @Override
   public void calculateValueFromPageData(BatchData dataInThisPage, IPointReader unsequenceReader)
       throws IOException {
@@ -20,13 +20,16 @@
 package org.apache.iotdb.db.query.aggregation.impl;
 
 import java.io.IOException;
+import org.apache.iotdb.db.exception.ProcessorException;
 import org.apache.iotdb.db.query.aggregation.AggreResultData;
 import org.apache.iotdb.db.query.aggregation.AggregateFunction;
 import org.apache.iotdb.db.query.reader.IPointReader;
 import org.apache.iotdb.db.query.reader.IReaderByTimestamp;
 import org.apache.iotdb.db.utils.TimeValuePair;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 
 public class LastAggrFunc extends AggregateFunction {
@@ -54,6 +57,16 @@ public class LastAggrFunc extends AggregateFunction {
     updateLastResult(pageHeader.getMaxTimestamp(), lastVal);
   }
 
+  @Override
+  public void calculateValueFromChunkMetaData(ChunkMetaData chunkMetaData)
+      throws IOException, ProcessorException {
+    Statistics<?> statistics = chunkMetaData.getStatistics();
+    if (statistics == null) {
+      throw new ProcessorException("ChunkMetaData contains no LAST value");
+    }
+    updateLastResult(chunkMetaData.getEndTime(), statistics.getLast());
+  }
+
   @Override
   public void calculateValueFromPageData(BatchData dataInThisPage, IPointReader unsequenceReader)
       throws IOException {
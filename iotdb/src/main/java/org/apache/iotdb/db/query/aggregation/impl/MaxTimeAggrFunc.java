@@ -26,6 +26,7 @@ import org.apache.iotdb.db.query.reader.IPointReader;
 import org.apache.iotdb.db.query.reader.IReaderByTimestamp;
 import org.apache.iotdb.db.utils.TimeValuePair;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 
@@ -51,6 +52,11 @@ public class MaxTimeAggrFunc extends AggregateFunction {
     updateMaxTimeResult(0, maxTimestamp);
   }
 
+  @Override
+  public void calculateValueFromChunkMetaData(ChunkMetaData chunkMetaData) {
+    updateMaxTimeResult(0, chunkMetaData.getEndTime());
+  }
+
   @Override
   public void calculateValueFromPageData(BatchData dataInThisPage, IPointReader unsequenceReader) {
 
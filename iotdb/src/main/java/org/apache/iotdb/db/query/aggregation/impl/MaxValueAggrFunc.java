@@ -20,12 +20,15 @@
 package org.apache.iotdb.db.query.aggregation.impl;
 
 import java.io.IOException;
+import org.apache.iotdb.db.exception.ProcessorException;
 import org.apache.iotdb.db.query.aggregation.AggreResultData;
 import org.apache.iotdb.db.query.aggregation.AggregateFunction;
 import org.apache.iotdb.db.query.reader.IPointReader;
 import org.apache.iotdb.db.query.reader.IReaderByTimestamp;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 
 public class MaxValueAggrFunc extends AggregateFunction {
@@ -50,6 +53,16 @@ public class MaxValueAggrFunc extends AggregateFunction {
     updateResult(maxVal);
   }
 
+  @Override
+  public void calculateValueFromChunkMetaData(ChunkMetaData chunkMetaData)
+      throws IOException, ProcessorException {
+    Statistics<?> statistics = chunkMetaData.getStatistics();
+    if (statistics == null) {
+      throw new ProcessorException("ChunkMetaData contains no MAX_VALUE");
+    }
+    updateResult((Comparable<Object>) statistics.getMax());
+  }
+
   @Override
   public void calculateValueFromPageData(BatchData dataInThisPage, IPointReader unsequenceReader)
       throws IOException {
@@ -20,19 +20,22 @@
 package org.apache.iotdb.db.query.aggregation.impl;
 
 import java.io.IOException;
+import org.apache.iotdb.db.exception.ProcessorException;
 import org.apache.iotdb.db.query.aggregation.AggreResultData;
 import org.apache.iotdb.db.query.aggregation.AggregateFunction;
 import org.apache.iotdb.db.query.reader.IPointReader;
 import org.apache.iotdb.db.query.reader.IReaderByTimestamp;
 import org.apache.iotdb.db.utils.TimeValuePair;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 
 public class MeanAggrFunc extends AggregateFunction {
 
   protected double sum = 0.0;
-  private int cnt = 0;
+  private long cnt = 0;
   private TSDataType seriesDataType;
   private static final String MEAN_AGGR_NAME = "MEAN";
 
@@ -63,6 +66,17 @@ public class MeanAggrFunc extends AggregateFunction {
     cnt += pageHeader.getNumOfValues();
   }
 
+  @Override
+  public void calculateValueFromChunkMetaData(ChunkMetaData chunkMetaData)
+      throws IOException, ProcessorException {
+    Statistics<?> statistics = chunkMetaData.getStatistics();
+    if (statistics == null) {
+      throw new ProcessorException("ChunkMetaData contains no SUM value");
+    }
+    sum += statistics.getSum();
+    cnt += chunkMetaData.getNumOfPoints();
+  }
+
   @Override
   public void calculateValueFromPageData(BatchData dataInThisPage, IPointReader unsequenceReader)
       throws IOException {
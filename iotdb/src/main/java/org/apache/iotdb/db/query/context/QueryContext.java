@@ -25,6 +25,9 @@ import java.util.List;
 import java.util.Map;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
+import org.apache.iotdb.db.exception.QueryKilledException;
+import org.apache.iotdb.db.query.control.QueryResourceManager;
+import org.apache.iotdb.tsfile.read.controller.PrefetchStatistics;
 
 /**
  * QueryContext contains the shared information with in a query.
@@ -45,6 +48,33 @@ public class QueryContext {
 
   private long jobId;
 
+  /**
+   * how much data the readers of this query read ahead of consumption.
+   */
+  private PrefetchStatistics prefetchStatistics = new PrefetchStatistics();
+
+  /**
+   * tracks the memory of the buffers of this query, null if the memory is not tracked, e.g., for
+   * the queries issued internally.
+   */
+  private QueryMemoryTracker memoryTracker;
+
+  private long timeoutInMs;
+  /**
+   * the time in ms after which the query is killed, Long.MAX_VALUE if the query has no time limit.
+   */
+  private long deadline = Long.MAX_VALUE;
+  /**
+   * why the query is killed, null if it is not. Set by the thread that cancels the query and read
+   * by the threads that read the series.
+   */
+  private volatile String killedReason;
+  /**
+   * stops the work of this query that runs in the background, e.g., the read tasks of a raw data
+   * query. Guarded by this context.
+   */
+  private List<Runnable> backgroundWorkStoppers = new ArrayList<>();
+
   public QueryContext() {
   }
 
@@ -54,9 +84,10 @@ public class QueryContext {
 
   /**
    * Find the modifications of timeseries 'path' in 'modFile'. If they are not in the cache, read
-   * them from 'modFile' and put then into the cache.
+   * them from 'modFile' and put then into the cache. The series of a query may be read by several
+   * threads, so the caches are guarded by this context.
    */
-  public List<Modification> getPathModifications(ModificationFile modFile, String path) {
+  public synchronized List<Modification> getPathModifications(ModificationFile modFile, String path) {
 
     Map<String, List<Modification>> fileModifications =
         filePathModCache.computeIfAbsent(modFile.getFilePath(), k -> new HashMap<>());
@@ -87,4 +118,113 @@ public class QueryContext {
     return jobId;
   }
 
+  public PrefetchStatistics getPrefetchStatistics() {
+    return prefetchStatistics;
+  }
+
+  public QueryMemoryTracker getMemoryTracker() {
+    return memoryTracker;
+  }
+
+  public void setMemoryTracker(QueryMemoryTracker memoryTracker) {
+    this.memoryTracker = memoryTracker;
+  }
+
+  /**
+   * reserve memory for a buffer of this query, see {@link QueryMemoryTracker#reserve(long)}.
+   */
+  public void reserveMemory(long bytes) {
+    if (memoryTracker != null) {
+      memoryTracker.reserve(bytes);
+    }
+  }
+
+  /**
+   * reserve memory for a buffer of this query without waiting, see {@link
+   * QueryMemoryTracker#tryReserve(long)}.
+   */
+  public boolean tryReserveMemory(long bytes) {
+    return memoryTracker == null || memoryTracker.tryReserve(bytes);
+  }
+
+  /**
+   * reserve memory for a buffer of this query without waiting and leave the headroom under its
+   * limit, see {@link QueryMemoryTracker#tryReserve(long, long)}.
+   */
+  public boolean tryReserveMemory(long bytes, long headroom) {
+    return memoryTracker == null || memoryTracker.tryReserve(bytes, headroom);
+  }
+
+  public void releaseMemory(long bytes) {
+    if (memoryTracker != null) {
+      memoryTracker.release(bytes);
+    }
+  }
+
+  /**
+   * limit the running time of this query from now on.
+   *
+   * @param timeoutInMs max running time in ms, not positive if unlimited
+   */
+  public void setTimeout(long timeoutInMs) {
+    this.timeoutInMs = timeoutInMs;
+    this.deadline = timeoutInMs > 0 ? System.currentTimeMillis() + timeoutInMs : Long.MAX_VALUE;
+  }
+
+  /**
+   * kill this query. Its readers and datasets stop at their next batch by {@link #checkKilled()}.
+   *
+   * @param reason why the query is killed, shown to the client
+   */
+  public synchronized void kill(String reason) {
+    if (killedReason == null) {
+      killedReason = reason;
+      QueryResourceManager.getInstance().recordKilledQuery();
+    }
+  }
+
+  public boolean isKilled() {
+    return killedReason != null;
+  }
+
+  /**
+   * register the work of this query that runs in the background and uses the resources of the
+   * query, e.g., the files it reads.
+   *
+   * @param stopper stops the work and waits until it is not running
+   */
+  public synchronized void addBackgroundWork(Runnable stopper) {
+    backgroundWorkStoppers.add(stopper);
+  }
+
+  /**
+   * stop the work of this query that runs in the background and wait for it. It must be called
+   * before the resources of the query are released.
+   */
+  public void stopBackgroundWork() {
+    List<Runnable> stoppers;
+    synchronized (this) {
+      stoppers = backgroundWorkStoppers;
+      backgroundWorkStoppers = new ArrayList<>();
+    }
+    for (Runnable stopper : stoppers) {
+      stopper.run();
+    }
+  }
+
+  /**
+   * called by the readers and datasets of this query between batches.
+   *
+   * @throws QueryKilledException if the query is canceled or runs over its time limit
+   */
+  public void checkKilled() throws QueryKilledException {
+    if (killedReason == null && System.currentTimeMillis() > deadline) {
+      kill(String.format("it runs over its time limit of %d ms", timeoutInMs));
+    }
+    if (killedReason != null) {
+      throw new QueryKilledException(
+          String.format("Query %d is killed because %s", jobId, killedReason));
+    }
+  }
+
 }
@@ -0,0 +1,210 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.context;
+
+import org.apache.iotdb.db.exception.QueryMemoryExceededException;
+import org.apache.iotdb.db.rescon.QueryMemoryPool;
+
+/**
+ * Tracks the estimated memory used by the buffers of a query, e.g., the batches read ahead of
+ * consumption and the copies of memtables. The memory is reserved from the {@link
+ * QueryMemoryPool} before a buffer is filled and released when the buffer is consumed, or at the
+ * latest when the query ends.
+ * <p>
+ * The buffers of a query may be filled by several threads, so the tracker is thread safe.
+ */
+public class QueryMemoryTracker {
+
+  private final long jobId;
+  private final String user;
+  private final String statement;
+  /**
+   * max memory the query may use in byte, <= 0 if the query is limited only by the pool.
+   */
+  private final long memoryLimit;
+  private final QueryMemoryPool pool;
+
+  private long usedMemory;
+  private long peakMemory;
+  /**
+   * memory of the result returned by the last fetch, which is released by the next fetch.
+   */
+  private long resultBufferMemory;
+  /**
+   * set when the query ends, after which the buffers that are still being filled are not tracked.
+   */
+  private boolean released;
+
+  public QueryMemoryTracker(long jobId, String user, String statement, long memoryLimit,
+      QueryMemoryPool pool) {
+    this.jobId = jobId;
+    this.user = user;
+    this.statement = statement;
+    this.memoryLimit = memoryLimit;
+    this.pool = pool;
+  }
+
+  /**
+   * reserve memory for the query, waiting for other queries to release memory if the pool is
+   * exhausted.
+   *
+   * @param bytes estimated size of the buffer to be filled
+   * @throws QueryMemoryExceededException if the query would exceed its limit, or the pool cannot
+   * offer the memory in time
+   */
+  public void reserve(long bytes) {
+    if (bytes <= 0) {
+      return;
+    }
+    synchronized (this) {
+      if (released) {
+        return;
+      }
+      if (memoryLimit > 0 && usedMemory + bytes > memoryLimit) {
+        throw new QueryMemoryExceededException(String.format(
+            "Query %d of %s needs more than %d bytes of memory, which is its limit", jobId, user,
+            memoryLimit));
+      }
+    }
+    // do not hold the lock while waiting, so that the other threads of the query can release
+    pool.allocate(bytes, this);
+    synchronized (this) {
+      if (released) {
+        pool.free(bytes);
+        return;
+      }
+      usedMemory += bytes;
+      peakMemory = Math.max(peakMemory, usedMemory);
+    }
+  }
+
+  /**
+   * reserve memory for the query only if it is available now, without waiting for the pool. It is
+   * used by the threads that must not block, e.g., the threads of the query task pool.
+   *
+   * @param bytes estimated size of the buffer to be filled
+   * @return false if the query would exceed its limit or the pool is exhausted
+   */
+  public boolean tryReserve(long bytes) {
+    return tryReserve(bytes, 0);
+  }
+
+  /**
+   * like {@link #tryReserve(long)}, but leave at least <code>headroom</code> bytes under the limit
+   * of the query and in the pool, e.g., for the buffers the query cannot go on without when the memory reserved
+   * now is for the buffers filled ahead of consumption.
+   *
+   * @param bytes estimated size of the buffer to be filled
+   * @param headroom memory that must remain available to the query after the reservation
+   * @return false if the query would exceed its limit minus the headroom, or the pool cannot
+   * offer the memory and the headroom
+   */
+  public boolean tryReserve(long bytes, long headroom) {
+    if (bytes <= 0) {
+      return true;
+    }
+    synchronized (this) {
+      if (released) {
+        return true;
+      }
+      if (memoryLimit > 0 && usedMemory + bytes + headroom > memoryLimit) {
+        return false;
+      }
+    }
+    if (!pool.tryAllocate(bytes, headroom)) {
+      return false;
+    }
+    synchronized (this) {
+      if (released) {
+        pool.free(bytes);
+        return true;
+      }
+      usedMemory += bytes;
+      peakMemory = Math.max(peakMemory, usedMemory);
+    }
+    return true;
+  }
+
+  /**
+   * release memory reserved by {@link #reserve(long)} when the buffer is consumed.
+   */
+  public synchronized void release(long bytes) {
+    if (bytes <= 0 || released) {
+      return;
+    }
+    usedMemory -= bytes;
+    pool.free(bytes);
+  }
+
+  /**
+   * reserve memory for the result of a fetch, and release the result of the previous fetch, which
+   * has been sent to the client.
+   */
+  public void reserveResultBuffer(long bytes) {
+    long previousBytes;
+    synchronized (this) {
+      previousBytes = resultBufferMemory;
+      resultBufferMemory = 0;
+    }
+    release(previousBytes);
+    reserve(bytes);
+    synchronized (this) {
+      if (!released) {
+        resultBufferMemory = bytes;
+      }
+    }
+  }
+
+  /**
+   * release all the memory of the query. It is called when the query ends.
+   */
+  public synchronized void releaseAll() {
+    if (released) {
+      return;
+    }
+    released = true;
+    pool.free(usedMemory);
+    usedMemory = 0;
+    resultBufferMemory = 0;
+  }
+
+  public long getJobId() {
+    return jobId;
+  }
+
+  public String getUser() {
+    return user;
+  }
+
+  public String getStatement() {
+    return statement;
+  }
+
+  public long getMemoryLimit() {
+    return memoryLimit;
+  }
+
+  public synchronized long getUsedMemory() {
+    return usedMemory;
+  }
+
+  public synchronized long getPeakMemory() {
+    return peakMemory;
+  }
+}
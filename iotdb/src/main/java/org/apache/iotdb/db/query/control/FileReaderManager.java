@@ -26,6 +26,9 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.db.engine.cache.DeviceMetaDataCache;
+import org.apache.iotdb.db.engine.cache.TsFileMetaDataCache;
 import org.apache.iotdb.db.service.IService;
 import org.apache.iotdb.db.service.ServiceType;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
@@ -176,6 +179,9 @@ public class FileReaderManager implements IService {
    */
   public synchronized void closeFileAndRemoveReader(String filePath)
       throws IOException {
+    ChunkCache.getInstance().remove(filePath);
+    TsFileMetaDataCache.getInstance().remove(filePath);
+    DeviceMetaDataCache.getInstance().remove(filePath);
     if (unclosedFileReaderMap.containsKey(filePath)) {
       unclosedReferenceMap.remove(filePath);
       unclosedFileReaderMap.get(filePath).close();
@@ -29,6 +29,7 @@ import org.apache.iotdb.db.engine.StorageEngine;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.rescon.QueryMemoryPool;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.expression.ExpressionType;
 import org.apache.iotdb.tsfile.read.expression.IBinaryExpression;
@@ -88,10 +89,15 @@ public class QueryResourceManager {
   private ConcurrentHashMap<Long, ConcurrentHashMap<String, List<Integer>>> queryTokensMap;
   private JobFileManager filePathsManager;
   private AtomicLong maxJobId;
+  /**
+   * number of the queries that are canceled or run over their time limits.
+   */
+  private AtomicLong killedQueryNum;
   private QueryResourceManager() {
     queryTokensMap = new ConcurrentHashMap<>();
     filePathsManager = new JobFileManager();
     maxJobId = new AtomicLong(0);
+    killedQueryNum = new AtomicLong(0);
   }
 
   public static QueryResourceManager getInstance() {
@@ -174,6 +180,7 @@ public class QueryResourceManager {
    * query tokens created by this jdbc request must be cleared.
    */
   public void endQueryForGivenJob(long jobId) throws StorageEngineException {
+    QueryMemoryPool.getInstance().unregister(jobId);
     if (queryTokensMap.get(jobId) == null) {
       // no resource need to be released.
       return;
@@ -188,6 +195,14 @@ public class QueryResourceManager {
     filePathsManager.removeUsedFilesForGivenJob(jobId);
   }
 
+  public void recordKilledQuery() {
+    killedQueryNum.incrementAndGet();
+  }
+
+  public long getKilledQueryNum() {
+    return killedQueryNum.get();
+  }
+
   private void getUniquePaths(IExpression expression, Set<String> deviceIdSet) {
     if (expression.getType() == ExpressionType.AND || expression.getType() == ExpressionType.OR) {
       getUniquePaths(((IBinaryExpression) expression).getLeft(), deviceIdSet);
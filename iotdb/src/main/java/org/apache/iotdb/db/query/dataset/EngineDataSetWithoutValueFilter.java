@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.query.dataset;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.PriorityQueue;
@@ -35,7 +36,9 @@ import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 
 /**
- * TODO implement this class as TsFile DataSetWithoutTimeGenerator.
+ * The data set of readers whose values may be null, e.g., the results of fill and aggregation
+ * queries. Raw data queries use {@link RawQueryDataSetWithoutValueFilter}, which reads the series
+ * in parallel, unless the rows are in reverse chronological order.
  */
 public class EngineDataSetWithoutValueFilter extends QueryDataSet {
 
@@ -47,6 +50,11 @@ public class EngineDataSetWithoutValueFilter extends QueryDataSet {
 
   private Set<Long> timeSet;
 
+  /**
+   * true if the readers return their points from the newest to the oldest, so do the rows.
+   */
+  private boolean isReverse;
+
   /**
    * constructor of EngineDataSetWithoutValueFilter.
    *
@@ -58,14 +66,27 @@ public class EngineDataSetWithoutValueFilter extends QueryDataSet {
   public EngineDataSetWithoutValueFilter(List<Path> paths, List<TSDataType> dataTypes,
                                          List<IPointReader> readers)
       throws IOException {
+    this(paths, dataTypes, readers, false);
+  }
+
+  /**
+   * constructor of EngineDataSetWithoutValueFilter.
+   *
+   * @param isReverse True if the readers return their points in reverse chronological order (from
+   * newest to oldest); False if they return them in chronological order.
+   */
+  public EngineDataSetWithoutValueFilter(List<Path> paths, List<TSDataType> dataTypes,
+      List<IPointReader> readers, boolean isReverse) throws IOException {
     super(paths, dataTypes);
     this.seriesReaderWithoutValueFilterList = readers;
+    this.isReverse = isReverse;
     initHeap();
   }
 
   private void initHeap() throws IOException {
     timeSet = new HashSet<>();
-    timeHeap = new PriorityQueue<>();
+    timeHeap = isReverse ? new PriorityQueue<>(Collections.reverseOrder())
+        : new PriorityQueue<>();
     cacheTimeValueList = new TimeValuePair[seriesReaderWithoutValueFilterList.size()];
 
     for (int i = 0; i < seriesReaderWithoutValueFilterList.size(); i++) {
@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.dataset;
+
+import java.io.IOException;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+
+/**
+ * This class applies LIMIT and OFFSET to the rows of another dataset, so that the skipped rows and
+ * the rows after the limit are never sent to the client.
+ */
+public class LimitedQueryDataSet extends QueryDataSet {
+
+  private QueryDataSet dataSet;
+  private int rowLimit;
+  private long rowOffset;
+  private int returnedRowNum = 0;
+
+  /**
+   * @param dataSet the dataset to read rows from
+   * @param rowLimit max number of returned rows, 0 for no limit
+   * @param rowOffset number of rows to skip before the first returned row
+   */
+  public LimitedQueryDataSet(QueryDataSet dataSet, int rowLimit, long rowOffset) {
+    super(dataSet.getPaths(), dataSet.getDataTypes());
+    this.dataSet = dataSet;
+    this.rowLimit = rowLimit;
+    this.rowOffset = rowOffset;
+  }
+
+  @Override
+  public boolean hasNext() throws IOException {
+    if (rowLimit > 0 && returnedRowNum >= rowLimit) {
+      return false;
+    }
+    while (rowOffset > 0) {
+      if (!dataSet.hasNext()) {
+        return false;
+      }
+      dataSet.next();
+      rowOffset--;
+    }
+    return dataSet.hasNext();
+  }
+
+  @Override
+  public RowRecord next() throws IOException {
+    if (!hasNext()) {
+      return null;
+    }
+    returnedRowNum++;
+    return dataSet.next();
+  }
+}
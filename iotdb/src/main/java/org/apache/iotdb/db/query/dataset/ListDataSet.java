@@ -0,0 +1,62 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.dataset;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+
+/**
+ * a dataset whose records are all prepared in memory, e.g., the result of SHOW QUERIES.
+ */
+public class ListDataSet extends QueryDataSet {
+
+  private List<RowRecord> records = new ArrayList<>();
+  private int index = 0;
+
+  public ListDataSet(List<Path> paths, List<TSDataType> dataTypes) {
+    super(paths, dataTypes);
+  }
+
+  /**
+   * @param records prepared records, which are read but never changed by this dataset
+   */
+  public ListDataSet(List<Path> paths, List<TSDataType> dataTypes, List<RowRecord> records) {
+    super(paths, dataTypes);
+    this.records = records;
+  }
+
+  @Override
+  public boolean hasNext() throws IOException {
+    return index < records.size();
+  }
+
+  @Override
+  public RowRecord next() {
+    return records.get(index++);
+  }
+
+  public void putRecord(RowRecord newRecord) {
+    records.add(newRecord);
+  }
+}
@@ -0,0 +1,611 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.dataset;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.LongSupplier;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.pool.QueryTaskPoolManager;
+import org.apache.iotdb.db.exception.QueryMemoryExceededException;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.reader.IBatchReader;
+import org.apache.iotdb.db.query.reader.IPointReader;
+import org.apache.iotdb.db.utils.MemUtils;
+import org.apache.iotdb.db.utils.TimeValuePairUtils;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The data set of a raw data query without value filter. Each series is read into batches by
+ * {@link QueryTaskPoolManager} ahead of consumption, so that the series of a query are read in
+ * parallel, and the rows are assembled on the caller's thread by merging the time columns of the
+ * batches.
+ * <p>
+ * A series keeps at most <code>raw_query_blocking_queue_capacity</code> batches in its queue. The
+ * read task of a series reads one batch at a time and resubmits itself while the queue has room,
+ * otherwise it stops and is resubmitted when a batch is taken from the queue, so that a pool
+ * thread never blocks on a full queue. The memory of a batch is estimated and reserved from the
+ * query memory pool before the batch is read, and released when the batch is consumed. A pool
+ * thread never waits for memory either: when the reservation fails, the task is parked and
+ * resubmitted once the consumer releases the memory of a batch, or, if the consumer is waiting
+ * for the parked series, the consumer waits for the memory on its own thread. Both the read tasks
+ * and the consumer stop at their next batch once the query is killed.
+ * <p>
+ * The read tasks use the files of the query, so {@link #close()} stops them and waits for the
+ * running ones before the resources of the query are released. It is registered to the query
+ * context, see {@link QueryContext#stopBackgroundWork()}.
+ */
+public class RawQueryDataSetWithoutValueFilter extends QueryDataSet {
+
+  private static final Logger logger = LoggerFactory
+      .getLogger(RawQueryDataSetWithoutValueFilter.class);
+  private static final int BATCH_SIZE = 1024;
+
+  private List<IPointReader> seriesReaderWithoutValueFilterList;
+
+  private QueryContext context;
+
+  private ReadTask[] readTasks;
+
+  /**
+   * the batch being consumed of each series, null if the series is exhausted.
+   */
+  private BatchData[] cachedBatchDataArray;
+  /**
+   * memory reserved for the batch being consumed of each series.
+   */
+  private long[] cachedBatchMemory;
+
+  private TimeSelector timeSelector;
+
+  private boolean closed;
+
+  /**
+   * constructor of RawQueryDataSetWithoutValueFilter.
+   *
+   * @param paths paths in List structure
+   * @param dataTypes time series data type
+   * @param readers readers in List(IPointReader) structure, whose values must not be null
+   * @param context query context, which tracks the memory of the batches
+   * @throws IOException IOException
+   */
+  public RawQueryDataSetWithoutValueFilter(List<Path> paths, List<TSDataType> dataTypes,
+      List<IPointReader> readers, QueryContext context) throws IOException {
+    super(paths, dataTypes);
+    this.seriesReaderWithoutValueFilterList = readers;
+    this.context = context;
+    init();
+  }
+
+  private void init() throws IOException {
+    int queueCapacity = Math.max(1,
+        IoTDBDescriptor.getInstance().getConfig().getRawQueryBlockingQueueCapacity());
+    readTasks = new ReadTask[seriesReaderWithoutValueFilterList.size()];
+    cachedBatchDataArray = new BatchData[readTasks.length];
+    cachedBatchMemory = new long[readTasks.length];
+    timeSelector = new TimeSelector(readTasks.length);
+    for (int i = 0; i < readTasks.length; i++) {
+      readTasks[i] = new ReadTask(seriesReaderWithoutValueFilterList.get(i), dataTypes.get(i),
+          new ArrayBlockingQueue<>(queueCapacity), context, this::getReadAheadHeadroom);
+    }
+    for (ReadTask readTask : readTasks) {
+      readTask.submit();
+    }
+    context.addBackgroundWork(this::close);
+    for (int i = 0; i < readTasks.length; i++) {
+      fillCache(i);
+    }
+  }
+
+  /**
+   * take the next batch of a series from its queue and put its first time into the selector.
+   */
+  private void fillCache(int seriesIndex) throws IOException {
+    context.checkKilled();
+    if (cachedBatchMemory[seriesIndex] > 0) {
+      context.releaseMemory(cachedBatchMemory[seriesIndex]);
+      cachedBatchMemory[seriesIndex] = 0;
+      // the released memory may be enough for the tasks waiting for memory
+      for (ReadTask readTask : readTasks) {
+        readTask.resume();
+      }
+    }
+    BatchData batchData = readTasks[seriesIndex].take();
+    if (batchData.length() == 0) {
+      cachedBatchDataArray[seriesIndex] = null;
+      return;
+    }
+    cachedBatchDataArray[seriesIndex] = batchData;
+    cachedBatchMemory[seriesIndex] = MemUtils.getBatchDataMem(batchData);
+    timeSelector.add(batchData.currentTime());
+  }
+
+  @Override
+  public boolean hasNext() {
+    return !timeSelector.isEmpty();
+  }
+
+  @Override
+  public RowRecord next() throws IOException {
+    if (!hasNext()) {
+      return null;
+    }
+    long minTime = timeSelector.pollFirst();
+
+    RowRecord record = new RowRecord(minTime);
+
+    for (int i = 0; i < cachedBatchDataArray.length; i++) {
+      BatchData batchData = cachedBatchDataArray[i];
+      if (batchData == null || batchData.currentTime() != minTime) {
+        record.addField(new Field(null));
+        continue;
+      }
+      record.addField(getField(batchData, dataTypes.get(i)));
+      batchData.next();
+      if (batchData.hasNext()) {
+        timeSelector.add(batchData.currentTime());
+      } else {
+        fillCache(i);
+      }
+    }
+
+    return record;
+  }
+
+  private Field getField(BatchData batchData, TSDataType dataType) {
+    Field field = new Field(dataType);
+    switch (dataType) {
+      case INT32:
+        field.setIntV(batchData.getInt());
+        break;
+      case INT64:
+        field.setLongV(batchData.getLong());
+        break;
+      case FLOAT:
+        field.setFloatV(batchData.getFloat());
+        break;
+      case DOUBLE:
+        field.setDoubleV(batchData.getDouble());
+        break;
+      case BOOLEAN:
+        field.setBoolV(batchData.getBoolean());
+        break;
+      case TEXT:
+        field.setBinaryV(batchData.getBinary());
+        break;
+      default:
+        throw new UnSupportedDataTypeException("UnSupported: " + dataType);
+    }
+    return field;
+  }
+
+  /**
+   * the memory of the next batch of every series, which the batches read ahead must leave under
+   * the limit of the query. Otherwise they could use up the limit while the consumer waits for
+   * another series, whose batches would never get memory as the batches read ahead are consumed
+   * only after it.
+   */
+  private long getReadAheadHeadroom() {
+    long headroom = 0;
+    for (ReadTask readTask : readTasks) {
+      headroom += readTask.estimatedMemory;
+    }
+    return headroom;
+  }
+
+  public List<IPointReader> getReaders() {
+    return seriesReaderWithoutValueFilterList;
+  }
+
+  /**
+   * stop the read tasks of the series and wait for the running ones, then release the memory of
+   * the batches that are not consumed. The data set has no more rows after it is closed.
+   */
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      for (ReadTask readTask : readTasks) {
+        readTask.stop();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    for (int i = 0; i < readTasks.length; i++) {
+      context.releaseMemory(cachedBatchMemory[i]);
+      cachedBatchMemory[i] = 0;
+      cachedBatchDataArray[i] = null;
+    }
+    timeSelector = new TimeSelector(1);
+  }
+
+  /**
+   * Reads a series into batches and puts them into the queue of the series. An empty batch marks
+   * the end of the series or a failure of the reader.
+   */
+  private static class ReadTask implements Runnable {
+
+    private final IPointReader reader;
+    private final TSDataType dataType;
+    private final BlockingQueue<BatchData> queue;
+    private final QueryContext context;
+    private final LongSupplier readAheadHeadroom;
+
+    /**
+     * whether the task is submitted to the pool or running. Guarded by this task.
+     */
+    private boolean scheduled;
+    /**
+     * whether the task stopped because the memory of its next batch could not be reserved.
+     * Guarded by this task.
+     */
+    private boolean parked;
+    private boolean finished;
+    /**
+     * set when the data set is closed, after which the task is not run again.
+     */
+    private volatile boolean stopped;
+    private volatile IOException exception;
+    /**
+     * whether the reader is closed, which happens once the series ends or the task is stopped.
+     */
+    private boolean readerClosed;
+
+    /**
+     * memory expected by the next batch, which is the memory of the last batch once one is read.
+     */
+    private volatile long estimatedMemory;
+    /**
+     * memory reserved for the next batch but not yet handed over to the consumer.
+     */
+    private long reservedMemory;
+    /**
+     * the batch that has been read but whose memory exceeds the reservation, kept until the rest
+     * of its memory is reserved.
+     */
+    private BatchData pendingBatch;
+
+    private ReadTask(IPointReader reader, TSDataType dataType, BlockingQueue<BatchData> queue,
+        QueryContext context, LongSupplier readAheadHeadroom) {
+      this.reader = reader;
+      this.dataType = dataType;
+      this.queue = queue;
+      this.context = context;
+      this.readAheadHeadroom = readAheadHeadroom;
+      this.estimatedMemory = MemUtils.estimateBatchDataMem(dataType, BATCH_SIZE);
+    }
+
+    private synchronized void submit() {
+      scheduled = true;
+      parked = false;
+      QueryTaskPoolManager.getInstance().execute(this);
+    }
+
+    /**
+     * resubmit the task if it is parked, so that it tries to reserve the memory again.
+     */
+    private synchronized void resume() {
+      if (parked && !stopped) {
+        submit();
+      }
+    }
+
+    /**
+     * stop the task and wait until it is neither waiting in the pool nor running, then release
+     * the memory it holds, including the memory of the batches in its queue.
+     */
+    private void stop() throws InterruptedException {
+      synchronized (this) {
+        stopped = true;
+        if (scheduled && QueryTaskPoolManager.getInstance().remove(this)) {
+          scheduled = false;
+        }
+        while (scheduled) {
+          wait();
+        }
+        parked = false;
+        notifyAll();
+      }
+      closeReader();
+      context.releaseMemory(reservedMemory);
+      reservedMemory = 0;
+      pendingBatch = null;
+      BatchData batchData;
+      while ((batchData = queue.poll()) != null) {
+        if (batchData.length() > 0) {
+          context.releaseMemory(MemUtils.getBatchDataMem(batchData));
+        }
+      }
+    }
+
+    @Override
+    public void run() {
+      if (stopped) {
+        synchronized (this) {
+          scheduled = false;
+          notifyAll();
+        }
+        return;
+      }
+      BatchData batchData;
+      try {
+        context.checkKilled();
+        if (pendingBatch == null) {
+          if (!tryReserve(estimatedMemory)) {
+            return;
+          }
+          pendingBatch = readBatch();
+        }
+        long batchMemory = MemUtils.getBatchDataMem(pendingBatch);
+        if (!tryReserve(batchMemory)) {
+          return;
+        }
+        batchData = pendingBatch;
+        pendingBatch = null;
+        // the consumer releases exactly the memory of the batch, give back the rest of the estimate
+        context.releaseMemory(reservedMemory - batchMemory);
+        reservedMemory = 0;
+        if (batchMemory > 0) {
+          estimatedMemory = batchMemory;
+        }
+      } catch (IOException e) {
+        exception = e;
+        batchData = endOnFailure();
+      } catch (RuntimeException e) {
+        exception = new IOException(e);
+        batchData = endOnFailure();
+      }
+      if (batchData.length() == 0) {
+        closeReader();
+      }
+      synchronized (this) {
+        if (batchData.length() == 0) {
+          finished = true;
+        }
+        // there is always room as only this task puts into the queue and it is not resubmitted
+        // when the queue is full
+        queue.offer(batchData);
+        notifyAll();
+        if (!finished && !stopped && queue.remainingCapacity() > 0) {
+          QueryTaskPoolManager.getInstance().execute(this);
+        } else {
+          scheduled = false;
+        }
+      }
+    }
+
+    /**
+     * make sure that <code>bytes</code> are reserved for the next batch, or park the task if the
+     * missing memory is not available now. A batch is read ahead if the queue is not empty, then
+     * the headroom for the other series must be left.
+     *
+     * @return false if the task is parked
+     */
+    private boolean tryReserve(long bytes) {
+      long missingMemory = bytes - reservedMemory;
+      long headroom = queue.isEmpty() ? 0 : readAheadHeadroom.getAsLong();
+      if (missingMemory <= 0 || context.tryReserveMemory(missingMemory, headroom)) {
+        reservedMemory = Math.max(reservedMemory, bytes);
+        return true;
+      }
+      synchronized (this) {
+        scheduled = false;
+        parked = true;
+        notifyAll();
+      }
+      return false;
+    }
+
+    /**
+     * close the reader of the series, e.g., to stop reading its chunks ahead. Only the thread that
+     * owns the task calls it.
+     */
+    private void closeReader() {
+      if (readerClosed) {
+        return;
+      }
+      readerClosed = true;
+      try {
+        reader.close();
+      } catch (IOException e) {
+        logger.warn("Failed to close the reader of a series", e);
+      }
+    }
+
+    private BatchData endOnFailure() {
+      pendingBatch = null;
+      context.releaseMemory(reservedMemory);
+      reservedMemory = 0;
+      return new BatchData(dataType, true);
+    }
+
+    /**
+     * read the next batch of the series. A reader that implements {@link IBatchReader} returns
+     * its batches directly, otherwise the points are packed into batches.
+     */
+    private BatchData readBatch() throws IOException {
+      if (reader instanceof IBatchReader) {
+        IBatchReader batchReader = (IBatchReader) reader;
+        while (batchReader.hasNext()) {
+          BatchData batchData = batchReader.nextBatch();
+          if (batchData != null && batchData.hasNext()) {
+            return batchData;
+          }
+        }
+        return new BatchData(dataType, true);
+      }
+      BatchData batchData = new BatchData(dataType, true);
+      while (batchData.length() < BATCH_SIZE && reader.hasNext()) {
+        TimeValuePairUtils.putTimeValuePair(batchData, reader.next());
+      }
+      return batchData;
+    }
+
+    /**
+     * take the next batch of the series, waiting for the task to read it if necessary.
+     *
+     * @return the next batch, empty if the series is exhausted
+     * @throws IOException if the reader of the series fails
+     */
+    private BatchData take() throws IOException {
+      BatchData batchData = poll();
+      while (batchData == null) {
+        if (stopped) {
+          throw new IOException("The data set is closed");
+        }
+        // the task is parked and nothing is left to consume, so the query cannot go on until the
+        // task gets its memory. Wait for it on the caller's thread, where blocking is allowed.
+        reserveOnCaller();
+        batchData = poll();
+      }
+      if (batchData.length() == 0) {
+        // keep the end mark for the following calls
+        queue.offer(batchData);
+        if (exception != null) {
+          throw exception;
+        }
+        return batchData;
+      }
+      synchronized (this) {
+        // the task may have refilled the queue since the batch was taken
+        if (!scheduled && !finished && queue.remainingCapacity() > 0) {
+          submit();
+        }
+      }
+      return batchData;
+    }
+
+    /**
+     * wait until the queue has a batch or the task is parked or stopped.
+     *
+     * @return the next batch, null if the task is parked or stopped
+     */
+    private synchronized BatchData poll() throws IOException {
+      try {
+        while (queue.isEmpty() && !parked && !stopped) {
+          wait();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while waiting for the next batch of a series", e);
+      }
+      return queue.poll();
+    }
+
+    /**
+     * reserve the memory of the parked task, waiting for the pool if necessary, and resubmit the
+     * task. The task is not running while it is parked, so its fields can be accessed here.
+     */
+    private void reserveOnCaller() {
+      synchronized (this) {
+        parked = false;
+      }
+      long expectedMemory = pendingBatch == null ? estimatedMemory
+          : MemUtils.getBatchDataMem(pendingBatch);
+      try {
+        context.reserveMemory(expectedMemory - reservedMemory);
+        reservedMemory = expectedMemory;
+        submit();
+      } catch (QueryMemoryExceededException e) {
+        exception = new IOException(e);
+        BatchData endMark = endOnFailure();
+        closeReader();
+        synchronized (this) {
+          finished = true;
+          queue.offer(endMark);
+        }
+      }
+    }
+  }
+
+  /**
+   * A min heap of primitive timestamps, in which a timestamp added several times is polled once.
+   */
+  private static class TimeSelector {
+
+    private long[] heap;
+    private int size;
+
+    private TimeSelector(int initialCapacity) {
+      heap = new long[Math.max(initialCapacity, 1)];
+    }
+
+    private boolean isEmpty() {
+      return size == 0;
+    }
+
+    private void add(long time) {
+      if (size == heap.length) {
+        heap = Arrays.copyOf(heap, size << 1);
+      }
+      int index = size++;
+      while (index > 0) {
+        int parent = (index - 1) >>> 1;
+        if (heap[parent] <= time) {
+          break;
+        }
+        heap[index] = heap[parent];
+        index = parent;
+      }
+      heap[index] = time;
+    }
+
+    /**
+     * remove and return the smallest timestamp along with all its duplicates.
+     */
+    private long pollFirst() {
+      long first = heap[0];
+      while (size > 0 && heap[0] == first) {
+        removeTop();
+      }
+      return first;
+    }
+
+    private void removeTop() {
+      long last = heap[--size];
+      int index = 0;
+      int half = size >>> 1;
+      while (index < half) {
+        int child = (index << 1) + 1;
+        if (child + 1 < size && heap[child + 1] < heap[child]) {
+          child++;
+        }
+        if (last <= heap[child]) {
+          break;
+        }
+        heap[index] = heap[child];
+        index = child;
+      }
+      heap[index] = last;
+    }
+  }
+}
@@ -124,7 +124,7 @@ public abstract class GroupByEngineDataSet extends QueryDataSet {
   }
 
   /**
-   * this method is only used in the test class to get the next time partition.
+   * get the time partition found by <code>hasNext()</code>.
    */
   public Pair<Long, Long> nextTimePartition() {
     hasCachedTimeInterval = false;
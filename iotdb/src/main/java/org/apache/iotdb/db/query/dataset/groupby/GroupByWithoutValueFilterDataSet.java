@@ -20,8 +20,13 @@
 package org.apache.iotdb.db.query.dataset.groupby;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.pool.QueryTaskPoolManager;
+import org.apache.iotdb.db.engine.pool.QueryTaskPoolManager.QueryTask;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.exception.PathErrorException;
 import org.apache.iotdb.db.exception.ProcessorException;
@@ -35,6 +40,7 @@ import org.apache.iotdb.db.query.reader.IPointReader;
 import org.apache.iotdb.db.query.reader.resourceRelated.SeqResourceIterateReader;
 import org.apache.iotdb.db.query.reader.resourceRelated.UnseqResourceMergeReader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Field;
 import org.apache.iotdb.tsfile.read.common.Path;
@@ -44,6 +50,11 @@ import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.utils.Pair;
 
+/**
+ * Group by query without value filter. Each series is read in a single pass by its own readers,
+ * and the results of several intervals are computed at a time with the series aggregated in
+ * parallel in {@link QueryTaskPoolManager}.
+ */
 public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
 
   private List<IPointReader> unSequenceReaderList;
@@ -51,6 +62,13 @@ public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
   private List<BatchData> batchDataList;
   private List<Boolean> hasCachedSequenceDataList;
   private Filter timeFilter;
+  private QueryContext context;
+
+  /**
+   * max number of intervals computed at a time.
+   */
+  private int intervalsPerRound;
+  private Deque<RowRecord> cachedRecords = new ArrayDeque<>();
 
   /**
    * constructor.
@@ -63,6 +81,7 @@ public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
     this.timeFilter = null;
     this.hasCachedSequenceDataList = new ArrayList<>();
     this.batchDataList = new ArrayList<>();
+    this.intervalsPerRound = IoTDBDescriptor.getInstance().getConfig().getFetchSize();
     for (int i = 0; i < paths.size(); i++) {
       hasCachedSequenceDataList.add(false);
       batchDataList.add(null);
@@ -75,6 +94,7 @@ public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
   public void initGroupBy(QueryContext context, List<String> aggres, IExpression expression)
       throws StorageEngineException, PathErrorException, ProcessorException, IOException {
     initAggreFuction(aggres);
+    this.context = context;
     // init reader
     QueryResourceManager.getInstance().beginQueryOfGivenQueryPaths(jobId, selectedSeries);
     if (expression != null) {
@@ -100,46 +120,87 @@ public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
 
   }
 
+  @Override
+  public boolean hasNext() {
+    return !cachedRecords.isEmpty() || super.hasNext();
+  }
+
   @Override
   public RowRecord next() throws IOException {
-    if (!hasCachedTimeInterval) {
-      throw new IOException("need to call hasNext() before calling next() "
-          + "in GroupByWithoutValueFilterDataSet.");
+    if (cachedRecords.isEmpty()) {
+      if (!hasCachedTimeInterval) {
+        throw new IOException("need to call hasNext() before calling next() "
+            + "in GroupByWithoutValueFilterDataSet.");
+      }
+      nextRound();
     }
-    hasCachedTimeInterval = false;
-    RowRecord record = new RowRecord(startTime);
+    return cachedRecords.poll();
+  }
+
+  /**
+   * calculate the results of the next intervals, at most <code>intervalsPerRound</code> ones.
+   * Each series goes through the intervals in order in a task, so its readers are read in a single
+   * pass, and the series are calculated in parallel.
+   */
+  private void nextRound() throws IOException {
+    List<Pair<Long, Long>> intervals = new ArrayList<>();
+    intervals.add(nextTimePartition());
+    while (intervals.size() < intervalsPerRound && super.hasNext()) {
+      intervals.add(nextTimePartition());
+    }
+
+    AggreResultData[][] results = new AggreResultData[functions.size()][intervals.size()];
+    List<QueryTask> tasks = new ArrayList<>();
     for (int i = 0; i < functions.size(); i++) {
-      AggreResultData res;
-      try {
-        res = nextSeries(i);
-      } catch (ProcessorException e) {
-        throw new IOException(e);
-      }
-      if (res == null) {
-        record.addField(new Field(null));
-      } else {
-        record.addField(getField(res));
+      int idx = i;
+      tasks.add(() -> {
+        context.checkKilled();
+        for (int j = 0; j < intervals.size(); j++) {
+          results[idx][j] = nextSeries(idx, intervals.get(j).left, intervals.get(j).right);
+        }
+      });
+    }
+    try {
+      QueryTaskPoolManager.getInstance().runAll(tasks,
+          IoTDBDescriptor.getInstance().getConfig().getConcurrentAggregationSeriesPerQuery());
+    } catch (ProcessorException e) {
+      throw new IOException(e);
+    }
+
+    for (int j = 0; j < intervals.size(); j++) {
+      RowRecord record = new RowRecord(intervals.get(j).left);
+      for (int i = 0; i < functions.size(); i++) {
+        AggreResultData res = results[i][j];
+        if (res == null) {
+          record.addField(new Field(null));
+        } else {
+          record.addField(getField(res));
+        }
       }
+      cachedRecords.add(record);
     }
-    return record;
   }
 
   /**
    * calculate the group by result of the series indexed by idx.
    *
    * @param idx series id
+   * @param startTime start time of the interval, inclusive
+   * @param endTime end time of the interval, exclusive
    */
-  private AggreResultData nextSeries(int idx) throws IOException, ProcessorException {
+  private AggreResultData nextSeries(int idx, long startTime, long endTime)
+      throws IOException, ProcessorException {
     IPointReader unsequenceReader = unSequenceReaderList.get(idx);
     IAggregateReader sequenceReader = sequenceReaderList.get(idx);
     AggregateFunction function = functions.get(idx);
     function.init();
 
     // skip the points with timestamp less than startTime
-    skipBeforeStartTimeData(idx, sequenceReader, unsequenceReader);
+    skipBeforeStartTimeData(idx, sequenceReader, unsequenceReader, startTime);
 
     // cal group by in batch data
-    boolean finishCheckSequenceData = calGroupByInBatchData(idx, function, unsequenceReader);
+    boolean finishCheckSequenceData = calGroupByInBatchData(idx, function, unsequenceReader,
+        endTime);
     if (finishCheckSequenceData) {
       // check unsequence data
       function.calculateValueFromUnsequenceReader(unsequenceReader, endTime);
@@ -147,14 +208,31 @@ public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
     }
 
     // continue checking sequence data
-    while (sequenceReader.hasNext()) {
+    while (true) {
+      ChunkMetaData chunkMetaData = sequenceReader.nextChunkMetaData();
+      if (chunkMetaData != null) {
+        // no point in sequence data with a timestamp less than endTime
+        if (chunkMetaData.getStartTime() >= endTime) {
+          break;
+        }
+        if (canUseChunkMetaData(chunkMetaData, unsequenceReader, function, startTime, endTime)) {
+          // cal using chunk metadata
+          function.calculateValueFromChunkMetaData(chunkMetaData);
+          sequenceReader.skipChunkData();
+          continue;
+        }
+      }
+      if (!sequenceReader.hasNext()) {
+        break;
+      }
       PageHeader pageHeader = sequenceReader.nextPageHeader();
 
       // memory data
       if (pageHeader == null) {
         batchDataList.set(idx, sequenceReader.nextBatch());
         hasCachedSequenceDataList.set(idx, true);
-        finishCheckSequenceData = calGroupByInBatchData(idx, function, unsequenceReader);
+        finishCheckSequenceData = calGroupByInBatchData(idx, function, unsequenceReader,
+            endTime);
       } else {
         // page data
         long minTime = pageHeader.getMinTimestamp();
@@ -162,7 +240,8 @@ public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
         // no point in sequence data with a timestamp less than endTime
         if (minTime >= endTime) {
           finishCheckSequenceData = true;
-        } else if (canUseHeader(minTime, maxTime, unsequenceReader, function)) {
+        } else if (canUseHeader(minTime, maxTime, unsequenceReader, function, startTime,
+            endTime)) {
           // cal using page header
           function.calculateValueFromPageHeader(pageHeader);
           sequenceReader.skipPageData();
@@ -170,7 +249,8 @@ public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
           // cal using page data
           batchDataList.set(idx, sequenceReader.nextBatch());
           hasCachedSequenceDataList.set(idx, true);
-          finishCheckSequenceData = calGroupByInBatchData(idx, function, unsequenceReader);
+          finishCheckSequenceData = calGroupByInBatchData(idx, function, unsequenceReader,
+              endTime);
         }
 
         if (finishCheckSequenceData) {
@@ -189,10 +269,11 @@ public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
    * @param idx series index
    * @param function aggregate function of the series
    * @param unsequenceReader unsequence reader of the series
+   * @param endTime end time of the interval, exclusive
    * @return if all sequential data been computed
    */
   private boolean calGroupByInBatchData(int idx, AggregateFunction function,
-      IPointReader unsequenceReader)
+      IPointReader unsequenceReader, long endTime)
       throws IOException, ProcessorException {
     BatchData batchData = batchDataList.get(idx);
     boolean hasCachedSequenceData = hasCachedSequenceDataList.get(idx);
@@ -218,28 +299,43 @@ public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
    * @param idx the index of series
    * @param sequenceReader sequence Reader
    * @param unsequenceReader unsequence Reader
+   * @param startTime start time of the interval
    * @throws IOException exception when reading file
    */
   private void skipBeforeStartTimeData(int idx, IAggregateReader sequenceReader,
-      IPointReader unsequenceReader)
+      IPointReader unsequenceReader, long startTime)
       throws IOException {
 
     // skip the unsequenceReader points with timestamp less than startTime
-    skipPointInUnsequenceData(unsequenceReader);
+    skipPointInUnsequenceData(unsequenceReader, startTime);
 
     // skip the cached batch data points with timestamp less than startTime
-    if (skipPointInBatchData(idx)) {
+    if (skipPointInBatchData(idx, startTime)) {
       return;
     }
 
     // skip the points in sequenceReader data whose timestamp are less than startTime
-    while (sequenceReader.hasNext()) {
+    while (true) {
+      ChunkMetaData chunkMetaData = sequenceReader.nextChunkMetaData();
+      if (chunkMetaData != null) {
+        // timestamps of all points in the chunk are less than startTime
+        if (chunkMetaData.getEndTime() < startTime) {
+          sequenceReader.skipChunkData();
+          continue;
+        } else if (chunkMetaData.getStartTime() >= startTime) {
+          // timestamps of all points in the chunk are greater or equal to startTime
+          return;
+        }
+      }
+      if (!sequenceReader.hasNext()) {
+        return;
+      }
       PageHeader pageHeader = sequenceReader.nextPageHeader();
       // memory data
       if (pageHeader == null) {
         batchDataList.set(idx, sequenceReader.nextBatch());
         hasCachedSequenceDataList.set(idx, true);
-        if (skipPointInBatchData(idx)) {
+        if (skipPointInBatchData(idx, startTime)) {
           return;
         }
       } else {
@@ -256,7 +352,7 @@ public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
         // the page has overlap with startTime
         batchDataList.set(idx, sequenceReader.nextBatch());
         hasCachedSequenceDataList.set(idx, true);
-        if (skipPointInBatchData(idx)) {
+        if (skipPointInBatchData(idx, startTime)) {
           return;
         }
       }
@@ -267,8 +363,10 @@ public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
    * skip points in unsequence reader whose timestamp is less than startTime.
    *
    * @param unsequenceReader unsequence reader
+   * @param startTime start time of the interval
    */
-  private void skipPointInUnsequenceData(IPointReader unsequenceReader) throws IOException {
+  private void skipPointInUnsequenceData(IPointReader unsequenceReader, long startTime)
+      throws IOException {
     while (unsequenceReader.hasNext() && unsequenceReader.current().getTimestamp() < startTime) {
       unsequenceReader.next();
     }
@@ -278,9 +376,10 @@ public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
    * skip points in batch data whose timestamp is less than startTime.
    *
    * @param idx series index
+   * @param startTime start time of the interval
    * @return whether has next in batch data
    */
-  private boolean skipPointInBatchData(int idx) {
+  private boolean skipPointInBatchData(int idx, long startTime) {
     BatchData batchData = batchDataList.get(idx);
     boolean hasCachedSequenceData = hasCachedSequenceDataList.get(idx);
     if (!hasCachedSequenceData) {
@@ -300,9 +399,28 @@ public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
     }
   }
 
+  /**
+   * a chunk can be used as a whole only if none of its points has been deleted, besides the
+   * conditions of a page.
+   */
+  private boolean canUseChunkMetaData(ChunkMetaData chunkMetaData, IPointReader unSequenceReader,
+      AggregateFunction function, long startTime, long endTime)
+      throws IOException, ProcessorException {
+    long minTime = chunkMetaData.getStartTime();
+    long maxTime = chunkMetaData.getEndTime();
+    if (chunkMetaData.getDeletedAt() >= minTime || chunkMetaData.getStatistics() == null) {
+      return false;
+    }
+    return canUseHeader(minTime, maxTime, unSequenceReader, function, startTime, endTime);
+  }
+
   private boolean canUseHeader(long minTime, long maxTime, IPointReader unSequenceReader,
-      AggregateFunction function)
+      AggregateFunction function, long startTime, long endTime)
       throws IOException, ProcessorException {
+    // statistics of points out of the current interval must not be counted in
+    if (minTime < startTime || maxTime >= endTime) {
+      return false;
+    }
     if (timeFilter != null && !timeFilter.containStartEndTime(minTime, maxTime)) {
       return false;
     }
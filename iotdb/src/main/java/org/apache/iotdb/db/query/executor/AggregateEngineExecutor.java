@@ -21,8 +21,11 @@ package org.apache.iotdb.db.query.executor;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.pool.QueryTaskPoolManager;
+import org.apache.iotdb.db.engine.pool.QueryTaskPoolManager.QueryTask;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.exception.PathErrorException;
 import org.apache.iotdb.db.exception.ProcessorException;
@@ -45,6 +48,7 @@ import org.apache.iotdb.db.query.reader.resourceRelated.UnseqResourceMergeReader
 import org.apache.iotdb.db.query.reader.seriesRelated.SeriesReaderByTimestamp;
 import org.apache.iotdb.db.query.timegenerator.EngineTimeGenerator;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Path;
@@ -89,9 +93,8 @@ public class AggregateEngineExecutor {
     QueryResourceManager
         .getInstance().beginQueryOfGivenQueryPaths(context.getJobId(), selectedSeries);
 
-    List<IAggregateReader> readersOfSequenceData = new ArrayList<>();
-    List<IPointReader> readersOfUnSequenceData = new ArrayList<>();
     List<AggregateFunction> aggregateFunctions = new ArrayList<>();
+    List<QueryDataSource> queryDataSources = new ArrayList<>();
     for (int i = 0; i < selectedSeries.size(); i++) {
       // construct AggregateFunction
       TSDataType tsDataType = MManager.getInstance()
@@ -100,34 +103,51 @@ public class AggregateEngineExecutor {
       function.init();
       aggregateFunctions.add(function);
 
-      QueryDataSource queryDataSource = QueryResourceManager.getInstance()
-          .getQueryDataSource(selectedSeries.get(i), context);
-
-      // sequence reader for sealed tsfile, unsealed tsfile, memory
-      IAggregateReader seqResourceIterateReader;
-      if (function instanceof MaxTimeAggrFunc || function instanceof LastAggrFunc) {
-        seqResourceIterateReader = new SeqResourceIterateReader(queryDataSource.getSeriesPath(),
-            queryDataSource.getSeqResources(), timeFilter, context, true);
-      } else {
-        seqResourceIterateReader = new SeqResourceIterateReader(queryDataSource.getSeriesPath(),
-            queryDataSource.getSeqResources(), timeFilter, context, false);
-      }
+      // the files used by a query are recorded by the query thread
+      queryDataSources.add(QueryResourceManager.getInstance()
+          .getQueryDataSource(selectedSeries.get(i), context));
+    }
 
-      // unseq reader for all chunk groups in unSeqFile, memory
-      IPointReader unseqResourceMergeReader= new UnseqResourceMergeReader(queryDataSource.getSeriesPath(),
-          queryDataSource.getUnseqResources(), context, timeFilter);
+    AggreResultData[] aggreResultDataArray = new AggreResultData[selectedSeries.size()];
+    List<QueryTask> tasks = new ArrayList<>();
+    for (int i = 0; i < selectedSeries.size(); i++) {
+      int index = i;
+      tasks.add(() -> aggreResultDataArray[index] = aggregateSeries(aggregateFunctions.get(index),
+          queryDataSources.get(index), timeFilter, context));
+    }
+    QueryTaskPoolManager.getInstance().runAll(tasks,
+        IoTDBDescriptor.getInstance().getConfig().getConcurrentAggregationSeriesPerQuery());
+    return constructDataSet(Arrays.asList(aggreResultDataArray));
+  }
 
-      readersOfSequenceData.add(seqResourceIterateReader);
-      readersOfUnSequenceData.add(unseqResourceMergeReader);
+  /**
+   * construct the readers of a series and aggregate it with only time filter or no filter.
+   */
+  private AggreResultData aggregateSeries(AggregateFunction function,
+      QueryDataSource queryDataSource, Filter timeFilter, QueryContext context)
+      throws IOException, ProcessorException {
+    context.checkKilled();
+    // sequence reader for sealed tsfile, unsealed tsfile, memory
+    IAggregateReader seqResourceIterateReader;
+    if (function instanceof MaxTimeAggrFunc || function instanceof LastAggrFunc) {
+      seqResourceIterateReader = new SeqResourceIterateReader(queryDataSource.getSeriesPath(),
+          queryDataSource.getSeqResources(), timeFilter, context, true);
+    } else {
+      seqResourceIterateReader = new SeqResourceIterateReader(queryDataSource.getSeriesPath(),
+          queryDataSource.getSeqResources(), timeFilter, context, false);
     }
-    List<AggreResultData> aggreResultDataList = new ArrayList<>();
-    //TODO use multi-thread
-    for (int i = 0; i < selectedSeries.size(); i++) {
-      AggreResultData aggreResultData = aggregateWithoutValueFilter(aggregateFunctions.get(i),
-          readersOfSequenceData.get(i), readersOfUnSequenceData.get(i), timeFilter);
-      aggreResultDataList.add(aggreResultData);
+
+    // unseq reader for all chunk groups in unSeqFile, memory
+    IPointReader unseqResourceMergeReader = new UnseqResourceMergeReader(
+        queryDataSource.getSeriesPath(), queryDataSource.getUnseqResources(), context,
+        timeFilter);
+    try {
+      return aggregateWithoutValueFilter(function, seqResourceIterateReader,
+          unseqResourceMergeReader, timeFilter);
+    } finally {
+      seqResourceIterateReader.close();
+      unseqResourceMergeReader.close();
     }
-    return constructDataSet(aggreResultDataList);
   }
 
   /**
@@ -147,16 +167,26 @@ public class AggregateEngineExecutor {
           filter);
     }
 
-    while (sequenceReader.hasNext()) {
-      PageHeader pageHeader = sequenceReader.nextPageHeader();
-      // judge if overlap with unsequence data
-      if (canUseHeader(function, pageHeader, unSequenceReader, filter)) {
-        // cal by pageHeader
-        function.calculateValueFromPageHeader(pageHeader);
-        sequenceReader.skipPageData();
+    while (true) {
+      ChunkMetaData chunkMetaData = sequenceReader.nextChunkMetaData();
+      if (chunkMetaData != null && canUseChunkMetaData(function, chunkMetaData, unSequenceReader,
+          filter)) {
+        // cal by chunkMetaData, the whole chunk is skipped
+        function.calculateValueFromChunkMetaData(chunkMetaData);
+        sequenceReader.skipChunkData();
+      } else if (sequenceReader.hasNext()) {
+        PageHeader pageHeader = sequenceReader.nextPageHeader();
+        // judge if overlap with unsequence data
+        if (canUseHeader(function, pageHeader, unSequenceReader, filter)) {
+          // cal by pageHeader
+          function.calculateValueFromPageHeader(pageHeader);
+          sequenceReader.skipPageData();
+        } else {
+          // cal by pageData
+          function.calculateValueFromPageData(sequenceReader.nextBatch(), unSequenceReader);
+        }
       } else {
-        // cal by pageData
-        function.calculateValueFromPageData(sequenceReader.nextBatch(), unSequenceReader);
+        break;
       }
 
       if (function.isCalculatedAggregationResult()) {
@@ -182,20 +212,40 @@ public class AggregateEngineExecutor {
       return false;
     }
 
-    long minTime = pageHeader.getMinTimestamp();
-    long maxTime = pageHeader.getMaxTimestamp();
+    return canUseStatistics(function, pageHeader.getMinTimestamp(),
+        pageHeader.getMaxTimestamp(), unSequenceReader, filter);
+  }
+
+  /**
+   * determine whether chunkMetaData can be used to compute aggregation results.
+   */
+  private boolean canUseChunkMetaData(AggregateFunction function, ChunkMetaData chunkMetaData,
+      IPointReader unSequenceReader, Filter filter) throws IOException, ProcessorException {
+    long minTime = chunkMetaData.getStartTime();
+    // deleted points are only removed when the chunk data is read, and chunks written by old
+    // versions may have no statistics.
+    if (chunkMetaData.getDeletedAt() >= minTime || chunkMetaData.getStatistics() == null) {
+      return false;
+    }
+    return canUseStatistics(function, minTime, chunkMetaData.getEndTime(), unSequenceReader,
+        filter);
+  }
 
-    // If there are points in the page that do not satisfy the time filter,
-    // page header cannot be used to calculate.
+  /**
+   * determine whether the statistics of sequence data in [minTime, maxTime] can be used.
+   */
+  private boolean canUseStatistics(AggregateFunction function, long minTime, long maxTime,
+      IPointReader unSequenceReader, Filter filter) throws IOException, ProcessorException {
+    // If there are points in the page or chunk that do not satisfy the time filter,
+    // statistics cannot be used to calculate.
     if (filter != null && !filter.containStartEndTime(minTime, maxTime)) {
       return false;
     }
 
-    // cal unsequence data with timestamps between pages.
+    // cal unsequence data with timestamps between pages or chunks.
     function.calculateValueFromUnsequenceReader(unSequenceReader, minTime);
 
     return !(unSequenceReader.hasNext() && unSequenceReader.current().getTimestamp() <= maxTime);
-
   }
 
   /**
@@ -209,6 +259,18 @@ public class AggregateEngineExecutor {
   private AggreResultData handleLastMaxTimeWithOutTimeGenerator(AggregateFunction function,
       IAggregateReader sequenceReader, IPointReader unSequenceReader, Filter timeFilter)
       throws IOException, ProcessorException {
+    // the newest sequence chunk holds the result if it is not overlapped by unsequence data
+    ChunkMetaData chunkMetaData = sequenceReader.nextChunkMetaData();
+    if (chunkMetaData != null && canUseChunkMetaData(function, chunkMetaData, unSequenceReader,
+        timeFilter)) {
+      function.calculateValueFromChunkMetaData(chunkMetaData);
+      sequenceReader.skipChunkData();
+      if (unSequenceReader.hasNext()) {
+        function.calculateValueFromUnsequenceReader(unSequenceReader);
+      }
+      return function.getResult();
+    }
+
     long lastBatchTimeStamp = Long.MIN_VALUE;
     boolean isChunkEnd = false;
     while (sequenceReader.hasNext()) {
@@ -28,8 +28,11 @@ import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.QueryResourceManager;
 import org.apache.iotdb.db.query.dataset.EngineDataSetWithValueFilter;
 import org.apache.iotdb.db.query.dataset.EngineDataSetWithoutValueFilter;
+import org.apache.iotdb.db.query.dataset.LimitedQueryDataSet;
+import org.apache.iotdb.db.query.dataset.RawQueryDataSetWithoutValueFilter;
 import org.apache.iotdb.db.query.reader.IPointReader;
 import org.apache.iotdb.db.query.reader.IReaderByTimestamp;
+import org.apache.iotdb.db.query.reader.seriesRelated.ReverseSeriesReaderWithoutValueFilter;
 import org.apache.iotdb.db.query.reader.seriesRelated.SeriesReaderByTimestamp;
 import org.apache.iotdb.db.query.reader.seriesRelated.SeriesReaderWithoutValueFilter;
 import org.apache.iotdb.db.query.timegenerator.EngineTimeGenerator;
@@ -46,9 +49,26 @@ import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 public class EngineExecutor {
 
   private QueryExpression queryExpression;
+  private int rowLimit;
+  private int rowOffset;
+  private boolean orderByTimeDesc;
 
   public EngineExecutor(QueryExpression queryExpression) {
+    this(queryExpression, 0, 0, false);
+  }
+
+  /**
+   * @param rowLimit max number of returned rows, 0 for no limit
+   * @param rowOffset number of rows to skip
+   * @param orderByTimeDesc true to return the rows from the latest to the earliest, which is only
+   * supported without value filter
+   */
+  public EngineExecutor(QueryExpression queryExpression, int rowLimit, int rowOffset,
+      boolean orderByTimeDesc) {
     this.queryExpression = queryExpression;
+    this.rowLimit = rowLimit;
+    this.rowOffset = rowOffset;
+    this.orderByTimeDesc = orderByTimeDesc;
   }
 
   /**
@@ -74,18 +94,45 @@ public class EngineExecutor {
         throw new StorageEngineException(e);
       }
 
-      IPointReader reader = new SeriesReaderWithoutValueFilter(path, timeFilter, context);
-      readersOfSelectedSeries.add(reader);
+      if (orderByTimeDesc) {
+        readersOfSelectedSeries
+            .add(new ReverseSeriesReaderWithoutValueFilter(path, timeFilter, context));
+      } else {
+        readersOfSelectedSeries.add(new SeriesReaderWithoutValueFilter(path, timeFilter, context));
+      }
+    }
+
+    if (orderByTimeDesc) {
+      try {
+        return limit(new EngineDataSetWithoutValueFilter(queryExpression.getSelectedSeries(),
+            dataTypes, readersOfSelectedSeries, true), rowOffset);
+      } catch (IOException e) {
+        throw new StorageEngineException(e);
+      }
+    }
+
+    // the rows of a single series are its points, so that whole chunks and pages can be skipped
+    long remainingOffset = rowOffset;
+    if (remainingOffset > 0 && readersOfSelectedSeries.size() == 1) {
+      remainingOffset -= ((SeriesReaderWithoutValueFilter) readersOfSelectedSeries.get(0))
+          .skip(remainingOffset);
     }
 
     try {
-      return new EngineDataSetWithoutValueFilter(queryExpression.getSelectedSeries(), dataTypes,
-          readersOfSelectedSeries);
+      return limit(new RawQueryDataSetWithoutValueFilter(queryExpression.getSelectedSeries(),
+          dataTypes, readersOfSelectedSeries, context), remainingOffset);
     } catch (IOException e) {
       throw new StorageEngineException(e);
     }
   }
 
+  private QueryDataSet limit(QueryDataSet dataSet, long offset) {
+    if (rowLimit <= 0 && offset <= 0) {
+      return dataSet;
+    }
+    return new LimitedQueryDataSet(dataSet, rowLimit, offset);
+  }
+
   /**
    * executeWithValueFilter query.
    *
@@ -115,9 +162,9 @@ public class EngineExecutor {
       SeriesReaderByTimestamp seriesReaderByTimestamp = new SeriesReaderByTimestamp(path, context);
       readersOfSelectedSeries.add(seriesReaderByTimestamp);
     }
-    return new EngineDataSetWithValueFilter(queryExpression.getSelectedSeries(), dataTypes,
+    return limit(new EngineDataSetWithValueFilter(queryExpression.getSelectedSeries(), dataTypes,
         timestampGenerator,
-        readersOfSelectedSeries);
+        readersOfSelectedSeries), rowOffset);
   }
 
 }
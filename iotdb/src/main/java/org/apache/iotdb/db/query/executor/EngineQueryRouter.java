@@ -52,6 +52,12 @@ public class EngineQueryRouter implements IEngineQueryRouter {
   @Override
   public QueryDataSet query(QueryExpression queryExpression, QueryContext context)
       throws StorageEngineException {
+    return query(queryExpression, context, 0, 0, false);
+  }
+
+  @Override
+  public QueryDataSet query(QueryExpression queryExpression, QueryContext context, int rowLimit,
+      int rowOffset, boolean orderByTimeDesc) throws StorageEngineException {
 
     if (queryExpression.hasQueryFilter()) {
       try {
@@ -59,9 +65,12 @@ public class EngineQueryRouter implements IEngineQueryRouter {
             .optimize(queryExpression.getExpression(), queryExpression.getSelectedSeries());
         queryExpression.setExpression(optimizedExpression);
         EngineExecutor engineExecutor =
-            new EngineExecutor(queryExpression);
+            new EngineExecutor(queryExpression, rowLimit, rowOffset, orderByTimeDesc);
         if (optimizedExpression.getType() == ExpressionType.GLOBAL_TIME) {
           return engineExecutor.executeWithoutValueFilter(context);
+        } else if (orderByTimeDesc) {
+          throw new StorageEngineException(
+              "ORDER BY TIME DESC is only supported by queries without value filter");
         } else {
           return engineExecutor.executeWithValueFilter(context);
         }
@@ -71,7 +80,7 @@ public class EngineQueryRouter implements IEngineQueryRouter {
       }
     } else {
       EngineExecutor engineExecutor = new EngineExecutor(
-          queryExpression);
+          queryExpression, rowLimit, rowOffset, orderByTimeDesc);
       try {
         return engineExecutor.executeWithoutValueFilter(context);
       } catch (IOException e) {
@@ -174,6 +183,12 @@ public class EngineQueryRouter implements IEngineQueryRouter {
     return fillEngineExecutor.execute(context);
   }
 
+  @Override
+  public QueryDataSet last(List<Path> selectedSeries, QueryContext context)
+      throws StorageEngineException {
+    return new LastQueryExecutor(selectedSeries).execute(context);
+  }
+
   /**
    * sort intervals by start time and merge overlapping intervals.
    *
@@ -42,6 +42,17 @@ public interface IEngineQueryRouter {
   QueryDataSet query(QueryExpression queryExpression, QueryContext context)
       throws StorageEngineException, PathErrorException;
 
+  /**
+   * Execute physical plan and return at most rowLimit rows after skipping the first rowOffset
+   * rows.
+   *
+   * @param rowLimit max number of returned rows, 0 for no limit
+   * @param rowOffset number of rows to skip
+   * @param orderByTimeDesc true to return the rows from the latest to the earliest
+   */
+  QueryDataSet query(QueryExpression queryExpression, QueryContext context, int rowLimit,
+      int rowOffset, boolean orderByTimeDesc) throws StorageEngineException, PathErrorException;
+
   /**
    * Execute aggregation query.
    */
@@ -75,4 +86,12 @@ public interface IEngineQueryRouter {
   QueryDataSet fill(List<Path> fillPaths, long queryTime, Map<TSDataType, IFill> fillType,
       QueryContext context) throws StorageEngineException, PathErrorException, IOException;
 
+  /**
+   * Execute last query, which returns the latest point of each selected series.
+   *
+   * @param selectedSeries select path list
+   */
+  QueryDataSet last(List<Path> selectedSeries, QueryContext context)
+      throws StorageEngineException;
+
 }
@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.executor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.db.engine.cache.LastValueCache;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.QueryResourceManager;
+import org.apache.iotdb.db.query.dataset.ListDataSet;
+import org.apache.iotdb.db.query.reader.IAggregateReader;
+import org.apache.iotdb.db.query.reader.resourceRelated.SeqResourceIterateReader;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.TimeValuePairUtils;
+import org.apache.iotdb.db.utils.TsPrimitiveType;
+import org.apache.iotdb.tsfile.common.constant.StatisticConstant;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+/**
+ * Executor of LAST queries, which returns the latest point of each selected series as a row of
+ * (time, series, value). The points are read from the {@link LastValueCache}. A point missing in
+ * the cache is taken from the newest sequence data, i.e., the statistics of the newest chunk on
+ * disk or the memtable, if no unsequence file of the device ends at or after it. Otherwise the
+ * point is loaded by the MAX_TIME and LAST aggregations, which merge the unsequence data.
+ */
+public class LastQueryExecutor {
+
+  private List<Path> selectedSeries;
+
+  public LastQueryExecutor(List<Path> selectedSeries) {
+    this.selectedSeries = selectedSeries;
+  }
+
+  public QueryDataSet execute(QueryContext context) throws StorageEngineException {
+    ListDataSet dataSet = new ListDataSet(
+        Arrays.asList(new Path(IoTDBConstant.TIMESERIES), new Path(IoTDBConstant.VALUE)),
+        Arrays.asList(TSDataType.TEXT, TSDataType.TEXT));
+    for (Path path : selectedSeries) {
+      TimeValuePair point = LastValueCache.getInstance()
+          .get(path.getFullPath(), p -> loadLastPoint(path, context));
+      if (point == null) {
+        // the series has no data
+        continue;
+      }
+      RowRecord record = new RowRecord(point.getTimestamp());
+      record.addField(textField(path.getFullPath()));
+      record.addField(textField(point.getValue().getStringValue()));
+      dataSet.putRecord(record);
+    }
+    return dataSet;
+  }
+
+  private TimeValuePair loadLastPoint(Path path, QueryContext context)
+      throws StorageEngineException {
+    QueryResourceManager.getInstance()
+        .beginQueryOfGivenQueryPaths(context.getJobId(), Collections.singletonList(path));
+    QueryDataSource dataSource = QueryResourceManager.getInstance()
+        .getQueryDataSource(path, context);
+    if (dataSource.getSeqResources().isEmpty() && dataSource.getUnseqResources().isEmpty()) {
+      return null;
+    }
+    TimeValuePair seqLastPoint;
+    try {
+      seqLastPoint = readSeqLastPoint(path, dataSource, context);
+    } catch (IOException e) {
+      throw new StorageEngineException(e);
+    }
+    if (seqLastPoint != null && !isOverlappedByUnseqFiles(dataSource.getUnseqResources(),
+        path.getDevice(), seqLastPoint.getTimestamp())) {
+      return seqLastPoint;
+    }
+    return aggregateLastPoint(path, context);
+  }
+
+  /**
+   * read the last point of the sequence data without reading any chunk, from the statistics of the
+   * newest chunk or from the memtable.
+   *
+   * @return null if the sequence data is empty, or its last point cannot be read cheaply, e.g.,
+   * when the newest chunk has deleted points at its end
+   */
+  private TimeValuePair readSeqLastPoint(Path path, QueryDataSource dataSource,
+      QueryContext context) throws IOException {
+    // the reader reverses the list it is given
+    IAggregateReader reader = new SeqResourceIterateReader(path,
+        new ArrayList<>(dataSource.getSeqResources()), null, context, true);
+    try {
+      ChunkMetaData chunkMetaData = reader.nextChunkMetaData();
+      if (chunkMetaData != null) {
+        Statistics<?> statistics = chunkMetaData.getStatistics();
+        if (statistics == null || chunkMetaData.getDeletedAt() >= chunkMetaData.getEndTime()) {
+          return null;
+        }
+        return new TimeValuePair(chunkMetaData.getEndTime(),
+            TsPrimitiveType.getByType(chunkMetaData.getTsDataType(), statistics.getLast()));
+      }
+      if (!reader.hasNext()) {
+        return null;
+      }
+      // a reader without chunk metadata reads the memtable, whose data is read in one batch
+      BatchData batchData = reader.nextBatch();
+      if (batchData.length() == 0) {
+        return null;
+      }
+      return TimeValuePairUtils.getTimeValuePairByIndex(batchData, batchData.length() - 1);
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * whether an unsequence file may hold a point of the device at or after the given time, which
+   * would replace or follow the last sequence point.
+   */
+  private boolean isOverlappedByUnseqFiles(List<TsFileResource> unseqResources, String device,
+      long time) {
+    for (TsFileResource unseqResource : unseqResources) {
+      Long endTime = unseqResource.getEndTimeMap().get(device);
+      if (endTime == null || endTime >= time) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private TimeValuePair aggregateLastPoint(Path path, QueryContext context)
+      throws StorageEngineException {
+    AggregateEngineExecutor aggregateExecutor = new AggregateEngineExecutor(
+        Arrays.asList(path, path), Arrays.asList(StatisticConstant.MAX_TIME, StatisticConstant.LAST),
+        null);
+    try {
+      QueryDataSet dataSet = aggregateExecutor.executeWithoutValueFilter(context);
+      if (!dataSet.hasNext()) {
+        return null;
+      }
+      List<Field> fields = dataSet.next().getFields();
+      Field timeField = fields.get(0);
+      Field valueField = fields.get(1);
+      if (timeField.getDataType() == null || valueField.getDataType() == null) {
+        return null;
+      }
+      TSDataType dataType = valueField.getDataType();
+      return new TimeValuePair(timeField.getLongV(),
+          TsPrimitiveType.getByType(dataType, valueField.getObjectValue(dataType)));
+    } catch (IOException | PathErrorException | ProcessorException e) {
+      throw new StorageEngineException(e);
+    }
+  }
+
+  private static Field textField(String value) {
+    Field field = new Field(TSDataType.TEXT);
+    field.setBinaryV(new Binary(value));
+    return field;
+  }
+}
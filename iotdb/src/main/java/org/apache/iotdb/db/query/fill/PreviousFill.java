@@ -22,9 +22,13 @@ import java.io.IOException;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.reader.IPointReader;
+import org.apache.iotdb.db.query.reader.seriesRelated.ReverseSeriesReaderWithoutValueFilter;
 import org.apache.iotdb.db.utils.TimeValuePair;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 
 public class PreviousFill extends IFill {
 
@@ -44,10 +48,19 @@ public class PreviousFill extends IFill {
     return new PreviousFill(dataType, queryTime, beforeRange);
   }
 
+  /**
+   * read the data no later than the query time from the newest to the oldest, so that only the
+   * point to fill with is read rather than all the points of the fill time range.
+   */
   @Override
   public void constructReaders(Path path, QueryContext context)
       throws IOException, StorageEngineException {
-    super.constructReaders(path, context, beforeRange);
+    Filter timeFilter = TimeFilter.ltEq(queryTime);
+    // if the fill time range is not set, beforeRange will be set to -1.
+    if (beforeRange != -1) {
+      timeFilter = FilterFactory.and(TimeFilter.gtEq(queryTime - beforeRange), timeFilter);
+    }
+    allDataReader = new ReverseSeriesReaderWithoutValueFilter(path, timeFilter, context);
   }
 
   public long getBeforeRange() {
@@ -57,14 +70,8 @@ public class PreviousFill extends IFill {
   @Override
   public IPointReader getFillResult() throws IOException {
     TimeValuePair beforePair = null;
-    TimeValuePair cachedPair = null;
-    while (allDataReader.hasNext()) {
-      cachedPair = allDataReader.next();
-      if (cachedPair.getTimestamp() <= queryTime) {
-        beforePair = cachedPair;
-      } else {
-        break;
-      }
+    if (allDataReader.hasNext()) {
+      beforePair = allDataReader.next();
     }
 
     if (beforePair != null) {
@@ -20,6 +20,7 @@ package org.apache.iotdb.db.query.reader;
 
 import java.io.IOException;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 
 public interface IAggregateReader extends IBatchReader {
 
@@ -32,4 +33,18 @@ public interface IAggregateReader extends IBatchReader {
   PageHeader nextPageHeader() throws IOException;
 
   void skipPageData() throws IOException;
+
+  /**
+   * Returns meta-information of the next chunk, so that a whole chunk can be used without being
+   * loaded.
+   * <p>
+   * Returns null if the next batch data comes from memory, or the current chunk has not been used
+   * up. Returns chunkMetaData if the next batch data is the first page of an on-disk chunk.
+   */
+  ChunkMetaData nextChunkMetaData() throws IOException;
+
+  /**
+   * Skips the chunk returned by <code>nextChunkMetaData</code>.
+   */
+  void skipChunkData() throws IOException;
 }
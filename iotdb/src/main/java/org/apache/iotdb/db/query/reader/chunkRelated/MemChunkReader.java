@@ -25,6 +25,7 @@ import org.apache.iotdb.db.query.reader.IPointReader;
 import org.apache.iotdb.db.query.reader.fileRelated.UnSealedTsFileIterateReader;
 import org.apache.iotdb.db.utils.TimeValuePair;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
@@ -120,4 +121,14 @@ public class MemChunkReader implements IPointReader, IAggregateReader {
   public void skipPageData() {
     nextBatch();
   }
+
+  @Override
+  public ChunkMetaData nextChunkMetaData() {
+    return null;
+  }
+
+  @Override
+  public void skipChunkData() {
+    // memory data has no chunk metadata, so nextChunkMetaData() never asks for a skip.
+  }
 }
\ No newline at end of file
@@ -20,8 +20,17 @@ package org.apache.iotdb.db.query.reader.resourceRelated;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.CachedChunkLoader;
+import org.apache.iotdb.db.engine.cache.ChunkCache;
 import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.db.engine.pool.QueryIOPoolManager;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.FileReaderManager;
@@ -32,10 +41,12 @@ import org.apache.iotdb.db.query.reader.universal.IterateReader;
 import org.apache.iotdb.db.utils.QueryUtils;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.controller.ChunkLoader;
-import org.apache.iotdb.tsfile.read.controller.ChunkLoaderImpl;
+import org.apache.iotdb.tsfile.read.controller.CoalescedChunkLoader;
 import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
+import org.apache.iotdb.tsfile.read.controller.PrefetchStatistics;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.reader.series.FileSeriesReader;
 import org.apache.iotdb.tsfile.read.reader.series.FileSeriesReaderWithFilter;
@@ -50,6 +61,10 @@ import org.apache.iotdb.tsfile.read.reader.series.FileSeriesReaderWithoutFilter;
  * sealed or unsealed. 4) An unsealed sequence TsFile consists of two parts of data in chronological
  * order: data that has been flushed to disk and data in the flushing memtable list.
  * <p>
+ * While a TsFile is read, the chunk metadata of the next <code>query_prefetch_depth</code> sealed
+ * TsFiles are read by the query I/O pool, and so are the next groups of chunks of the TsFile, see
+ * {@link CoalescedChunkLoader}.
+ * <p>
  * This class is used in {@link org.apache.iotdb.db.query.reader.seriesRelated.SeriesReaderWithoutValueFilter}.
  */
 public class SeqResourceIterateReader extends IterateReader {
@@ -69,6 +84,18 @@ public class SeqResourceIterateReader extends IterateReader {
   private Filter filter;
   private QueryContext context;
 
+  private int prefetchDepth;
+  /**
+   * index of a sealed TsFile in <code>seqResources</code> -> the asynchronous read of its chunk
+   * metadata.
+   */
+  private Map<Integer, Future<List<ChunkMetaData>>> metaDataPrefetchTasks = new HashMap<>();
+  /**
+   * the chunk loader of the sealed TsFile being read, whose prefetches are cancelled when the next
+   * TsFile is read or this reader is closed. Null if there is none.
+   */
+  private CoalescedChunkLoader currentChunkLoader;
+
   /**
    * Constructor function.
    * <p>
@@ -95,6 +122,7 @@ public class SeqResourceIterateReader extends IterateReader {
     this.seqResources = seqResources;
     this.filter = filter;
     this.context = context;
+    this.prefetchDepth = IoTDBDescriptor.getInstance().getConfig().getQueryPrefetchDepth();
   }
 
   public SeqResourceIterateReader(Path seriesPath, List<TsFileResource> seqResources,
@@ -112,12 +140,15 @@ public class SeqResourceIterateReader extends IterateReader {
    */
   @Override
   public boolean constructNextReader(int idx) throws IOException {
+    context.checkKilled();
+    cancelChunkPrefetch();
     TsFileResource tsFileResource = seqResources.get(idx);
     if (tsFileResource.isClosed()) {
       if (isTsFileNotSatisfied(tsFileResource, filter)) {
         return false;
       }
-      currentSeriesReader = initSealedTsFileReader(tsFileResource, filter, context);
+      currentSeriesReader = initSealedTsFileReader(idx, filter);
+      prefetchFollowingMetaData(idx);
       return true;
     } else {
       // an unsealed sequence TsFile's endTimeMap size may be equal to 0 or greater than 0
@@ -130,10 +161,17 @@ public class SeqResourceIterateReader extends IterateReader {
       }
       currentSeriesReader = new UnSealedTsFileIterateReader(tsFileResource, filter,
           enableReverse);
+      prefetchFollowingMetaData(idx);
       return true;
     }
   }
 
+  @Override
+  public BatchData nextBatch() throws IOException {
+    context.checkKilled();
+    return super.nextBatch();
+  }
+
   /**
    * Returns true if the start and end time of the series data in this sequence TsFile do not
    * satisfy the filter condition. Returns false if satisfy.
@@ -155,9 +193,54 @@ public class SeqResourceIterateReader extends IterateReader {
     return !filter.satisfyStartEndTime(startTime, endTime);
   }
 
-  private IAggregateReader initSealedTsFileReader(TsFileResource sealedTsFile, Filter filter,
-      QueryContext context) throws IOException {
-    // prepare metaDataList
+  /**
+   * read the chunk metadata of the sealed TsFiles among the next <code>prefetchDepth</code>
+   * TsFiles that might satisfy the filter, if they are not being read yet.
+   *
+   * @param idx the index of the TsFile being read
+   */
+  private void prefetchFollowingMetaData(int idx) {
+    int lastIdx = (int) Math.min((long) idx + prefetchDepth, seqResources.size() - 1L);
+    for (int i = idx + 1; i <= lastIdx; i++) {
+      TsFileResource tsFileResource = seqResources.get(i);
+      if (tsFileResource.isClosed() && !metaDataPrefetchTasks.containsKey(i)
+          && !isTsFileNotSatisfied(tsFileResource, filter)) {
+        metaDataPrefetchTasks.put(i, QueryIOPoolManager.getInstance()
+            .submit(() -> readChunkMetaDataList(tsFileResource)));
+      }
+    }
+  }
+
+  /**
+   * get the chunk metadata of the idx-th TsFile, which is sealed, from its prefetch if there is
+   * one, otherwise read it.
+   */
+  private List<ChunkMetaData> getChunkMetaDataList(int idx) throws IOException {
+    PrefetchStatistics statistics = context.getPrefetchStatistics();
+    Future<List<ChunkMetaData>> prefetchTask = metaDataPrefetchTasks.remove(idx);
+    if (prefetchTask == null) {
+      statistics.recordSyncReadMetaData();
+      return readChunkMetaDataList(seqResources.get(idx));
+    }
+    boolean finished = prefetchTask.isDone();
+    long startTime = System.nanoTime();
+    try {
+      List<ChunkMetaData> metaDataList = prefetchTask.get();
+      statistics.recordPrefetchedMetaData(finished ? 0 : System.nanoTime() - startTime);
+      return metaDataList;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for chunk metadata of " + seriesPath, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  private List<ChunkMetaData> readChunkMetaDataList(TsFileResource sealedTsFile)
+      throws IOException {
     TsFileSequenceReader tsFileReader = FileReaderManager.getInstance()
         .get(sealedTsFile.getFile().getPath(), true);
     MetadataQuerierByFileImpl metadataQuerier = new MetadataQuerierByFileImpl(tsFileReader);
@@ -167,12 +250,45 @@ public class SeqResourceIterateReader extends IterateReader {
     if (!pathModifications.isEmpty()) {
       QueryUtils.modifyChunkMetaData(metaDataList, pathModifications);
     }
+    return metaDataList;
+  }
+
+  private IAggregateReader initSealedTsFileReader(int idx, Filter filter) throws IOException {
+    // prepare metaDataList
+    TsFileResource sealedTsFile = seqResources.get(idx);
+    TsFileSequenceReader tsFileReader = FileReaderManager.getInstance()
+        .get(sealedTsFile.getFile().getPath(), true);
+    List<ChunkMetaData> metaDataList = getChunkMetaDataList(idx);
+    if (filter != null) {
+      // chunks whose time range or value statistics cannot satisfy the filter are neither read
+      // nor prefetched
+      metaDataList = metaDataList.stream()
+          .filter(chunk -> FileSeriesReaderWithFilter.isChunkSatisfied(chunk, filter))
+          .collect(Collectors.toList());
+    }
 
     if (enableReverse) {
       Collections.reverse(metaDataList);
     }
     // prepare chunkLoader
-    ChunkLoader chunkLoader = new ChunkLoaderImpl(tsFileReader);
+    ChunkLoader chunkLoader;
+    long coalescedChunkReadSize = IoTDBDescriptor.getInstance().getConfig()
+        .getCoalescedChunkReadSize();
+    if (coalescedChunkReadSize > 0) {
+      // adjacent chunks are read at once, and ahead of the consumption of the previous ones.
+      // Cached chunks need no I/O, so do not read them.
+      ChunkCache chunkCache = ChunkCache.getInstance();
+      String filePath = tsFileReader.getFileName();
+      List<ChunkMetaData> chunksToLoad = metaDataList.stream()
+          .filter(chunk -> !chunkCache.contains(filePath, chunk))
+          .collect(Collectors.toList());
+      currentChunkLoader = new CoalescedChunkLoader(tsFileReader, chunksToLoad,
+          coalescedChunkReadSize, QueryIOPoolManager.getInstance()::execute, prefetchDepth,
+          context.getPrefetchStatistics());
+      chunkLoader = new CachedChunkLoader(tsFileReader, currentChunkLoader);
+    } else {
+      chunkLoader = new CachedChunkLoader(tsFileReader);
+    }
 
     // init fileSeriesReader
     FileSeriesReader fileSeriesReader;
@@ -183,4 +299,24 @@ public class SeqResourceIterateReader extends IterateReader {
     }
     return new FileSeriesReaderAdapter(fileSeriesReader);
   }
+
+  /**
+   * stop reading ahead the chunks of the previous sealed TsFile. Its file reader is shared through
+   * {@link FileReaderManager}, so it is left open.
+   */
+  private void cancelChunkPrefetch() {
+    if (currentChunkLoader != null) {
+      currentChunkLoader.cancelPrefetch();
+      currentChunkLoader = null;
+    }
+  }
+
+  @Override
+  public void close() {
+    for (Future<List<ChunkMetaData>> prefetchTask : metaDataPrefetchTasks.values()) {
+      prefetchTask.cancel(false);
+    }
+    metaDataPrefetchTasks.clear();
+    cancelChunkPrefetch();
+  }
 }
\ No newline at end of file
@@ -19,21 +19,30 @@
 package org.apache.iotdb.db.query.reader.resourceRelated;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import org.apache.iotdb.db.engine.cache.CachedChunkLoader;
 import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.query.reader.IBatchReader;
+import org.apache.iotdb.db.query.reader.IPointReader;
 import org.apache.iotdb.db.query.reader.chunkRelated.DiskChunkReader;
 import org.apache.iotdb.db.query.reader.chunkRelated.MemChunkReader;
 import org.apache.iotdb.db.query.reader.universal.PriorityMergeReader;
+import org.apache.iotdb.db.query.reader.universal.ReversePointReader;
 import org.apache.iotdb.db.utils.QueryUtils;
+import org.apache.iotdb.db.utils.TimeValuePair;
 import org.apache.iotdb.tsfile.common.constant.StatisticConstant;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.common.Path;
-import org.apache.iotdb.tsfile.read.controller.ChunkLoaderImpl;
+import org.apache.iotdb.tsfile.read.controller.ChunkLoader;
 import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
 import org.apache.iotdb.tsfile.read.filter.DigestForFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
@@ -49,15 +58,43 @@ import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReaderWithoutFilter;
  * Note that an unsequence TsFile can be either closed or unclosed. An unclosed unsequence TsFile
  * consists of data on disk and data in memtables that will be flushed to this unclosed TsFile.
  * <p>
+ * The chunks are sorted by their start time and a chunk is loaded only when the merge reaches its
+ * start time, so that only the chunks overlapping the current time are resident. A chunk that has
+ * been read through is released at once. In reverse chronological order, the chunks are sorted
+ * and loaded by their end time instead.
+ * <p>
  * This class is used in {@link org.apache.iotdb.db.query.reader.seriesRelated.SeriesReaderWithoutValueFilter}.
  */
 public class UnseqResourceMergeReader extends PriorityMergeReader {
 
   private Path seriesPath;
+  private Filter filter;
+  private QueryContext context;
+  private boolean enableReverse;
+
+  /**
+   * the chunks that are not loaded yet, sorted by their start time, or by their end time in
+   * reverse chronological order.
+   */
+  private List<UnseqChunk> unseqChunks = new ArrayList<>();
+  private int nextChunkIndex;
 
   public UnseqResourceMergeReader(Path seriesPath, List<TsFileResource> unseqResources,
       QueryContext context, Filter filter) throws IOException {
+    this(seriesPath, unseqResources, context, filter, false);
+  }
+
+  /**
+   * @param isReverse True to read the points in reverse chronological order (from newest to
+   * oldest); False to read them in chronological order (from oldest to newest).
+   */
+  public UnseqResourceMergeReader(Path seriesPath, List<TsFileResource> unseqResources,
+      QueryContext context, Filter filter, boolean isReverse) throws IOException {
+    super(isReverse);
+    this.enableReverse = isReverse;
     this.seriesPath = seriesPath;
+    this.filter = filter;
+    this.context = context;
 
     int priorityValue = 1;
     for (TsFileResource tsFileResource : unseqResources) {
@@ -89,8 +126,8 @@ public class UnseqResourceMergeReader extends PriorityMergeReader {
         metaDataList = tsFileResource.getChunkMetaDatas();
       }
 
-      // create and add ChunkReader with priority
-      ChunkLoaderImpl chunkLoader = new ChunkLoaderImpl(tsFileReader);
+      // record the chunks with their priority, they are loaded later
+      ChunkLoader chunkLoader = new CachedChunkLoader(tsFileReader);
       for (ChunkMetaData chunkMetaData : metaDataList) {
 
         if (filter != null) {
@@ -104,19 +141,63 @@ public class UnseqResourceMergeReader extends PriorityMergeReader {
           }
         }
 
-        Chunk chunk = chunkLoader.getChunk(chunkMetaData);
-        ChunkReader chunkReader = filter != null ? new ChunkReaderWithFilter(chunk, filter)
-            : new ChunkReaderWithoutFilter(chunk);
-
-        addReaderWithPriority(new DiskChunkReader(chunkReader), priorityValue++);
+        unseqChunks.add(new UnseqChunk(chunkMetaData.getStartTime(), chunkMetaData.getEndTime(),
+            priorityValue++, chunkLoader, chunkMetaData, null));
       }
 
       if (!tsFileResource.isClosed()) {
-        // create and add MemChunkReader with priority
-        addReaderWithPriority(
-            new MemChunkReader(tsFileResource.getReadOnlyMemChunk(), filter), priorityValue++);
+        // the data in memtables may start anywhere in the file
+        long startTime = tsFileResource.getStartTimeMap()
+            .getOrDefault(seriesPath.getDevice(), Long.MIN_VALUE);
+        unseqChunks.add(new UnseqChunk(startTime, Long.MAX_VALUE, priorityValue++, null, null,
+            tsFileResource.getReadOnlyMemChunk()));
       }
     }
+    if (enableReverse) {
+      unseqChunks.sort(Comparator.comparingLong((UnseqChunk chunk) -> chunk.endTime).reversed());
+    } else {
+      unseqChunks.sort(Comparator.comparingLong(chunk -> chunk.startTime));
+    }
+  }
+
+  @Override
+  public boolean hasNext() throws IOException {
+    loadChunksToCurrentTime();
+    return super.hasNext();
+  }
+
+  @Override
+  public TimeValuePair next() throws IOException {
+    loadChunksToCurrentTime();
+    return super.next();
+  }
+
+  @Override
+  public TimeValuePair current() throws IOException {
+    loadChunksToCurrentTime();
+    return super.current();
+  }
+
+  /**
+   * load the chunks that start no later than the current time of the merge. The points of the
+   * chunks that are not loaded are all later than the current time, so the merge stays in order.
+   * In reverse chronological order, load the chunks that end no earlier than the current time.
+   */
+  private void loadChunksToCurrentTime() throws IOException {
+    while (nextChunkIndex < unseqChunks.size()) {
+      UnseqChunk unseqChunk = unseqChunks.get(nextChunkIndex);
+      if (super.hasNext()) {
+        long currentTime = super.current().getTimestamp();
+        if (enableReverse ? unseqChunk.endTime < currentTime
+            : unseqChunk.startTime > currentTime) {
+          return;
+        }
+      }
+      context.checkKilled();
+      unseqChunks.set(nextChunkIndex++, null);
+      addReaderWithPriority(unseqChunk.createReader(filter, enableReverse),
+          unseqChunk.priority);
+    }
   }
 
   /**
@@ -140,4 +221,64 @@ public class UnseqResourceMergeReader extends PriorityMergeReader {
     long endTime = tsFile.getEndTimeMap().get(seriesPath.getDevice());
     return !filter.satisfyStartEndTime(startTime, endTime);
   }
+
+  private static class UnseqChunk {
+
+    private final long startTime;
+    private final long endTime;
+    private final int priority;
+    private final ChunkLoader chunkLoader;
+    private final ChunkMetaData chunkMetaData;
+    private final ReadOnlyMemChunk memChunk;
+
+    private UnseqChunk(long startTime, long endTime, int priority, ChunkLoader chunkLoader,
+        ChunkMetaData chunkMetaData, ReadOnlyMemChunk memChunk) {
+      this.startTime = startTime;
+      this.endTime = endTime;
+      this.priority = priority;
+      this.chunkLoader = chunkLoader;
+      this.chunkMetaData = chunkMetaData;
+      this.memChunk = memChunk;
+    }
+
+    private IPointReader createReader(Filter filter, boolean isReverse) throws IOException {
+      if (memChunk != null) {
+        MemChunkReader memChunkReader = new MemChunkReader(memChunk, filter);
+        return isReverse ? new ReversePointReader(memChunkReader) : memChunkReader;
+      }
+      Chunk chunk = chunkLoader.getChunk(chunkMetaData);
+      ChunkReader chunkReader = filter != null ? new ChunkReaderWithFilter(chunk, filter)
+          : new ChunkReaderWithoutFilter(chunk);
+      return isReverse ? new ReversePointReader(new ChunkBatchReader(chunkReader))
+          : new DiskChunkReader(chunkReader);
+    }
+  }
+
+  /**
+   * reads the pages of a chunk as batches, so that they can be reversed by {@link
+   * ReversePointReader}.
+   */
+  private static class ChunkBatchReader implements IBatchReader {
+
+    private final ChunkReader chunkReader;
+
+    private ChunkBatchReader(ChunkReader chunkReader) {
+      this.chunkReader = chunkReader;
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+      return chunkReader.hasNextBatch();
+    }
+
+    @Override
+    public BatchData nextBatch() throws IOException {
+      return chunkReader.nextBatch();
+    }
+
+    @Override
+    public void close() {
+      chunkReader.close();
+    }
+  }
 }
@@ -0,0 +1,116 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.seriesRelated;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.QueryResourceManager;
+import org.apache.iotdb.db.query.reader.IPointReader;
+import org.apache.iotdb.db.query.reader.resourceRelated.SeqResourceIterateReader;
+import org.apache.iotdb.db.query.reader.resourceRelated.UnseqResourceMergeReader;
+import org.apache.iotdb.db.query.reader.universal.ReversePointReader;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+
+/**
+ * To read series data without value filter in reverse chronological order (from newest to oldest),
+ * this class implements {@link IPointReader} for the data. It is the reverse counterpart of {@link
+ * SeriesReaderWithoutValueFilter}: the sequence TsFiles and their chunks are read from the newest
+ * to the oldest, so that reading the latest N points costs about N points rather than the whole
+ * time range of the filter.
+ * <p>
+ * Note that filters include value filter and time filter. "without value filter" is equivalent to
+ * "with global time filter or simply without any filter".
+ */
+public class ReverseSeriesReaderWithoutValueFilter implements IPointReader {
+
+  private IPointReader seqReader;
+  private IPointReader unseqReader;
+
+  ReverseSeriesReaderWithoutValueFilter(IPointReader seqReader, IPointReader unseqReader) {
+    this.seqReader = seqReader;
+    this.unseqReader = unseqReader;
+  }
+
+  /**
+   * Constructor function.
+   *
+   * @param seriesPath the path of the series data
+   * @param filter filter condition, null if there is none
+   * @param context query context
+   */
+  public ReverseSeriesReaderWithoutValueFilter(Path seriesPath, Filter filter,
+      QueryContext context) throws StorageEngineException, IOException {
+    QueryDataSource queryDataSource = QueryResourceManager.getInstance()
+        .getQueryDataSource(seriesPath, context);
+
+    // the resource list is reversed in place, so do not change the one of the data source
+    this.seqReader = new ReversePointReader(new SeqResourceIterateReader(
+        queryDataSource.getSeriesPath(), new ArrayList<>(queryDataSource.getSeqResources()),
+        filter, context, true));
+    this.unseqReader = new UnseqResourceMergeReader(seriesPath,
+        queryDataSource.getUnseqResources(), context, filter, true);
+  }
+
+  @Override
+  public boolean hasNext() throws IOException {
+    return seqReader.hasNext() || unseqReader.hasNext();
+  }
+
+  @Override
+  public TimeValuePair next() throws IOException {
+    boolean hasNextSeq = seqReader.hasNext();
+    boolean hasNextUnseq = unseqReader.hasNext();
+    if (hasNextSeq && hasNextUnseq) {
+      long seqTime = seqReader.current().getTimestamp();
+      long unseqTime = unseqReader.current().getTimestamp();
+      if (seqTime > unseqTime) {
+        return seqReader.next();
+      }
+      if (seqTime == unseqTime) {
+        // overwritten by unsequence data
+        seqReader.next();
+      }
+      return unseqReader.next();
+    }
+    if (hasNextSeq) {
+      return seqReader.next();
+    }
+    if (hasNextUnseq) {
+      return unseqReader.next();
+    }
+    return null;
+  }
+
+  @Override
+  public TimeValuePair current() throws IOException {
+    throw new IOException(
+        "current() in ReverseSeriesReaderWithoutValueFilter is an empty method.");
+  }
+
+  @Override
+  public void close() throws IOException {
+    seqReader.close();
+    unseqReader.close();
+  }
+}
@@ -24,8 +24,14 @@ import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.reader.IBatchReader;
 import org.apache.iotdb.db.query.reader.IPointReader;
 import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.TimeValuePairUtils;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.filter.basic.CompiledFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterCompiler;
+import org.apache.iotdb.tsfile.utils.Binary;
 
 /**
  * To read series data with value filter, this class extends {@link SeriesReaderWithoutValueFilter}
@@ -42,6 +48,10 @@ import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 public class SeriesReaderWithValueFilter extends SeriesReaderWithoutValueFilter {
 
   private Filter filter;
+  /**
+   * the filter compiled for the data type of the series, which is known from the first batch.
+   */
+  private CompiledFilter compiledFilter;
   private boolean hasCachedValue;
   private TimeValuePair timeValuePair;
 
@@ -57,6 +67,14 @@ public class SeriesReaderWithValueFilter extends SeriesReaderWithoutValueFilter
     this.filter = filter;
   }
 
+  /**
+   * the points must be checked by the value filter one by one, nothing can be skipped as a whole.
+   */
+  @Override
+  public long skip(long n) {
+    return 0;
+  }
+
   @Override
   public boolean hasNext() throws IOException {
     if (hasCachedValue) {
@@ -82,6 +100,102 @@ public class SeriesReaderWithValueFilter extends SeriesReaderWithoutValueFilter
     }
   }
 
+  /**
+   * the batch contains only the points that satisfy the value filter. The batches of the
+   * underlying reader are filtered as a whole in a loop specialized by the data type, rather than
+   * point by point through {@link #hasNext()} and {@link #next()}.
+   */
+  @Override
+  public BatchData nextBatch() throws IOException {
+    BatchData result = null;
+    if (hasCachedValue) {
+      result = new BatchData(timeValuePair.getValue().getDataType(), true);
+      TimeValuePairUtils.putTimeValuePair(result, timeValuePair);
+      hasCachedValue = false;
+    }
+    while (result == null || result.length() == 0) {
+      BatchData batchData = super.nextBatch();
+      if (batchData == null) {
+        break;
+      }
+      if (result == null) {
+        result = new BatchData(batchData.getDataType(), true);
+      }
+      filterBatchData(batchData, result);
+    }
+    return result == null || result.length() == 0 ? null : result;
+  }
+
+  private void filterBatchData(BatchData batchData, BatchData result) {
+    if (compiledFilter == null) {
+      compiledFilter = FilterCompiler.compile(filter, batchData.getDataType());
+    }
+    switch (batchData.getDataType()) {
+      case BOOLEAN:
+        for (int i = batchData.getCurIdx(); i < batchData.length(); i++) {
+          long time = batchData.getTimeByIndex(i);
+          boolean value = batchData.getBooleanByIndex(i);
+          if (compiledFilter.satisfyBoolean(time, value)) {
+            result.putTime(time);
+            result.putBoolean(value);
+          }
+        }
+        break;
+      case INT32:
+        for (int i = batchData.getCurIdx(); i < batchData.length(); i++) {
+          long time = batchData.getTimeByIndex(i);
+          int value = batchData.getIntByIndex(i);
+          if (compiledFilter.satisfyInt(time, value)) {
+            result.putTime(time);
+            result.putInt(value);
+          }
+        }
+        break;
+      case INT64:
+        for (int i = batchData.getCurIdx(); i < batchData.length(); i++) {
+          long time = batchData.getTimeByIndex(i);
+          long value = batchData.getLongByIndex(i);
+          if (compiledFilter.satisfyLong(time, value)) {
+            result.putTime(time);
+            result.putLong(value);
+          }
+        }
+        break;
+      case FLOAT:
+        for (int i = batchData.getCurIdx(); i < batchData.length(); i++) {
+          long time = batchData.getTimeByIndex(i);
+          float value = batchData.getFloatByIndex(i);
+          if (compiledFilter.satisfyFloat(time, value)) {
+            result.putTime(time);
+            result.putFloat(value);
+          }
+        }
+        break;
+      case DOUBLE:
+        for (int i = batchData.getCurIdx(); i < batchData.length(); i++) {
+          long time = batchData.getTimeByIndex(i);
+          double value = batchData.getDoubleByIndex(i);
+          if (compiledFilter.satisfyDouble(time, value)) {
+            result.putTime(time);
+            result.putDouble(value);
+          }
+        }
+        break;
+      case TEXT:
+        for (int i = batchData.getCurIdx(); i < batchData.length(); i++) {
+          long time = batchData.getTimeByIndex(i);
+          Binary value = batchData.getBinaryByIndex(i);
+          if (compiledFilter.satisfyBinary(time, value)) {
+            result.putTime(time);
+            result.putBinary(value);
+          }
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(batchData.getDataType()));
+    }
+  }
+
   @Override
   public TimeValuePair current() {
     return timeValuePair;
@@ -23,24 +23,34 @@ import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.QueryResourceManager;
+import org.apache.iotdb.db.query.reader.IAggregateReader;
 import org.apache.iotdb.db.query.reader.IBatchReader;
 import org.apache.iotdb.db.query.reader.IPointReader;
 import org.apache.iotdb.db.query.reader.resourceRelated.SeqResourceIterateReader;
 import org.apache.iotdb.db.query.reader.resourceRelated.UnseqResourceMergeReader;
 import org.apache.iotdb.db.utils.TimeValuePair;
 import org.apache.iotdb.db.utils.TimeValuePairUtils;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 
 /**
  * To read series data without value filter, this class implements {@link IPointReader} for the
- * data.
+ * data. It also implements {@link IBatchReader}, which returns the ranges of sequence data that do
+ * not overlap unsequence data as a whole and merges the overlapping ranges point by point, so that
+ * consumers of batches do not box every point.
  * <p>
  * Note that filters include value filter and time filter. "without value filter" is equivalent to
  * "with global time filter or simply without any filter".
  */
-public class SeriesReaderWithoutValueFilter implements IPointReader {
+public class SeriesReaderWithoutValueFilter implements IPointReader, IBatchReader {
+
+  /**
+   * max number of points in a batch of unsequence data that does not overlap sequence data.
+   */
+  protected static final int BATCH_SIZE = 1024;
 
   private boolean hasCachedBatchData;
   private BatchData batchData;
@@ -48,6 +58,11 @@ public class SeriesReaderWithoutValueFilter implements IPointReader {
   private IBatchReader seqResourceIterateReader;
   private IPointReader unseqResourceMergeReader;
 
+  /**
+   * the filter pushed down to the readers, null if there is none.
+   */
+  private Filter filter;
+
   public SeriesReaderWithoutValueFilter(IBatchReader seqResourceIterateReader,
       IPointReader unseqResourceMergeReader) {
     this.seqResourceIterateReader = seqResourceIterateReader;
@@ -91,6 +106,7 @@ public class SeriesReaderWithoutValueFilter implements IPointReader {
     this.seqResourceIterateReader = seqResourceIterateReader;
     this.unseqResourceMergeReader = unseqResourceMergeReader;
     this.hasCachedBatchData = false;
+    this.filter = filter;
   }
 
   @Override
@@ -139,6 +155,67 @@ public class SeriesReaderWithoutValueFilter implements IPointReader {
     return null;
   }
 
+  @Override
+  public BatchData nextBatch() throws IOException {
+    boolean hasNextBatch = hasNextInBatchDataOrBatchReader();
+    boolean hasNextPoint = unseqResourceMergeReader != null && unseqResourceMergeReader.hasNext();
+
+    // only has next in point reader
+    if (!hasNextBatch) {
+      if (!hasNextPoint) {
+        return null;
+      }
+      BatchData result = new BatchData(
+          unseqResourceMergeReader.current().getValue().getDataType(), true);
+      while (result.length() < BATCH_SIZE && unseqResourceMergeReader.hasNext()) {
+        TimeValuePairUtils.putTimeValuePair(result, unseqResourceMergeReader.next());
+      }
+      return result;
+    }
+
+    // the rest of the batch data is earlier than the unsequence data
+    if (!hasNextPoint || batchData.getTimeByIndex(batchData.length() - 1)
+        < unseqResourceMergeReader.current().getTimestamp()) {
+      return takeRestOfBatchData();
+    }
+
+    // merge the overlapping range point by point
+    BatchData result = new BatchData(batchData.getDataType(), true);
+    while (batchData.hasNext()) {
+      long timeInBatchData = batchData.currentTime();
+      while (unseqResourceMergeReader.hasNext()
+          && unseqResourceMergeReader.current().getTimestamp() <= timeInBatchData) {
+        if (unseqResourceMergeReader.current().getTimestamp() == timeInBatchData) {
+          // overwritten by unsequence data
+          batchData.next();
+        }
+        TimeValuePairUtils.putTimeValuePair(result, unseqResourceMergeReader.next());
+      }
+      if (batchData.hasNext() && batchData.currentTime() == timeInBatchData) {
+        TimeValuePairUtils.putCurrentTimeValuePair(result, batchData);
+        batchData.next();
+      }
+    }
+    hasCachedBatchData = false;
+    return result;
+  }
+
+  /**
+   * return the unread part of the cached batch data, which is no longer cached.
+   */
+  private BatchData takeRestOfBatchData() {
+    hasCachedBatchData = false;
+    if (batchData.getCurIdx() == 0) {
+      return batchData;
+    }
+    BatchData result = new BatchData(batchData.getDataType(), true);
+    while (batchData.hasNext()) {
+      TimeValuePairUtils.putCurrentTimeValuePair(result, batchData);
+      batchData.next();
+    }
+    return result;
+  }
+
   private boolean hasNextInBatchDataOrBatchReader() throws IOException {
     // has value in batchData
     if (hasCachedBatchData && batchData.hasNext()) {
@@ -158,6 +235,89 @@ public class SeriesReaderWithoutValueFilter implements IPointReader {
     return false;
   }
 
+  /**
+   * Skip at most n points from the beginning of the series, which is used by OFFSET. Whole chunks
+   * and pages of sequence data are skipped by the number of points in their meta data without
+   * being loaded, as long as none of their points is deleted, filtered out or overwritten by
+   * unsequence data. It stops at the first chunk or page that cannot be skipped as a whole, and
+   * the caller should skip the rest point by point.
+   *
+   * @param n max number of points to skip
+   * @return the number of skipped points
+   */
+  public long skip(long n) throws IOException {
+    if (hasCachedBatchData || !(seqResourceIterateReader instanceof IAggregateReader)) {
+      return 0;
+    }
+    IAggregateReader seqReader = (IAggregateReader) seqResourceIterateReader;
+    long skipped = 0;
+    ChunkMetaData currentChunk = null;
+    while (skipped < n) {
+      ChunkMetaData chunkMetaData = seqReader.nextChunkMetaData();
+      if (chunkMetaData != null) {
+        skipped += skipUnseqPointsBefore(chunkMetaData.getStartTime(), n - skipped);
+        if (skipped < n && chunkMetaData.getNumOfPoints() <= n - skipped
+            && canSkip(chunkMetaData.getStartTime(), chunkMetaData.getEndTime(),
+            chunkMetaData.getDeletedAt())) {
+          seqReader.skipChunkData();
+          skipped += chunkMetaData.getNumOfPoints();
+          continue;
+        }
+        currentChunk = chunkMetaData;
+      }
+      if (skipped >= n || !seqReader.hasNext()) {
+        break;
+      }
+
+      // the deletion of a page is only known from the chunk containing it, pages from memory
+      // or from an unknown chunk are not skipped
+      PageHeader pageHeader = seqReader.nextPageHeader();
+      if (pageHeader == null || currentChunk == null
+          || pageHeader.getMinTimestamp() < currentChunk.getStartTime()
+          || pageHeader.getMaxTimestamp() > currentChunk.getEndTime()) {
+        break;
+      }
+      skipped += skipUnseqPointsBefore(pageHeader.getMinTimestamp(), n - skipped);
+      if (skipped < n && pageHeader.getNumOfValues() <= n - skipped
+          && canSkip(pageHeader.getMinTimestamp(), pageHeader.getMaxTimestamp(),
+          currentChunk.getDeletedAt())) {
+        seqReader.skipPageData();
+        skipped += pageHeader.getNumOfValues();
+      } else {
+        break;
+      }
+    }
+    return skipped;
+  }
+
+  /**
+   * skip at most n unsequence points earlier than the given time, which are the points returned
+   * before the sequence data starting at that time.
+   */
+  private long skipUnseqPointsBefore(long time, long n) throws IOException {
+    long skipped = 0;
+    while (skipped < n && unseqResourceMergeReader != null && unseqResourceMergeReader.hasNext()
+        && unseqResourceMergeReader.current().getTimestamp() < time) {
+      unseqResourceMergeReader.next();
+      skipped++;
+    }
+    return skipped;
+  }
+
+  /**
+   * whether all the sequence points in [minTime, maxTime] are returned as they are.
+   */
+  private boolean canSkip(long minTime, long maxTime, long deletedAt) throws IOException {
+    if (deletedAt >= minTime) {
+      return false;
+    }
+    if (filter != null && !filter.containStartEndTime(minTime, maxTime)) {
+      return false;
+    }
+    return unseqResourceMergeReader == null || !unseqResourceMergeReader.hasNext()
+        || unseqResourceMergeReader.current().getTimestamp() > maxTime;
+  }
+
   @Override
   public TimeValuePair current() throws IOException {
     throw new IOException("current() in SeriesReaderWithoutValueFilter is an empty method.");
@@ -165,7 +325,11 @@ public class SeriesReaderWithoutValueFilter implements IPointReader {
 
   @Override
   public void close() throws IOException {
-    seqResourceIterateReader.close();
-    unseqResourceMergeReader.close();
+    if (seqResourceIterateReader != null) {
+      seqResourceIterateReader.close();
+    }
+    if (unseqResourceMergeReader != null) {
+      unseqResourceMergeReader.close();
+    }
   }
 }
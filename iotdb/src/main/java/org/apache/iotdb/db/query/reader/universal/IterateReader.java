@@ -21,6 +21,7 @@ package org.apache.iotdb.db.query.reader.universal;
 import java.io.IOException;
 import org.apache.iotdb.db.query.reader.IAggregateReader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 
 /**
@@ -83,6 +84,35 @@ public abstract class IterateReader implements IAggregateReader {
     currentSeriesReader.skipPageData();
   }
 
+  /**
+   * Unlike <code>hasNext</code>, this method moves to the next data source without loading any
+   * data of it, so that its first chunk can be skipped as well.
+   */
+  @Override
+  public ChunkMetaData nextChunkMetaData() throws IOException {
+    while (true) {
+      if (!curReaderInitialized) {
+        if (nextSeriesReaderIndex >= readerSize) {
+          return null;
+        }
+        if (!constructNextReader(nextSeriesReaderIndex++)) {
+          continue;
+        }
+        curReaderInitialized = true;
+      }
+      ChunkMetaData chunkMetaData = currentSeriesReader.nextChunkMetaData();
+      if (chunkMetaData != null || currentSeriesReader.hasNext()) {
+        return chunkMetaData;
+      }
+      curReaderInitialized = false;
+    }
+  }
+
+  @Override
+  public void skipChunkData() throws IOException {
+    currentSeriesReader.skipChunkData();
+  }
+
   @Override
   public void close() {
     // file stream is managed in QueryResourceManager.
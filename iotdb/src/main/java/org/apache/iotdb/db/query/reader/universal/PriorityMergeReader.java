@@ -31,41 +31,74 @@ import org.apache.iotdb.db.utils.TimeValuePair;
 public class PriorityMergeReader implements IPointReader {
 
   private List<IPointReader> readerList = new ArrayList<>();
-  private List<Integer> priorityList = new ArrayList<>();
-  private PriorityQueue<Element> heap = new PriorityQueue<>();
+  private PriorityQueue<Element> heap;
+
+  public PriorityMergeReader() {
+    this(false);
+  }
+
+  /**
+   * @param isReverse True to merge in reverse chronological order (from newest to oldest), in which
+   * case every reader must also return its points from the newest to the oldest; False to merge in
+   * chronological order. Of the points at the same time, the one of the highest priority is
+   * returned in both orders.
+   */
+  public PriorityMergeReader(boolean isReverse) {
+    if (isReverse) {
+      heap = new PriorityQueue<>((o1, o2) -> {
+        int timeComparison = Long
+            .compare(o2.timeValuePair.getTimestamp(), o1.timeValuePair.getTimestamp());
+        return timeComparison != 0 ? timeComparison : Integer.compare(o2.priority, o1.priority);
+      });
+    } else {
+      heap = new PriorityQueue<>();
+    }
+  }
 
   public void addReaderWithPriority(IPointReader reader, int priority) throws IOException {
     if (reader.hasNext()) {
       heap.add(new Element(readerList.size(), reader.next(), priority));
+      readerList.add(reader);
+    } else {
+      reader.close();
+      readerList.add(null);
     }
-    readerList.add(reader);
-    priorityList.add(priority);
   }
 
   @Override
-  public boolean hasNext() {
+  public boolean hasNext() throws IOException {
     return !heap.isEmpty();
   }
 
   @Override
   public TimeValuePair next() throws IOException {
     Element top = heap.peek();
+    TimeValuePair timeValuePair = top.timeValuePair;
     updateHeap(top);
-    return top.timeValuePair;
+    return timeValuePair;
   }
 
   @Override
-  public TimeValuePair current() {
+  public TimeValuePair current() throws IOException {
     return heap.peek().timeValuePair;
   }
 
+  /**
+   * move all the readers at the time of the top element to their next points. The elements are
+   * reused so that no object is allocated for a point besides the point itself.
+   */
   private void updateHeap(Element top) throws IOException {
-    while (!heap.isEmpty() && heap.peek().timeValuePair.getTimestamp() == top.timeValuePair
-        .getTimestamp()) {
+    long topTime = top.timeValuePair.getTimestamp();
+    while (!heap.isEmpty() && heap.peek().timeValuePair.getTimestamp() == topTime) {
       Element e = heap.poll();
       IPointReader reader = readerList.get(e.index);
       if (reader.hasNext()) {
-        heap.add(new Element(e.index, reader.next(), priorityList.get(e.index)));
+        e.timeValuePair = reader.next();
+        heap.add(e);
+      } else {
+        // release the data of the exhausted reader
+        reader.close();
+        readerList.set(e.index, null);
       }
     }
   }
@@ -73,7 +106,9 @@ public class PriorityMergeReader implements IPointReader {
   @Override
   public void close() throws IOException {
     for (IPointReader reader : readerList) {
-      reader.close();
+      if (reader != null) {
+        reader.close();
+      }
     }
   }
 
@@ -81,7 +116,7 @@ public class PriorityMergeReader implements IPointReader {
 
     int index;
     TimeValuePair timeValuePair;
-    Integer priority;
+    int priority;
 
     public Element(int index, TimeValuePair timeValuePair, int priority) {
       this.index = index;
@@ -101,7 +136,7 @@ public class PriorityMergeReader implements IPointReader {
         return -1;
       }
 
-      return o.priority.compareTo(this.priority);
+      return Integer.compare(o.priority, this.priority);
     }
 
     @Override
@@ -109,7 +144,7 @@ public class PriorityMergeReader implements IPointReader {
       if (o instanceof Element) {
         Element element = (Element) o;
         if (this.timeValuePair.getTimestamp() == element.timeValuePair.getTimestamp()
-            && this.priority.equals(element.priority)) {
+            && this.priority == element.priority) {
           return true;
         }
       }
@@ -118,7 +153,7 @@ public class PriorityMergeReader implements IPointReader {
 
     @Override
     public int hashCode() {
-      return (int) (timeValuePair.getTimestamp() * 31 + priority.hashCode());
+      return (int) (timeValuePair.getTimestamp() * 31 + priority);
     }
   }
 }
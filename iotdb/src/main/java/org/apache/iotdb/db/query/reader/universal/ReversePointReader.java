@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.universal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.db.query.reader.IBatchReader;
+import org.apache.iotdb.db.query.reader.IPointReader;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.TimeValuePairUtils;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+
+/**
+ * This class implements {@link IPointReader} in reverse chronological order (from newest to
+ * oldest) for a batch reader whose batches are ascending runs in descending order, e.g., the pages
+ * of a chunk are ascending but the chunks are read from the newest to the oldest. Encoded pages can
+ * only be decoded forwards, so the batches of a run are kept until the run is read through, which
+ * bounds the memory by the size of a decoded chunk.
+ * <p>
+ * A run ends at the first batch that does not start later than the end of the previous batch.
+ */
+public class ReversePointReader implements IPointReader {
+
+  private IBatchReader batchReader;
+
+  /**
+   * the batches of the current run in chronological order.
+   */
+  private List<BatchData> run = new ArrayList<>();
+  /**
+   * the first batch of the next run, which has been read to find the end of the current run.
+   */
+  private BatchData nextRunHead;
+
+  private int batchIndex = -1;
+  private int pointIndex = -1;
+
+  private TimeValuePair cachedPair;
+
+  public ReversePointReader(IBatchReader batchReader) {
+    this.batchReader = batchReader;
+  }
+
+  @Override
+  public boolean hasNext() throws IOException {
+    if (cachedPair != null) {
+      return true;
+    }
+    while (batchIndex < 0) {
+      if (!readNextRun()) {
+        return false;
+      }
+    }
+    BatchData batchData = run.get(batchIndex);
+    cachedPair = TimeValuePairUtils.getTimeValuePairByIndex(batchData, pointIndex);
+    pointIndex--;
+    // move to the previous batch of the run, or mark the run as read through
+    while (batchIndex >= 0 && pointIndex < run.get(batchIndex).getCurIdx()) {
+      run.set(batchIndex, null);
+      batchIndex--;
+      if (batchIndex >= 0) {
+        pointIndex = run.get(batchIndex).length() - 1;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public TimeValuePair next() throws IOException {
+    if (!hasNext()) {
+      return null;
+    }
+    TimeValuePair timeValuePair = cachedPair;
+    cachedPair = null;
+    return timeValuePair;
+  }
+
+  @Override
+  public TimeValuePair current() throws IOException {
+    return hasNext() ? cachedPair : null;
+  }
+
+  /**
+   * read the batches of the next run.
+   *
+   * @return false if there is no more data
+   */
+  private boolean readNextRun() throws IOException {
+    run.clear();
+    if (nextRunHead != null) {
+      run.add(nextRunHead);
+      nextRunHead = null;
+    }
+    while (batchReader.hasNext()) {
+      BatchData batchData = batchReader.nextBatch();
+      if (batchData == null || !batchData.hasNext()) {
+        continue;
+      }
+      if (!run.isEmpty() && batchData.currentTime() <= lastTimeOf(run.get(run.size() - 1))) {
+        nextRunHead = batchData;
+        break;
+      }
+      run.add(batchData);
+    }
+    if (run.isEmpty()) {
+      return false;
+    }
+    batchIndex = run.size() - 1;
+    pointIndex = run.get(batchIndex).length() - 1;
+    return true;
+  }
+
+  private long lastTimeOf(BatchData batchData) {
+    return batchData.getTimeByIndex(batchData.length() - 1);
+  }
+
+  @Override
+  public void close() throws IOException {
+    run.clear();
+    nextRunHead = null;
+    batchReader.close();
+  }
+}
@@ -20,36 +20,74 @@
 package org.apache.iotdb.db.query.timegenerator;
 
 import java.io.IOException;
+import org.apache.iotdb.db.query.reader.IBatchReader;
 import org.apache.iotdb.db.query.reader.IPointReader;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.query.timegenerator.node.Node;
 import org.apache.iotdb.tsfile.read.query.timegenerator.node.NodeType;
 
+/**
+ * Leaf node of the time generator. If the reader also implements {@link IBatchReader}, e.g., a
+ * {@link org.apache.iotdb.db.query.reader.seriesRelated.SeriesReaderWithValueFilter}, its filtered
+ * batches are consumed directly instead of boxing every point into a TimeValuePair.
+ */
 public class EngineLeafNode implements Node {
 
   private IPointReader reader;
 
+  private IBatchReader batchReader;
+
   private BatchData data = null;
 
+  private boolean gotData = false;
+
   public EngineLeafNode(IPointReader reader) {
     this.reader = reader;
+    if (reader instanceof IBatchReader) {
+      this.batchReader = (IBatchReader) reader;
+    }
   }
 
   @Override
   public boolean hasNext() throws IOException {
-    return reader.hasNext();
+    if (batchReader == null) {
+      return reader.hasNext();
+    }
+
+    if (gotData) {
+      data.next();
+      gotData = false;
+    }
+
+    while (data == null || !data.hasNext()) {
+      if (!batchReader.hasNext()) {
+        return false;
+      }
+      data = batchReader.nextBatch();
+      if (data == null) {
+        return false;
+      }
+    }
+    return true;
   }
 
   @Override
   public long next() throws IOException {
-    return reader.next().getTimestamp();
+    if (batchReader == null) {
+      return reader.next().getTimestamp();
+    }
+    if (!hasNext()) {
+      throw new IOException("no more data in the leaf node");
+    }
+    gotData = true;
+    return data.currentTime();
   }
 
   /**
    * check if current value is equals to input value.
    */
   public Object currentValue(long time) {
-    if (data.currentTime() == time) {
+    if (data != null && data.hasNext() && data.currentTime() == time) {
       return data.currentValue();
     }
     return null;
@@ -0,0 +1,185 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.rescon;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.QueryMemoryExceededException;
+import org.apache.iotdb.db.query.context.QueryMemoryTracker;
+
+/**
+ * The memory shared by the buffers of all queries, see <code>query_memory_pool_size_in_byte</code>.
+ * A query that asks for more memory than what is left waits for the other queries to release
+ * theirs, and fails when it cannot get the memory in <code>query_memory_wait_time_in_ms</code>.
+ * <p>
+ * The pool also keeps the {@link QueryMemoryTracker} of every running query, so that their memory
+ * usage can be shown by <code>SHOW QUERIES</code>.
+ */
+public class QueryMemoryPool {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  /**
+   * max total memory of the queries in byte, <= 0 if unlimited.
+   */
+  private final long memoryBudget;
+  private final long waitTimeInMs;
+
+  private long usedMemory;
+  private long rejectedNum;
+
+  /**
+   * job id -> tracker of the running query.
+   */
+  private Map<Long, QueryMemoryTracker> trackers = new ConcurrentHashMap<>();
+
+  private QueryMemoryPool() {
+    this(CONFIG.getQueryMemoryPoolSizeInByte(), CONFIG.getQueryMemoryWaitTimeInMs());
+  }
+
+  QueryMemoryPool(long memoryBudget, long waitTimeInMs) {
+    this.memoryBudget = memoryBudget;
+    this.waitTimeInMs = waitTimeInMs;
+  }
+
+  public static QueryMemoryPool getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  /**
+   * create the tracker of a new query, whose memory limit is the one of its user.
+   */
+  public QueryMemoryTracker register(long jobId, String user, String statement) {
+    long memoryLimit = CONFIG.getUserMaxQueryMemoryInByte()
+        .getOrDefault(user, CONFIG.getMaxQueryMemoryInByte());
+    QueryMemoryTracker tracker = new QueryMemoryTracker(jobId, user, statement, memoryLimit,
+        this);
+    trackers.put(jobId, tracker);
+    return tracker;
+  }
+
+  /**
+   * release all the memory of a query when it ends.
+   */
+  public void unregister(long jobId) {
+    QueryMemoryTracker tracker = trackers.remove(jobId);
+    if (tracker != null) {
+      tracker.releaseAll();
+    }
+  }
+
+  /**
+   * take memory from the pool, waiting at most <code>waitTimeInMs</code> if it is exhausted.
+   *
+   * @param tracker the tracker of the query that asks for the memory
+   * @throws QueryMemoryExceededException if the memory cannot be offered in time
+   */
+  public synchronized void allocate(long bytes, QueryMemoryTracker tracker) {
+    if (memoryBudget > 0) {
+      long deadline = System.currentTimeMillis() + waitTimeInMs;
+      long remainingTime = waitTimeInMs;
+      while (usedMemory + bytes > memoryBudget) {
+        if (bytes > memoryBudget || remainingTime <= 0) {
+          rejectedNum++;
+          throw new QueryMemoryExceededException(String.format(
+              "Query %d of %s cannot get %d bytes of memory in %d ms, %d of %d bytes are used by "
+                  + "all queries", tracker.getJobId(), tracker.getUser(), bytes, waitTimeInMs,
+              usedMemory, memoryBudget));
+        }
+        try {
+          wait(remainingTime);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new QueryMemoryExceededException(String.format(
+              "Query %d of %s is interrupted while waiting for memory", tracker.getJobId(),
+              tracker.getUser()));
+        }
+        remainingTime = deadline - System.currentTimeMillis();
+      }
+    }
+    usedMemory += bytes;
+  }
+
+  /**
+   * take memory from the pool only if it is available now, so that a caller that must not block
+   * can retry later.
+   *
+   * @return false if the memory is not available
+   */
+  public boolean tryAllocate(long bytes) {
+    return tryAllocate(bytes, 0);
+  }
+
+  /**
+   * take memory from the pool only if it is available now and at least <code>headroom</code>
+   * bytes are left in the pool afterwards.
+   *
+   * @return false if the memory is not available
+   */
+  public synchronized boolean tryAllocate(long bytes, long headroom) {
+    if (memoryBudget > 0 && usedMemory + bytes + headroom > memoryBudget) {
+      return false;
+    }
+    usedMemory += bytes;
+    return true;
+  }
+
+  public synchronized void free(long bytes) {
+    usedMemory -= bytes;
+    notifyAll();
+  }
+
+  /**
+   * @return trackers of the running queries, in the order of their job ids
+   */
+  public List<QueryMemoryTracker> getTrackers() {
+    List<QueryMemoryTracker> trackerList = new ArrayList<>(trackers.values());
+    trackerList.sort(Comparator.comparingLong(QueryMemoryTracker::getJobId));
+    return trackerList;
+  }
+
+  public long getMemoryBudget() {
+    return memoryBudget;
+  }
+
+  public synchronized long getUsedMemory() {
+    return usedMemory;
+  }
+
+  /**
+   * @return how many times the memory asked by a query could not be offered
+   */
+  public synchronized long getRejectedNum() {
+    return rejectedNum;
+  }
+
+  private static class InstanceHolder {
+
+    private InstanceHolder() {
+      // allowed to do nothing
+    }
+
+    private static final QueryMemoryPool INSTANCE = new QueryMemoryPool();
+  }
+}
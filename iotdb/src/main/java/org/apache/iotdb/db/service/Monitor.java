@@ -24,6 +24,7 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.StartupException;
+import org.apache.iotdb.db.query.control.QueryResourceManager;
 import org.apache.iotdb.db.utils.OpenFileNumUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -127,6 +128,15 @@ public class Monitor implements MonitorMBean, IService {
         .get(OpenFileNumUtil.OpenFileNumStatistics.SOCKET_OPEN_FILE_NUM);
   }
 
+  /**
+   * @return number of the queries that are canceled or run over their time limits since the
+   * server starts
+   */
+  @Override
+  public long getKilledQueryNum() {
+    return QueryResourceManager.getInstance().getKilledQueryNum();
+  }
+
   @Override
   public void start() throws StartupException {
     try {
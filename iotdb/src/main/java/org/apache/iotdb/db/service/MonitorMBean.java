@@ -43,4 +43,6 @@ public interface MonitorMBean {
   int getMetadataOpenFileNum();
 
   int getSocketOpenFileNum();
+
+  long getKilledQueryNum();
 }
@@ -32,7 +32,12 @@ public enum ServiceType {
   FILE_READER_MANAGER_SERVICE("File reader manager ServerService", ""),
   SYNC_SERVICE("SYNC ServerService", ""),
   PERFORMANCE_STATISTIC_SERVICE("PERFORMANCE_STATISTIC_SERVICE","PERFORMANCE_STATISTIC_SERVICE"),
-  TVLIST_ALLOCATOR_SERVICE("TVList Allocator", "");
+  TVLIST_ALLOCATOR_SERVICE("TVList Allocator", ""),
+  CHUNK_CACHE_SERVICE("Chunk Cache", "ChunkCache"),
+  TSFILE_METADATA_CACHE_SERVICE("TsFileMetaData Cache", "TsFileMetaDataCache"),
+  DEVICE_METADATA_CACHE_SERVICE("Device Metadata Cache", "DeviceMetaDataCache"),
+  QUERY_RESULT_CACHE_SERVICE("Query Result Cache", "QueryResultCache"),
+  CONTINUOUS_QUERY_SERVICE("Continuous Query ServerService", "");
 
   private String name;
   private String jmxName;
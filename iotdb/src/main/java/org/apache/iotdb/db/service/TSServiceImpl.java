@@ -18,12 +18,25 @@
  */
 package org.apache.iotdb.db.service;
 
+import static org.apache.iotdb.db.conf.IoTDBConstant.CONTINUOUS_QUERY_INTERVAL;
+import static org.apache.iotdb.db.conf.IoTDBConstant.CONTINUOUS_QUERY_NAME;
+import static org.apache.iotdb.db.conf.IoTDBConstant.CONTINUOUS_QUERY_ORIGIN;
+import static org.apache.iotdb.db.conf.IoTDBConstant.CONTINUOUS_QUERY_SELECT;
+import static org.apache.iotdb.db.conf.IoTDBConstant.CONTINUOUS_QUERY_TARGET;
+import static org.apache.iotdb.db.conf.IoTDBConstant.JOB_ID;
+import static org.apache.iotdb.db.conf.IoTDBConstant.MEMORY_LIMIT;
+import static org.apache.iotdb.db.conf.IoTDBConstant.PEAK_MEMORY;
 import static org.apache.iotdb.db.conf.IoTDBConstant.PRIVILEGE;
 import static org.apache.iotdb.db.conf.IoTDBConstant.ROLE;
+import static org.apache.iotdb.db.conf.IoTDBConstant.STATEMENT;
+import static org.apache.iotdb.db.conf.IoTDBConstant.TIMESERIES;
+import static org.apache.iotdb.db.conf.IoTDBConstant.USED_MEMORY;
 import static org.apache.iotdb.db.conf.IoTDBConstant.USER;
+import static org.apache.iotdb.db.conf.IoTDBConstant.VALUE;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.ZoneId;
@@ -45,11 +58,13 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.cost.statistic.Measurement;
 import org.apache.iotdb.db.cost.statistic.Operation;
 import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.engine.cache.QueryResultCache;
 import org.apache.iotdb.db.exception.ArgsErrorException;
 import org.apache.iotdb.db.exception.MetadataErrorException;
 import org.apache.iotdb.db.exception.PathErrorException;
 import org.apache.iotdb.db.exception.ProcessorException;
 import org.apache.iotdb.db.exception.QueryInBatchStmtException;
+import org.apache.iotdb.db.exception.QueryKilledException;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.qp.IllegalASTFormatException;
 import org.apache.iotdb.db.exception.qp.QueryProcessorException;
@@ -60,10 +75,15 @@ import org.apache.iotdb.db.qp.executor.QueryProcessExecutor;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.sys.AuthorPlan;
+import org.apache.iotdb.db.qp.physical.sys.ShowContinuousQueriesPlan;
+import org.apache.iotdb.db.qp.physical.sys.ShowQueriesPlan;
 import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.context.QueryMemoryTracker;
 import org.apache.iotdb.db.query.control.QueryResourceManager;
+import org.apache.iotdb.db.rescon.QueryMemoryPool;
 import org.apache.iotdb.db.utils.QueryDataSetUtils;
 import org.apache.iotdb.service.rpc.thrift.ServerProperties;
+import org.apache.iotdb.service.rpc.thrift.TSBatchInsertionReq;
 import org.apache.iotdb.service.rpc.thrift.TSCancelOperationReq;
 import org.apache.iotdb.service.rpc.thrift.TSCancelOperationResp;
 import org.apache.iotdb.service.rpc.thrift.TSCloseOperationReq;
@@ -92,8 +112,10 @@ import org.apache.iotdb.service.rpc.thrift.TSSetTimeZoneResp;
 import org.apache.iotdb.service.rpc.thrift.TS_SessionHandle;
 import org.apache.iotdb.service.rpc.thrift.TS_Status;
 import org.apache.iotdb.service.rpc.thrift.TS_StatusCode;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.common.constant.StatisticConstant;
 import org.apache.iotdb.tsfile.exception.filter.QueryFilterOptimizationException;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
@@ -111,6 +133,7 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
   private static final Logger logger = LoggerFactory.getLogger(TSServiceImpl.class);
   private static final String INFO_NOT_LOGIN = "{}: Not login.";
   private static final String ERROR_NOT_LOGIN = "Not login";
+  private static final Charset CHARSET = Charset.forName(TSFileConfig.STRING_ENCODING);
 
   protected QueryProcessor processor;
   // Record the username for every rpc connection. Username.get() is null if
@@ -118,6 +141,8 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
   protected ThreadLocal<String> username = new ThreadLocal<>();
   private ThreadLocal<HashMap<String, PhysicalPlan>> queryStatus = new ThreadLocal<>();
   private ThreadLocal<HashMap<String, QueryDataSet>> queryRet = new ThreadLocal<>();
+  // time limit in ms of each query statement asked by the client, 0 if not set
+  private ThreadLocal<HashMap<String, Long>> queryTimeouts = new ThreadLocal<>();
   private ThreadLocal<ZoneId> zoneIds = new ThreadLocal<>();
   private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
   private ThreadLocal<Map<Long, QueryContext>> contextMapLocal = new ThreadLocal<>();
@@ -175,6 +200,7 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
   private void initForOneSession() {
     queryStatus.set(new HashMap<>());
     queryRet.set(new HashMap<>());
+    queryTimeouts.set(new HashMap<>());
   }
 
   @Override
@@ -199,9 +225,36 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
 
   @Override
   public TSCancelOperationResp cancelOperation(TSCancelOperationReq req) {
+    logger.info("{}: receive cancel operation", IoTDBConstant.GLOBAL_DB_NAME);
+    Map<Long, QueryContext> contextMap = contextMapLocal.get();
+    if (contextMap != null) {
+      if (req != null && req.isSetQueryId()) {
+        cancelQuery(contextMap.get(req.getQueryId()));
+      } else {
+        contextMap.values().forEach(this::cancelQuery);
+      }
+    }
     return new TSCancelOperationResp(new TS_Status(TS_StatusCode.SUCCESS_STATUS));
   }
 
+  /**
+   * kill a query and release its resources at once. The query is killed first so that its read
+   * tasks stop at their next batch, and they are waited for before the resources are released.
+   * The query stays in the context map until it is closed, so that its following fetches fail.
+   */
+  private void cancelQuery(QueryContext context) {
+    if (context == null) {
+      return;
+    }
+    context.kill("it is canceled");
+    try {
+      endQuery(context);
+    } catch (StorageEngineException e) {
+      logger.error("Error in releasing the resources of canceled query {}: ", context.getJobId(),
+          e);
+    }
+  }
+
   @Override
   public TSCloseOperationResp closeOperation(TSCloseOperationReq req) {
     logger.info("{}: receive close operation", IoTDBConstant.GLOBAL_DB_NAME);
@@ -229,15 +282,27 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
     if (req == null || req.queryId == -1) {
       // end query for all the query tokens created by current thread
       for (QueryContext context : contextMap.values()) {
-        QueryResourceManager.getInstance().endQueryForGivenJob(context.getJobId());
+        endQuery(context);
       }
       contextMapLocal.set(new HashMap<>());
     } else {
-      QueryResourceManager.getInstance()
-          .endQueryForGivenJob(contextMap.remove(req.queryId).getJobId());
+      QueryContext context = contextMap.remove(req.queryId);
+      // a query answered by the result cache has no context
+      if (context != null) {
+        endQuery(context);
+      }
     }
   }
 
+  private void endQuery(QueryContext context) throws StorageEngineException {
+    // the read tasks of the query use its files and memory until they stop. The tasks of an
+    // aggregation are waited for by QueryTaskPoolManager#runAll before it returns.
+    context.stopBackgroundWork();
+    logger.debug("Prefetch statistics of query {}: {}", context.getJobId(),
+        context.getPrefetchStatistics());
+    QueryResourceManager.getInstance().endQueryForGivenJob(context.getJobId());
+  }
+
   private void clearAllStatusForCurrentRequest() {
     if (this.queryRet.get() != null) {
       this.queryRet.get().clear();
@@ -245,6 +310,9 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
     if (this.queryStatus.get() != null) {
       this.queryStatus.get().clear();
     }
+    if (this.queryTimeouts.get() != null) {
+      this.queryTimeouts.get().clear();
+    }
   }
 
   private TS_Status getErrorStatus(String message) {
@@ -345,6 +413,17 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
       case "role":
       case "user":
       case "privilege":
+      // SHOW QUERIES
+      case "statement":
+        return TSDataType.TEXT;
+      case "jobid":
+      case "usedmemory":
+      case "peakmemory":
+      case "memorylimit":
+        return TSDataType.INT64;
+      // LAST queries
+      case "timeseries":
+      case "value":
         return TSDataType.TEXT;
       default:
         // do nothing
@@ -543,10 +622,14 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
 
       TSExecuteStatementResp resp;
       List<String> columns = new ArrayList<>();
-      if (!(plan instanceof AuthorPlan)) {
-        resp = executeDataQuery(plan, columns);
-      } else {
+      if (plan instanceof AuthorPlan) {
         resp = executeAuthQuery(plan, columns);
+      } else if (plan instanceof ShowQueriesPlan) {
+        resp = executeShowQueries(columns);
+      } else if (plan instanceof ShowContinuousQueriesPlan) {
+        resp = executeShowContinuousQueries(columns);
+      } else {
+        resp = executeDataQuery(plan, columns);
       }
 
       resp.setOperationType(plan.getOperatorType().toString());
@@ -558,6 +641,7 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
       operationHandle = new TSOperationHandle(operationId, true);
       resp.setOperationHandle(operationHandle);
       recordANewQuery(statement, plan);
+      queryTimeouts.get().put(statement, req.isSetTimeout() ? req.getTimeout() : 0L);
       return resp;
     } catch (Exception e) {
       logger.error("{}: Internal server error: ", IoTDBConstant.GLOBAL_DB_NAME, e);
@@ -598,6 +682,37 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
     return resp;
   }
 
+  private TSExecuteStatementResp executeShowQueries(List<String> columns) {
+    if (!IoTDBConstant.ADMIN_NAME.equals(username.get())) {
+      return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS,
+          "Only the administrator can show the running queries.");
+    }
+    TSExecuteStatementResp resp = getTSExecuteStatementResp(TS_StatusCode.SUCCESS_STATUS, "");
+    resp.setIgnoreTimeStamp(true);
+    columns.add(JOB_ID);
+    columns.add(USER);
+    columns.add(STATEMENT);
+    columns.add(USED_MEMORY);
+    columns.add(PEAK_MEMORY);
+    columns.add(MEMORY_LIMIT);
+    return resp;
+  }
+
+  private TSExecuteStatementResp executeShowContinuousQueries(List<String> columns) {
+    if (!IoTDBConstant.ADMIN_NAME.equals(username.get())) {
+      return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS,
+          "Only the administrator can show the continuous queries.");
+    }
+    TSExecuteStatementResp resp = getTSExecuteStatementResp(TS_StatusCode.SUCCESS_STATUS, "");
+    resp.setIgnoreTimeStamp(true);
+    columns.add(CONTINUOUS_QUERY_NAME);
+    columns.add(CONTINUOUS_QUERY_SELECT);
+    columns.add(CONTINUOUS_QUERY_TARGET);
+    columns.add(CONTINUOUS_QUERY_INTERVAL);
+    columns.add(CONTINUOUS_QUERY_ORIGIN);
+    return resp;
+  }
+
   private TSExecuteStatementResp executeDataQuery(PhysicalPlan plan, List<String> columns)
       throws AuthException, TException {
     List<Path> paths;
@@ -644,6 +759,10 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
           columns.add(aggregations.get(i) + "(" + paths.get(i).getFullPath() + ")");
         }
         break;
+      case LAST:
+        columns.add(TIMESERIES);
+        columns.add(VALUE);
+        break;
       default:
         throw new TException("unsupported query type: " + plan.getOperatorType());
     }
@@ -674,10 +793,16 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
       }
 
       int fetchSize = req.getFetch_size();
-      TSQueryDataSet result = QueryDataSetUtils
-          .convertQueryDataSetByFetchSize(queryDataSet, fetchSize);
+      QueryContext context = contextMapLocal.get().get(req.queryId);
+      if (context != null) {
+        context.checkKilled();
+      }
+      QueryMemoryTracker tracker = context == null ? null : context.getMemoryTracker();
+      TSQueryDataSet result = req.isSetColumnar() && req.isColumnar()
+          ? QueryDataSetUtils.convertQueryDataSetToColumns(queryDataSet, fetchSize, tracker)
+          : QueryDataSetUtils.convertQueryDataSetByFetchSize(queryDataSet, fetchSize, tracker);
 
-      boolean hasResultSet = !result.getRecords().isEmpty();
+      boolean hasResultSet = QueryDataSetUtils.getRowCount(result) > 0;
       if (!hasResultSet && queryRet.get() != null) {
         queryRet.get().remove(statement);
       }
@@ -687,25 +812,63 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
       resp.setHasResultSet(hasResultSet);
       resp.setQueryDataSet(result);
       return resp;
+    } catch (QueryKilledException e) {
+      logger.info("{}: {}", IoTDBConstant.GLOBAL_DB_NAME, e.getMessage());
+      releaseKilledQuery(req);
+      return getTSFetchResultsResp(TS_StatusCode.ERROR_STATUS, e.getMessage());
     } catch (Exception e) {
       logger.error("{}: Internal server error: ", IoTDBConstant.GLOBAL_DB_NAME, e);
       return getTSFetchResultsResp(TS_StatusCode.ERROR_STATUS, e.getMessage());
     }
   }
 
+  /**
+   * forget the dataset of a killed query so that it is not fetched or run again, and release its
+   * resources.
+   */
+  private void releaseKilledQuery(TSFetchResultsReq req) {
+    queryRet.get().remove(req.getStatement());
+    queryStatus.get().remove(req.getStatement());
+    QueryContext context = contextMapLocal.get().remove(req.queryId);
+    if (context != null) {
+      try {
+        endQuery(context);
+      } catch (StorageEngineException e) {
+        logger.error("Error in releasing the resources of killed query {}: ", context.getJobId(),
+            e);
+      }
+    }
+  }
+
+  /**
+   * @return the time limit of a query statement in ms, the shorter one of the limit asked by the
+   * client and the global one, or 0 if neither is set
+   */
+  private long getQueryTimeout(String statement) {
+    long timeout = queryTimeouts.get().getOrDefault(statement, 0L);
+    long globalTimeout = config.getQueryTimeoutThresholdInMs();
+    if (timeout <= 0 || (globalTimeout > 0 && globalTimeout < timeout)) {
+      return globalTimeout;
+    }
+    return timeout;
+  }
+
   private QueryDataSet createNewDataSet(String statement, TSFetchResultsReq req)
       throws PathErrorException, QueryFilterOptimizationException, StorageEngineException,
       ProcessorException, IOException {
     PhysicalPlan physicalPlan = queryStatus.get().get(statement);
 
-    QueryDataSet queryDataSet;
-    QueryContext context = new QueryContext(QueryResourceManager.getInstance().assignJobId());
+    QueryDataSet queryDataSet = QueryResultCache.getInstance().get(physicalPlan, () -> {
+      QueryContext context = new QueryContext(QueryResourceManager.getInstance().assignJobId());
+      context.setMemoryTracker(QueryMemoryPool.getInstance()
+          .register(context.getJobId(), username.get(), statement));
+      context.setTimeout(getQueryTimeout(statement));
 
-    initContextMap();
-    contextMapLocal.get().put(req.queryId, context);
+      initContextMap();
+      contextMapLocal.get().put(req.queryId, context);
 
-    queryDataSet = processor.getExecutor().processQuery(physicalPlan,
-        context);
+      return processor.getExecutor().processQuery(physicalPlan, context);
+    });
 
     queryRet.get().put(statement, queryDataSet);
     return queryDataSet;
@@ -927,6 +1090,234 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
     }
   }
 
+  @Override
+  public TSExecuteBatchStatementResp insertBatch(TSBatchInsertionReq req) {
+    long t1 = System.currentTimeMillis();
+    try {
+      if (!checkLogin()) {
+        logger.info(INFO_NOT_LOGIN, IoTDBConstant.GLOBAL_DB_NAME);
+        return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS, ERROR_NOT_LOGIN, null);
+      }
+      String deviceId = req.getDeviceId();
+      String[] measurements = req.getMeasurements().toArray(new String[0]);
+      // the privilege is checked once for the whole batch rather than for each row
+      InsertPlan batchPlan = new InsertPlan(deviceId, 0, measurements, new String[0]);
+      if (!checkAuthorization(batchPlan.getPaths(), batchPlan)) {
+        return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS,
+            "No permissions for this operation " + batchPlan.getOperatorType(), null);
+      }
+      if (config.isReadOnly()) {
+        return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS,
+            "Current system mode is read-only, does not support non-query operation", null);
+      }
+
+      // a malformed request is rejected before any row is inserted
+      String errorMessage = checkBatchInsertion(req);
+      if (errorMessage != null) {
+        return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS, errorMessage, null);
+      }
+      TSDataType[] dataTypes = new TSDataType[measurements.length];
+      ByteBuffer[] values = new ByteBuffer[measurements.length];
+      ByteBuffer[] bitmaps = new ByteBuffer[measurements.length];
+      for (int i = 0; i < measurements.length; i++) {
+        dataTypes[i] = TSDataType.valueOf(req.getTypes().get(i));
+        values[i] = req.getValues().get(i).duplicate();
+        bitmaps[i] = req.isSetBitmaps() ? req.getBitmaps().get(i) : null;
+      }
+      ByteBuffer timestamps = req.bufferForTimestamps().duplicate();
+
+      List<Integer> result = new ArrayList<>(req.getSize());
+      boolean isAllSuccessful = true;
+      StringBuilder batchErrorMessage = new StringBuilder();
+      List<String> rowMeasurements = new ArrayList<>(measurements.length);
+      List<String> rowValues = new ArrayList<>(measurements.length);
+      for (int row = 0; row < req.getSize(); row++) {
+        long time = timestamps.getLong();
+        rowMeasurements.clear();
+        rowValues.clear();
+        for (int i = 0; i < measurements.length; i++) {
+          if (bitmaps[i] == null || hasValue(bitmaps[i], row)) {
+            rowMeasurements.add(measurements[i]);
+            rowValues.add(readValue(values[i], dataTypes[i]));
+          }
+        }
+        if (rowMeasurements.isEmpty()) {
+          result.add(Statement.EXECUTE_FAILED);
+          batchErrorMessage.append("The row at ").append(time).append(" has no value\n");
+          isAllSuccessful = false;
+          continue;
+        }
+        isAllSuccessful = insertRowInBatch(new InsertPlan(deviceId, time,
+            rowMeasurements.toArray(new String[0]), rowValues.toArray(new String[0])),
+            batchErrorMessage, result) && isAllSuccessful;
+      }
+
+      if (isAllSuccessful) {
+        return getTSBathExecuteStatementResp(TS_StatusCode.SUCCESS_STATUS,
+            "Insert batch successfully", result);
+      } else {
+        return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS,
+            batchErrorMessage.toString(), result);
+      }
+    } catch (Exception e) {
+      logger.error("{}: error occurs when inserting a batch into {}",
+          IoTDBConstant.GLOBAL_DB_NAME, req.getDeviceId(), e);
+      return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS, e.getMessage(), null);
+    } finally {
+      Measurement.INSTANCE.addOperationLatency(Operation.EXECUTE_BATCH, t1);
+    }
+  }
+
+  private boolean insertRowInBatch(InsertPlan plan, StringBuilder batchErrorMessage,
+      List<Integer> result) {
+    try {
+      if (processor.getExecutor().processNonQuery(plan)) {
+        result.add(Statement.SUCCESS_NO_INFO);
+        return true;
+      }
+      batchErrorMessage.append("Fail to insert the row at ").append(plan.getTime()).append("\n");
+    } catch (ProcessorException | RuntimeException e) {
+      // e.g., a value that cannot be parsed, which only fails its own row
+      logger.debug("Error occurred when inserting the row at {} into {}", plan.getTime(),
+          plan.getDeviceId(), e);
+      batchErrorMessage.append("Fail to insert the row at ").append(plan.getTime())
+          .append(" because ").append(e.getMessage()).append("\n");
+    }
+    result.add(Statement.EXECUTE_FAILED);
+    return false;
+  }
+
+  /**
+   * check that the buffers of a batch insertion hold exactly the given number of rows, and that the
+   * types of the existing series are the declared ones.
+   *
+   * @return the error, or null if the request is well-formed
+   */
+  private static String checkBatchInsertion(TSBatchInsertionReq req) {
+    int size = req.getSize();
+    int columnNum = req.getMeasurements().size();
+    if (size < 0) {
+      return "The size of a batch cannot be negative: " + size;
+    }
+    if (req.getTypes().size() != columnNum || req.getValues().size() != columnNum
+        || (req.isSetBitmaps() && req.getBitmaps().size() != columnNum)) {
+      return String.format("%d measurements do not match %d types, %d value buffers and %s bitmaps",
+          columnNum, req.getTypes().size(), req.getValues().size(),
+          req.isSetBitmaps() ? req.getBitmaps().size() : "no");
+    }
+    if (req.bufferForTimestamps().remaining() != (long) size * 8) {
+      return String.format("%d bytes of timestamps do not match %d rows",
+          req.bufferForTimestamps().remaining(), size);
+    }
+    for (int i = 0; i < columnNum; i++) {
+      ByteBuffer bitmap = req.isSetBitmaps() ? req.getBitmaps().get(i) : null;
+      if (bitmap != null && bitmap.remaining() < (size + 7) / 8) {
+        return String.format("The bitmap of %s is too short for %d rows",
+            req.getMeasurements().get(i), size);
+      }
+      TSDataType dataType;
+      try {
+        dataType = TSDataType.valueOf(req.getTypes().get(i));
+      } catch (IllegalArgumentException e) {
+        return "Unknown data type " + req.getTypes().get(i);
+      }
+      String seriesPath = req.getDeviceId() + IoTDBConstant.PATH_SEPARATOR
+          + req.getMeasurements().get(i);
+      try {
+        // a series that does not exist yet fails in its rows
+        if (MManager.getInstance().pathExist(seriesPath)) {
+          TSDataType seriesType = MManager.getInstance().getSeriesType(seriesPath);
+          if (seriesType != dataType) {
+            return String.format("The type of %s is %s rather than %s", seriesPath, seriesType,
+                dataType);
+          }
+        }
+      } catch (PathErrorException e) {
+        return e.getMessage();
+      }
+      ByteBuffer values = req.getValues().get(i).duplicate();
+      for (int row = 0; row < size; row++) {
+        if (bitmap != null && !hasValue(bitmap, row)) {
+          continue;
+        }
+        if (!skipValue(values, dataType)) {
+          return String.format("The values of %s are fewer than its rows",
+              req.getMeasurements().get(i));
+        }
+      }
+      if (values.hasRemaining()) {
+        return String.format("The values of %s are more than its rows",
+            req.getMeasurements().get(i));
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return false if the buffer does not hold a whole value
+   */
+  private static boolean skipValue(ByteBuffer buffer, TSDataType dataType) {
+    int length;
+    switch (dataType) {
+      case BOOLEAN:
+        length = 1;
+        break;
+      case INT32:
+      case FLOAT:
+        length = 4;
+        break;
+      case INT64:
+      case DOUBLE:
+        length = 8;
+        break;
+      case TEXT:
+        if (buffer.remaining() < 4) {
+          return false;
+        }
+        length = buffer.getInt();
+        if (length < 0) {
+          return false;
+        }
+        break;
+      default:
+        return false;
+    }
+    if (buffer.remaining() < length) {
+      return false;
+    }
+    buffer.position(buffer.position() + length);
+    return true;
+  }
+
+  private static boolean hasValue(ByteBuffer bitmap, int row) {
+    return (bitmap.get(bitmap.position() + row / 8) & (1 << (row % 8))) != 0;
+  }
+
+  /**
+   * read the next value of a column of a batch insertion in the form of SQL, which is what
+   * InsertPlan expects.
+   */
+  private static String readValue(ByteBuffer buffer, TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+        return Boolean.toString(buffer.get() != 0);
+      case INT32:
+        return Integer.toString(buffer.getInt());
+      case INT64:
+        return Long.toString(buffer.getLong());
+      case FLOAT:
+        return Float.toString(buffer.getFloat());
+      case DOUBLE:
+        return Double.toString(buffer.getDouble());
+      case TEXT:
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return "\"" + new String(bytes, CHARSET) + "\"";
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
   @Override
   public long requestStatementId() {
     return globalStmtId.incrementAndGet();
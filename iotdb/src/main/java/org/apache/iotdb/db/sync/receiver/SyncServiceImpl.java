@@ -401,7 +401,8 @@ public class SyncServiceImpl implements SyncService.Iface {
         TsFileSequenceReader reader = null;
         try {
           reader = new TsFileSequenceReader(fileTF.getPath());
-          Map<String, TsDeviceMetadataIndex> deviceIdMap = reader.readFileMetadata().getDeviceMap();
+          Map<String, TsDeviceMetadataIndex> deviceIdMap = reader
+              .readDeviceMetadataIndexMap(reader.readFileMetadata());
           Iterator<String> it = deviceIdMap.keySet().iterator();
           while (it.hasNext()) {
             String key = it.next();
@@ -510,7 +511,8 @@ public class SyncServiceImpl implements SyncService.Iface {
     try {
       /** use tsfile reader to get data **/
       reader = new TsFileSequenceReader(filePath);
-      Map<String, TsDeviceMetadataIndex> deviceIdMap = reader.readFileMetadata().getDeviceMap();
+      Map<String, TsDeviceMetadataIndex> deviceIdMap = reader
+          .readDeviceMetadataIndexMap(reader.readFileMetadata());
       Iterator<Entry<String, TsDeviceMetadataIndex>> entryIterator = deviceIdMap.entrySet()
           .iterator();
       while (entryIterator.hasNext()) {
@@ -590,7 +592,8 @@ public class SyncServiceImpl implements SyncService.Iface {
     Map<String, ReadOnlyTsFile> tsfilesReaders = openReaders(filePath, overlapFiles);
     try {
       TsFileSequenceReader reader = new TsFileSequenceReader(filePath);
-      Map<String, TsDeviceMetadataIndex> deviceIdMap = reader.readFileMetadata().getDeviceMap();
+      Map<String, TsDeviceMetadataIndex> deviceIdMap = reader
+          .readDeviceMetadataIndexMap(reader.readFileMetadata());
       Iterator<String> it = deviceIdMap.keySet().iterator();
       while (it.hasNext()) {
         String deviceID = it.next();
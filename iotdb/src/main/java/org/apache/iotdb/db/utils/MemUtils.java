@@ -20,6 +20,8 @@ package org.apache.iotdb.db.utils;
 
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.write.record.TSRecord;
 import org.apache.iotdb.tsfile.write.record.datapoint.BooleanDataPoint;
@@ -123,6 +125,62 @@ public class MemUtils {
     return memUsed;
   }
 
+  /**
+   * function for getting the memory size of the points of a BatchData.
+   */
+  public static long getBatchDataMem(BatchData batchData) {
+    int length = batchData.length();
+    // time
+    long memUsed = length * 8L;
+    if (batchData.getDataType() == TSDataType.TEXT) {
+      for (int i = 0; i < length; i++) {
+        // reference, Binary object and array overhead
+        memUsed += 8 + 16 + 20 + batchData.getBinaryByIndex(i).getLength();
+      }
+    } else {
+      memUsed += length * getPrimitiveMem(batchData.getDataType());
+    }
+    return memUsed;
+  }
+
+  /**
+   * estimate the memory size of a batch of the given length before it is read. The content of the
+   * TEXT values is unknown, so only their overhead is counted.
+   */
+  public static long estimateBatchDataMem(TSDataType dataType, int length) {
+    if (dataType == TSDataType.TEXT) {
+      return length * (8L + 8 + 16 + 20);
+    }
+    return length * (8L + getPrimitiveMem(dataType));
+  }
+
+  /**
+   * estimate the memory size of a sorted copy of <code>count</code> points of a memtable series.
+   * The content of the TEXT values is shared with the memtable, so only their overhead is counted.
+   */
+  public static long estimateTimeValuePairListMem(TSDataType dataType, long count) {
+    // reference, TimeValuePair object with its time, TsPrimitiveType object
+    long memUsed = count * (8L + 16 + 8 + 8 + 16);
+    if (dataType == TSDataType.TEXT) {
+      memUsed += count * 8;
+    } else {
+      memUsed += count * getPrimitiveMem(dataType);
+    }
+    return memUsed;
+  }
+
+  private static long getPrimitiveMem(TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+        return 1;
+      case INT32:
+      case FLOAT:
+        return 4;
+      default:
+        return 8;
+    }
+  }
+
   /**
    * function for converting the byte count result to readable string.
    */
@@ -18,10 +18,12 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import org.apache.iotdb.db.query.context.QueryMemoryTracker;
 import org.apache.iotdb.service.rpc.thrift.TSDataValue;
 import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
 import org.apache.iotdb.service.rpc.thrift.TSRowRecord;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Field;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
@@ -43,19 +45,186 @@ public class QueryDataSetUtils {
   public static TSQueryDataSet convertQueryDataSetByFetchSize(QueryDataSet queryDataSet,
       int fetchSize)
       throws IOException {
+    return convertQueryDataSetByFetchSize(queryDataSet, fetchSize, null);
+  }
+
+  /**
+   * convert query data set by fetch size, and charge the memory of the result to the query until
+   * its next fetch.
+   *
+   * @param queryDataSet -query dataset
+   * @param fetchSize -fetch size
+   * @param tracker -memory tracker of the query, null if the memory is not tracked
+   * @return -convert query dataset
+   */
+  public static TSQueryDataSet convertQueryDataSetByFetchSize(QueryDataSet queryDataSet,
+      int fetchSize, QueryMemoryTracker tracker) throws IOException {
     TSQueryDataSet tsQueryDataSet = new TSQueryDataSet();
     tsQueryDataSet.setRecords(new ArrayList<>());
+    long memory = 0;
     for (int i = 0; i < fetchSize; i++) {
       if (queryDataSet.hasNext()) {
         RowRecord rowRecord = queryDataSet.next();
-        tsQueryDataSet.getRecords().add(convertToTSRecord(rowRecord));
+        TSRowRecord tsRowRecord = convertToTSRecord(rowRecord);
+        tsQueryDataSet.getRecords().add(tsRowRecord);
+        memory += getTSRecordMem(tsRowRecord);
       } else {
         break;
       }
     }
+    if (tracker != null) {
+      tracker.reserveResultBuffer(memory);
+    }
+    return tsQueryDataSet;
+  }
+
+  /**
+   * convert query data set by fetch size into the columnar format of TSQueryDataSet, and charge
+   * the memory of the result to the query until its next fetch. Compared with TSRowRecords, the
+   * columns are sent as a few buffers instead of an object per value.
+   *
+   * @param queryDataSet -query dataset
+   * @param fetchSize -fetch size
+   * @param tracker -memory tracker of the query, null if the memory is not tracked
+   * @return -convert query dataset
+   */
+  public static TSQueryDataSet convertQueryDataSetToColumns(QueryDataSet queryDataSet,
+      int fetchSize, QueryMemoryTracker tracker) throws IOException {
+    List<RowRecord> rows = new ArrayList<>();
+    while (rows.size() < fetchSize && queryDataSet.hasNext()) {
+      rows.add(queryDataSet.next());
+    }
+    int rowCount = rows.size();
+    int columnCount = rowCount == 0 ? 0 : rows.get(0).getFields().size();
+
+    ByteBuffer time = ByteBuffer.allocate(rowCount * 8);
+    for (RowRecord row : rows) {
+      time.putLong(row.getTimestamp());
+    }
+    time.flip();
+    long memory = time.capacity();
+
+    List<String> typeList = new ArrayList<>(columnCount);
+    List<ByteBuffer> valueList = new ArrayList<>(columnCount);
+    List<ByteBuffer> bitmapList = new ArrayList<>(columnCount);
+    for (int column = 0; column < columnCount; column++) {
+      TSDataType dataType = null;
+      int valueSize = 0;
+      byte[] bitmap = new byte[(rowCount + 7) / 8];
+      for (int row = 0; row < rowCount; row++) {
+        Field field = rows.get(row).getFields().get(column);
+        if (field.getDataType() == null || field.isNull()) {
+          continue;
+        }
+        if (dataType == null) {
+          dataType = field.getDataType();
+        } else if (dataType != field.getDataType()) {
+          throw new UnSupportedDataTypeException(String.format(
+              "column %d has values of both %s and %s", column, dataType, field.getDataType()));
+        }
+        bitmap[row >>> 3] |= 1 << (row & 7);
+        valueSize += getValueSize(field);
+      }
+
+      ByteBuffer values = ByteBuffer.allocate(valueSize);
+      for (int row = 0; row < rowCount; row++) {
+        Field field = rows.get(row).getFields().get(column);
+        if (field.getDataType() != null && !field.isNull()) {
+          putValue(values, field);
+        }
+      }
+      values.flip();
+
+      // the type of a column without any value is never read
+      typeList.add(dataType == null ? TSDataType.TEXT.toString() : dataType.toString());
+      valueList.add(values);
+      bitmapList.add(ByteBuffer.wrap(bitmap));
+      memory += values.capacity() + bitmap.length;
+    }
+
+    TSQueryDataSet tsQueryDataSet = new TSQueryDataSet(new ArrayList<>());
+    tsQueryDataSet.setTime(time);
+    tsQueryDataSet.setTypeList(typeList);
+    tsQueryDataSet.setValueList(valueList);
+    tsQueryDataSet.setBitmapList(bitmapList);
+    if (tracker != null) {
+      tracker.reserveResultBuffer(memory);
+    }
     return tsQueryDataSet;
   }
 
+  /**
+   * @return the number of rows in the dataset, in either format
+   */
+  public static int getRowCount(TSQueryDataSet tsQueryDataSet) {
+    if (tsQueryDataSet.isSetTime()) {
+      return tsQueryDataSet.bufferForTime().remaining() / 8;
+    }
+    return tsQueryDataSet.getRecords().size();
+  }
+
+  private static int getValueSize(Field field) {
+    switch (field.getDataType()) {
+      case BOOLEAN:
+        return 1;
+      case INT32:
+      case FLOAT:
+        return 4;
+      case INT64:
+      case DOUBLE:
+        return 8;
+      case TEXT:
+        return 4 + field.getBinaryV().getLength();
+      default:
+        throw new UnSupportedDataTypeException(String.format(
+            "data type %s is not supported when convert data at server", field.getDataType()));
+    }
+  }
+
+  private static void putValue(ByteBuffer buffer, Field field) {
+    switch (field.getDataType()) {
+      case BOOLEAN:
+        buffer.put(field.getBoolV() ? (byte) 1 : (byte) 0);
+        break;
+      case INT32:
+        buffer.putInt(field.getIntV());
+        break;
+      case INT64:
+        buffer.putLong(field.getLongV());
+        break;
+      case FLOAT:
+        buffer.putFloat(field.getFloatV());
+        break;
+      case DOUBLE:
+        buffer.putDouble(field.getDoubleV());
+        break;
+      case TEXT:
+        byte[] bytes = field.getBinaryV().getValues();
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.format(
+            "data type %s is not supported when convert data at server", field.getDataType()));
+    }
+  }
+
+  /**
+   * estimate the memory of a converted record.
+   */
+  private static long getTSRecordMem(TSRowRecord tsRowRecord) {
+    // reference, TSRowRecord object, timestamp and value list
+    long memUsed = 8 + 16 + 8 + 40;
+    for (TSDataValue value : tsRowRecord.getValues()) {
+      // reference, TSDataValue object with its fields
+      memUsed += 8 + 64;
+      if (value.isSetBinary_val()) {
+        memUsed += 48 + value.bufferForBinary_val().remaining();
+      }
+    }
+    return memUsed;
+  }
+
   /**
    * convert to tsRecord.
    *
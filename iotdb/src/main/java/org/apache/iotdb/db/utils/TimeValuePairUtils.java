@@ -53,6 +53,34 @@ public class TimeValuePairUtils {
     }
   }
 
+  /**
+   * get the (time,value) pair at the given index of the data.
+   *
+   * @param data -batch data
+   * @param idx -index of the pair, which is not less than 0 and less than the data's length
+   * @return -the (time,value) pair
+   */
+  public static TimeValuePair getTimeValuePairByIndex(BatchData data, int idx) {
+    long time = data.getTimeByIndex(idx);
+    switch (data.getDataType()) {
+      case INT32:
+        return new TimeValuePair(time, new TsPrimitiveType.TsInt(data.getIntByIndex(idx)));
+      case INT64:
+        return new TimeValuePair(time, new TsPrimitiveType.TsLong(data.getLongByIndex(idx)));
+      case FLOAT:
+        return new TimeValuePair(time, new TsPrimitiveType.TsFloat(data.getFloatByIndex(idx)));
+      case DOUBLE:
+        return new TimeValuePair(time, new TsPrimitiveType.TsDouble(data.getDoubleByIndex(idx)));
+      case TEXT:
+        return new TimeValuePair(time, new TsPrimitiveType.TsBinary(data.getBinaryByIndex(idx)));
+      case BOOLEAN:
+        return new TimeValuePair(time,
+            new TsPrimitiveType.TsBoolean(data.getBooleanByIndex(idx)));
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(data.getDataType()));
+    }
+  }
+
   /**
    * get given data's current (time,value) pair.
    *
@@ -77,4 +105,70 @@ public class TimeValuePairUtils {
         throw new UnSupportedDataTypeException(String.valueOf(data.getDataType()));
     }
   }
+
+  /**
+   * append a (time,value) pair to the end of the given data.
+   *
+   * @param data -batch data whose type is the type of the value
+   * @param timeValuePair -(time,value) pair
+   */
+  public static void putTimeValuePair(BatchData data, TimeValuePair timeValuePair) {
+    data.putTime(timeValuePair.getTimestamp());
+    TsPrimitiveType value = timeValuePair.getValue();
+    switch (data.getDataType()) {
+      case INT32:
+        data.putInt(value.getInt());
+        break;
+      case INT64:
+        data.putLong(value.getLong());
+        break;
+      case FLOAT:
+        data.putFloat(value.getFloat());
+        break;
+      case DOUBLE:
+        data.putDouble(value.getDouble());
+        break;
+      case TEXT:
+        data.putBinary(value.getBinary());
+        break;
+      case BOOLEAN:
+        data.putBoolean(value.getBoolean());
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(data.getDataType()));
+    }
+  }
+
+  /**
+   * append the current (time,value) pair of the source data to the end of the target data without
+   * boxing the value.
+   *
+   * @param target -batch data of the same type as the source
+   * @param source -batch data
+   */
+  public static void putCurrentTimeValuePair(BatchData target, BatchData source) {
+    target.putTime(source.currentTime());
+    switch (source.getDataType()) {
+      case INT32:
+        target.putInt(source.getInt());
+        break;
+      case INT64:
+        target.putLong(source.getLong());
+        break;
+      case FLOAT:
+        target.putFloat(source.getFloat());
+        break;
+      case DOUBLE:
+        target.putDouble(source.getDouble());
+        break;
+      case TEXT:
+        target.putBinary(source.getBinary());
+        break;
+      case BOOLEAN:
+        target.putBoolean(source.getBoolean());
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(source.getDataType()));
+    }
+  }
 }
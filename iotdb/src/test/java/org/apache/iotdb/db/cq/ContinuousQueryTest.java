@@ -0,0 +1,166 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.cq;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.Pair;
+import org.junit.Test;
+
+public class ContinuousQueryTest {
+
+  private ContinuousQuery createQuery(long unit, long origin) {
+    return new ContinuousQuery("cq1",
+        Arrays.asList(new Path("root.sg1.*.s1"), new Path("root.sg1.d1.s2")),
+        Arrays.asList("avg", "max_value"), new Path("root.rollup"), unit, origin);
+  }
+
+  @Test
+  public void testGetIntervalStartTime() {
+    ContinuousQuery continuousQuery = createQuery(10, 0);
+    assertEquals(0, continuousQuery.getIntervalStartTime(0));
+    assertEquals(0, continuousQuery.getIntervalStartTime(9));
+    assertEquals(10, continuousQuery.getIntervalStartTime(10));
+    assertEquals(-10, continuousQuery.getIntervalStartTime(-1));
+    assertEquals(-10, continuousQuery.getIntervalStartTime(-10));
+    assertEquals(-20, continuousQuery.getIntervalStartTime(-11));
+
+    continuousQuery = createQuery(10, 3);
+    assertEquals(3, continuousQuery.getIntervalStartTime(3));
+    assertEquals(-7, continuousQuery.getIntervalStartTime(2));
+    assertEquals(-7, continuousQuery.getIntervalStartTime(-7));
+    assertEquals(-17, continuousQuery.getIntervalStartTime(-8));
+    assertEquals(93, continuousQuery.getIntervalStartTime(102));
+
+    // an origin after the times
+    continuousQuery = createQuery(10, 1000);
+    assertEquals(990, continuousQuery.getIntervalStartTime(999));
+    assertEquals(0, continuousQuery.getIntervalStartTime(5));
+    assertEquals(-10, continuousQuery.getIntervalStartTime(-5));
+
+    continuousQuery = createQuery(10, -5);
+    assertEquals(-5, continuousQuery.getIntervalStartTime(-5));
+    assertEquals(-15, continuousQuery.getIntervalStartTime(-6));
+    assertEquals(5, continuousQuery.getIntervalStartTime(14));
+  }
+
+  @Test
+  public void testDirtyRanges() {
+    ContinuousQuery continuousQuery = createQuery(10, 0);
+    assertTrue(continuousQuery.takeDirtyRanges().isEmpty());
+
+    continuousQuery.markDirty(95, 95);
+    continuousQuery.markDirty(5, 5);
+    // a late point does not drag in the intervals between it and the others
+    assertEquals(Arrays.asList(new Pair<>(0L, 10L), new Pair<>(90L, 100L)),
+        continuousQuery.takeDirtyRanges());
+    assertTrue(continuousQuery.takeDirtyRanges().isEmpty());
+
+    continuousQuery.markDirty(5, 5);
+    continuousQuery.markDirty(95, 95);
+    // adjacent to the first range
+    continuousQuery.markDirty(12, 25);
+    // overlapping the first range
+    continuousQuery.markDirty(-3, 7);
+    continuousQuery.markDirty(50, 52);
+    assertEquals(Arrays.asList(new Pair<>(-10L, 30L), new Pair<>(50L, 60L),
+        new Pair<>(90L, 100L)), continuousQuery.takeDirtyRanges());
+
+    continuousQuery.markDirty(50, 52);
+    continuousQuery.markDirty(70, 75);
+    // covering several ranges
+    continuousQuery.markDirty(45, 80);
+    assertEquals(Arrays.asList(new Pair<>(40L, 90L)), continuousQuery.takeDirtyRanges());
+  }
+
+  @Test
+  public void testRestoreDirtyRanges() {
+    ContinuousQuery continuousQuery = createQuery(10, 0);
+    continuousQuery.markDirty(5, 5);
+    continuousQuery.markDirty(95, 95);
+    List<Pair<Long, Long>> ranges = continuousQuery.takeDirtyRanges();
+    // changed while the taken ranges are computed
+    continuousQuery.markDirty(15, 15);
+    continuousQuery.restoreDirtyRanges(ranges);
+    assertEquals(Arrays.asList(new Pair<>(0L, 20L), new Pair<>(90L, 100L)),
+        continuousQuery.takeDirtyRanges());
+  }
+
+  @Test
+  public void testMarkDeleted() {
+    ContinuousQuery continuousQuery = createQuery(10, 0);
+    assertFalse(continuousQuery.markDeleted("root.sg1.d1.s3", 15));
+    assertTrue(continuousQuery.takeTargetDeletions().isEmpty());
+    assertTrue(continuousQuery.takeDirtyRanges().isEmpty());
+
+    assertTrue(continuousQuery.markDeleted("root.sg1.d2.s1", 15));
+    assertTrue(continuousQuery.markDeleted("root.sg1.d2.s1", 5));
+    assertTrue(continuousQuery.markDeleted("root.sg1.d1.s2", 42));
+    Map<String, Long> expected = new HashMap<>();
+    expected.put("root.rollup.sg1.d2.s1.avg", 15L);
+    expected.put("root.rollup.sg1.d1.s2.max_value", 42L);
+    Map<String, Long> deletions = continuousQuery.takeTargetDeletions();
+    assertEquals(expected, deletions);
+    assertTrue(continuousQuery.takeTargetDeletions().isEmpty());
+    // only the intervals that contain the deletion times have data left in them
+    assertEquals(Arrays.asList(new Pair<>(0L, 20L), new Pair<>(40L, 50L)),
+        continuousQuery.takeDirtyRanges());
+
+    // deleted again while the taken deletions are applied
+    continuousQuery.markDeleted("root.sg1.d2.s1", 10);
+    continuousQuery.restoreTargetDeletions(deletions);
+    assertEquals(expected, continuousQuery.takeTargetDeletions());
+  }
+
+  @Test
+  public void testSerialize() {
+    ContinuousQuery continuousQuery = createQuery(10, -3);
+    ContinuousQuery deserialized = ContinuousQuery.deserialize(continuousQuery.serialize());
+    assertEquals("cq1", deserialized.getName());
+    assertEquals(continuousQuery.getPaths(), deserialized.getPaths());
+    assertEquals(continuousQuery.getAggregations(), deserialized.getAggregations());
+    assertEquals(new Path("root.rollup"), deserialized.getTargetPath());
+    assertEquals(10, deserialized.getUnit());
+    assertEquals(-3, deserialized.getOrigin());
+    assertTrue(deserialized.takeDirtyRanges().isEmpty());
+    assertTrue(deserialized.matches("root.sg1.d2.s1"));
+    assertFalse(deserialized.matches("root.sg1.d2.s2"));
+
+    continuousQuery.markDirty(-20, -15);
+    continuousQuery.markDirty(100, 100);
+    deserialized = ContinuousQuery.deserialize(continuousQuery.serialize());
+    assertEquals(continuousQuery.serialize(), deserialized.serialize());
+    assertEquals(Arrays.asList(new Pair<>(-23L, -13L), new Pair<>(97L, 107L)),
+        deserialized.takeDirtyRanges());
+
+    continuousQuery.markDeleted("root.sg1.d1.s2", 100);
+    deserialized = ContinuousQuery.deserialize(continuousQuery.serialize());
+    assertEquals(continuousQuery.serialize(), deserialized.serialize());
+    assertEquals(Collections.singletonMap("root.rollup.sg1.d1.s2.max_value", 100L),
+        deserialized.takeTargetDeletions());
+  }
+}
@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.TsPrimitiveType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LastValueCacheTest {
+
+  private static final String DEVICE = "root.sg.d1";
+  private static final String PATH = DEVICE + ".s1";
+
+  private LastValueCache cache = LastValueCache.getInstance();
+  private AtomicInteger loadCount = new AtomicInteger();
+
+  @Before
+  public void setUp() {
+    cache.clear();
+    loadCount.set(0);
+  }
+
+  @After
+  public void tearDown() {
+    cache.clear();
+  }
+
+  private TimeValuePair load(long time, long value) throws StorageEngineException {
+    return cache.get(PATH, path -> {
+      loadCount.incrementAndGet();
+      return new TimeValuePair(time, new TsPrimitiveType.TsLong(value));
+    });
+  }
+
+  private void insert(long time, long value) {
+    InsertPlan insertPlan = new InsertPlan(DEVICE, time, new String[]{"s1"},
+        new String[]{String.valueOf(value)});
+    insertPlan.setDataTypes(new TSDataType[]{TSDataType.INT64});
+    cache.update(insertPlan);
+  }
+
+  @Test
+  public void testLoadOnce() throws StorageEngineException {
+    assertEquals(100, load(100, 1).getTimestamp());
+    assertEquals(100, load(200, 2).getTimestamp());
+    assertEquals(1, loadCount.get());
+
+    // a series without data is cached as well
+    assertNull(cache.get(DEVICE + ".s2", path -> {
+      loadCount.incrementAndGet();
+      return null;
+    }));
+    assertNull(cache.get(DEVICE + ".s2", path -> {
+      loadCount.incrementAndGet();
+      return null;
+    }));
+    assertEquals(2, loadCount.get());
+  }
+
+  @Test
+  public void testUpdateByInsertion() throws StorageEngineException {
+    // insertions of series that have not been queried are ignored
+    insert(300, 3);
+    assertEquals(100, load(100, 1).getTimestamp());
+
+    insert(150, 5);
+    // out of order insertion
+    insert(120, 6);
+    TimeValuePair point = load(0, 0);
+    assertEquals(150, point.getTimestamp());
+    assertEquals(5, point.getValue().getLong());
+
+    // overwrite the latest point
+    insert(150, 7);
+    assertEquals(7, load(0, 0).getValue().getLong());
+    assertEquals(1, loadCount.get());
+  }
+
+  @Test
+  public void testDelete() throws StorageEngineException {
+    load(100, 1);
+    // the cached point is not deleted
+    cache.delete(PATH, 50);
+    load(0, 0);
+    assertEquals(1, loadCount.get());
+
+    cache.delete(PATH, 100);
+    assertEquals(10, load(10, 2).getTimestamp());
+    assertEquals(2, loadCount.get());
+
+    cache.deleteStorageGroup("root.sg");
+    load(10, 2);
+    assertEquals(3, loadCount.get());
+  }
+}
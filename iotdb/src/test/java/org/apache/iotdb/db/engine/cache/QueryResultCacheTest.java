@@ -0,0 +1,198 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.iotdb.db.qp.physical.crud.GroupByPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.qp.physical.crud.QueryPlan;
+import org.apache.iotdb.db.query.dataset.ListDataSet;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Pair;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QueryResultCacheTest {
+
+  private static final String DEVICE = "root.sg.d1";
+  private static final String PATH = DEVICE + ".s1";
+  /**
+   * 2000 bytes for each segment, so a result of about a dozen records at most is cached.
+   */
+  private static final long MEMORY_BUDGET = 16 * 2000L;
+
+  private QueryResultCache cache;
+  private AtomicInteger loadCount = new AtomicInteger();
+
+  @Before
+  public void setUp() {
+    cache = new QueryResultCache(MEMORY_BUDGET);
+    loadCount.set(0);
+  }
+
+  /**
+   * a raw data query of the series since time 100.
+   */
+  private QueryPlan createQueryPlan() {
+    QueryPlan plan = new QueryPlan();
+    plan.setPaths(Collections.singletonList(new Path(PATH)));
+    plan.setExpression(new GlobalTimeExpression(TimeFilter.gtEq(100L)));
+    return plan;
+  }
+
+  /**
+   * a GROUP BY query of the series in [100, 199].
+   */
+  private GroupByPlan createGroupByPlan() {
+    GroupByPlan plan = new GroupByPlan();
+    plan.setPaths(Collections.singletonList(new Path(PATH)));
+    plan.setAggregations(Collections.singletonList("count"));
+    plan.setUnit(10);
+    plan.setOrigin(0);
+    plan.setIntervals(Collections.singletonList(new Pair<>(100L, 199L)));
+    return plan;
+  }
+
+  private QueryDataSet query(QueryPlan plan, int recordNum) throws Exception {
+    return cache.get(plan, () -> {
+      loadCount.incrementAndGet();
+      List<RowRecord> records = new ArrayList<>();
+      for (int i = 0; i < recordNum; i++) {
+        RowRecord record = new RowRecord(100 + i);
+        Field field = new Field(TSDataType.INT64);
+        field.setLongV(i);
+        record.addField(field);
+        records.add(record);
+      }
+      return new ListDataSet(plan.getPaths(), Collections.singletonList(TSDataType.INT64),
+          records);
+    });
+  }
+
+  private List<String> fetchAll(QueryDataSet dataSet) throws Exception {
+    List<String> records = new ArrayList<>();
+    while (dataSet.hasNext()) {
+      records.add(dataSet.next().toString());
+    }
+    return records;
+  }
+
+  private void insert(String path, long time) {
+    Path series = new Path(path);
+    InsertPlan insertPlan = new InsertPlan(series.getDevice(), time,
+        new String[]{series.getMeasurement()}, new String[]{"1"});
+    insertPlan.setDataTypes(new TSDataType[]{TSDataType.INT64});
+    cache.invalidate(insertPlan);
+  }
+
+  @Test
+  public void testHit() throws Exception {
+    List<String> records = fetchAll(query(createQueryPlan(), 5));
+    assertEquals(5, records.size());
+    assertEquals(records, fetchAll(query(createQueryPlan(), 5)));
+    // replayed from the cache
+    assertEquals(records, fetchAll(query(createQueryPlan(), 5)));
+    assertEquals(1, loadCount.get());
+    assertEquals(2, cache.getHitCount());
+    assertEquals(1, cache.getEntryNumber());
+  }
+
+  @Test
+  public void testInsertion() throws Exception {
+    fetchAll(query(createQueryPlan(), 5));
+
+    // out of the time filter
+    insert(PATH, 50);
+    // another series
+    insert(DEVICE + ".s2", 150);
+    fetchAll(query(createQueryPlan(), 5));
+    assertEquals(1, loadCount.get());
+
+    insert(PATH, 150);
+    assertEquals(1, cache.getInvalidationCount());
+    fetchAll(query(createQueryPlan(), 5));
+    assertEquals(2, loadCount.get());
+  }
+
+  @Test
+  public void testInsertionIntoGroupBy() throws Exception {
+    fetchAll(query(createGroupByPlan(), 5));
+
+    // out of the intervals
+    insert(PATH, 200);
+    insert(PATH, 99);
+    fetchAll(query(createGroupByPlan(), 5));
+    assertEquals(1, loadCount.get());
+
+    insert(PATH, 199);
+    fetchAll(query(createGroupByPlan(), 5));
+    assertEquals(2, loadCount.get());
+  }
+
+  @Test
+  public void testDeletion() throws Exception {
+    fetchAll(query(createQueryPlan(), 5));
+
+    // the deleted points are all before the time filter
+    cache.invalidate(PATH, 99);
+    fetchAll(query(createQueryPlan(), 5));
+    assertEquals(1, loadCount.get());
+
+    cache.invalidate(PATH, 100);
+    fetchAll(query(createQueryPlan(), 5));
+    assertEquals(2, loadCount.get());
+  }
+
+  @Test
+  public void testInsertionWhileRecording() throws Exception {
+    QueryDataSet dataSet = query(createQueryPlan(), 5);
+    dataSet.hasNext();
+    dataSet.next();
+    // the result being fetched may miss the new point
+    insert(PATH, 150);
+    fetchAll(dataSet);
+    fetchAll(query(createQueryPlan(), 5));
+    assertEquals(2, loadCount.get());
+
+    // the second result is cached as nothing is changed while it is recorded
+    fetchAll(query(createQueryPlan(), 5));
+    assertEquals(2, loadCount.get());
+  }
+
+  @Test
+  public void testTooLarge() throws Exception {
+    assertEquals(100, fetchAll(query(createQueryPlan(), 100)).size());
+    assertEquals(100, fetchAll(query(createQueryPlan(), 100)).size());
+    assertEquals(2, loadCount.get());
+    assertEquals(0, cache.getEntryNumber());
+    assertTrue(cache.getUsedMemory() <= MEMORY_BUDGET);
+  }
+}
@@ -0,0 +1,245 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class WeightedLRUCacheTest {
+
+  /**
+   * every entry weighs its value, and each of the 16 segments can hold 100.
+   */
+  private WeightedLRUCache<Integer, Integer> newCache() {
+    return new WeightedLRUCache<Integer, Integer>(1600) {
+      @Override
+      protected long estimateSize(Integer key, Integer value) {
+        return value;
+      }
+    };
+  }
+
+  @Test
+  public void testHitAndMiss() throws IOException {
+    WeightedLRUCache<Integer, Integer> cache = newCache();
+    AtomicInteger loadCount = new AtomicInteger();
+    for (int i = 0; i < 3; i++) {
+      assertEquals(10, (int) cache.get(1, key -> {
+        loadCount.incrementAndGet();
+        return 10;
+      }));
+    }
+    assertEquals(1, loadCount.get());
+    assertEquals(2, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(10, cache.getUsedMemory());
+  }
+
+  @Test
+  public void testEvictByWeight() throws IOException {
+    WeightedLRUCache<Integer, Integer> cache = newCache();
+    // keys 0, 16 and 32 are in the same segment
+    cache.put(0, 40);
+    cache.put(16, 40);
+    // 0 becomes the most recently used entry
+    assertEquals(40, (int) cache.get(0, key -> 0));
+    cache.put(32, 40);
+    assertTrue(cache.contains(0));
+    assertTrue(cache.contains(32));
+    assertFalse(cache.contains(16));
+    assertEquals(1, cache.getEvictionCount());
+    assertEquals(80, cache.getUsedMemory());
+
+    // larger than a segment, evicts the other entries of its segment
+    cache.put(48, 101);
+    assertTrue(cache.contains(48));
+    assertFalse(cache.contains(0));
+    assertFalse(cache.contains(32));
+    assertEquals(3, cache.getEvictionCount());
+    assertEquals(101, cache.getUsedMemory());
+
+    // an entry of the segment evicts the oversized entry
+    cache.put(64, 10);
+    assertFalse(cache.contains(48));
+    assertEquals(10, cache.getUsedMemory());
+  }
+
+  @Test
+  public void testOversizedLimit() {
+    WeightedLRUCache<Integer, Integer> cache = newCache();
+    cache.put(0, 1000);
+    assertTrue(cache.contains(0));
+    // the oversized entries together use at most the memory budget
+    cache.put(1, 700);
+    assertFalse(cache.contains(1));
+    assertEquals(1, cache.getRejectionCount());
+    // replaces the oversized entry of the same segment
+    cache.put(16, 700);
+    assertTrue(cache.contains(16));
+    assertFalse(cache.contains(0));
+    cache.put(1, 900);
+    assertTrue(cache.contains(1));
+    assertEquals(1600, cache.getUsedMemory());
+
+    cache.put(2, 1601);
+    assertFalse(cache.contains(2));
+    assertEquals(2, cache.getRejectionCount());
+
+    cache.clear();
+    cache.put(2, 1600);
+    assertTrue(cache.contains(2));
+    assertEquals(2, cache.getRejectionCount());
+  }
+
+  @Test
+  public void testEvictionCallback() {
+    List<Integer> evicted = new ArrayList<>();
+    WeightedLRUCache<Integer, Integer> cache = new WeightedLRUCache<Integer, Integer>(1600) {
+      @Override
+      protected long estimateSize(Integer key, Integer value) {
+        return value;
+      }
+
+      @Override
+      protected void onEviction(Integer key, Integer value) {
+        evicted.add(key);
+      }
+    };
+    cache.put(0, 40);
+    cache.put(16, 40);
+    cache.put(32, 70);
+    assertEquals(2, evicted.size());
+    assertEquals(0, (int) evicted.get(0));
+    assertEquals(16, (int) evicted.get(1));
+    // replacing an entry is not an eviction
+    cache.put(32, 50);
+    assertEquals(2, evicted.size());
+    assertEquals(100, cache.getMaxEntrySize());
+  }
+
+  @Test
+  public void testGetIfPresent() {
+    WeightedLRUCache<Integer, Integer> cache = newCache();
+    assertNull(cache.getIfPresent(1));
+    cache.put(1, 10);
+    assertEquals(10, (int) cache.getIfPresent(1));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+  }
+
+  @Test
+  public void testRemove() {
+    WeightedLRUCache<Integer, Integer> cache = newCache();
+    for (int i = 0; i < 10; i++) {
+      cache.put(i, 10);
+    }
+    cache.removeIf(key -> key % 2 == 0);
+    assertEquals(5, cache.getEntryNumber());
+    assertEquals(50, cache.getUsedMemory());
+    cache.remove(1);
+    assertFalse(cache.contains(1));
+    cache.clear();
+    assertEquals(0, cache.getEntryNumber());
+    assertEquals(0, cache.getUsedMemory());
+  }
+
+  @Test
+  public void testDisabled() throws IOException {
+    WeightedLRUCache<Integer, Integer> cache = new WeightedLRUCache<Integer, Integer>(0) {
+      @Override
+      protected long estimateSize(Integer key, Integer value) {
+        return value;
+      }
+    };
+    AtomicInteger loadCount = new AtomicInteger();
+    for (int i = 0; i < 3; i++) {
+      cache.get(1, key -> loadCount.incrementAndGet());
+    }
+    assertEquals(3, loadCount.get());
+    assertEquals(0, cache.getEntryNumber());
+  }
+
+  @Test
+  public void testLoadOnce() throws Exception {
+    WeightedLRUCache<Integer, Integer> cache = newCache();
+    AtomicInteger loadCount = new AtomicInteger();
+    CountDownLatch latch = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Integer>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        futures.add(pool.submit(() -> cache.get(1, key -> {
+          loadCount.incrementAndGet();
+          try {
+            latch.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return 10;
+        })));
+      }
+      Thread.sleep(100);
+      latch.countDown();
+      for (Future<Integer> future : futures) {
+        assertEquals(10, (int) future.get());
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    assertEquals(1, loadCount.get());
+  }
+
+  @Test
+  public void testNullNotCached() throws IOException {
+    WeightedLRUCache<Integer, Integer> cache = newCache();
+    AtomicInteger loadCount = new AtomicInteger();
+    for (int i = 0; i < 2; i++) {
+      cache.get(1, key -> {
+        loadCount.incrementAndGet();
+        return null;
+      });
+    }
+    assertEquals(2, loadCount.get());
+    assertFalse(cache.contains(1));
+  }
+
+  @Test(expected = IOException.class)
+  public void testLoadFailure() throws IOException {
+    WeightedLRUCache<Integer, Integer> cache = newCache();
+    try {
+      cache.get(1, key -> {
+        throw new IOException("cannot load");
+      });
+    } finally {
+      assertFalse(cache.contains(1));
+    }
+  }
+}
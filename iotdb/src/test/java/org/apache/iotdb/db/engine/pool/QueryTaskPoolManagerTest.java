@@ -0,0 +1,168 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.pool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.iotdb.db.engine.pool.QueryTaskPoolManager.QueryTask;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.junit.Test;
+
+public class QueryTaskPoolManagerTest {
+
+  private QueryTaskPoolManager manager = QueryTaskPoolManager.getInstance();
+
+  @Test
+  public void testBoundedParallelism() throws IOException, ProcessorException {
+    AtomicInteger runningNum = new AtomicInteger();
+    AtomicInteger maxRunningNum = new AtomicInteger();
+    AtomicInteger finishedNum = new AtomicInteger();
+    List<QueryTask> tasks = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      tasks.add(() -> {
+        int running = runningNum.incrementAndGet();
+        maxRunningNum.accumulateAndGet(running, Math::max);
+        sleep(10);
+        runningNum.decrementAndGet();
+        finishedNum.incrementAndGet();
+      });
+    }
+    manager.runAll(tasks, 3);
+    assertEquals(20, finishedNum.get());
+    assertTrue(maxRunningNum.get() <= 3);
+  }
+
+  @Test
+  public void testCancelAfterFailure() throws Exception {
+    AtomicInteger startedNum = new AtomicInteger();
+    List<QueryTask> tasks = new ArrayList<>();
+    tasks.add(() -> {
+      startedNum.incrementAndGet();
+      throw new IOException("cannot read");
+    });
+    for (int i = 1; i < 10; i++) {
+      tasks.add(() -> {
+        startedNum.incrementAndGet();
+        sleep(50);
+      });
+    }
+    try {
+      manager.runAll(tasks, 2);
+      fail();
+    } catch (IOException e) {
+      assertEquals("cannot read", e.getMessage());
+    }
+    // the tasks not started when the first one fails are never run
+    Thread.sleep(200);
+    assertTrue(startedNum.get() <= 2);
+  }
+
+  @Test
+  public void testWaitForRunningTasksAfterFailure() throws Exception {
+    AtomicInteger startedNum = new AtomicInteger();
+    AtomicInteger finishedNum = new AtomicInteger();
+    List<QueryTask> tasks = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      tasks.add(() -> {
+        startedNum.incrementAndGet();
+        sleep(100);
+        finishedNum.incrementAndGet();
+      });
+    }
+    tasks.add(() -> {
+      sleep(10);
+      throw new IOException("cannot read");
+    });
+    try {
+      manager.runAll(tasks, 4);
+      fail();
+    } catch (IOException e) {
+      assertEquals("cannot read", e.getMessage());
+    }
+    // the tasks that started are not running any more when the failure is thrown
+    assertEquals(startedNum.get(), finishedNum.get());
+  }
+
+  @Test
+  public void testProcessorExceptionPropagation() throws IOException {
+    List<QueryTask> tasks = new ArrayList<>();
+    tasks.add(() -> sleep(10));
+    tasks.add(() -> {
+      throw new ProcessorException("cannot aggregate");
+    });
+    try {
+      manager.runAll(tasks, 2);
+      fail();
+    } catch (ProcessorException e) {
+      // thrown as it is, not wrapped
+      assertEquals("cannot aggregate", e.getMessage());
+      assertNull(e.getCause());
+    }
+  }
+
+  @Test
+  public void testRuntimeExceptionPropagation() throws IOException {
+    List<QueryTask> tasks = new ArrayList<>();
+    tasks.add(() -> sleep(10));
+    tasks.add(() -> {
+      throw new IllegalStateException("unexpected");
+    });
+    try {
+      manager.runAll(tasks, 2);
+      fail();
+    } catch (ProcessorException e) {
+      assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+  }
+
+  @Test
+  public void testSerialFailure() throws ProcessorException {
+    AtomicInteger finishedNum = new AtomicInteger();
+    List<QueryTask> tasks = new ArrayList<>();
+    tasks.add(finishedNum::incrementAndGet);
+    tasks.add(() -> {
+      throw new IOException("cannot read");
+    });
+    tasks.add(finishedNum::incrementAndGet);
+    try {
+      // run in the calling thread
+      manager.runAll(tasks, 1);
+      fail();
+    } catch (IOException e) {
+      assertEquals("cannot read", e.getMessage());
+    }
+    assertEquals(1, finishedNum.get());
+  }
+
+  private static void sleep(long millis) throws ProcessorException {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ProcessorException(e);
+    }
+  }
+}
@@ -0,0 +1,127 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.integration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.jdbc.Config;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class IoTDBContinuousQueryIT {
+
+  private static final String TARGET_SERIES = "root.cqtarget.cqsource.d0.s0";
+  private static final long TIMEOUT_IN_MS = 10000;
+
+  private static IoTDB daemon;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    EnvironmentUtils.closeStatMonitor();
+    daemon = IoTDB.getInstance();
+    daemon.active();
+    EnvironmentUtils.envSetUp();
+    Class.forName(Config.JDBC_DRIVER_NAME);
+  }
+
+  @AfterClass
+  public static void tearDown() throws Exception {
+    daemon.stop();
+    EnvironmentUtils.cleanEnv();
+  }
+
+  @Test
+  public void testRollupOnFlush() throws SQLException, InterruptedException {
+    try (Connection connection = DriverManager
+        .getConnection(Config.IOTDB_URL_PREFIX + "127.0.0.1:6667/", "root", "root");
+        Statement statement = connection.createStatement()) {
+      statement.execute("SET STORAGE GROUP TO root.cqsource");
+      statement.execute("SET STORAGE GROUP TO root.cqtarget");
+      statement.execute(
+          "CREATE TIMESERIES root.cqsource.d0.s0 WITH DATATYPE=INT64, ENCODING=RLE");
+      statement.execute("CREATE CONTINUOUS QUERY cq1 SELECT max_value(s0), min_value(s0) "
+          + "INTO root.cqtarget FROM root.cqsource.d0 GROUP BY(10ms, 0)");
+
+      for (long time = 100; time < 130; time++) {
+        statement.execute(String.format(
+            "insert into root.cqsource.d0(timestamp,s0) values(%d,%d)", time, time));
+      }
+      statement.execute("flush");
+      String expected = "100,109,100\n"
+          + "110,119,110\n"
+          + "120,129,120\n";
+      assertEquals(expected, waitForTarget(statement, expected));
+
+      // a late point and a new one, only their intervals are rolled up again
+      statement.execute("insert into root.cqsource.d0(timestamp,s0) values(15,7)");
+      statement.execute("insert into root.cqsource.d0(timestamp,s0) values(500,500)");
+      // a point that changes a rolled up interval
+      statement.execute("insert into root.cqsource.d0(timestamp,s0) values(112,1000)");
+      statement.execute("flush");
+      expected = "10,7,7\n"
+          + "100,109,100\n"
+          + "110,1000,110\n"
+          + "120,129,120\n"
+          + "500,500,500\n";
+      assertEquals(expected, waitForTarget(statement, expected));
+    }
+  }
+
+  /**
+   * wait for the rollup after a flush, which runs in the background.
+   *
+   * @return the rows of the target series when they are as expected or the time is out
+   */
+  private String waitForTarget(Statement statement, String expected)
+      throws SQLException, InterruptedException {
+    long deadline = System.currentTimeMillis() + TIMEOUT_IN_MS;
+    String actual = queryTarget(statement);
+    while (!expected.equals(actual) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(100);
+      actual = queryTarget(statement);
+    }
+    return actual;
+  }
+
+  private String queryTarget(Statement statement) throws SQLException {
+    StringBuilder builder = new StringBuilder();
+    try {
+      statement.execute("select max_value, min_value from " + TARGET_SERIES);
+    } catch (SQLException e) {
+      // the target series are created by the first rollup
+      return builder.toString();
+    }
+    try (ResultSet resultSet = statement.getResultSet()) {
+      while (resultSet.next()) {
+        builder.append(resultSet.getString(1)).append(',')
+            .append(resultSet.getString(2)).append(',')
+            .append(resultSet.getString(3)).append('\n');
+      }
+    }
+    return builder.toString();
+  }
+}
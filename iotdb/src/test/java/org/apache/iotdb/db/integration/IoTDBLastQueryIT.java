@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.integration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.jdbc.Config;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class IoTDBLastQueryIT {
+
+  private static IoTDB daemon;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    EnvironmentUtils.closeStatMonitor();
+    daemon = IoTDB.getInstance();
+    daemon.active();
+    EnvironmentUtils.envSetUp();
+    Class.forName(Config.JDBC_DRIVER_NAME);
+  }
+
+  @AfterClass
+  public static void tearDown() throws Exception {
+    daemon.stop();
+    EnvironmentUtils.cleanEnv();
+  }
+
+  @Test
+  public void testLoadLastPoint() throws SQLException {
+    try (Connection connection = DriverManager
+        .getConnection(Config.IOTDB_URL_PREFIX + "127.0.0.1:6667/", "root", "root");
+        Statement statement = connection.createStatement()) {
+      statement.execute("SET STORAGE GROUP TO root.ln");
+      for (int i = 0; i < 5; i++) {
+        statement.execute(String.format(
+            "CREATE TIMESERIES root.ln.d0.s%d WITH DATATYPE=INT64, ENCODING=RLE", i));
+      }
+      for (long time = 1; time <= 10; time++) {
+        statement.execute(String.format(
+            "insert into root.ln.d0(timestamp,s0,s1,s2,s3,s4) values(%d,%d,%d,%d,%d,%d)", time,
+            time, time, time, time, time));
+      }
+      statement.execute("flush");
+      for (long time = 11; time <= 20; time++) {
+        statement.execute(String.format(
+            "insert into root.ln.d0(timestamp,s3,s4) values(%d,%d,%d)", time, time, time));
+      }
+      statement.execute("flush");
+      // in the memtable
+      statement.execute("insert into root.ln.d0(timestamp,s1) values(30,30)");
+      // an unsequence point that replaces the last sequence one
+      statement.execute("insert into root.ln.d0(timestamp,s2) values(10,1000)");
+      // the newest chunk of s3 keeps its last point, all the points of s4 are deleted
+      statement.execute("DELETE FROM root.ln.d0.s3 WHERE time <= 15");
+      statement.execute("DELETE FROM root.ln.d0.s4 WHERE time <= 20");
+
+      assertEquals("10,root.ln.d0.s0,10", queryLast(statement, "s0"));
+      assertEquals("30,root.ln.d0.s1,30", queryLast(statement, "s1"));
+      assertEquals("10,root.ln.d0.s2,1000", queryLast(statement, "s2"));
+      assertEquals("20,root.ln.d0.s3,20", queryLast(statement, "s3"));
+      assertEquals("", queryLast(statement, "s4"));
+    }
+  }
+
+  private String queryLast(Statement statement, String measurement) throws SQLException {
+    StringBuilder builder = new StringBuilder();
+    statement.execute("select last " + measurement + " from root.ln.d0");
+    try (ResultSet resultSet = statement.getResultSet()) {
+      while (resultSet.next()) {
+        builder.append(resultSet.getString(1)).append(',')
+            .append(resultSet.getString(2)).append(',')
+            .append(resultSet.getString(3));
+      }
+    }
+    return builder.toString();
+  }
+}
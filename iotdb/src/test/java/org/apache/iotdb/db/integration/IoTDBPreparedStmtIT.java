@@ -19,18 +19,31 @@
 
 package org.apache.iotdb.db.integration;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
 
+import java.nio.ByteBuffer;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Arrays;
+import java.util.Collections;
 import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
 import org.apache.iotdb.jdbc.Config;
+import org.apache.iotdb.jdbc.IoTDBBatchInsertion;
+import org.apache.iotdb.jdbc.IoTDBConnection;
 import org.apache.iotdb.jdbc.IoTDBPreparedInsertionStatement;
+import org.apache.iotdb.service.rpc.thrift.TSBatchInsertionReq;
+import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementResp;
+import org.apache.iotdb.service.rpc.thrift.TS_StatusCode;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.thrift.TException;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
@@ -66,6 +79,8 @@ public class IoTDBPreparedStmtIT {
       statement.execute("SET STORAGE GROUP TO root.device1");
       statement.execute("SET STORAGE GROUP TO root.device2");
       statement.execute("SET STORAGE GROUP TO root.device3");
+      statement.execute("SET STORAGE GROUP TO root.device4");
+      statement.execute("SET STORAGE GROUP TO root.device5");
 
       for (int i = 0; i < 5; i++) {
         statement.execute(String.format("CREATE TIMESERIES root.device1.sensor%d WITH "
@@ -75,6 +90,10 @@ public class IoTDBPreparedStmtIT {
         statement.execute(String.format("CREATE TIMESERIES root.device3.sensor%d WITH "
             + "DATATYPE=DOUBLE,ENCODING=PLAIN", i));
       }
+      statement.execute("CREATE TIMESERIES root.device4.s0 WITH DATATYPE=INT64,ENCODING=PLAIN");
+      statement.execute("CREATE TIMESERIES root.device4.s1 WITH DATATYPE=BOOLEAN,ENCODING=PLAIN");
+      statement.execute("CREATE TIMESERIES root.device4.s2 WITH DATATYPE=TEXT,ENCODING=PLAIN");
+      statement.execute("CREATE TIMESERIES root.device5.s0 WITH DATATYPE=INT64,ENCODING=PLAIN");
       // to create processors
       statement.execute("INSERT INTO root.device1(timestamp,sensor0,sensor1,sensor2,sensor3,"
           + "sensor4) VALUES (1,1,1,1,1,1)");
@@ -131,6 +150,100 @@ public class IoTDBPreparedStmtIT {
     }
   }
 
+  @Test
+  public void testBatchInsertion() throws SQLException {
+    Connection connection = DriverManager
+        .getConnection(Config.IOTDB_URL_PREFIX + "127.0.0.1:6667/", "root", "root");
+    try {
+      IoTDBBatchInsertion insertion = ((IoTDBConnection) connection).prepareBatchInsertion(
+          "root.device4", Arrays.asList("s0", "s1", "s2"),
+          Arrays.asList(TSDataType.INT64, TSDataType.BOOLEAN, TSDataType.TEXT));
+      for (int i = 1; i <= 100; i++) {
+        // every other row has no text
+        insertion.addRow(i, (long) i, i % 3 == 0, i % 2 == 0 ? null : "text'" + i);
+      }
+      int[] result = insertion.execute();
+      assertEquals(100, result.length);
+      for (int r : result) {
+        assertEquals(Statement.SUCCESS_NO_INFO, r);
+      }
+
+      Statement queryStmt = connection.createStatement();
+      ResultSet resultSet = queryStmt.executeQuery("SELECT * FROM root.device4");
+      int cnt = 0;
+      while (resultSet.next()) {
+        cnt++;
+        assertEquals(cnt, resultSet.getLong(1));
+        assertEquals(cnt, resultSet.getLong("root.device4.s0"));
+        assertEquals(cnt % 3 == 0, resultSet.getBoolean("root.device4.s1"));
+        assertEquals(cnt % 2 == 0 ? null : "text'" + cnt, resultSet.getString("root.device4.s2"));
+      }
+      assertEquals(100, cnt);
+      resultSet.close();
+      queryStmt.close();
+    } finally {
+      connection.close();
+    }
+  }
+
+  @Test
+  public void testInvalidBatchInsertion() throws SQLException, TException {
+    Connection connection = DriverManager
+        .getConnection(Config.IOTDB_URL_PREFIX + "127.0.0.1:6667/", "root", "root");
+    try {
+      IoTDBBatchInsertion insertion = ((IoTDBConnection) connection).prepareBatchInsertion(
+          "root.device5", Collections.singletonList("s0"),
+          Collections.singletonList(TSDataType.INT64));
+      // a row without any value fails alone
+      insertion.addRow(1, 1L);
+      insertion.addRow(2, (Object) null);
+      insertion.addRow(3, 3L);
+      try {
+        insertion.execute();
+        fail();
+      } catch (BatchUpdateException e) {
+        assertArrayEquals(new int[]{Statement.SUCCESS_NO_INFO, Statement.EXECUTE_FAILED,
+            Statement.SUCCESS_NO_INFO}, e.getUpdateCounts());
+      }
+
+      // the buffers hold fewer rows than the size, nothing is inserted
+      ByteBuffer timestamps = ByteBuffer.allocate(16);
+      timestamps.putLong(4).putLong(5).flip();
+      ByteBuffer values = ByteBuffer.allocate(8);
+      values.putLong(4).flip();
+      TSBatchInsertionReq req = new TSBatchInsertionReq("root.device5",
+          Collections.singletonList("s0"), Collections.singletonList("INT64"), 2, timestamps,
+          Collections.singletonList(values));
+      TSExecuteBatchStatementResp resp = ((IoTDBConnection) connection).client.insertBatch(req);
+      assertEquals(TS_StatusCode.ERROR_STATUS, resp.getStatus().getStatusCode());
+      assertFalse(resp.isSetResult());
+
+      // the declared type does not match the series, nothing is inserted
+      timestamps = ByteBuffer.allocate(8);
+      timestamps.putLong(6).flip();
+      values = ByteBuffer.allocate(1);
+      values.put((byte) 1).flip();
+      req = new TSBatchInsertionReq("root.device5", Collections.singletonList("s0"),
+          Collections.singletonList("BOOLEAN"), 1, timestamps, Collections.singletonList(values));
+      resp = ((IoTDBConnection) connection).client.insertBatch(req);
+      assertEquals(TS_StatusCode.ERROR_STATUS, resp.getStatus().getStatusCode());
+      assertFalse(resp.isSetResult());
+
+      Statement queryStmt = connection.createStatement();
+      ResultSet resultSet = queryStmt.executeQuery("SELECT s0 FROM root.device5");
+      int cnt = 0;
+      while (resultSet.next()) {
+        cnt++;
+        assertEquals(resultSet.getLong(1), resultSet.getLong(2));
+      }
+      assertEquals(2, cnt);
+      resultSet.close();
+      queryStmt.close();
+    } finally {
+      connection.close();
+    }
+  }
+
   @Ignore
   @Test
   public void testPreparedInsertionPerf() throws SQLException {
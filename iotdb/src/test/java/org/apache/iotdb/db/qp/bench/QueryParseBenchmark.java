@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.qp.bench;
 
+import java.time.ZoneId;
 import org.apache.iotdb.db.exception.ArgsErrorException;
 import org.apache.iotdb.db.exception.MetadataErrorException;
 import org.apache.iotdb.db.exception.ProcessorException;
@@ -28,6 +29,7 @@ import org.apache.iotdb.db.qp.utils.MemIntQpExecutor;
 
 /**
  * SQL Parse benchmark. This class is used to get the performance of SQL Parse. It contains：Insert SQL
+ * parsed by the grammar and by {@link org.apache.iotdb.db.qp.strategy.InsertStatementParser}
  */
 public class QueryParseBenchmark {
 
@@ -38,12 +40,24 @@ public class QueryParseBenchmark {
       throws ArgsErrorException, QueryProcessorException, ProcessorException,
       MetadataErrorException {
     QueryProcessor queryProcessor = new QueryProcessor(new MemIntQpExecutor());
+    ZoneId zoneId = ZoneId.systemDefault();
     long startTime = System.currentTimeMillis();
     for (int i = 0; i < numOfBenchSQL; i++) {
-      PhysicalPlan physicalPlan = queryProcessor.parseSQLToPhysicalPlan(insertSQL);
+      PhysicalPlan physicalPlan = queryProcessor
+          .parseSQLToPhysicalPlanByGrammar(insertSQL, zoneId);
       physicalPlan.isQuery();
     }
     long endTime = System.currentTimeMillis();
-    System.out.println(String.format("The total time: %d ms", (endTime - startTime)));
+    System.out.println(String.format("The total time by the grammar: %d ms", (endTime - startTime)));
+
+    // inserts in the canonical form are parsed by InsertStatementParser
+    startTime = System.currentTimeMillis();
+    for (int i = 0; i < numOfBenchSQL; i++) {
+      PhysicalPlan physicalPlan = queryProcessor.parseSQLToPhysicalPlan(insertSQL, zoneId);
+      physicalPlan.isQuery();
+    }
+    endTime = System.currentTimeMillis();
+    System.out.println(String.format("The total time by InsertStatementParser: %d ms",
+        (endTime - startTime)));
   }
 }
@@ -29,6 +29,7 @@ import org.apache.iotdb.db.exception.qp.QueryProcessorException;
 import org.apache.iotdb.db.qp.logical.RootOperator;
 import org.apache.iotdb.db.qp.logical.crud.QueryOperator;
 import org.apache.iotdb.db.qp.logical.crud.SFWOperator;
+import org.apache.iotdb.db.qp.logical.sys.CreateContinuousQueryOperator;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.strategy.LogicalGenerator;
 import org.apache.iotdb.db.qp.strategy.optimizer.ConcatPathOptimizer;
@@ -125,6 +126,63 @@ public class LogicalPlanSmallTest {
     Assert.assertEquals(1, ((QueryOperator) operator).getSeriesOffset());
   }
 
+  @Test
+  public void testLimitOffset()
+      throws QueryProcessorException, ArgsErrorException, MetadataErrorException {
+    String sqlStr = "select * from root.vehicle.d1 where s1 < 20 and time <= now() limit 10 offset 5";
+    AstNode astTree;
+    try {
+      astTree = ParseGenerator.generateAST(sqlStr); // parse string to ASTTree
+    } catch (ParseException e) {
+      // e.printStackTrace();
+      throw new IllegalASTFormatException(
+          "parsing error,statement: " + sqlStr + " .message:" + e.getMessage());
+    }
+    AstNode astNode = ParseUtils.findRootNonNullToken(astTree);
+    RootOperator operator = generator.getLogicalPlan(astNode);
+    Assert.assertEquals(operator.getClass(), QueryOperator.class);
+    Assert.assertEquals(10, ((QueryOperator) operator).getRowLimit());
+    Assert.assertEquals(5, ((QueryOperator) operator).getRowOffset());
+  }
+
+  @Test
+  public void testOrderByTimeDesc()
+      throws QueryProcessorException, ArgsErrorException, MetadataErrorException {
+    String sqlStr = "select * from root.vehicle.d1 where time <= now() order by time desc limit 10";
+    AstNode astTree;
+    try {
+      astTree = ParseGenerator.generateAST(sqlStr); // parse string to ASTTree
+    } catch (ParseException e) {
+      // e.printStackTrace();
+      throw new IllegalASTFormatException(
+          "parsing error,statement: " + sqlStr + " .message:" + e.getMessage());
+    }
+    AstNode astNode = ParseUtils.findRootNonNullToken(astTree);
+    RootOperator operator = generator.getLogicalPlan(astNode);
+    Assert.assertEquals(operator.getClass(), QueryOperator.class);
+    Assert.assertTrue(((QueryOperator) operator).isOrderByTimeDesc());
+    Assert.assertEquals(10, ((QueryOperator) operator).getRowLimit());
+  }
+
+  @Test
+  public void testSelectLast()
+      throws QueryProcessorException, ArgsErrorException, MetadataErrorException {
+    String sqlStr = "select last s1, s2 from root.vehicle.d1";
+    AstNode astTree;
+    try {
+      astTree = ParseGenerator.generateAST(sqlStr); // parse string to ASTTree
+    } catch (ParseException e) {
+      // e.printStackTrace();
+      throw new IllegalASTFormatException(
+          "parsing error,statement: " + sqlStr + " .message:" + e.getMessage());
+    }
+    AstNode astNode = ParseUtils.findRootNonNullToken(astTree);
+    RootOperator operator = generator.getLogicalPlan(astNode);
+    Assert.assertEquals(operator.getClass(), QueryOperator.class);
+    Assert.assertTrue(((QueryOperator) operator).isLast());
+    Assert.assertEquals(2, ((QueryOperator) operator).getSelectedPaths().size());
+  }
+
   @Test(expected = LogicalOptimizeException.class)
   public void testSlimitLogicalOptimize()
       throws QueryProcessorException, ArgsErrorException, MetadataErrorException {
@@ -197,4 +255,46 @@ public class LogicalPlanSmallTest {
     // expected to throw LogicalOperatorException: LIMIT <N>: N must be a positive integer and can not be zero.
   }
 
+  @Test
+  public void testCreateContinuousQuery()
+      throws QueryProcessorException, ArgsErrorException, MetadataErrorException {
+    String sqlStr = "create continuous query cq1 select avg(s1), max_value(s2) into root.rollup "
+        + "from root.vehicle.d1 group by(5m, 0)";
+    AstNode astTree;
+    try {
+      astTree = ParseGenerator.generateAST(sqlStr); // parse string to ASTTree
+    } catch (ParseException e) {
+      throw new IllegalASTFormatException(
+          "parsing error,statement: " + sqlStr + " .message:" + e.getMessage());
+    }
+    AstNode astNode = ParseUtils.findRootNonNullToken(astTree);
+    RootOperator operator = generator.getLogicalPlan(astNode);
+    Assert.assertEquals(CreateContinuousQueryOperator.class, operator.getClass());
+    CreateContinuousQueryOperator createOperator = (CreateContinuousQueryOperator) operator;
+    Assert.assertEquals("cq1", createOperator.getName());
+    Assert.assertEquals(2, createOperator.getSelectedPaths().size());
+    Assert.assertEquals("avg", createOperator.getAggregations().get(0));
+    Assert.assertEquals("max_value", createOperator.getAggregations().get(1));
+    Assert.assertEquals(new Path("root.rollup"), createOperator.getTargetPath());
+    Assert.assertEquals(new Path("root.vehicle.d1"), createOperator.getFromPaths().get(0));
+    Assert.assertEquals(5 * 60 * 1000L, createOperator.getUnit());
+    Assert.assertEquals(0, createOperator.getOrigin());
+  }
+
+  @Test(expected = LogicalOperatorException.class)
+  public void testCreateContinuousQueryWithoutAggregation()
+      throws QueryProcessorException, ArgsErrorException, MetadataErrorException {
+    String sqlStr = "create continuous query cq1 select s1 into root.rollup "
+        + "from root.vehicle.d1 group by(5m)";
+    AstNode astTree;
+    try {
+      astTree = ParseGenerator.generateAST(sqlStr); // parse string to ASTTree
+    } catch (ParseException e) {
+      throw new IllegalASTFormatException(
+          "parsing error,statement: " + sqlStr + " .message:" + e.getMessage());
+    }
+    AstNode astNode = ParseUtils.findRootNonNullToken(astTree);
+    generator.getLogicalPlan(astNode);
+  }
+
 }
@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.qp.strategy;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.time.ZoneId;
+import org.apache.iotdb.db.exception.ArgsErrorException;
+import org.apache.iotdb.db.exception.MetadataErrorException;
+import org.apache.iotdb.db.exception.qp.QueryProcessorException;
+import org.apache.iotdb.db.qp.QueryProcessor;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.qp.utils.MemIntQpExecutor;
+import org.junit.Test;
+
+public class InsertStatementParserTest {
+
+  private QueryProcessor processor = new QueryProcessor(new MemIntQpExecutor());
+
+  @Test
+  public void testParse() {
+    InsertPlan plan = InsertStatementParser.parse("insert into root.vehicle.d_1"
+        + "(timestamp, s1, s-2, s3, s4) values(10, -1.5e3, true, 'a,b', \"c\")");
+    assertNotNull(plan);
+    assertEquals("root.vehicle.d_1", plan.getDeviceId());
+    assertEquals(10, plan.getTime());
+    assertArrayEquals(new String[]{"s1", "s-2", "s3", "s4"}, plan.getMeasurements());
+    assertArrayEquals(new String[]{"-1.5e3", "true", "'a,b'", "\"c\""}, plan.getValues());
+  }
+
+  @Test
+  public void testSameAsGrammar()
+      throws QueryProcessorException, ArgsErrorException, MetadataErrorException {
+    String[] statements = {
+        "insert into root.vehicle.d1(timestamp,s1) values(1,1)",
+        "INSERT INTO ROOT.vehicle.d1 ( TIMESTAMP , s1 , s2 ) VALUES ( 2 , +3 , FALSE )",
+        "insert\ninto\troot.vehicle.d1(timestamp, s1, s2) values (3, 1.0, 'a b')",
+        "insert into root.vehicle.d1(timestamp, s1, s2) values(4, 1.0, \"it's\")",
+        "insert into root.vehicle.d1(timestamp) values(5)",
+    };
+    for (String statement : statements) {
+      InsertPlan expected = (InsertPlan) processor
+          .parseSQLToPhysicalPlanByGrammar(statement, ZoneId.systemDefault());
+      InsertPlan plan = InsertStatementParser.parse(statement);
+      assertNotNull(statement, plan);
+      assertEquals(statement, expected, plan);
+    }
+  }
+
+  @Test
+  public void testFallback() {
+    String[] statements = {
+        "select s1 from root.vehicle.d1",
+        "insert into root.vehicle.d1(timestamp, s1) values(2017-11-01T00:08:00.000, 1)",
+        "insert into root.vehicle.d1(timestamp, s1) values(now(), 1)",
+        "insert into root.vehicle.d1(timestamp, s1) values(0, 1)",
+        "insert into root.vehicle.d1(timestamp, s1) values(-1, 1)",
+        "insert into root.vehicle.d1(timestamp, s1) values(99999999999999999999, 1)",
+        "insert into root.vehicle.d1(timestamp, s1, s2) values(1, 1)",
+        "insert into root.vehicle.d1(timestamp, s1) values(1, 1, 2)",
+        "insert into root.vehicle.d1(timestamp, s1) values(1, 'a\\'b')",
+        "insert into root.vehicle.d1(timestamp, s1) values(1, 'a''b')",
+        "insert into root.vehicle.d1(timestamp, s1) values(1, abc)",
+        "insert into root.vehicle.d1(timestamp, s1) values(1, 1.)",
+        "insert into root.vehicle.d1(timestamp, s1) values(1, 1e5)",
+        "insert into root.vehicle.d1(timestamp, value) values(1, 1)",
+        "insert into root.vehicle. d1(timestamp, s1) values(1, 1)",
+        "insert into root.vehicle.1(timestamp, s1) values(1, 1)",
+        "insert into root.vehicle.d1(timestamp, s1) values(1, 1);",
+        "insert into root.vehicle.d1(timestamp, s1) values(1, 1)(2, 2)",
+    };
+    for (String statement : statements) {
+      assertNull(statement, InsertStatementParser.parse(statement));
+    }
+  }
+}
@@ -0,0 +1,277 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.dataset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.iotdb.db.exception.QueryKilledException;
+import org.apache.iotdb.db.exception.QueryMemoryExceededException;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.context.QueryMemoryTracker;
+import org.apache.iotdb.db.query.reader.IPointReader;
+import org.apache.iotdb.db.query.reader.seriesRelated.FakedIPointReader;
+import org.apache.iotdb.db.rescon.QueryMemoryPool;
+import org.apache.iotdb.db.utils.MemUtils;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.junit.Test;
+
+public class RawQueryDataSetWithoutValueFilterTest {
+
+  @Test
+  public void testMergeSeries() throws IOException {
+    List<Path> paths = new ArrayList<>();
+    List<TSDataType> dataTypes = new ArrayList<>();
+    List<IPointReader> readers = new ArrayList<>();
+    // times of series i are i, i + 3, i + 6, ...; longer than several batches
+    int seriesNum = 3;
+    int size = 5000;
+    for (int i = 0; i < seriesNum; i++) {
+      paths.add(new Path("root.vehicle.d0.s" + i));
+      dataTypes.add(TSDataType.INT64);
+      readers.add(new FakedIPointReader(i, size, seriesNum, Integer.MAX_VALUE));
+    }
+    // a series overlapping the others
+    paths.add(new Path("root.vehicle.d0.s" + seriesNum));
+    dataTypes.add(TSDataType.INT64);
+    readers.add(new FakedIPointReader(0, size, 1, Integer.MAX_VALUE));
+    // an empty series
+    paths.add(new Path("root.vehicle.d0.s" + (seriesNum + 1)));
+    dataTypes.add(TSDataType.INT64);
+    readers.add(new FakedIPointReader(0, 0, 1, 1));
+
+    QueryContext context = new QueryContext(1);
+    QueryMemoryTracker tracker = new QueryMemoryTracker(1, "root", "", 0,
+        QueryMemoryPool.getInstance());
+    context.setMemoryTracker(tracker);
+    RawQueryDataSetWithoutValueFilter dataSet = new RawQueryDataSetWithoutValueFilter(paths,
+        dataTypes, readers, context);
+    long expectedTime = 0;
+    while (dataSet.hasNext()) {
+      RowRecord record = dataSet.next();
+      assertEquals(expectedTime, record.getTimestamp());
+      for (int i = 0; i < seriesNum; i++) {
+        if (expectedTime % seriesNum == i) {
+          assertEquals(expectedTime, record.getFields().get(i).getLongV());
+        } else {
+          assertNull(record.getFields().get(i).getDataType());
+        }
+      }
+      if (expectedTime < size) {
+        assertEquals(expectedTime, record.getFields().get(seriesNum).getLongV());
+      } else {
+        assertNull(record.getFields().get(seriesNum).getDataType());
+      }
+      assertNull(record.getFields().get(seriesNum + 1).getDataType());
+      expectedTime++;
+    }
+    assertEquals((long) size * seriesNum, expectedTime);
+    assertNull(dataSet.next());
+    // the memory of all the batches is released once they are consumed
+    assertEquals(0, tracker.getUsedMemory());
+    assertTrue(tracker.getPeakMemory() > 0);
+  }
+
+  @Test(expected = IOException.class)
+  public void testReaderFailure() throws IOException {
+    List<Path> paths = new ArrayList<>();
+    List<TSDataType> dataTypes = new ArrayList<>();
+    List<IPointReader> readers = new ArrayList<>();
+    paths.add(new Path("root.vehicle.d0.s0"));
+    dataTypes.add(TSDataType.INT64);
+    readers.add(new FakedIPointReader(0, 10, 1, 10) {
+      @Override
+      public TimeValuePair next() {
+        TimeValuePair timeValuePair = super.next();
+        if (timeValuePair.getTimestamp() == 5) {
+          throw new IllegalStateException("cannot read");
+        }
+        return timeValuePair;
+      }
+    });
+
+    // the first batch of the series fails
+    new RawQueryDataSetWithoutValueFilter(paths, dataTypes, readers, new QueryContext());
+  }
+
+  @Test
+  public void testMemoryLimit() {
+    List<Path> paths = new ArrayList<>();
+    List<TSDataType> dataTypes = new ArrayList<>();
+    List<IPointReader> readers = new ArrayList<>();
+    paths.add(new Path("root.vehicle.d0.s0"));
+    dataTypes.add(TSDataType.INT64);
+    readers.add(new FakedIPointReader(0, 5000, 1, Integer.MAX_VALUE));
+
+    QueryContext context = new QueryContext(1);
+    // smaller than a batch
+    context.setMemoryTracker(new QueryMemoryTracker(1, "root", "", 1024,
+        QueryMemoryPool.getInstance()));
+    try {
+      new RawQueryDataSetWithoutValueFilter(paths, dataTypes, readers, context);
+      fail();
+    } catch (IOException e) {
+      assertTrue(e.getCause() instanceof QueryMemoryExceededException);
+    }
+  }
+
+  @Test
+  public void testParkWithoutMemory() throws IOException {
+    List<Path> paths = new ArrayList<>();
+    List<TSDataType> dataTypes = new ArrayList<>();
+    List<IPointReader> readers = new ArrayList<>();
+    paths.add(new Path("root.vehicle.d0.s0"));
+    dataTypes.add(TSDataType.INT64);
+    int size = 10000;
+    readers.add(new FakedIPointReader(0, size, 1, Integer.MAX_VALUE));
+
+    QueryContext context = new QueryContext(1);
+    // room for two batches, so the task is parked whenever the queue holds a batch
+    long batchMemory = MemUtils.estimateBatchDataMem(TSDataType.INT64, 1024);
+    QueryMemoryTracker tracker = new QueryMemoryTracker(1, "root", "", 2 * batchMemory,
+        QueryMemoryPool.getInstance());
+    context.setMemoryTracker(tracker);
+    RawQueryDataSetWithoutValueFilter dataSet = new RawQueryDataSetWithoutValueFilter(paths,
+        dataTypes, readers, context);
+    long expectedTime = 0;
+    while (dataSet.hasNext()) {
+      assertEquals(expectedTime++, dataSet.next().getTimestamp());
+    }
+    assertEquals(size, expectedTime);
+    assertEquals(0, tracker.getUsedMemory());
+    assertTrue(tracker.getPeakMemory() <= 2 * batchMemory);
+  }
+
+  @Test
+  public void testReadAheadHeadroom() throws IOException {
+    List<Path> paths = new ArrayList<>();
+    List<TSDataType> dataTypes = new ArrayList<>();
+    List<IPointReader> readers = new ArrayList<>();
+    int size = 20000;
+    // the batches of the last two series are consumed only after the first series is read through
+    for (int i = 0; i < 3; i++) {
+      paths.add(new Path("root.vehicle.d0.s" + i));
+      dataTypes.add(TSDataType.INT64);
+      readers.add(new FakedIPointReader(i == 0 ? 0 : size, size, 1, Integer.MAX_VALUE));
+    }
+
+    QueryContext context = new QueryContext(1);
+    // room for six batches, which the last two series would use up by reading ahead
+    long batchMemory = MemUtils.estimateBatchDataMem(TSDataType.INT64, 1024);
+    QueryMemoryTracker tracker = new QueryMemoryTracker(1, "root", "", 6 * batchMemory,
+        QueryMemoryPool.getInstance());
+    context.setMemoryTracker(tracker);
+    RawQueryDataSetWithoutValueFilter dataSet = new RawQueryDataSetWithoutValueFilter(paths,
+        dataTypes, readers, context);
+    int rowCount = 0;
+    while (dataSet.hasNext()) {
+      dataSet.next();
+      rowCount++;
+    }
+    assertEquals(2 * size, rowCount);
+    assertEquals(0, tracker.getUsedMemory());
+    assertTrue(tracker.getPeakMemory() <= 6 * batchMemory);
+  }
+
+  @Test
+  public void testKilled() throws IOException {
+    List<Path> paths = new ArrayList<>();
+    List<TSDataType> dataTypes = new ArrayList<>();
+    List<IPointReader> readers = new ArrayList<>();
+    paths.add(new Path("root.vehicle.d0.s0"));
+    dataTypes.add(TSDataType.INT64);
+    readers.add(new FakedIPointReader(0, 5000, 1, Integer.MAX_VALUE));
+
+    QueryContext context = new QueryContext(1);
+    RawQueryDataSetWithoutValueFilter dataSet = new RawQueryDataSetWithoutValueFilter(paths,
+        dataTypes, readers, context);
+    assertEquals(0, dataSet.next().getTimestamp());
+    context.kill("it is canceled");
+    try {
+      // fails at the next batch
+      while (dataSet.hasNext()) {
+        dataSet.next();
+      }
+      fail();
+    } catch (QueryKilledException e) {
+      assertTrue(e.getMessage().contains("canceled"));
+    }
+  }
+
+  @Test
+  public void testClose() throws Exception {
+    List<Path> paths = new ArrayList<>();
+    List<TSDataType> dataTypes = new ArrayList<>();
+    List<IPointReader> readers = new ArrayList<>();
+    AtomicInteger readCount = new AtomicInteger();
+    for (int i = 0; i < 3; i++) {
+      paths.add(new Path("root.vehicle.d0.s" + i));
+      dataTypes.add(TSDataType.INT64);
+      readers.add(new FakedIPointReader(0, 100000, 1, Integer.MAX_VALUE) {
+        @Override
+        public TimeValuePair next() {
+          readCount.incrementAndGet();
+          return super.next();
+        }
+      });
+    }
+
+    QueryContext context = new QueryContext(1);
+    QueryMemoryTracker tracker = new QueryMemoryTracker(1, "root", "", 0,
+        QueryMemoryPool.getInstance());
+    context.setMemoryTracker(tracker);
+    RawQueryDataSetWithoutValueFilter dataSet = new RawQueryDataSetWithoutValueFilter(paths,
+        dataTypes, readers, context);
+    assertEquals(0, dataSet.next().getTimestamp());
+    // as the query ends
+    context.stopBackgroundWork();
+    assertFalse(dataSet.hasNext());
+    assertEquals(0, tracker.getUsedMemory());
+    // no task is running or submitted any more
+    int count = readCount.get();
+    Thread.sleep(100);
+    assertEquals(count, readCount.get());
+    assertTrue(count < 300000);
+  }
+
+  @Test(expected = QueryKilledException.class)
+  public void testTimeout() throws Exception {
+    List<Path> paths = new ArrayList<>();
+    List<TSDataType> dataTypes = new ArrayList<>();
+    List<IPointReader> readers = new ArrayList<>();
+    paths.add(new Path("root.vehicle.d0.s0"));
+    dataTypes.add(TSDataType.INT64);
+    readers.add(new FakedIPointReader(0, 5000, 1, Integer.MAX_VALUE));
+
+    QueryContext context = new QueryContext(1);
+    context.setTimeout(1);
+    Thread.sleep(10);
+    new RawQueryDataSetWithoutValueFilter(paths, dataTypes, readers, context);
+  }
+}
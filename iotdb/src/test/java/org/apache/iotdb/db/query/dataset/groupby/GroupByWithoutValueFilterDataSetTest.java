@@ -0,0 +1,196 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.dataset.groupby;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.metadata.MManager;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.QueryResourceManager;
+import org.apache.iotdb.db.query.executor.EngineQueryRouter;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Pair;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Compares the results of GROUP BY computed in rounds, with the series in parallel, against the
+ * results computed one interval at a time.
+ */
+public class GroupByWithoutValueFilterDataSetTest {
+
+  private static final String DEVICE = "root.test";
+  private static final int SERIES_NUM = 3;
+
+  private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private TSFileConfig tsFileConfig = TSFileDescriptor.getInstance().getConfig();
+  private int oldFetchSize;
+  private int oldConcurrentAggregationSeriesPerQuery;
+  private int oldMaxNumberOfPointsInPage;
+  private EngineQueryRouter router = new EngineQueryRouter();
+
+  @Before
+  public void setUp() throws Exception {
+    oldFetchSize = config.getFetchSize();
+    oldConcurrentAggregationSeriesPerQuery = config.getConcurrentAggregationSeriesPerQuery();
+    oldMaxNumberOfPointsInPage = tsFileConfig.maxNumberOfPointsInPage;
+    // pages of 10 points, which are split by the intervals
+    tsFileConfig.maxNumberOfPointsInPage = 10;
+    EnvironmentUtils.envSetUp();
+    MManager.getInstance().setStorageLevelToMTree(DEVICE);
+    for (int i = 0; i < SERIES_NUM; i++) {
+      MManager.getInstance().addPathToMTree(DEVICE + ".s" + i, TSDataType.INT64.toString(),
+          TSEncoding.PLAIN.toString());
+      StorageEngine.getInstance().addTimeSeries(new Path(DEVICE, "s" + i), TSDataType.INT64,
+          TSEncoding.PLAIN, CompressionType.valueOf(TSFileConfig.compressor),
+          Collections.emptyMap());
+    }
+    insertData();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    EnvironmentUtils.cleanEnv();
+    config.setFetchSize(oldFetchSize);
+    config.setConcurrentAggregationSeriesPerQuery(oldConcurrentAggregationSeriesPerQuery);
+    tsFileConfig.maxNumberOfPointsInPage = oldMaxNumberOfPointsInPage;
+  }
+
+  /**
+   * two sealed files, unsequence data of s0 and s1 in a sealed file and in memory, and sequence
+   * data in memory. s2 has no unsequence data, so the statistics of its chunks and pages are used.
+   */
+  private void insertData() throws Exception {
+    for (long time = 1; time <= 300; time++) {
+      insert(time, time, SERIES_NUM);
+    }
+    StorageEngine.getInstance().syncCloseAllProcessor();
+    for (long time = 301; time <= 600; time++) {
+      insert(time, time, SERIES_NUM);
+    }
+    StorageEngine.getInstance().syncCloseAllProcessor();
+    for (long time = 50; time <= 80; time += 3) {
+      insert(time, -time, 2);
+    }
+    StorageEngine.getInstance().syncCloseAllProcessor();
+    for (long time = 601; time <= 650; time++) {
+      insert(time, time, SERIES_NUM);
+    }
+    for (long time = 250; time <= 260; time++) {
+      insert(time, -time, 2);
+    }
+  }
+
+  /**
+   * insert a point into the first seriesNum series, the value of series i is value * (i + 1).
+   */
+  private void insert(long time, long value, int seriesNum) throws Exception {
+    TSRecord record = new TSRecord(time, DEVICE);
+    for (int i = 0; i < seriesNum; i++) {
+      record.addTuple(new LongDataPoint("s" + i, value * (i + 1)));
+    }
+    StorageEngine.getInstance().insert(new InsertPlan(record));
+  }
+
+  private List<String> groupBy(long unit, long origin, List<Pair<Long, Long>> intervals,
+      int fetchSize, int parallelism) throws Exception {
+    config.setFetchSize(fetchSize);
+    config.setConcurrentAggregationSeriesPerQuery(parallelism);
+    List<Path> paths = new ArrayList<>();
+    List<String> aggregations = Arrays.asList("count", "sum", "max_value", "min_value", "avg",
+        "count");
+    for (int i = 0; i < aggregations.size(); i++) {
+      paths.add(new Path(DEVICE, "s" + (i % SERIES_NUM)));
+    }
+    long jobId = QueryResourceManager.getInstance().assignJobId();
+    List<String> records = new ArrayList<>();
+    try {
+      QueryDataSet dataSet = router.groupBy(paths, aggregations, null, unit, origin, intervals,
+          new QueryContext(jobId));
+      while (dataSet.hasNext()) {
+        records.add(dataSet.next().toString());
+      }
+    } finally {
+      QueryResourceManager.getInstance().endQueryForGivenJob(jobId);
+    }
+    return records;
+  }
+
+  private void checkRounds(long unit, long origin, List<Pair<Long, Long>> intervals,
+      int expectedIntervalNum) throws Exception {
+    List<String> expected = groupBy(unit, origin, intervals, 1, 1);
+    assertEquals(expectedIntervalNum, expected.size());
+    // rounds that end inside a page or a chunk
+    for (int fetchSize : new int[]{2, 7, 9, expectedIntervalNum - 1}) {
+      assertEquals(expected, groupBy(unit, origin, intervals, fetchSize, 1));
+      assertEquals(expected, groupBy(unit, origin, intervals, fetchSize, SERIES_NUM));
+    }
+  }
+
+  @Test
+  public void testSmallIntervals() throws Exception {
+    // intervals of 7 split the pages of 10 points
+    checkRounds(7, 0, Collections.singletonList(new Pair<>(1L, 700L)), 101);
+  }
+
+  @Test
+  public void testLargeIntervals() throws Exception {
+    // intervals covering whole chunks, with a gap
+    checkRounds(100, 0, Arrays.asList(new Pair<>(1L, 199L), new Pair<>(250L, 699L)), 7);
+  }
+
+  @Test
+  public void testIntervalsWithOrigin() throws Exception {
+    checkRounds(13, 5, Arrays.asList(new Pair<>(40L, 90L), new Pair<>(240L, 330L),
+        new Pair<>(590L, 660L)), 19);
+  }
+
+  @Test
+  public void testCount() throws Exception {
+    List<String> records = groupBy(100, 0, Collections.singletonList(new Pair<>(1L, 699L)), 3,
+        SERIES_NUM);
+    // the count of s0 in each interval, the unsequence points overwrite the sequence ones
+    long[] expectedCounts = {99, 100, 100, 100, 100, 100, 51};
+    assertEquals(expectedCounts.length, records.size());
+    for (int i = 0; i < records.size(); i++) {
+      String[] fields = records.get(i).split("\t");
+      // the first interval starts at the start of the query
+      assertEquals(String.valueOf(i == 0 ? 1 : i * 100L), fields[0]);
+      assertEquals(String.valueOf(expectedCounts[i]), fields[1]);
+    }
+  }
+}
@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.executor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.metadata.MManager;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.QueryResourceManager;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AggregateEngineExecutorTest {
+
+  private static final String DEVICE = "root.test";
+  private static final int SERIES_NUM = 10;
+  private static final String[] AGGREGATIONS = {"count", "max_value", "min_value", "sum"};
+
+  private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private int oldConcurrentAggregationSeriesPerQuery;
+  private EngineQueryRouter router = new EngineQueryRouter();
+
+  @Before
+  public void setUp() throws Exception {
+    oldConcurrentAggregationSeriesPerQuery = config.getConcurrentAggregationSeriesPerQuery();
+    EnvironmentUtils.envSetUp();
+    MManager.getInstance().setStorageLevelToMTree(DEVICE);
+    for (int i = 0; i < SERIES_NUM; i++) {
+      MManager.getInstance().addPathToMTree(DEVICE + ".s" + i, TSDataType.INT64.toString(),
+          TSEncoding.PLAIN.toString());
+      StorageEngine.getInstance().addTimeSeries(new Path(DEVICE, "s" + i), TSDataType.INT64,
+          TSEncoding.PLAIN, CompressionType.valueOf(TSFileConfig.compressor),
+          Collections.emptyMap());
+    }
+    // the value of series i at time t is t * (i + 1), except for the unsequence points in
+    // [1, 10] whose values are -(i + 1)
+    for (long time = 1; time <= 100; time++) {
+      insert(time, time);
+    }
+    StorageEngine.getInstance().syncCloseAllProcessor();
+    for (long time = 1; time <= 10; time++) {
+      insert(time, -1);
+    }
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    EnvironmentUtils.cleanEnv();
+    config.setConcurrentAggregationSeriesPerQuery(oldConcurrentAggregationSeriesPerQuery);
+  }
+
+  private void insert(long time, long factor) throws Exception {
+    TSRecord record = new TSRecord(time, DEVICE);
+    for (int i = 0; i < SERIES_NUM; i++) {
+      record.addTuple(new LongDataPoint("s" + i, factor * (i + 1)));
+    }
+    StorageEngine.getInstance().insert(new InsertPlan(record));
+  }
+
+  /**
+   * aggregate the series in the reverse order, with the aggregations in turn.
+   */
+  private RowRecord aggregate() throws Exception {
+    List<Path> paths = new ArrayList<>();
+    List<String> aggregations = new ArrayList<>();
+    for (int i = SERIES_NUM - 1; i >= 0; i--) {
+      paths.add(new Path(DEVICE, "s" + i));
+      aggregations.add(AGGREGATIONS[i % AGGREGATIONS.length]);
+    }
+    long jobId = QueryResourceManager.getInstance().assignJobId();
+    try {
+      return router.aggregate(paths, aggregations, null, new QueryContext(jobId)).next();
+    } finally {
+      QueryResourceManager.getInstance().endQueryForGivenJob(jobId);
+    }
+  }
+
+  @Test
+  public void testParallelAggregationOrder() throws Exception {
+    config.setConcurrentAggregationSeriesPerQuery(4);
+    RowRecord parallelRecord = aggregate();
+    for (int column = 0; column < SERIES_NUM; column++) {
+      int series = SERIES_NUM - 1 - column;
+      String expected;
+      switch (AGGREGATIONS[series % AGGREGATIONS.length]) {
+        case "count":
+          expected = "100";
+          break;
+        case "max_value":
+          expected = String.valueOf(100L * (series + 1));
+          break;
+        case "min_value":
+          expected = String.valueOf(-(series + 1L));
+          break;
+        default:
+          // 11 + ... + 100 - 10
+          expected = String.valueOf(4985.0 * (series + 1));
+          break;
+      }
+      assertEquals(expected, parallelRecord.getFields().get(column).getStringValue());
+    }
+
+    config.setConcurrentAggregationSeriesPerQuery(1);
+    assertEquals(aggregate().toString(), parallelRecord.toString());
+  }
+}
@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.seriesRelated;
+
+import org.apache.iotdb.db.query.reader.IAggregateReader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+
+/**
+ * This is a test utility class, which reads chunks of the same number of pages, each page holds
+ * pageSize points with consecutive timestamps and the value of a point is its timestamp.
+ */
+public class FakedIAggregateReader implements IAggregateReader {
+
+  private long startTime;
+  private int chunkNum;
+  private int pageNum;
+  private int pageSize;
+
+  private int chunkIndex = 0;
+  private int pageIndex = 0;
+
+  public FakedIAggregateReader(long startTime, int chunkNum, int pageNum, int pageSize) {
+    this.startTime = startTime;
+    this.chunkNum = chunkNum;
+    this.pageNum = pageNum;
+    this.pageSize = pageSize;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return chunkIndex < chunkNum;
+  }
+
+  @Override
+  public BatchData nextBatch() {
+    BatchData batchData = new BatchData(TSDataType.INT64, true);
+    long pageStartTime = pageStartTime();
+    for (long time = pageStartTime; time < pageStartTime + pageSize; time++) {
+      batchData.putTime(time);
+      batchData.putLong(time);
+    }
+    nextPage();
+    return batchData;
+  }
+
+  @Override
+  public PageHeader nextPageHeader() {
+    long pageStartTime = pageStartTime();
+    return new PageHeader(0, 0, pageSize, null, pageStartTime + pageSize - 1, pageStartTime);
+  }
+
+  @Override
+  public void skipPageData() {
+    nextPage();
+  }
+
+  @Override
+  public ChunkMetaData nextChunkMetaData() {
+    if (chunkIndex >= chunkNum || pageIndex != 0) {
+      return null;
+    }
+    long chunkStartTime = startTime + (long) chunkIndex * pageNum * pageSize;
+    ChunkMetaData chunkMetaData = new ChunkMetaData("s", TSDataType.INT64, 0, chunkStartTime,
+        chunkStartTime + pageNum * pageSize - 1);
+    chunkMetaData.setNumOfPoints((long) pageNum * pageSize);
+    return chunkMetaData;
+  }
+
+  @Override
+  public void skipChunkData() {
+    chunkIndex++;
+    pageIndex = 0;
+  }
+
+  private long pageStartTime() {
+    return startTime + ((long) chunkIndex * pageNum + pageIndex) * pageSize;
+  }
+
+  private void nextPage() {
+    pageIndex++;
+    if (pageIndex == pageNum) {
+      skipChunkData();
+    }
+  }
+
+  @Override
+  public void close() {
+
+  }
+}
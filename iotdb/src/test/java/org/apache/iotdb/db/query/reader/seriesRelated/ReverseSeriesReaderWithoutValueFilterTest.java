@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.seriesRelated;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.iotdb.db.query.reader.IPointReader;
+import org.apache.iotdb.db.query.reader.universal.ReversePointReader;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReverseSeriesReaderWithoutValueFilterTest {
+
+  @Test
+  public void testReverseOfForward() throws IOException {
+    SeriesReaderWithoutValueFilter forwardReader = new SeriesReaderWithoutValueFilter(
+        new FakedIBatchPoint(100, 1000, 7, 11, true), new FakedIPointReader(20, 500, 11, 19));
+    List<TimeValuePair> expected = new ArrayList<>();
+    while (forwardReader.hasNext()) {
+      expected.add(forwardReader.next());
+    }
+    Collections.reverse(expected);
+
+    ReverseSeriesReaderWithoutValueFilter reverseReader = new ReverseSeriesReaderWithoutValueFilter(
+        new ReversePointReader(new FakedIBatchPoint(100, 1000, 7, 11, true)),
+        new ReverseListReader(new FakedIPointReader(20, 500, 11, 19)));
+    int cnt = 0;
+    while (reverseReader.hasNext()) {
+      TimeValuePair timeValuePair = reverseReader.next();
+      Assert.assertEquals(expected.get(cnt).getTimestamp(), timeValuePair.getTimestamp());
+      Assert.assertEquals(expected.get(cnt).getValue(), timeValuePair.getValue());
+      cnt++;
+    }
+    Assert.assertEquals(1430, cnt);
+  }
+
+  /**
+   * returns the points of a reader from the newest to the oldest.
+   */
+  private static class ReverseListReader implements IPointReader {
+
+    private List<TimeValuePair> points = new ArrayList<>();
+    private int index;
+
+    private ReverseListReader(IPointReader reader) throws IOException {
+      while (reader.hasNext()) {
+        points.add(reader.next());
+      }
+      index = points.size() - 1;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return index >= 0;
+    }
+
+    @Override
+    public TimeValuePair next() {
+      return points.get(index--);
+    }
+
+    @Override
+    public TimeValuePair current() {
+      return points.get(index);
+    }
+
+    @Override
+    public void close() {
+      // nothing to close
+    }
+  }
+}
@@ -23,6 +23,7 @@ import java.io.IOException;
 import org.apache.iotdb.db.query.reader.IBatchReader;
 import org.apache.iotdb.db.query.reader.IPointReader;
 import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.filter.ValueFilter;
 import org.junit.Assert;
 import org.junit.Test;
@@ -58,4 +59,25 @@ public class SeriesReaderWithValueFilterTest {
     Assert.assertEquals(375, cnt);
   }
 
+  @Test
+  public void testBatch() throws IOException {
+    init();
+    int cnt = 0;
+    long startTime = 100;
+    // the first point is read by hasNext() and must be the head of the first batch
+    Assert.assertTrue(reader.hasNext());
+    BatchData batchData;
+    while ((batchData = reader.nextBatch()) != null) {
+      Assert.assertTrue(batchData.length() > 0);
+      while (batchData.hasNext()) {
+        Assert.assertEquals(startTime, batchData.currentTime());
+        Assert.assertEquals(0L, batchData.getLong());
+        startTime += cnt < 125 ? 20 : 10;
+        batchData.next();
+        cnt++;
+      }
+    }
+    Assert.assertEquals(375, cnt);
+  }
+
 }
@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.seriesRelated;
+
+import java.io.IOException;
+import org.apache.iotdb.db.query.reader.IBatchReader;
+import org.apache.iotdb.db.query.reader.IPointReader;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+
+/**
+ * Series reader benchmark. This class compares reading a series point by point with
+ * {@link SeriesReaderWithoutValueFilter#next()} to reading it batch by batch with
+ * {@link SeriesReaderWithoutValueFilter#nextBatch()}, for sequence data whose range does not
+ * overlap the unsequence data and for sequence data overlapped by unsequence data every
+ * {@link #unseqInterval} points.
+ */
+public class SeriesReaderWithoutValueFilterBenchmark {
+
+  private static int numOfPoints = 10000000;
+  private static int pageSize = 1000;
+  private static int unseqInterval = 100;
+  private static int numOfRounds = 10;
+
+  public static void main(String[] args) throws IOException {
+    int numOfUnseqPoints = numOfPoints / unseqInterval;
+    for (int round = 0; round < numOfRounds; round++) {
+      // the unsequence data follows the sequence data
+      long[] pointResult = readByPoint(new SeriesReaderWithoutValueFilter(
+          new PageReader(0, numOfPoints),
+          new FakedIPointReader(numOfPoints, numOfUnseqPoints, 1, 10)));
+      long[] batchResult = readByBatch(new SeriesReaderWithoutValueFilter(
+          new PageReader(0, numOfPoints),
+          new FakedIPointReader(numOfPoints, numOfUnseqPoints, 1, 10)));
+      System.out.println(String.format(
+          "Round %d non-overlapping: next() %d ms (%d points), nextBatch() %d ms (%d points)",
+          round, pointResult[0], pointResult[1], batchResult[0], batchResult[1]));
+
+      // the unsequence data overwrites every unseqInterval-th point of the sequence data
+      pointResult = readByPoint(new SeriesReaderWithoutValueFilter(
+          new PageReader(0, numOfPoints),
+          new FakedIPointReader(0, numOfUnseqPoints, unseqInterval, 10)));
+      batchResult = readByBatch(new SeriesReaderWithoutValueFilter(
+          new PageReader(0, numOfPoints),
+          new FakedIPointReader(0, numOfUnseqPoints, unseqInterval, 10)));
+      System.out.println(String.format(
+          "Round %d overlapping: next() %d ms (%d points), nextBatch() %d ms (%d points)",
+          round, pointResult[0], pointResult[1], batchResult[0], batchResult[1]));
+    }
+  }
+
+  /**
+   * @return the time in ms and the number of points read
+   */
+  private static long[] readByPoint(SeriesReaderWithoutValueFilter reader) throws IOException {
+    long startTime = System.nanoTime();
+    long count = 0;
+    long sum = 0;
+    while (reader.hasNext()) {
+      TimeValuePair timeValuePair = reader.next();
+      sum += timeValuePair.getValue().getLong();
+      count++;
+    }
+    long time = (System.nanoTime() - startTime) / 1000000;
+    reader.close();
+    // keep the values from being optimized away
+    return new long[]{time, count, sum};
+  }
+
+  /**
+   * @return the time in ms and the number of points read
+   */
+  private static long[] readByBatch(SeriesReaderWithoutValueFilter reader) throws IOException {
+    long startTime = System.nanoTime();
+    long count = 0;
+    long sum = 0;
+    while (reader.hasNext()) {
+      BatchData batchData = reader.nextBatch();
+      while (batchData.hasNext()) {
+        sum += batchData.getLong();
+        count++;
+        batchData.next();
+      }
+    }
+    long time = (System.nanoTime() - startTime) / 1000000;
+    reader.close();
+    return new long[]{time, count, sum};
+  }
+
+  /**
+   * returns pages of pageSize consecutive points, as the pages of a chunk in a sealed file.
+   */
+  private static class PageReader implements IBatchReader {
+
+    private long nextTime;
+    private long endTime;
+
+    private PageReader(long startTime, int size) {
+      this.nextTime = startTime;
+      this.endTime = startTime + size;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return nextTime < endTime;
+    }
+
+    @Override
+    public BatchData nextBatch() {
+      BatchData batchData = new BatchData(TSDataType.INT64, true);
+      for (int i = 0; i < pageSize && nextTime < endTime; i++) {
+        batchData.putTime(nextTime);
+        batchData.putLong(nextTime % 7);
+        nextTime++;
+      }
+      return batchData;
+    }
+
+    @Override
+    public void close() {
+
+    }
+  }
+}
@@ -23,6 +23,7 @@ import java.io.IOException;
 import org.apache.iotdb.db.query.reader.IBatchReader;
 import org.apache.iotdb.db.query.reader.IPointReader;
 import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -64,6 +65,85 @@ public class SeriesReaderWithoutValueFilterTest {
     Assert.assertEquals(1430, cnt);
   }
 
+  @Test
+  public void testNextBatch() throws IOException {
+    // overlapping, sequence only and unsequence only ranges
+    SeriesReaderWithoutValueFilter pointReader = new SeriesReaderWithoutValueFilter(
+        new FakedIBatchPoint(100, 1000, 7, 11, true), new FakedIPointReader(20, 500, 11, 19));
+    SeriesReaderWithoutValueFilter batchReader = new SeriesReaderWithoutValueFilter(
+        new FakedIBatchPoint(100, 1000, 7, 11, true), new FakedIPointReader(20, 500, 11, 19));
+
+    int cnt = 0;
+    while (batchReader.hasNext()) {
+      BatchData batchData = batchReader.nextBatch();
+      Assert.assertTrue(batchData.hasNext());
+      while (batchData.hasNext()) {
+        Assert.assertTrue(pointReader.hasNext());
+        TimeValuePair timeValuePair = pointReader.next();
+        Assert.assertEquals(timeValuePair.getTimestamp(), batchData.currentTime());
+        Assert.assertEquals(timeValuePair.getValue().getLong(), batchData.getLong());
+        batchData.next();
+        cnt++;
+      }
+    }
+    Assert.assertFalse(pointReader.hasNext());
+    Assert.assertEquals(1430, cnt);
+
+    // points and batches read alternately
+    SeriesReaderWithoutValueFilter mixedReader = new SeriesReaderWithoutValueFilter(
+        new FakedIBatchPoint(100, 1000, 7, 11), new FakedIPointReader(20, 500, 11, 19));
+    cnt = 0;
+    long lastTime = Long.MIN_VALUE;
+    while (mixedReader.hasNext()) {
+      if (cnt % 2 == 0) {
+        TimeValuePair timeValuePair = mixedReader.next();
+        Assert.assertTrue(timeValuePair.getTimestamp() > lastTime);
+        lastTime = timeValuePair.getTimestamp();
+        cnt++;
+      } else {
+        BatchData batchData = mixedReader.nextBatch();
+        while (batchData.hasNext()) {
+          Assert.assertTrue(batchData.currentTime() > lastTime);
+          lastTime = batchData.currentTime();
+          batchData.next();
+          cnt++;
+        }
+      }
+    }
+    Assert.assertEquals(1430, cnt);
+  }
+
+  @Test
+  public void testSkip() throws IOException {
+    // the unsequence points before the sequence data, 3 chunks and 1 page are skipped as a whole
+    SeriesReaderWithoutValueFilter reader = new SeriesReaderWithoutValueFilter(
+        new FakedIAggregateReader(100, 10, 5, 20), new FakedIPointReader(0, 10, 1, 19));
+    Assert.assertEquals(330, reader.skip(335));
+    Assert.assertEquals(680, countRest(reader, 420));
+
+    // the page overlapped by unsequence data is not skipped
+    reader = new SeriesReaderWithoutValueFilter(new FakedIAggregateReader(0, 10, 5, 20),
+        new FakedIPointReader(550, 10, 1, 19));
+    Assert.assertEquals(540, reader.skip(730));
+    Assert.assertEquals(460, countRest(reader, 540));
+
+    // batch readers without meta data skip nothing
+    reader = new SeriesReaderWithoutValueFilter(new FakedIBatchPoint(100, 1000, 7, 11), null);
+    Assert.assertEquals(0, reader.skip(100));
+  }
+
+  private int countRest(SeriesReaderWithoutValueFilter reader, long firstTime)
+      throws IOException {
+    int cnt = 0;
+    long expectedTime = firstTime;
+    while (reader.hasNext()) {
+      TimeValuePair timeValuePair = reader.next();
+      Assert.assertEquals(expectedTime++, timeValuePair.getTimestamp());
+      cnt++;
+    }
+    return cnt;
+  }
+
   private void testWithNullPointReader() throws IOException {
     int cnt = 0;
     while (reader2.hasNext()) {
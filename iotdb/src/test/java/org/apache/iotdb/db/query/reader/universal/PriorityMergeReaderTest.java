@@ -51,6 +51,24 @@ public class PriorityMergeReaderTest {
         new long[]{4, 6});
   }
 
+  @Test
+  public void testReverse() throws IOException {
+    PriorityMergeReader priorityMergeReader = new PriorityMergeReader(true);
+    priorityMergeReader.addReaderWithPriority(new FakedSeriesReader(new long[]{6, 5, 3, 1}, 1), 1);
+    priorityMergeReader.addReaderWithPriority(new FakedSeriesReader(new long[]{5, 4, 3, 2}, 2), 2);
+
+    long[] retTimestamp = new long[]{6, 5, 4, 3, 2, 1};
+    long[] retValue = new long[]{1, 2, 2, 2, 2, 1};
+    int i = 0;
+    while (priorityMergeReader.hasNext()) {
+      TimeValuePair timeValuePair = priorityMergeReader.next();
+      Assert.assertEquals(retTimestamp[i], timeValuePair.getTimestamp());
+      Assert.assertEquals(retValue[i], timeValuePair.getValue().getValue());
+      i++;
+    }
+    Assert.assertEquals(retTimestamp.length, i);
+  }
+
   private void test(long[] retTimestamp, long[] retValue, long[]... sources) throws IOException {
     PriorityMergeReader priorityMergeReader = new PriorityMergeReader();
     for (int i = 0; i < sources.length; i++) {
@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.universal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.apache.iotdb.db.query.reader.IBatchReader;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReversePointReaderTest {
+
+  @Test
+  public void testChunksInReverseOrder() throws IOException {
+    // three chunks from the newest to the oldest, each of which has ascending pages
+    List<BatchData> batches = new ArrayList<>();
+    batches.add(page(200, 210));
+    batches.add(page(210, 300));
+    batches.add(page(300, 300));
+    batches.add(page(100, 150));
+    batches.add(page(150, 200));
+    batches.add(page(0, 100));
+    ReversePointReader reader = new ReversePointReader(new ListBatchReader(batches));
+
+    long expectedTime = 299;
+    while (reader.hasNext()) {
+      Assert.assertEquals(expectedTime, reader.current().getTimestamp());
+      TimeValuePair timeValuePair = reader.next();
+      Assert.assertEquals(expectedTime, timeValuePair.getTimestamp());
+      Assert.assertEquals(expectedTime * 10, timeValuePair.getValue().getLong());
+      expectedTime--;
+    }
+    Assert.assertEquals(-1, expectedTime);
+    Assert.assertNull(reader.next());
+    reader.close();
+  }
+
+  @Test
+  public void testEmpty() throws IOException {
+    List<BatchData> batches = new ArrayList<>();
+    batches.add(page(0, 0));
+    ReversePointReader reader = new ReversePointReader(new ListBatchReader(batches));
+    Assert.assertFalse(reader.hasNext());
+    reader.close();
+  }
+
+  /**
+   * a page of the points in [startTime, endTime).
+   */
+  private BatchData page(long startTime, long endTime) {
+    BatchData batchData = new BatchData(TSDataType.INT64, true);
+    for (long time = startTime; time < endTime; time++) {
+      batchData.putTime(time);
+      batchData.putLong(time * 10);
+    }
+    return batchData;
+  }
+
+  private static class ListBatchReader implements IBatchReader {
+
+    private Iterator<BatchData> iterator;
+
+    private ListBatchReader(List<BatchData> batches) {
+      this.iterator = batches.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return iterator.hasNext();
+    }
+
+    @Override
+    public BatchData nextBatch() {
+      return iterator.next();
+    }
+
+    @Override
+    public void close() {
+      // nothing to close
+    }
+  }
+}
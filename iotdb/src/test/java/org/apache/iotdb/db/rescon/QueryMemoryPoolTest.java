@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.rescon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.iotdb.db.exception.QueryMemoryExceededException;
+import org.apache.iotdb.db.query.context.QueryMemoryTracker;
+import org.junit.Test;
+
+public class QueryMemoryPoolTest {
+
+  @Test
+  public void testWaitForMemory() throws Exception {
+    QueryMemoryPool pool = new QueryMemoryPool(100, 10000);
+    QueryMemoryTracker tracker1 = new QueryMemoryTracker(1, "root", "select s0", 0, pool);
+    QueryMemoryTracker tracker2 = new QueryMemoryTracker(2, "root", "select s1", 0, pool);
+    tracker1.reserve(80);
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> future = executor.submit(() -> tracker2.reserve(50));
+      Thread.sleep(100);
+      assertEquals(80, pool.getUsedMemory());
+      tracker1.release(80);
+      future.get();
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(50, pool.getUsedMemory());
+    assertEquals(50, tracker2.getUsedMemory());
+    assertEquals(80, tracker1.getPeakMemory());
+  }
+
+  @Test
+  public void testRejectAfterWaiting() {
+    QueryMemoryPool pool = new QueryMemoryPool(100, 50);
+    QueryMemoryTracker tracker1 = new QueryMemoryTracker(1, "root", "select s0", 0, pool);
+    QueryMemoryTracker tracker2 = new QueryMemoryTracker(2, "root", "select s1", 0, pool);
+    tracker1.reserve(80);
+    try {
+      tracker2.reserve(50);
+      fail();
+    } catch (QueryMemoryExceededException e) {
+      assertEquals(1, pool.getRejectedNum());
+    }
+    assertEquals(0, tracker2.getUsedMemory());
+
+    // larger than the pool, rejected at once
+    try {
+      tracker2.reserve(101);
+      fail();
+    } catch (QueryMemoryExceededException e) {
+      assertEquals(2, pool.getRejectedNum());
+    }
+    assertEquals(80, pool.getUsedMemory());
+  }
+
+  @Test
+  public void testTryReserve() {
+    QueryMemoryPool pool = new QueryMemoryPool(100, 10000);
+    QueryMemoryTracker tracker1 = new QueryMemoryTracker(1, "root", "select s0", 0, pool);
+    QueryMemoryTracker tracker2 = new QueryMemoryTracker(2, "root", "select s1", 30, pool);
+    assertTrue(tracker1.tryReserve(80));
+    // neither waits nor counts as a rejection
+    assertFalse(tracker2.tryReserve(30));
+    assertEquals(0, pool.getRejectedNum());
+    assertTrue(tracker2.tryReserve(20));
+    // over the limit of the query
+    tracker1.release(80);
+    assertFalse(tracker2.tryReserve(20));
+    assertEquals(20, pool.getUsedMemory());
+    assertEquals(20, tracker2.getUsedMemory());
+  }
+
+  @Test
+  public void testTryReserveWithHeadroom() {
+    QueryMemoryPool pool = new QueryMemoryPool(100, 10000);
+    QueryMemoryTracker tracker1 = new QueryMemoryTracker(1, "root", "select s0", 50, pool);
+    QueryMemoryTracker tracker2 = new QueryMemoryTracker(2, "root", "select s1", 0, pool);
+    // the headroom under the limit of the query
+    assertFalse(tracker1.tryReserve(30, 30));
+    assertTrue(tracker1.tryReserve(30, 20));
+    // the headroom in the pool
+    assertFalse(tracker2.tryReserve(50, 30));
+    assertTrue(tracker2.tryReserve(50, 20));
+    assertEquals(80, pool.getUsedMemory());
+    // the headroom is not reserved
+    assertTrue(tracker1.tryReserve(20));
+  }
+
+  @Test
+  public void testQueryLimit() {
+    QueryMemoryPool pool = new QueryMemoryPool(0, 0);
+    QueryMemoryTracker tracker = new QueryMemoryTracker(1, "user1", "select s0", 100, pool);
+    tracker.reserve(60);
+    try {
+      tracker.reserve(60);
+      fail();
+    } catch (QueryMemoryExceededException e) {
+      assertTrue(e.getMessage().contains("user1"));
+    }
+    tracker.reserveResultBuffer(30);
+    tracker.reserveResultBuffer(40);
+    assertEquals(100, tracker.getUsedMemory());
+    assertEquals(100, pool.getUsedMemory());
+  }
+
+  @Test
+  public void testReleaseWhenQueryEnds() {
+    QueryMemoryPool pool = new QueryMemoryPool(100, 0);
+    QueryMemoryTracker tracker = pool.register(1, "root", "select s0");
+    tracker.reserve(60);
+    assertEquals(1, pool.getTrackers().size());
+
+    pool.unregister(1);
+    assertEquals(0, pool.getUsedMemory());
+    assertTrue(pool.getTrackers().isEmpty());
+    // buffers filled after the query ends are not tracked
+    tracker.reserve(60);
+    tracker.release(60);
+    assertEquals(0, pool.getUsedMemory());
+  }
+}
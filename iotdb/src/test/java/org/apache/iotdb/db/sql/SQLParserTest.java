@@ -854,7 +854,8 @@ public class SQLParserTest {
             "vehicle",
             "TOK_WHERE", "and", "not", "<", "TOK_PATH", "TOK_ROOT", "laptop", "device_1",
             "sensor_1", "2000", ">",
-            "TOK_PATH", "TOK_ROOT", "laptop", "device_2", "sensor_2", "1000", "TOK_LIMIT", "10"));
+            "TOK_PATH", "TOK_ROOT", "laptop", "device_2", "sensor_2", "1000", "TOK_LIMIT", "10",
+            "TOK_OFFSET", "2"));
     ArrayList<String> rec = new ArrayList<>();
     AstNode astTree = ParseGenerator.generateAST(
         "SELECT device_1.sensor_1,device_2.sensor_2 FROM root.vehicle WHERE not(root.laptop.device_1.sensor_1 < 2000) "
@@ -952,7 +953,8 @@ public class SQLParserTest {
             "&&", "<",
             "TOK_PATH", "TOK_ROOT", "laptop", "device_1", "sensor_1", "-2.2E10", ">", "TOK_PATH",
             "time",
-            "TOK_DATETIME", "now", "TOK_LIMIT", "100", "TOK_SLIMIT", "10", "TOK_SOFFSET", "3"));
+            "TOK_DATETIME", "now", "TOK_LIMIT", "100", "TOK_OFFSET", "1",
+            "TOK_SLIMIT", "10", "TOK_SOFFSET", "3"));
     ArrayList<String> rec = new ArrayList<>();
     AstNode astTree = ParseGenerator.generateAST("SELECT device_1.*,device_2.* FROM root.vehicle "
         + "WHERE root.laptop.device_1.sensor_1 < -2.2E10 && time > now() LIMIT 100 OFFSET 1 SLIMIT 10 SOFFSET 3");
@@ -986,7 +988,7 @@ public class SQLParserTest {
             "TOK_TIMEUNIT",
             "10", "w", "TOK_TIMEORIGIN", "44", "TOK_TIMEINTERVAL", "TOK_TIMEINTERVALPAIR", "1", "3",
             "TOK_TIMEINTERVALPAIR", "4", "5", "TOK_SLIMIT", "1", "TOK_SOFFSET", "1", "TOK_LIMIT",
-            "11"));
+            "11", "TOK_OFFSET", "3"));
     ArrayList<String> rec = new ArrayList<>();
     AstNode astTree = ParseGenerator
         .generateAST("select count(s1),max_time(s2) " + "from root.vehicle.* "
@@ -0,0 +1,169 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.jdbc;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.List;
+import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+/**
+ * The rows of a TSQueryDataSet in the columnar format. The values are decoded from the buffers
+ * only when they are read, so no object is created for the values that are not read.
+ */
+class ColumnarBatch {
+
+  private static final Charset CHARSET = Charset.forName(TSFileConfig.STRING_ENCODING);
+
+  private final ByteBuffer time;
+  private final TSDataType[] dataTypes;
+  private final ByteBuffer[] values;
+  private final ByteBuffer[] bitmaps;
+  private final int rowCount;
+
+  /**
+   * the current row, -1 before the first one.
+   */
+  private int rowIndex = -1;
+  /**
+   * offset of the value of the current row in each column, or of the next value if the current
+   * row has no value in the column.
+   */
+  private final int[] valueOffsets;
+
+  ColumnarBatch(TSQueryDataSet tsQueryDataSet) {
+    // slices so that the offsets start from 0 however thrift wraps the received bytes
+    time = tsQueryDataSet.bufferForTime().slice();
+    rowCount = time.remaining() / 8;
+    List<String> typeList = tsQueryDataSet.getTypeList();
+    int columnCount = typeList.size();
+    dataTypes = new TSDataType[columnCount];
+    values = new ByteBuffer[columnCount];
+    bitmaps = new ByteBuffer[columnCount];
+    valueOffsets = new int[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      dataTypes[i] = TSDataType.valueOf(typeList.get(i));
+      values[i] = tsQueryDataSet.getValueList().get(i).slice();
+      bitmaps[i] = tsQueryDataSet.getBitmapList().get(i).slice();
+    }
+  }
+
+  boolean hasNext() {
+    return rowIndex + 1 < rowCount;
+  }
+
+  void next() {
+    if (rowIndex >= 0) {
+      for (int i = 0; i < valueOffsets.length; i++) {
+        if (hasValue(i)) {
+          valueOffsets[i] += getValueSize(i);
+        }
+      }
+    }
+    rowIndex++;
+  }
+
+  long getTimestamp() {
+    return time.getLong(rowIndex * 8);
+  }
+
+  TSDataType getDataType(int column) {
+    return dataTypes[column];
+  }
+
+  /**
+   * @return whether the current row has a value in the column
+   */
+  boolean hasValue(int column) {
+    return (bitmaps[column].get(rowIndex >>> 3) & (1 << (rowIndex & 7))) != 0;
+  }
+
+  boolean getBoolean(int column) {
+    return values[column].get(valueOffsets[column]) != 0;
+  }
+
+  int getInt(int column) {
+    return values[column].getInt(valueOffsets[column]);
+  }
+
+  long getLong(int column) {
+    return values[column].getLong(valueOffsets[column]);
+  }
+
+  float getFloat(int column) {
+    return values[column].getFloat(valueOffsets[column]);
+  }
+
+  double getDouble(int column) {
+    return values[column].getDouble(valueOffsets[column]);
+  }
+
+  /**
+   * @return the value of the current row in the column as a string, or null if there is none
+   */
+  String getString(int column) {
+    if (!hasValue(column)) {
+      return null;
+    }
+    switch (dataTypes[column]) {
+      case BOOLEAN:
+        return String.valueOf(getBoolean(column));
+      case INT32:
+        return String.valueOf(getInt(column));
+      case INT64:
+        return String.valueOf(getLong(column));
+      case FLOAT:
+        return String.valueOf(getFloat(column));
+      case DOUBLE:
+        return String.valueOf(getDouble(column));
+      case TEXT:
+        ByteBuffer buffer = values[column].duplicate();
+        buffer.position(valueOffsets[column]);
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, CHARSET);
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("data type %s is not supported when convert data at client",
+                dataTypes[column]));
+    }
+  }
+
+  private int getValueSize(int column) {
+    switch (dataTypes[column]) {
+      case BOOLEAN:
+        return 1;
+      case INT32:
+      case FLOAT:
+        return 4;
+      case INT64:
+      case DOUBLE:
+        return 8;
+      case TEXT:
+        return 4 + values[column].getInt(valueOffsets[column]);
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("data type %s is not supported when convert data at client",
+                dataTypes[column]));
+    }
+  }
+}
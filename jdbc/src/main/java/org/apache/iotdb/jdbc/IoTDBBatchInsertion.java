@@ -0,0 +1,260 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.jdbc;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.service.rpc.thrift.TSBatchInsertionReq;
+import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementResp;
+import org.apache.iotdb.service.rpc.thrift.TSIService;
+import org.apache.iotdb.service.rpc.thrift.TS_StatusCode;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.thrift.TException;
+
+/**
+ * Insert rows of a device without SQL. The rows are buffered by {@link #addRow(long, Object...)}
+ * and sent column by column in one request by {@link #execute()}, so the server neither parses
+ * statements nor converts each value from its text form in SQL. It is created by {@link
+ * IoTDBConnection#prepareBatchInsertion(String, List, List)}, e.g.,
+ * <pre>
+ *   IoTDBBatchInsertion insertion = connection.prepareBatchInsertion("root.ln.wf01.wt01",
+ *       Arrays.asList("status", "temperature"), Arrays.asList(TSDataType.BOOLEAN, TSDataType.FLOAT));
+ *   insertion.addRow(1509465600000L, true, 25.96f);
+ *   insertion.addRow(1509465660000L, null, 24.36f);
+ *   int[] result = insertion.execute();
+ * </pre>
+ */
+public class IoTDBBatchInsertion {
+
+  private static final Charset CHARSET = Charset.forName(TSFileConfig.STRING_ENCODING);
+
+  private final TSIService.Iface client;
+  private final String deviceId;
+  private final List<String> measurements;
+  private final List<TSDataType> dataTypes;
+
+  private List<Long> times = new ArrayList<>();
+  /**
+   * the values of each measurement, null if a row has no value. A TEXT value is kept encoded.
+   */
+  private List<List<Object>> columns = new ArrayList<>();
+
+  IoTDBBatchInsertion(TSIService.Iface client, String deviceId, List<String> measurements,
+      List<TSDataType> dataTypes) throws SQLException {
+    if (measurements.size() != dataTypes.size()) {
+      throw new IoTDBSQLException(String.format(
+          "The number of measurements %d and the number of data types %d do not match",
+          measurements.size(), dataTypes.size()));
+    }
+    this.client = client;
+    this.deviceId = deviceId;
+    this.measurements = new ArrayList<>(measurements);
+    this.dataTypes = new ArrayList<>(dataTypes);
+    for (int i = 0; i < measurements.size(); i++) {
+      columns.add(new ArrayList<>());
+    }
+  }
+
+  /**
+   * add a row to the batch.
+   *
+   * @param time timestamp of the row
+   * @param values values of the measurements in their order, a null value means the row has no
+   * value of the measurement. A value must be a Boolean, Integer, Long, Float, Double or String
+   * according to the data type of its measurement.
+   */
+  public void addRow(long time, Object... values) throws SQLException {
+    if (values.length != measurements.size()) {
+      throw new IoTDBSQLException(String.format("A row of %s should have %d values but %d given",
+          deviceId, measurements.size(), values.length));
+    }
+    for (int i = 0; i < values.length; i++) {
+      checkType(i, values[i]);
+    }
+    times.add(time);
+    for (int i = 0; i < values.length; i++) {
+      Object value = values[i];
+      if (value instanceof String) {
+        value = ((String) value).getBytes(CHARSET);
+      }
+      columns.get(i).add(value);
+    }
+  }
+
+  private void checkType(int index, Object value) throws SQLException {
+    if (value == null) {
+      return;
+    }
+    TSDataType dataType = dataTypes.get(index);
+    boolean matched;
+    switch (dataType) {
+      case BOOLEAN:
+        matched = value instanceof Boolean;
+        break;
+      case INT32:
+        matched = value instanceof Integer;
+        break;
+      case INT64:
+        matched = value instanceof Long;
+        break;
+      case FLOAT:
+        matched = value instanceof Float;
+        break;
+      case DOUBLE:
+        matched = value instanceof Double;
+        break;
+      case TEXT:
+        matched = value instanceof String;
+        break;
+      default:
+        matched = false;
+    }
+    if (!matched) {
+      throw new IoTDBSQLException(String.format("%s of type %s cannot be inserted into %s.%s",
+          value.getClass().getSimpleName(), dataType, deviceId, measurements.get(index)));
+    }
+  }
+
+  public int getRowCount() {
+    return times.size();
+  }
+
+  /**
+   * send the rows added since the last execution to the server and remove them from the batch once
+   * the server responds. If the request cannot be sent, the rows stay in the batch.
+   *
+   * @return Statement.SUCCESS_NO_INFO or Statement.EXECUTE_FAILED for each row
+   * @throws BatchUpdateException if any row fails, which carries the result of each row if it is
+   * returned by the server
+   */
+  public int[] execute() throws SQLException {
+    if (times.isEmpty()) {
+      return new int[0];
+    }
+    TSBatchInsertionReq req = toRequest();
+    TSExecuteBatchStatementResp resp;
+    try {
+      resp = client.insertBatch(req);
+    } catch (TException e) {
+      // the rows are kept so that the caller can retry
+      throw new SQLException("Fail to insert a batch into " + deviceId, e);
+    }
+    clear();
+    int[] result = new int[resp.isSetResult() ? resp.getResult().size() : 0];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = resp.getResult().get(i);
+    }
+    if (resp.getStatus().getStatusCode() != TS_StatusCode.SUCCESS_STATUS) {
+      throw new BatchUpdateException(resp.getStatus().getErrorMessage(), result);
+    }
+    return result;
+  }
+
+  /**
+   * remove the rows that have not been executed.
+   */
+  public void clear() {
+    times = new ArrayList<>();
+    for (int i = 0; i < columns.size(); i++) {
+      columns.set(i, new ArrayList<>());
+    }
+  }
+
+  TSBatchInsertionReq toRequest() {
+    int rowCount = times.size();
+    ByteBuffer timestamps = ByteBuffer.allocate(rowCount * 8);
+    for (long time : times) {
+      timestamps.putLong(time);
+    }
+    timestamps.flip();
+
+    List<ByteBuffer> values = new ArrayList<>(columns.size());
+    List<ByteBuffer> bitmaps = new ArrayList<>(columns.size());
+    boolean hasNull = false;
+    for (List<Object> column : columns) {
+      int size = 0;
+      for (Object value : column) {
+        size += getValueSize(value);
+      }
+      ByteBuffer valueBuffer = ByteBuffer.allocate(size);
+      byte[] bitmap = new byte[(rowCount + 7) / 8];
+      for (int row = 0; row < rowCount; row++) {
+        Object value = column.get(row);
+        if (value == null) {
+          hasNull = true;
+          continue;
+        }
+        bitmap[row / 8] |= 1 << (row % 8);
+        putValue(valueBuffer, value);
+      }
+      valueBuffer.flip();
+      values.add(valueBuffer);
+      bitmaps.add(ByteBuffer.wrap(bitmap));
+    }
+
+    List<String> typeNames = new ArrayList<>(dataTypes.size());
+    for (TSDataType dataType : dataTypes) {
+      typeNames.add(dataType.toString());
+    }
+    TSBatchInsertionReq req = new TSBatchInsertionReq(deviceId, measurements, typeNames,
+        rowCount, timestamps, values);
+    // without nulls, the bitmaps are left out
+    if (hasNull) {
+      req.setBitmaps(bitmaps);
+    }
+    return req;
+  }
+
+  private static int getValueSize(Object value) {
+    if (value == null) {
+      return 0;
+    } else if (value instanceof Boolean) {
+      return 1;
+    } else if (value instanceof Integer || value instanceof Float) {
+      return 4;
+    } else if (value instanceof Long || value instanceof Double) {
+      return 8;
+    } else {
+      return 4 + ((byte[]) value).length;
+    }
+  }
+
+  private static void putValue(ByteBuffer buffer, Object value) {
+    if (value instanceof Boolean) {
+      buffer.put((byte) ((Boolean) value ? 1 : 0));
+    } else if (value instanceof Integer) {
+      buffer.putInt((Integer) value);
+    } else if (value instanceof Long) {
+      buffer.putLong((Long) value);
+    } else if (value instanceof Float) {
+      buffer.putFloat((Float) value);
+    } else if (value instanceof Double) {
+      buffer.putDouble((Double) value);
+    } else {
+      byte[] bytes = (byte[]) value;
+      buffer.putInt(bytes.length);
+      buffer.put(bytes);
+    }
+  }
+}
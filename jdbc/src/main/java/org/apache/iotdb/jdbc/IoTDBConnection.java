@@ -55,6 +55,7 @@ import org.apache.iotdb.service.rpc.thrift.TSProtocolVersion;
 import org.apache.iotdb.service.rpc.thrift.TSSetTimeZoneReq;
 import org.apache.iotdb.service.rpc.thrift.TSSetTimeZoneResp;
 import org.apache.iotdb.service.rpc.thrift.TS_SessionHandle;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.transport.TSocket;
@@ -346,6 +347,18 @@ public class IoTDBConnection implements Connection {
     return new IoTDBPreparedStatement(this, client, sessionHandle, sql, zoneId);
   }
 
+  /**
+   * create a batch insertion that inserts rows of the device without SQL.
+   *
+   * @param deviceId the device to insert into
+   * @param measurements the measurements of the inserted values
+   * @param dataTypes the data types of the measurements
+   */
+  public IoTDBBatchInsertion prepareBatchInsertion(String deviceId, List<String> measurements,
+      List<TSDataType> dataTypes) throws SQLException {
+    return new IoTDBBatchInsertion(client, deviceId, measurements, dataTypes);
+  }
+
   @Override
   public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
     throw new SQLException("Method not supported");
@@ -40,7 +40,6 @@ import java.sql.Statement;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -53,6 +52,7 @@ import org.apache.iotdb.service.rpc.thrift.TSFetchResultsResp;
 import org.apache.iotdb.service.rpc.thrift.TSIService;
 import org.apache.iotdb.service.rpc.thrift.TSOperationHandle;
 import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Field;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.thrift.TException;
@@ -63,8 +63,6 @@ public class IoTDBQueryResultSet implements ResultSet {
   private static final org.slf4j.Logger logger = LoggerFactory.getLogger(IoTDBQueryResultSet.class);
   private static final String METHOD_NOT_SUPPORTED = "Method not supported";
   private final String TIMESTAMP_STR = "Time";
-  private static final String limitStr = "LIMIT";
-  private static final String offsetStr = "OFFSET";
   private Statement statement = null;
   private String sql;
   private SQLWarning warningChain = null;
@@ -77,31 +75,16 @@ public class IoTDBQueryResultSet implements ResultSet {
   private Map<String, Integer> columnInfoMap;
   private RowRecord record;
   private Iterator<RowRecord> recordItr;
+  // the fetched rows if they are in the columnar format, in which case record is null
+  private ColumnarBatch batch;
   private int rowsFetched = 0;
   private int maxRows; // defined in TsfileStatement
   private int fetchSize;
   private boolean emptyResultSet = false;
   private String operationType;
-  // 0 means it is not constrained in sql
-  private int rowsLimit = 0;
-  // 0 means it is not constrained in sql, or the offset position has been reached
-  private int rowsOffset = 0;
   private long queryId;
   private boolean ignoreTimeStamp = false;
 
-  /*
-   * Combine maxRows and the LIMIT constraints. maxRowsOrRowsLimit = 0 means that neither maxRows
-   * nor LIMIT is constrained. maxRowsOrRowsLimit > 0 means that maxRows and/or
-   * LIMIT are constrained.
-   * 1) When neither maxRows nor LIMIT is constrained, i.e., maxRows=0 and rowsLimit=0,
-   * maxRowsOrRowsLimit = 0 2). When both maxRows and LIMIT are constrained, i.e., maxRows>0 and
-   * rowsLimit>0, maxRowsOrRowsLimit = min(maxRows, rowsLimit) 3) When maxRows is constrained and
-   * LIMIT is NOT constrained, i.e., maxRows>0 and rowsLimit=0, maxRowsOrRowsLimit = maxRows
-   * 4) When maxRows is NOT constrained and LIMIT is constrained, i.e., maxRows=0 and
-   * rowsLimit>0, maxRowsOrRowsLimit = rowsLimit
-   */
-  private int maxRowsOrRowsLimit;
-
   public IoTDBQueryResultSet() {
     // do nothing
   }
@@ -131,36 +114,6 @@ public class IoTDBQueryResultSet implements ResultSet {
         columnInfoMap.put(name, index++);
       }
     }
-
-    maxRowsOrRowsLimit = maxRows;
-
-    // parse the LIMIT&OFFSET parameters from sql
-    String[] splited = sql.toUpperCase().split("\\s+");
-    List<String> arraySplited = Arrays.asList(splited);
-    try {
-      int posLimit = arraySplited.indexOf(limitStr);
-      if (posLimit != -1) {
-        rowsLimit = Integer.parseInt(splited[posLimit + 1]);
-
-        // NOTE that maxRows=0 in TsfileStatement means it is not constrained
-        // NOTE that LIMIT <N>: N is ensured to be a positive integer by the server side
-        if (maxRows == 0) {
-          maxRowsOrRowsLimit = rowsLimit;
-        } else {
-          maxRowsOrRowsLimit = (rowsLimit < maxRows) ? rowsLimit : maxRows;
-        }
-
-        // check if OFFSET is constrained after LIMIT has been constrained
-        int posOffset = arraySplited.indexOf(offsetStr);
-        if (posOffset != -1) {
-          // NOTE that OFFSET <OFFSETValue>: OFFSETValue is ensured to be a non-negative
-          // integer by the server side
-          rowsOffset = Integer.parseInt(splited[posOffset + 1]);
-        }
-      }
-    } catch (NumberFormatException e) {
-      throw new IoTDBSQLException("Out of range: LIMIT&SLIMIT parameter should be Int32.");
-    }
   }
 
   @Override
@@ -307,6 +260,10 @@ public class IoTDBQueryResultSet implements ResultSet {
 
   @Override
   public boolean getBoolean(String columnName) throws SQLException {
+    int column = getColumnInBatch(columnName, TSDataType.BOOLEAN);
+    if (column >= 0) {
+      return batch.getBoolean(column);
+    }
     String b = getValueByName(columnName);
     if (b == null) {
       throw new SQLException(
@@ -402,6 +359,10 @@ public class IoTDBQueryResultSet implements ResultSet {
 
   @Override
   public double getDouble(String columnName) throws SQLException {
+    int column = getColumnInBatch(columnName, TSDataType.DOUBLE);
+    if (column >= 0) {
+      return batch.getDouble(column);
+    }
     return Double.parseDouble(getValueByName(columnName));
   }
 
@@ -432,6 +393,10 @@ public class IoTDBQueryResultSet implements ResultSet {
 
   @Override
   public float getFloat(String columnName) throws SQLException {
+    int column = getColumnInBatch(columnName, TSDataType.FLOAT);
+    if (column >= 0) {
+      return batch.getFloat(column);
+    }
     return Float.parseFloat(getValueByName(columnName));
   }
 
@@ -447,6 +412,10 @@ public class IoTDBQueryResultSet implements ResultSet {
 
   @Override
   public int getInt(String columnName) throws SQLException {
+    int column = getColumnInBatch(columnName, TSDataType.INT32);
+    if (column >= 0) {
+      return batch.getInt(column);
+    }
     return Integer.parseInt(getValueByName(columnName));
   }
 
@@ -457,6 +426,10 @@ public class IoTDBQueryResultSet implements ResultSet {
 
   @Override
   public long getLong(String columnName) throws SQLException {
+    int column = getColumnInBatch(columnName, TSDataType.INT64);
+    if (column >= 0) {
+      return batch.getLong(column);
+    }
     return Long.parseLong(getValueByName(columnName));
   }
 
@@ -702,8 +675,9 @@ public class IoTDBQueryResultSet implements ResultSet {
 
   // the next record rule without constraints
   private boolean nextWithoutConstraints() throws SQLException {
-    if ((recordItr == null || !recordItr.hasNext()) && !emptyResultSet) {
+    if (!hasFetchedRow() && !emptyResultSet) {
       TSFetchResultsReq req = new TSFetchResultsReq(sql, fetchSize, queryId);
+      req.setColumnar(true);
 
       try {
         TSFetchResultsResp resp = client.fetchResults(req);
@@ -712,8 +686,15 @@ public class IoTDBQueryResultSet implements ResultSet {
           emptyResultSet = true;
         } else {
           TSQueryDataSet tsQueryDataSet = resp.getQueryDataSet();
-          List<RowRecord> records = Utils.convertRowRecords(tsQueryDataSet);
-          recordItr = records.iterator();
+          // a server that does not know the columnar format returns the rows in records
+          if (tsQueryDataSet.isSetTime()) {
+            batch = new ColumnarBatch(tsQueryDataSet);
+            recordItr = null;
+          } else {
+            batch = null;
+            List<RowRecord> records = Utils.convertRowRecords(tsQueryDataSet);
+            recordItr = records.iterator();
+          }
         }
       } catch (TException e) {
         throw new SQLException(
@@ -725,41 +706,33 @@ public class IoTDBQueryResultSet implements ResultSet {
       return false;
     }
 
-    record = recordItr.next();
+    if (batch != null) {
+      batch.next();
+    } else {
+      record = recordItr.next();
+    }
     return true;
   }
 
+  private boolean hasFetchedRow() {
+    if (batch != null) {
+      return batch.hasNext();
+    }
+    return recordItr != null && recordItr.hasNext();
+  }
+
   @Override
-  // the next record rule considering both the maxRows constraint and the LIMIT&OFFSET constraint
+  // LIMIT and OFFSET are applied by the server, only the maxRows constraint is left here
   public boolean next() throws SQLException {
-    if (maxRowsOrRowsLimit > 0 && rowsFetched >= maxRowsOrRowsLimit) {
-      // The constraint of maxRows instead of rowsLimit is embodied
-      if (rowsLimit == 0 || (maxRows > 0 && maxRows < rowsLimit)) {
-        logger.debug("Reach max rows " + maxRows);
-      }
+    if (maxRows > 0 && rowsFetched >= maxRows) {
+      logger.debug("Reach max rows " + maxRows);
       return false;
     }
 
-    // When rowsOffset is constrained and the offset position has NOT been reached
-    if (rowsOffset != 0) {
-      for (int i = 0; i < rowsOffset; i++) { // Try to move to the offset position
-        if (!nextWithoutConstraints()) {
-          return false; // No next record, i.e, fail to move to the offset position
-        }
-      }
-      rowsOffset = 0; // The offset position has been reached
-    }
-
     boolean isNext = nextWithoutConstraints();
-
     if (isNext) {
-      /*
-       * Note that 'rowsFetched' is not increased in the nextWithoutConstraints(),
-       * because 'rowsFetched' should not count the rows fetched before the OFFSET position.
-       */
       rowsFetched++;
     }
-
     return isNext;
   }
 
@@ -1215,7 +1188,7 @@ public class IoTDBQueryResultSet implements ResultSet {
   }
 
   private void checkRecord() throws SQLException {
-    if (record == null) {
+    if (record == null && batch == null) {
       throw new SQLException("No record remains");
     }
   }
@@ -1231,12 +1204,32 @@ public class IoTDBQueryResultSet implements ResultSet {
     return columnInfoList.get(columnIndex - 1);
   }
 
+  /**
+   * @return the index of the column in the columnar batch if the current row is in it and has a
+   * value of the given type in the column, which is read without converting it to a string,
+   * otherwise -1
+   */
+  private int getColumnInBatch(String columnName, TSDataType dataType) {
+    Integer index = columnInfoMap.get(columnName);
+    if (batch == null || index == null || columnName.equals(TIMESTAMP_STR)) {
+      return -1;
+    }
+    int column = index - 2;
+    if (batch.getDataType(column) != dataType || !batch.hasValue(column)) {
+      return -1;
+    }
+    return column;
+  }
+
   private String getValueByName(String columnName) throws SQLException {
     checkRecord();
     if (columnName.equals(TIMESTAMP_STR)) {
-      return String.valueOf(record.getTimestamp());
+      return String.valueOf(batch != null ? batch.getTimestamp() : record.getTimestamp());
     }
     int tmp = columnInfoMap.get(columnName);
+    if (batch != null) {
+      return batch.getString(tmp - 2);
+    }
     int i = 0;
     for (Field field : record.getFields()) {
       i++;
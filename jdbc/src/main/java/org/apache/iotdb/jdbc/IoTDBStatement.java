@@ -55,7 +55,10 @@ public class IoTDBStatement implements Statement {
   private ResultSet resultSet = null;
   private IoTDBConnection connection;
   private int fetchSize;
-  private int queryTimeout = 10;
+  /**
+   * time limit of a query in seconds, 0 if the query is only limited by the server.
+   */
+  private int queryTimeout = 0;
   protected TSIService.Iface client;
   private TS_SessionHandle sessionHandle;
   private TSOperationHandle operationHandle = null;
@@ -132,6 +135,10 @@ public class IoTDBStatement implements Statement {
     try {
       if (operationHandle != null) {
         TSCancelOperationReq closeReq = new TSCancelOperationReq(operationHandle);
+        if (queryId.get() > 0) {
+          // cancel the last query of this statement
+          closeReq.setQueryId(queryId.get() - 1);
+        }
         TSCancelOperationResp closeResp = client.cancelOperation(closeReq);
         Utils.verifySuccess(closeResp.getStatus());
       }
@@ -245,7 +252,7 @@ public class IoTDBStatement implements Statement {
       resultSet = databaseMetaData.getColumns(Constant.CATALOG_STORAGE_GROUP, null, null, null);
       return true;
     } else {
-      TSExecuteStatementReq execReq = new TSExecuteStatementReq(sessionHandle, sql);
+      TSExecuteStatementReq execReq = createExecuteStatementReq(sql);
       TSExecuteStatementResp execResp = client.executeStatement(execReq);
       operationHandle = execResp.getOperationHandle();
       Utils.verifySuccess(execResp.getStatus());
@@ -345,7 +352,7 @@ public class IoTDBStatement implements Statement {
 
   private ResultSet executeQuerySQL(String sql) throws TException, SQLException {
     isCancelled = false;
-    TSExecuteStatementReq execReq = new TSExecuteStatementReq(sessionHandle, sql);
+    TSExecuteStatementReq execReq = createExecuteStatementReq(sql);
     TSExecuteStatementResp execResp = client.executeQueryStatement(execReq);
     operationHandle = execResp.getOperationHandle();
     Utils.verifySuccess(execResp.getStatus());
@@ -397,6 +404,14 @@ public class IoTDBStatement implements Statement {
     throw new SQLException(METHOD_NOT_SUPPORTED_STRING);
   }
 
+  private TSExecuteStatementReq createExecuteStatementReq(String sql) {
+    TSExecuteStatementReq execReq = new TSExecuteStatementReq(sessionHandle, sql);
+    if (queryTimeout > 0) {
+      execReq.setTimeout(queryTimeout * 1000L);
+    }
+    return execReq;
+  }
+
   private int executeUpdateSQL(String sql) throws TException, IoTDBSQLException {
     TSExecuteStatementReq execReq = new TSExecuteStatementReq(sessionHandle, sql);
     TSExecuteStatementResp execResp = client.executeUpdateStatement(execReq);
@@ -487,7 +502,7 @@ public class IoTDBStatement implements Statement {
   @Override
   public void setQueryTimeout(int seconds) throws SQLException {
     checkConnection("setQueryTimeout");
-    if (seconds <= 0) {
+    if (seconds < 0) {
       throw new SQLException(String.format("queryTimeout %d must be >= 0!", seconds));
     }
     this.queryTimeout = seconds;
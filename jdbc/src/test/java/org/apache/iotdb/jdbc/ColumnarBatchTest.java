@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.junit.Test;
+
+public class ColumnarBatchTest {
+
+  /**
+   * three rows: (1, 10, "a"), (2, null, "bc"), (3, 30, null)
+   */
+  private TSQueryDataSet createDataSet() {
+    ByteBuffer time = ByteBuffer.allocate(3 * 8);
+    time.putLong(1).putLong(2).putLong(3);
+    time.flip();
+
+    ByteBuffer longValues = ByteBuffer.allocate(2 * 8);
+    longValues.putLong(10).putLong(30);
+    longValues.flip();
+
+    byte[] a = "a".getBytes(StandardCharsets.UTF_8);
+    byte[] bc = "bc".getBytes(StandardCharsets.UTF_8);
+    ByteBuffer textValues = ByteBuffer.allocate(4 + a.length + 4 + bc.length);
+    textValues.putInt(a.length).put(a).putInt(bc.length).put(bc);
+    textValues.flip();
+
+    TSQueryDataSet tsQueryDataSet = new TSQueryDataSet(new ArrayList<>());
+    tsQueryDataSet.setTime(time);
+    tsQueryDataSet.setTypeList(Arrays.asList(TSDataType.INT64.toString(),
+        TSDataType.TEXT.toString()));
+    tsQueryDataSet.setValueList(Arrays.asList(longValues, textValues));
+    tsQueryDataSet.setBitmapList(Arrays.asList(ByteBuffer.wrap(new byte[]{0b101}),
+        ByteBuffer.wrap(new byte[]{0b011})));
+    return tsQueryDataSet;
+  }
+
+  @Test
+  public void testRead() {
+    ColumnarBatch batch = new ColumnarBatch(createDataSet());
+
+    assertTrue(batch.hasNext());
+    batch.next();
+    assertEquals(1, batch.getTimestamp());
+    assertEquals(TSDataType.INT64, batch.getDataType(0));
+    assertTrue(batch.hasValue(0));
+    assertEquals(10, batch.getLong(0));
+    assertEquals("a", batch.getString(1));
+
+    batch.next();
+    assertEquals(2, batch.getTimestamp());
+    assertFalse(batch.hasValue(0));
+    assertNull(batch.getString(0));
+    assertEquals("bc", batch.getString(1));
+
+    batch.next();
+    assertEquals(3, batch.getTimestamp());
+    assertEquals("30", batch.getString(0));
+    assertFalse(batch.hasValue(1));
+    assertNull(batch.getString(1));
+    assertFalse(batch.hasNext());
+  }
+
+  @Test
+  public void testSkipUnreadValues() {
+    ColumnarBatch batch = new ColumnarBatch(createDataSet());
+    // the values are not read until the last row
+    batch.next();
+    batch.next();
+    batch.next();
+    assertEquals(30, batch.getLong(0));
+  }
+}
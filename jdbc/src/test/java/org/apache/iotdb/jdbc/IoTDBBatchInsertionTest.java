@@ -0,0 +1,136 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.jdbc;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import org.apache.iotdb.service.rpc.thrift.TSBatchInsertionReq;
+import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementResp;
+import org.apache.iotdb.service.rpc.thrift.TSIService;
+import org.apache.iotdb.service.rpc.thrift.TS_Status;
+import org.apache.iotdb.service.rpc.thrift.TS_StatusCode;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.thrift.TException;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class IoTDBBatchInsertionTest {
+
+  @Mock
+  private TSIService.Iface client;
+
+  private IoTDBBatchInsertion insertion;
+
+  @Before
+  public void setUp() throws Exception {
+    MockitoAnnotations.initMocks(this);
+    insertion = new IoTDBBatchInsertion(client, "root.sg.d1",
+        Arrays.asList("s1", "s2", "s3"),
+        Arrays.asList(TSDataType.INT32, TSDataType.DOUBLE, TSDataType.TEXT));
+  }
+
+  @Test
+  public void testToRequest() throws SQLException {
+    insertion.addRow(1, 1, 1.5, "a");
+    insertion.addRow(2, null, 2.5, null);
+    insertion.addRow(3, 3, 3.5, "ccc");
+    TSBatchInsertionReq req = insertion.toRequest();
+
+    assertEquals("root.sg.d1", req.getDeviceId());
+    assertEquals(Arrays.asList("INT32", "DOUBLE", "TEXT"), req.getTypes());
+    assertEquals(3, req.getSize());
+    ByteBuffer timestamps = req.bufferForTimestamps();
+    for (long time = 1; time <= 3; time++) {
+      assertEquals(time, timestamps.getLong());
+    }
+
+    ByteBuffer s1 = req.getValues().get(0);
+    assertEquals(8, s1.remaining());
+    assertEquals(1, s1.getInt());
+    assertEquals(3, s1.getInt());
+    ByteBuffer s2 = req.getValues().get(1);
+    assertEquals(24, s2.remaining());
+    ByteBuffer s3 = req.getValues().get(2);
+    assertEquals(1, s3.getInt());
+    assertEquals('a', s3.get());
+    assertEquals(3, s3.getInt());
+
+    assertTrue(req.isSetBitmaps());
+    assertEquals(0b101, req.getBitmaps().get(0).get(0));
+    assertEquals(0b111, req.getBitmaps().get(1).get(0));
+    assertEquals(0b101, req.getBitmaps().get(2).get(0));
+  }
+
+  @Test
+  public void testNoNull() throws SQLException {
+    insertion.addRow(1, 1, 1.5, "a");
+    assertFalse(insertion.toRequest().isSetBitmaps());
+  }
+
+  @Test(expected = SQLException.class)
+  public void testWrongType() throws SQLException {
+    insertion.addRow(1, 1L, 1.5, "a");
+  }
+
+  @Test
+  public void testExecute() throws SQLException, TException {
+    TSExecuteBatchStatementResp resp = new TSExecuteBatchStatementResp(
+        new TS_Status(TS_StatusCode.ERROR_STATUS));
+    resp.setResult(Arrays.asList(Statement.SUCCESS_NO_INFO, Statement.EXECUTE_FAILED));
+    when(client.insertBatch(any(TSBatchInsertionReq.class))).thenReturn(resp);
+
+    insertion.addRow(1, 1, 1.5, "a");
+    insertion.addRow(2, 2, 2.5, "b");
+    try {
+      insertion.execute();
+      fail();
+    } catch (BatchUpdateException e) {
+      assertArrayEquals(new int[]{Statement.SUCCESS_NO_INFO, Statement.EXECUTE_FAILED},
+          e.getUpdateCounts());
+    }
+    // the executed rows are removed even if some of them fail
+    assertEquals(0, insertion.getRowCount());
+    assertEquals(0, insertion.execute().length);
+  }
+
+  @Test
+  public void testKeepRowsOnFailure() throws SQLException, TException {
+    when(client.insertBatch(any(TSBatchInsertionReq.class))).thenThrow(new TException());
+    insertion.addRow(1, 1, 1.5, "a");
+    try {
+      insertion.execute();
+      fail();
+    } catch (SQLException e) {
+      assertEquals(1, insertion.getRowCount());
+    }
+  }
+}
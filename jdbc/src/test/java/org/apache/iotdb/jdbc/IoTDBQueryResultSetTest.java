@@ -223,10 +223,8 @@ public class IoTDBQueryResultSetTest {
   private TSQueryDataSet FakedFirstFetchResult() {
     TSQueryDataSet tsQueryDataSet = new TSQueryDataSet(new ArrayList<>());
     final int DATA_TYPE_NUM = 3;
+    // the first row is skipped by the server because of 'offset 1'
     Object[][] input = {
-        {1L, "root.vehicle.d0.s2", TSDataType.FLOAT, null, "root.vehicle.d0.s1", TSDataType.INT64,
-            1101L,
-            "root.vehicle.d0.s0", TSDataType.INT32, null,},
         {2L, "root.vehicle.d0.s2", TSDataType.FLOAT, 2.22F, "root.vehicle.d0.s1", TSDataType.INT64,
             40000L,
             "root.vehicle.d0.s0", TSDataType.INT32, null,},
@@ -131,6 +131,9 @@ struct TSExecuteStatementReq {
 
   // The statement to be executed (DML, DDL, SET, etc)
   2: required string statement
+
+  // The time limit of a query in ms. The global limit is used if it is not set or not positive.
+  3: optional i64 timeout
 }
 
 
@@ -164,6 +167,9 @@ struct TSGetOperationStatusResp {
 struct TSCancelOperationReq {
   // Operation to cancel
   1: required TSOperationHandle operationHandle
+
+  // The query to cancel. All the queries of the session are canceled if it is not set.
+  2: optional i64 queryId
 }
 
 struct TSCancelOperationResp {
@@ -199,14 +205,26 @@ struct TSRowRecord{
   2: required list<TSDataValue> values
 }
 
+// the fetched rows, either in records, or in the columnar format if asked by TSFetchResultsReq,
+// in which case records is empty
 struct TSQueryDataSet{
 	1: required list<TSRowRecord> records
+	// the timestamps of the rows, 8 bytes each
+	2: optional binary time
+	// the data type of each column
+	3: optional list<string> typeList
+	// the non-null values of each column, an int length precedes the bytes of each TEXT value
+	4: optional list<binary> valueList
+	// a bitmap of each column, bit (i % 8) of byte (i / 8) is set if row i has a value
+	5: optional list<binary> bitmapList
 }
 
 struct TSFetchResultsReq{
 	1: required string statement
 	2: required i32 fetch_size
 	3: required i64 queryId
+	// whether to return the rows in the columnar format of TSQueryDataSet
+	4: optional bool columnar
 }
 
 struct TSFetchResultsResp{
@@ -257,6 +275,27 @@ struct TSInsertionReq {
     5: required i64 stmtId
 }
 
+// insertBatch()
+//
+// Insert rows of one device without parsing SQL. The rows are sent column by column, the
+// result of the response tells whether each row is inserted.
+struct TSBatchInsertionReq {
+    1: required string deviceId
+    2: required list<string> measurements
+    // the name of the data type of each measurement, e.g., "INT32"
+    3: required list<string> types
+    // the number of rows
+    4: required i32 size
+    // the timestamps of the rows, an i64 each
+    5: required binary timestamps
+    // one buffer for each measurement which packs its non-null values in the order of the rows,
+    // a TEXT value is prefixed by its length in byte as an i32
+    6: required list<binary> values
+    // one bitmap for each measurement, bit (i % 8) of byte (i / 8) is set if row i has a value.
+    // Every row has all the values if it is not set.
+    7: optional list<binary> bitmaps
+}
+
 struct ServerProperties {
 	1: required string version;
 	2: required list<string> supportedTimeAggregationOperations;
@@ -291,5 +330,7 @@ service TSIService {
 
 	TSExecuteStatementResp executeInsertion(1:TSInsertionReq req);
 
+	TSExecuteBatchStatementResp insertBatch(1:TSBatchInsertionReq req);
+
 	i64 requestStatementId();
 	}
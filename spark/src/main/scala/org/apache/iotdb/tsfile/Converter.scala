@@ -70,12 +70,13 @@ object Converter {
     * Get series from the given tsFileMetaData.
     *
     * @param tsFileMetaData TsFileMetaData
+    * @param reader         reader of the file, which reads the pages of a paged device index
     * @return union series
     */
-  def getSeries(tsFileMetaData: TsFileMetaData): util.ArrayList[Series] = {
+  def getSeries(tsFileMetaData: TsFileMetaData, reader: TsFileSequenceReader): util.ArrayList[Series] = {
     val series = new util.ArrayList[Series]()
 
-    val devices = tsFileMetaData.getDeviceMap.keySet()
+    val devices = reader.readDeviceMetadataIndexMap(tsFileMetaData).keySet()
     val measurements = tsFileMetaData.getMeasurementSchema
 
     devices.foreach(d => {
@@ -105,7 +106,7 @@ object Converter {
       val in = new HDFSInput(f.getPath, conf)
       val reader = new TsFileSequenceReader(in)
       val tsFileMetaData = reader.readFileMetadata
-      val devices = tsFileMetaData.getDeviceMap.keySet()
+      val devices = reader.readDeviceMetadataIndexMap(tsFileMetaData).keySet()
       val measurements = tsFileMetaData.getMeasurementSchema
 
       devices.foreach(d => {
@@ -198,22 +199,24 @@ object Converter {
     *
     * @param requiredSchema requiredSchema
     * @param tsFileMetaData tsFileMetaData
+    * @param reader         reader of the file, which reads the pages of a paged device index
     * @return
     */
-  def prepSchema(requiredSchema: StructType, tsFileMetaData: TsFileMetaData): StructType = {
+  def prepSchema(requiredSchema: StructType, tsFileMetaData: TsFileMetaData,
+                 reader: TsFileSequenceReader): StructType = {
     var queriedSchema: StructType = new StructType()
 
     if (requiredSchema.isEmpty
       || (requiredSchema.size == 1 && requiredSchema.iterator.next().name == QueryConstant.RESERVED_TIME)) {
       // for example, (i) select count(*) from table; (ii) select time from table
 
-      val fileSchema = Converter.getSeries(tsFileMetaData)
+      val fileSchema = Converter.getSeries(tsFileMetaData, reader)
       queriedSchema = StructType(toSqlField(fileSchema, false).toList)
 
     } else { // Remove nonexistent schema according to the current file's metadata.
       // This may happen when queried TsFiles in the same folder do not have the same schema.
 
-      val devices = tsFileMetaData.getDeviceMap.keySet()
+      val devices = reader.readDeviceMetadataIndexMap(tsFileMetaData).keySet()
       val measurementIds = tsFileMetaData.getMeasurementSchema.keySet()
       requiredSchema.foreach(f => {
         if (!QueryConstant.RESERVED_TIME.equals(f.name)) {
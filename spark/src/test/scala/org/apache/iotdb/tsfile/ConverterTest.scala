@@ -25,6 +25,7 @@ import java.util
 import org.apache.hadoop.conf.Configuration
 import org.apache.hadoop.fs.{FileStatus, FileSystem, Path}
 import org.apache.iotdb.tool.TsFileWrite
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig
 import org.apache.iotdb.tsfile.common.constant.QueryConstant
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType
 import org.apache.iotdb.tsfile.io.HDFSInput
@@ -39,10 +40,13 @@ import org.apache.spark.sql.types._
 import org.junit.Assert
 import org.scalatest.{BeforeAndAfterAll, FunSuite}
 
+import scala.collection.JavaConversions._
+
 class ConverterTest extends FunSuite with BeforeAndAfterAll {
   private val tsfileFolder = "../spark/src/test/resources/ConverterTest"
   private val tsfilePath1: String = tsfileFolder + "/test_1.tsfile"
   private val tsfilePath2: String = tsfileFolder + "/test_2.tsfile"
+  private val pagedTsfilePath: String = tsfileFolder + "/test_paged.tsfile"
   private var spark: SparkSession = _
   private var conf: Configuration = _
 
@@ -55,6 +59,14 @@ class ConverterTest extends FunSuite with BeforeAndAfterAll {
     tsfile_folder.mkdirs()
     new TsFileWrite().create1(tsfilePath1)
     new TsFileWrite().create2(tsfilePath2)
+    // one device in each page of the device index
+    val prevMaxNumberOfDevicesInIndexPage = TSFileConfig.maxNumberOfDevicesInIndexPage
+    TSFileConfig.maxNumberOfDevicesInIndexPage = 1
+    try {
+      new TsFileWrite().create1(pagedTsfilePath)
+    } finally {
+      TSFileConfig.maxNumberOfDevicesInIndexPage = prevMaxNumberOfDevicesInIndexPage
+    }
     spark = SparkSession
       .builder()
       .config("spark.master", "local")
@@ -87,7 +99,7 @@ class ConverterTest extends FunSuite with BeforeAndAfterAll {
     val reader: TsFileSequenceReader = new TsFileSequenceReader(in)
     val tsFileMetaData = reader.readFileMetadata
 
-    val series = Converter.getSeries(tsFileMetaData)
+    val series = Converter.getSeries(tsFileMetaData, reader)
 
     Assert.assertEquals(6, series.size())
     Assert.assertEquals("[device_1.sensor_3,INT32]", series.get(0).toString)
@@ -100,6 +112,29 @@ class ConverterTest extends FunSuite with BeforeAndAfterAll {
     in.close()
   }
 
+  test("getSeries with a paged device index") {
+    val in = new HDFSInput(new Path(new URI(pagedTsfilePath)), conf)
+    val reader: TsFileSequenceReader = new TsFileSequenceReader(in)
+    val tsFileMetaData = reader.readFileMetadata
+    Assert.assertTrue(tsFileMetaData.isDeviceIndexPaged)
+
+    val series = Converter.getSeries(tsFileMetaData, reader)
+
+    Assert.assertEquals(6, series.size())
+    val seriesNames = series.map(_.getName).toSet
+    Assert.assertTrue(seriesNames.contains("device_1.sensor_1"))
+    Assert.assertTrue(seriesNames.contains("device_2.sensor_3"))
+
+    val requiredFields: util.ArrayList[StructField] = new util.ArrayList[StructField]()
+    requiredFields.add(StructField(QueryConstant.RESERVED_TIME, LongType, false))
+    requiredFields.add(StructField("device_1.sensor_1", FloatType, true))
+    requiredFields.add(StructField("device_2.sensor_2", IntegerType, true))
+    val filteredSchema = Converter.prepSchema(StructType(requiredFields), tsFileMetaData, reader)
+    Assert.assertEquals(2, filteredSchema.size)
+
+    in.close()
+  }
+
   test("getUnionSeries") {
     val path1: Path = new Path(new URI(tsfilePath1))
     val fs1: FileSystem = path1.getFileSystem(conf)
@@ -179,7 +214,7 @@ class ConverterTest extends FunSuite with BeforeAndAfterAll {
     requiredFields.add(StructField("device_1.sensor_2", IntegerType, true))
     val requiredSchema = StructType(requiredFields)
 
-    val filteredSchema = Converter.prepSchema(requiredSchema, tsFileMetaData)
+    val filteredSchema = Converter.prepSchema(requiredSchema, tsFileMetaData, reader)
 
     Assert.assertEquals(3, filteredSchema.size)
     val fields = filteredSchema.fields
@@ -199,7 +234,7 @@ class ConverterTest extends FunSuite with BeforeAndAfterAll {
     requiredFields.add(StructField(QueryConstant.RESERVED_TIME, LongType, false))
     val requiredSchema = StructType(requiredFields)
 
-    val filteredSchema = Converter.prepSchema(requiredSchema, tsFileMetaData)
+    val filteredSchema = Converter.prepSchema(requiredSchema, tsFileMetaData, reader)
 
     Assert.assertEquals(6, filteredSchema.size)
     val fields = filteredSchema.fields
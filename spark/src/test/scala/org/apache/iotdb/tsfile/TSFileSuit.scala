@@ -20,6 +20,7 @@ package org.apache.iotdb.tsfile
 
 import java.io.File
 
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig
 import org.apache.iotdb.tsfile.common.constant.QueryConstant
 import org.apache.iotdb.tool.TsFileWrite
 import org.apache.spark.sql.SparkSession
@@ -36,6 +37,8 @@ class TSFileSuit extends FunSuite with BeforeAndAfterAll {
   private val tsfile1 = tsfileFolder1 + "/test1.tsfile"
   private val tsfile2 = tsfileFolder1 + "/test2.tsfile"
   private val tsfile3 = tsfileFolder2 + "/test.tsfile"
+  private val tsfileFolder3 = resourcesFolder + "/tsfile3"
+  private val pagedTsfile = tsfileFolder3 + "/paged.tsfile"
   private val outputPath = "../spark/src/test/resources/output"
   private val outputPathFile = outputPath + "/part-m-00000"
   private val outputPath2 = "../spark/src/test/resources/output2"
@@ -63,9 +66,23 @@ class TSFileSuit extends FunSuite with BeforeAndAfterAll {
     }
     tsfile_folder2.mkdirs()
 
+    val tsfile_folder3 = new File(tsfileFolder3)
+    if (tsfile_folder3.exists()) {
+      deleteDir(tsfile_folder3)
+    }
+    tsfile_folder3.mkdirs()
+
     new TsFileWrite().create1(tsfile1)
     new TsFileWrite().create2(tsfile2)
     new TsFileWrite().create3(tsfile3)
+    // one device in each page of the device index
+    val prevMaxNumberOfDevicesInIndexPage = TSFileConfig.maxNumberOfDevicesInIndexPage
+    TSFileConfig.maxNumberOfDevicesInIndexPage = 1
+    try {
+      new TsFileWrite().create1(pagedTsfile)
+    } finally {
+      TSFileConfig.maxNumberOfDevicesInIndexPage = prevMaxNumberOfDevicesInIndexPage
+    }
 
     val output = new File(outputPath)
     if (output.exists())
@@ -86,6 +103,8 @@ class TSFileSuit extends FunSuite with BeforeAndAfterAll {
     deleteDir(folder1)
     val folder2 = new File(tsfileFolder2)
     deleteDir(folder2)
+    val folder3 = new File(tsfileFolder3)
+    deleteDir(folder3)
     val out = new File(outputPath)
     deleteDir(out)
     val out2 = new File(outputPath2)
@@ -136,6 +155,18 @@ class TSFileSuit extends FunSuite with BeforeAndAfterAll {
     Assert.assertEquals(TsFileWrite.largeNum, count)
   }
 
+  test("testSelect * from a tsfile with a paged device index") {
+    val expectedDf = spark.read.tsfile(tsfile1)
+    val df = spark.read.tsfile(pagedTsfile)
+    Assert.assertEquals(expectedDf.schema.fields.toSet, df.schema.fields.toSet)
+    df.createOrReplaceTempView("tsfile_table")
+    val newDf = spark.sql("select * from tsfile_table")
+    Assert.assertEquals(7, newDf.count())
+    val columns = expectedDf.columns.map(c => "`" + c + "`")
+    Assert.assertEquals(expectedDf.selectExpr(columns: _*).orderBy(QueryConstant.RESERVED_TIME).collectAsList(),
+      df.selectExpr(columns: _*).orderBy(QueryConstant.RESERVED_TIME).collectAsList())
+  }
+
   test("testCount") {
     val df = spark.read.tsfile(tsfile1)
     df.createOrReplaceTempView("tsfile_table")
@@ -101,7 +101,8 @@ public class TsFileSequenceRead {
       }
     }
     System.out.println("[Metadata]");
-    List<TsDeviceMetadataIndex> deviceMetadataIndexList = metaData.getDeviceMap().values().stream()
+    List<TsDeviceMetadataIndex> deviceMetadataIndexList = reader
+        .readDeviceMetadataIndexMap(metaData).values().stream()
         .sorted((x, y) -> (int) (x.getOffset() - y.getOffset())).collect(Collectors.toList());
     for (TsDeviceMetadataIndex index : deviceMetadataIndexList) {
       TsDeviceMetadata deviceMetadata = reader.readTsDeviceMetaData(index);
@@ -71,6 +71,11 @@ public class TSFileConfig {
    * The maximum number of data points in a page, default value is 1024 * 1024.
    */
   public static int maxNumberOfPointsInPage = 1024 * 1024;
+  /**
+   * The maximum number of devices in a page of the device index. A TsFile with more devices than
+   * this pages its device index, so that looking up a device only reads the page containing it.
+   */
+  public static int maxNumberOfDevicesInIndexPage = 256;
   /**
    * Data type for input timestamp, TsFile supports INT32 or INT64.
    */
@@ -94,9 +99,13 @@ public class TSFileConfig {
    * Encoder of value series. default value is PLAIN. For int, long data type, TsFile also supports
    * TS_2DIFF and RLE(run-length encoding). For float, double data type, TsFile also supports
    * TS_2DIFF, RLE(run-length encoding) and GORILLA. For text data type, TsFile only supports
-   * PLAIN.
+   * PLAIN. AUTO chooses the smallest lossless encoding for every page.
    */
   public static String valueEncoder = "PLAIN";
+  /**
+   * Number of values of a page that AUTO encoding tries every candidate encoding on.
+   */
+  public static int autoEncodingSampleSize = 1024;
 
   // Compression configuration
   /**
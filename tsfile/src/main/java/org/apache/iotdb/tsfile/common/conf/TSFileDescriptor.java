@@ -121,6 +121,10 @@ public class TSFileDescriptor {
           properties
               .getProperty("max_number_of_points_in_page",
                   Integer.toString(TSFileConfig.maxNumberOfPointsInPage)));
+      TSFileConfig.maxNumberOfDevicesInIndexPage = checkMaxNumberOfDevicesInIndexPage(
+          Integer.parseInt(properties
+              .getProperty("max_number_of_devices_in_index_page",
+                  Integer.toString(TSFileConfig.maxNumberOfDevicesInIndexPage))));
       TSFileConfig.timeSeriesDataType = properties
           .getProperty("time_series_data_type", TSFileConfig.timeSeriesDataType);
       TSFileConfig.maxStringLength = Integer
@@ -133,6 +137,9 @@ public class TSFileDescriptor {
           .getProperty("time_encoder", TSFileConfig.timeEncoder);
       TSFileConfig.valueEncoder = properties
           .getProperty("value_encoder", TSFileConfig.valueEncoder);
+      TSFileConfig.autoEncodingSampleSize = Integer.parseInt(
+          properties.getProperty("auto_encoding_sample_size",
+              Integer.toString(TSFileConfig.autoEncodingSampleSize)));
       TSFileConfig.compressor = properties.getProperty("compressor", TSFileConfig.compressor);
     } catch (IOException e) {
       logger.warn("Cannot load config file, use default configuration", e);
@@ -148,6 +155,19 @@ public class TSFileDescriptor {
     }
   }
 
+  /**
+   * a page of the device index holds at least one device, otherwise the device index cannot be
+   * split into pages. An invalid value is ignored and the current value is kept.
+   */
+  static int checkMaxNumberOfDevicesInIndexPage(int maxNumberOfDevicesInIndexPage) {
+    if (maxNumberOfDevicesInIndexPage < 1) {
+      logger.warn("max_number_of_devices_in_index_page should be positive but is {}, use {}",
+          maxNumberOfDevicesInIndexPage, TSFileConfig.maxNumberOfDevicesInIndexPage);
+      return TSFileConfig.maxNumberOfDevicesInIndexPage;
+    }
+    return maxNumberOfDevicesInIndexPage;
+  }
+
   private static class TsfileDescriptorHolder {
 
     private TsfileDescriptorHolder() {
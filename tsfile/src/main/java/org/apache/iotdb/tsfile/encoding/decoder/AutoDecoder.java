@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.Map;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+/**
+ * Decoder for pages written by {@link org.apache.iotdb.tsfile.encoding.encoder.AutoEncoder}. The
+ * encoding of a page is read from the head of its values, and the values are then read by the
+ * decoder of that encoding. {@link #reset()} must be called before reading a new page.
+ */
+public class AutoDecoder extends Decoder {
+
+  private TSDataType dataType;
+  private Map<TSEncoding, Decoder> decoders = new EnumMap<>(TSEncoding.class);
+  /**
+   * decoder of the current page, null if the encoding of the page has not been read.
+   */
+  private Decoder pageDecoder;
+
+  public AutoDecoder(TSDataType dataType) {
+    super(TSEncoding.AUTO);
+    this.dataType = dataType;
+  }
+
+  private Decoder getPageDecoder(ByteBuffer buffer) {
+    if (pageDecoder == null) {
+      TSEncoding encoding = TSEncoding.deserialize(ReadWriteIOUtils.readShort(buffer));
+      pageDecoder = decoders.computeIfAbsent(encoding, e -> getDecoderByType(e, dataType));
+      pageDecoder.reset();
+    }
+    return pageDecoder;
+  }
+
+  @Override
+  public int readInt(ByteBuffer buffer) {
+    return getPageDecoder(buffer).readInt(buffer);
+  }
+
+  @Override
+  public boolean readBoolean(ByteBuffer buffer) {
+    return getPageDecoder(buffer).readBoolean(buffer);
+  }
+
+  @Override
+  public long readLong(ByteBuffer buffer) {
+    return getPageDecoder(buffer).readLong(buffer);
+  }
+
+  @Override
+  public float readFloat(ByteBuffer buffer) {
+    return getPageDecoder(buffer).readFloat(buffer);
+  }
+
+  @Override
+  public double readDouble(ByteBuffer buffer) {
+    return getPageDecoder(buffer).readDouble(buffer);
+  }
+
+  @Override
+  public Binary readBinary(ByteBuffer buffer) {
+    return getPageDecoder(buffer).readBinary(buffer);
+  }
+
+  @Override
+  public boolean hasNext(ByteBuffer buffer) throws IOException {
+    if (pageDecoder == null && !buffer.hasRemaining()) {
+      return false;
+    }
+    return getPageDecoder(buffer).hasNext(buffer);
+  }
+
+  @Override
+  public void reset() {
+    pageDecoder = null;
+  }
+}
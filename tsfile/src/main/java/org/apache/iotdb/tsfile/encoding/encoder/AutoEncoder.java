@@ -0,0 +1,254 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+/**
+ * <p>AutoEncoder chooses the encoding of every page by itself.</p> <p>The values of a page are
+ * buffered until the page is flushed. Then the first {@code sampleSize} values are encoded by
+ * every lossless encoding that supports the data type, and the encoding producing the fewest bytes
+ * is used for the whole page. The chosen encoding is written in front of the encoded values so that
+ * the page can be decoded by {@link org.apache.iotdb.tsfile.encoding.decoder.AutoDecoder}.</p>
+ * <p>Float and double values are never encoded by RLE or TS_2DIFF here, because those encodings
+ * keep only <b>max_point_number</b> decimal digits. REGULAR is only tried when the values of the
+ * page have a constant difference.</p>
+ */
+public class AutoEncoder extends Encoder {
+
+  private static final int INITIAL_BUFFER_SIZE = 128;
+
+  private TSDataType dataType;
+  private int sampleSize;
+  private TSEncoding[] candidates;
+  private Encoder[] candidateEncoders;
+
+  /**
+   * buffered values of the current page. Booleans are stored as 0 and 1, floats and doubles as
+   * their raw bits.
+   */
+  private long[] values = new long[INITIAL_BUFFER_SIZE];
+  private List<Binary> binaryValues = new ArrayList<>();
+  private int size;
+  private long bufferedByteSize;
+
+  private PublicBAOS trialOut = new PublicBAOS();
+  private PublicBAOS bestOut = new PublicBAOS();
+
+  public AutoEncoder(TSDataType dataType, Map<String, String> props) {
+    this(dataType, props, TSFileConfig.autoEncodingSampleSize);
+  }
+
+  public AutoEncoder(TSDataType dataType, Map<String, String> props, int sampleSize) {
+    super(TSEncoding.AUTO);
+    this.dataType = dataType;
+    this.sampleSize = sampleSize;
+    this.candidates = getCandidates(dataType);
+    this.candidateEncoders = new Encoder[candidates.length];
+    for (int i = 0; i < candidates.length; i++) {
+      TSEncodingBuilder builder = TSEncodingBuilder.getConverter(candidates[i]);
+      builder.initFromProps(props);
+      candidateEncoders[i] = builder.getEncoder(dataType);
+    }
+  }
+
+  /**
+   * the lossless encodings AUTO may choose for a data type.
+   */
+  public static TSEncoding[] getCandidates(TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+        return new TSEncoding[]{TSEncoding.RLE, TSEncoding.PLAIN};
+      case INT32:
+      case INT64:
+        return new TSEncoding[]{TSEncoding.TS_2DIFF, TSEncoding.RLE, TSEncoding.REGULAR,
+            TSEncoding.PLAIN};
+      case FLOAT:
+      case DOUBLE:
+        return new TSEncoding[]{TSEncoding.GORILLA, TSEncoding.PLAIN};
+      case TEXT:
+        return new TSEncoding[]{TSEncoding.PLAIN};
+      default:
+        throw new UnSupportedDataTypeException("AUTO doesn't support data type: " + dataType);
+    }
+  }
+
+  @Override
+  public void encode(boolean value, ByteArrayOutputStream out) {
+    bufferValue(value ? 1 : 0, 1);
+  }
+
+  @Override
+  public void encode(int value, ByteArrayOutputStream out) {
+    bufferValue(value, 4);
+  }
+
+  @Override
+  public void encode(long value, ByteArrayOutputStream out) {
+    bufferValue(value, 8);
+  }
+
+  @Override
+  public void encode(float value, ByteArrayOutputStream out) {
+    bufferValue(Float.floatToRawIntBits(value), 4);
+  }
+
+  @Override
+  public void encode(double value, ByteArrayOutputStream out) {
+    bufferValue(Double.doubleToRawLongBits(value), 8);
+  }
+
+  @Override
+  public void encode(Binary value, ByteArrayOutputStream out) {
+    binaryValues.add(value);
+    size++;
+    bufferedByteSize += 4 + value.getLength();
+  }
+
+  private void bufferValue(long value, int byteSize) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, values.length * 2);
+    }
+    values[size++] = value;
+    bufferedByteSize += byteSize;
+  }
+
+  /**
+   * choose the encoding of the buffered page and write <code>encoding, encoded values</code> to
+   * the OutputStream.
+   */
+  @Override
+  public void flush(ByteArrayOutputStream out) throws IOException {
+    if (size == 0) {
+      return;
+    }
+    int sampleCount = Math.min(size, sampleSize);
+    int chosen = -1;
+    for (int i = 0; i < candidates.length; i++) {
+      if (candidates[i] == TSEncoding.REGULAR && !isRegular()) {
+        continue;
+      }
+      trialOut.reset();
+      encodeBuffered(candidateEncoders[i], sampleCount, trialOut);
+      if (chosen == -1 || trialOut.size() < bestOut.size()) {
+        chosen = i;
+        PublicBAOS tmp = bestOut;
+        bestOut = trialOut;
+        trialOut = tmp;
+      }
+    }
+
+    ReadWriteIOUtils.write(candidates[chosen].serialize(), out);
+    if (sampleCount == size) {
+      out.write(bestOut.getBuf(), 0, bestOut.size());
+    } else {
+      encodeBuffered(candidateEncoders[chosen], size, out);
+    }
+    reset();
+  }
+
+  private void encodeBuffered(Encoder encoder, int count, ByteArrayOutputStream out)
+      throws IOException {
+    for (int i = 0; i < count; i++) {
+      switch (dataType) {
+        case BOOLEAN:
+          encoder.encode(values[i] != 0, out);
+          break;
+        case INT32:
+          encoder.encode((int) values[i], out);
+          break;
+        case INT64:
+          encoder.encode(values[i], out);
+          break;
+        case FLOAT:
+          encoder.encode(Float.intBitsToFloat((int) values[i]), out);
+          break;
+        case DOUBLE:
+          encoder.encode(Double.longBitsToDouble(values[i]), out);
+          break;
+        case TEXT:
+          encoder.encode(binaryValues.get(i), out);
+          break;
+        default:
+          throw new UnSupportedDataTypeException("AUTO doesn't support data type: " + dataType);
+      }
+    }
+    encoder.flush(out);
+  }
+
+  /**
+   * REGULAR rebuilds the values of a block from its first value and the minimum difference, which
+   * is only lossless when all the differences are the same.
+   */
+  private boolean isRegular() {
+    if (size < 2) {
+      return true;
+    }
+    if (dataType == TSDataType.INT32) {
+      int delta = (int) values[1] - (int) values[0];
+      for (int i = 2; i < size; i++) {
+        if ((int) values[i] - (int) values[i - 1] != delta) {
+          return false;
+        }
+      }
+    } else {
+      long delta = values[1] - values[0];
+      for (int i = 2; i < size; i++) {
+        if (values[i] - values[i - 1] != delta) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private void reset() {
+    size = 0;
+    bufferedByteSize = 0;
+    binaryValues.clear();
+    trialOut.reset();
+    bestOut.reset();
+  }
+
+  @Override
+  public int getOneItemMaxSize() {
+    return candidateEncoders[candidates.length - 1].getOneItemMaxSize();
+  }
+
+  /**
+   * the values are buffered until flushing, and PLAIN, which is always a candidate, never takes
+   * more bytes than the buffered values.
+   */
+  @Override
+  public long getMaxByteSize() {
+    return TSEncoding.getSerializedSize() + bufferedByteSize;
+  }
+}
@@ -64,6 +64,8 @@ public abstract class TSEncodingBuilder {
         return new GORILLA();
       case REGULAR:
         return new REGULAR();
+      case AUTO:
+        return new AUTO();
       default:
         throw new UnsupportedOperationException(type.toString());
     }
@@ -265,4 +267,26 @@ public abstract class TSEncodingBuilder {
       // allowed do nothing
     }
   }
+
+  /**
+   * for all TSDataType. The encoding of every page is chosen among the lossless encodings of the
+   * data type, see {@link AutoEncoder}.
+   */
+  public static class AUTO extends TSEncodingBuilder {
+
+    private Map<String, String> props;
+
+    @Override
+    public Encoder getEncoder(TSDataType type) {
+      return new AutoEncoder(type, props);
+    }
+
+    /**
+     * the properties are handed to the candidate encodings, e.g. <b>max_string_length</b> of PLAIN.
+     */
+    @Override
+    public void initFromProps(Map<String, String> props) {
+      this.props = props;
+    }
+  }
 }
@@ -25,6 +25,7 @@ import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.Objects;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
 /**
@@ -60,6 +61,11 @@ public class ChunkMetaData {
 
   private TsDigest valuesStatistics;
 
+  /**
+   * restored from valuesStatistics on demand, not serialized.
+   */
+  private volatile Statistics<?> statistics;
+
   private ChunkMetaData() {
   }
 
@@ -173,7 +179,21 @@ public class ChunkMetaData {
 
   public void setDigest(TsDigest digest) {
     this.valuesStatistics = digest;
+    this.statistics = null;
+
+  }
 
+  /**
+   * get the value statistics (min, max, first, last and sum) of this chunk from its digest. They
+   * are restored once, since chunk metadata is cached and shared by queries.
+   *
+   * @return the statistics, or null if the digest does not hold them
+   */
+  public Statistics<?> getStatistics() throws IOException {
+    if (statistics == null && valuesStatistics != null) {
+      statistics = Statistics.deserialize(valuesStatistics, tsDataType);
+    }
+    return statistics;
   }
 
   public long getStartTime() {
@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.file.metadata;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+/**
+ * A page of the paged device index of a TsFile. A page holds the TsDeviceMetadataIndex of a range
+ * of devices, sorted by device id, so that a device can be looked up by binary search after
+ * reading only this page.
+ */
+public class TsDeviceIndexPage {
+
+  /**
+   * device ids in ascending order.
+   */
+  private String[] devices;
+
+  private TsDeviceMetadataIndex[] deviceMetadataIndices;
+
+  private TsDeviceIndexPage() {
+    //do nothing
+  }
+
+  /**
+   * construct function for TsDeviceIndexPage.
+   *
+   * @param entries -entries of this page, sorted by device id
+   */
+  public TsDeviceIndexPage(List<Map.Entry<String, TsDeviceMetadataIndex>> entries) {
+    devices = new String[entries.size()];
+    deviceMetadataIndices = new TsDeviceMetadataIndex[entries.size()];
+    for (int i = 0; i < entries.size(); i++) {
+      devices[i] = entries.get(i).getKey();
+      deviceMetadataIndices[i] = entries.get(i).getValue();
+    }
+  }
+
+  /**
+   * use buffer to get a TsDeviceIndexPage.
+   *
+   * @param buffer -determine the page's source
+   * @return -a TsDeviceIndexPage
+   */
+  public static TsDeviceIndexPage deserializeFrom(ByteBuffer buffer) {
+    TsDeviceIndexPage page = new TsDeviceIndexPage();
+    int size = ReadWriteIOUtils.readInt(buffer);
+    page.devices = new String[size];
+    page.deviceMetadataIndices = new TsDeviceMetadataIndex[size];
+    for (int i = 0; i < size; i++) {
+      page.devices[i] = ReadWriteIOUtils.readString(buffer);
+      page.deviceMetadataIndices[i] = TsDeviceMetadataIndex.deserializeFrom(buffer);
+    }
+    return page;
+  }
+
+  /**
+   * get the byte length of the given outputStream.
+   *
+   * @param outputStream -param to determine the byte length
+   * @return -byte length
+   */
+  public int serializeTo(OutputStream outputStream) throws IOException {
+    int byteLen = 0;
+    byteLen += ReadWriteIOUtils.write(devices.length, outputStream);
+    for (int i = 0; i < devices.length; i++) {
+      byteLen += ReadWriteIOUtils.write(devices[i], outputStream);
+      byteLen += deviceMetadataIndices[i].serializeTo(outputStream);
+    }
+    return byteLen;
+  }
+
+  /**
+   * get the index of the TsDeviceMetadata of the given device.
+   *
+   * @param deviceId -device id
+   * @return -the index, or null if the device is not in this page
+   */
+  public TsDeviceMetadataIndex getDeviceMetadataIndex(String deviceId) {
+    int pos = Arrays.binarySearch(devices, deviceId);
+    return pos >= 0 ? deviceMetadataIndices[pos] : null;
+  }
+
+  /**
+   * put all entries of this page into the given map.
+   */
+  public void putAllInto(Map<String, TsDeviceMetadataIndex> deviceIndexMap) {
+    for (int i = 0; i < devices.length; i++) {
+      deviceIndexMap.put(devices[i], deviceMetadataIndices[i]);
+    }
+  }
+
+  public String getFirstDevice() {
+    return devices[0];
+  }
+
+  public int size() {
+    return devices.length;
+  }
+}
@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.file.metadata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+/**
+ * The location of a {@link TsDeviceIndexPage} in the file, and the smallest device id in it.
+ * TsFileMetaData keeps these entries, sorted by device id, as the root of the paged device index.
+ */
+public class TsDeviceIndexPageMetadata {
+
+  /**
+   * The smallest device id of the page.
+   */
+  private String firstDevice;
+  /**
+   * The offset of the page.
+   */
+  private long offset;
+  /**
+   * The size of the page in the disk.
+   */
+  private int len;
+
+  private TsDeviceIndexPageMetadata() {
+    //do nothing
+  }
+
+  /**
+   * construct function for TsDeviceIndexPageMetadata.
+   *
+   * @param firstDevice -the smallest device id of the page
+   * @param offset -offset of the page
+   * @param len -size of the page
+   */
+  public TsDeviceIndexPageMetadata(String firstDevice, long offset, int len) {
+    this.firstDevice = firstDevice;
+    this.offset = offset;
+    this.len = len;
+  }
+
+  /**
+   * use inputStream to get a TsDeviceIndexPageMetadata.
+   *
+   * @param inputStream -determine the metadata's source
+   * @return -a TsDeviceIndexPageMetadata
+   */
+  public static TsDeviceIndexPageMetadata deserializeFrom(InputStream inputStream)
+      throws IOException {
+    TsDeviceIndexPageMetadata metadata = new TsDeviceIndexPageMetadata();
+    metadata.firstDevice = ReadWriteIOUtils.readString(inputStream);
+    metadata.offset = ReadWriteIOUtils.readLong(inputStream);
+    metadata.len = ReadWriteIOUtils.readInt(inputStream);
+    return metadata;
+  }
+
+  /**
+   * use buffer to get a TsDeviceIndexPageMetadata.
+   *
+   * @param buffer -determine the metadata's source
+   * @return -a TsDeviceIndexPageMetadata
+   */
+  public static TsDeviceIndexPageMetadata deserializeFrom(ByteBuffer buffer) {
+    TsDeviceIndexPageMetadata metadata = new TsDeviceIndexPageMetadata();
+    metadata.firstDevice = ReadWriteIOUtils.readString(buffer);
+    metadata.offset = ReadWriteIOUtils.readLong(buffer);
+    metadata.len = ReadWriteIOUtils.readInt(buffer);
+    return metadata;
+  }
+
+  public String getFirstDevice() {
+    return firstDevice;
+  }
+
+  public long getOffset() {
+    return offset;
+  }
+
+  public int getLen() {
+    return len;
+  }
+
+  /**
+   * get the byte length of the given outputStream.
+   *
+   * @param outputStream -param to determine the byte length
+   * @return -byte length
+   */
+  public int serializeTo(OutputStream outputStream) throws IOException {
+    int byteLen = 0;
+    byteLen += ReadWriteIOUtils.write(firstDevice, outputStream);
+    byteLen += ReadWriteIOUtils.write(offset, outputStream);
+    byteLen += ReadWriteIOUtils.write(len, outputStream);
+    return byteLen;
+  }
+
+  /**
+   * get the byte length of the given buffer.
+   *
+   * @param buffer -param to determine the byte length
+   * @return -byte length
+   */
+  public int serializeTo(ByteBuffer buffer) {
+    int byteLen = 0;
+    byteLen += ReadWriteIOUtils.write(firstDevice, buffer);
+    byteLen += ReadWriteIOUtils.write(offset, buffer);
+    byteLen += ReadWriteIOUtils.write(len, buffer);
+    return byteLen;
+  }
+
+  @Override
+  public String toString() {
+    return "TsDeviceIndexPageMetadata{" + "firstDevice='" + firstDevice + '\'' + ", offset="
+        + offset + ", len=" + len + '}';
+  }
+}
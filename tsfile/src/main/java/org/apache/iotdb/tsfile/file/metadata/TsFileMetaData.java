@@ -23,7 +23,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
@@ -34,8 +36,24 @@ import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
  */
 public class TsFileMetaData {
 
+  /**
+   * Written in place of the size of deviceIndexMap when the device index is paged. Files written
+   * before the paged device index was introduced always have a non-negative size there.
+   */
+  private static final int PAGED_DEVICE_INDEX = -1;
+
+  /**
+   * The flat device index. It is empty if the device index of this file is paged.
+   */
   private Map<String, TsDeviceMetadataIndex> deviceIndexMap = new HashMap<>();
 
+  /**
+   * The root of the paged device index, sorted by device id. The pages are read on demand by
+   * {@link org.apache.iotdb.tsfile.read.TsFileSequenceReader}. It is empty if the device index of
+   * this file is a flat map.
+   */
+  private List<TsDeviceIndexPageMetadata> deviceIndexPages = new ArrayList<>();
+
   /**
    * TSFile schema for this file. This schema contains metadata for all the measurements.
    */
@@ -79,7 +97,12 @@ public class TsFileMetaData {
     TsFileMetaData fileMetaData = new TsFileMetaData();
 
     int size = ReadWriteIOUtils.readInt(inputStream);
-    if (size > 0) {
+    if (size == PAGED_DEVICE_INDEX) {
+      size = ReadWriteIOUtils.readInt(inputStream);
+      for (int i = 0; i < size; i++) {
+        fileMetaData.deviceIndexPages.add(TsDeviceIndexPageMetadata.deserializeFrom(inputStream));
+      }
+    } else if (size > 0) {
       Map<String, TsDeviceMetadataIndex> deviceMap = new HashMap<>();
       String key;
       TsDeviceMetadataIndex value;
@@ -122,7 +145,12 @@ public class TsFileMetaData {
     TsFileMetaData fileMetaData = new TsFileMetaData();
 
     int size = ReadWriteIOUtils.readInt(buffer);
-    if (size > 0) {
+    if (size == PAGED_DEVICE_INDEX) {
+      size = ReadWriteIOUtils.readInt(buffer);
+      for (int i = 0; i < size; i++) {
+        fileMetaData.deviceIndexPages.add(TsDeviceIndexPageMetadata.deserializeFrom(buffer));
+      }
+    } else if (size > 0) {
       Map<String, TsDeviceMetadataIndex> deviceMap = new HashMap<>();
       String key;
       TsDeviceMetadataIndex value;
@@ -166,8 +194,8 @@ public class TsFileMetaData {
 
   @Override
   public String toString() {
-    return "TsFileMetaData{" + "deviceIndexMap=" + deviceIndexMap + ", measurementSchema="
-        + measurementSchema
+    return "TsFileMetaData{" + "deviceIndexMap=" + deviceIndexMap + ", deviceIndexPages="
+        + deviceIndexPages + ", measurementSchema=" + measurementSchema
         + ", CURRENT_VERSION=" + currentVersion + ", createdBy='" + createdBy + '\'' + '}';
   }
 
@@ -187,6 +215,11 @@ public class TsFileMetaData {
     this.createdBy = createdBy;
   }
 
+  /**
+   * get the flat device index. If the device index is paged, the map is empty; use {@link
+   * org.apache.iotdb.tsfile.read.TsFileSequenceReader#readDeviceMetadataIndexMap(TsFileMetaData)}
+   * to get the index of all devices of any file.
+   */
   public Map<String, TsDeviceMetadataIndex> getDeviceMap() {
     return deviceIndexMap;
   }
@@ -195,6 +228,45 @@ public class TsFileMetaData {
     this.deviceIndexMap = deviceMap;
   }
 
+  public boolean isDeviceIndexPaged() {
+    return !deviceIndexPages.isEmpty();
+  }
+
+  public List<TsDeviceIndexPageMetadata> getDeviceIndexPages() {
+    return deviceIndexPages;
+  }
+
+  public void setDeviceIndexPages(List<TsDeviceIndexPageMetadata> deviceIndexPages) {
+    this.deviceIndexPages = deviceIndexPages;
+  }
+
+  /**
+   * find the page of the paged device index which may contain the given device.
+   *
+   * @param deviceId -device id
+   * @return -metadata of the page, or null if the device is smaller than any device of the file
+   */
+  public TsDeviceIndexPageMetadata getDeviceIndexPage(String deviceId) {
+    // binary search for the last page whose first device is not greater than deviceId
+    int low = 0;
+    int high = deviceIndexPages.size() - 1;
+    TsDeviceIndexPageMetadata result = null;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      TsDeviceIndexPageMetadata page = deviceIndexPages.get(mid);
+      if (page.getFirstDevice().compareTo(deviceId) <= 0) {
+        result = page;
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * whether the flat device index contains the device. Always false if the device index is paged.
+   */
   public boolean containsDevice(String deltaObjUid) {
     return this.deviceIndexMap.containsKey(deltaObjUid);
   }
@@ -234,10 +306,18 @@ public class TsFileMetaData {
   public int serializeTo(OutputStream outputStream) throws IOException {
     int byteLen = 0;
 
-    byteLen += ReadWriteIOUtils.write(deviceIndexMap.size(), outputStream);
-    for (Map.Entry<String, TsDeviceMetadataIndex> entry : deviceIndexMap.entrySet()) {
-      byteLen += ReadWriteIOUtils.write(entry.getKey(), outputStream);
-      byteLen += entry.getValue().serializeTo(outputStream);
+    if (isDeviceIndexPaged()) {
+      byteLen += ReadWriteIOUtils.write(PAGED_DEVICE_INDEX, outputStream);
+      byteLen += ReadWriteIOUtils.write(deviceIndexPages.size(), outputStream);
+      for (TsDeviceIndexPageMetadata pageMetadata : deviceIndexPages) {
+        byteLen += pageMetadata.serializeTo(outputStream);
+      }
+    } else {
+      byteLen += ReadWriteIOUtils.write(deviceIndexMap.size(), outputStream);
+      for (Map.Entry<String, TsDeviceMetadataIndex> entry : deviceIndexMap.entrySet()) {
+        byteLen += ReadWriteIOUtils.write(entry.getKey(), outputStream);
+        byteLen += entry.getValue().serializeTo(outputStream);
+      }
     }
 
     byteLen += ReadWriteIOUtils.write(measurementSchema.size(), outputStream);
@@ -265,10 +345,18 @@ public class TsFileMetaData {
   public int serializeTo(ByteBuffer buffer) throws IOException {
     int byteLen = 0;
 
-    byteLen += ReadWriteIOUtils.write(deviceIndexMap.size(), buffer);
-    for (Map.Entry<String, TsDeviceMetadataIndex> entry : deviceIndexMap.entrySet()) {
-      byteLen += ReadWriteIOUtils.write(entry.getKey(), buffer);
-      byteLen += entry.getValue().serializeTo(buffer);
+    if (isDeviceIndexPaged()) {
+      byteLen += ReadWriteIOUtils.write(PAGED_DEVICE_INDEX, buffer);
+      byteLen += ReadWriteIOUtils.write(deviceIndexPages.size(), buffer);
+      for (TsDeviceIndexPageMetadata pageMetadata : deviceIndexPages) {
+        byteLen += pageMetadata.serializeTo(buffer);
+      }
+    } else {
+      byteLen += ReadWriteIOUtils.write(deviceIndexMap.size(), buffer);
+      for (Map.Entry<String, TsDeviceMetadataIndex> entry : deviceIndexMap.entrySet()) {
+        byteLen += ReadWriteIOUtils.write(entry.getKey(), buffer);
+        byteLen += entry.getValue().serializeTo(buffer);
+      }
     }
 
     byteLen += ReadWriteIOUtils.write(measurementSchema.size(), buffer);
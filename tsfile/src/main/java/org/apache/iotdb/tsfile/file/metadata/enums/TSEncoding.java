@@ -20,7 +20,7 @@ package org.apache.iotdb.tsfile.file.metadata.enums;
 
 public enum TSEncoding {
 
-  PLAIN, PLAIN_DICTIONARY, RLE, DIFF, TS_2DIFF, BITMAP, GORILLA, REGULAR;
+  PLAIN, PLAIN_DICTIONARY, RLE, DIFF, TS_2DIFF, BITMAP, GORILLA, REGULAR, AUTO;
 
   /**
    * judge the encoding deserialize type.
@@ -46,6 +46,8 @@ public enum TSEncoding {
         return GORILLA;
       case 7:
         return REGULAR;
+      case 8:
+        return AUTO;
       default:
         return PLAIN;
     }
@@ -78,6 +80,8 @@ public enum TSEncoding {
         return 6;
       case REGULAR:
         return 7;
+      case AUTO:
+        return 8;
       default:
         return 0;
     }
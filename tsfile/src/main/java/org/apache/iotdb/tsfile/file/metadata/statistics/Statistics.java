@@ -23,7 +23,10 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
+import java.util.Map;
+import org.apache.iotdb.tsfile.common.constant.StatisticConstant;
 import org.apache.iotdb.tsfile.exception.write.UnknownColumnTypeException;
+import org.apache.iotdb.tsfile.file.metadata.TsDigest;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.reader.TsFileInput;
 import org.apache.iotdb.tsfile.utils.Binary;
@@ -97,6 +100,50 @@ public abstract class Statistics<T> {
     return statistics;
   }
 
+  /**
+   * restore the statistics of a chunk from its digest, which stores every statistic value as the
+   * bytes returned by <code>getXXXBytes()</code>.
+   *
+   * @param digest digest of the chunk
+   * @param dataType data type of the chunk
+   * @return the statistics, or null if the digest does not hold all of min, max, first, last and
+   * sum
+   */
+  public static Statistics deserialize(TsDigest digest, TSDataType dataType) throws IOException {
+    Map<String, ByteBuffer> digestStatistics = digest == null ? null : digest.getStatistics();
+    if (digestStatistics == null) {
+      return null;
+    }
+    // in the order of fill()
+    ByteBuffer[] values = {digestStatistics.get(StatisticConstant.MIN_VALUE),
+        digestStatistics.get(StatisticConstant.MAX_VALUE),
+        digestStatistics.get(StatisticConstant.FIRST),
+        digestStatistics.get(StatisticConstant.LAST),
+        digestStatistics.get(StatisticConstant.SUM)};
+    int size = 0;
+    for (ByteBuffer value : values) {
+      if (value == null) {
+        return null;
+      }
+      size += Integer.BYTES + value.remaining();
+    }
+
+    Statistics statistics = getStatsByType(dataType);
+    // values of variable length are prefixed by their length, except for sum which is a double
+    boolean selfDescribed = statistics.sizeOfDatum() == -1;
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    for (int i = 0; i < values.length; i++) {
+      if (selfDescribed && i < values.length - 1) {
+        buffer.putInt(values[i].remaining());
+      }
+      buffer.put(values[i].duplicate());
+    }
+    buffer.flip();
+    statistics.fill(buffer);
+    statistics.isEmpty = false;
+    return statistics;
+  }
+
   public abstract void setMinMaxFromBytes(byte[] minBytes, byte[] maxBytes);
 
   public abstract T getMin();
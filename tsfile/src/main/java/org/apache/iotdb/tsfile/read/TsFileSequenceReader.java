@@ -40,6 +40,8 @@ import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetaData;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.TsDeviceIndexPage;
+import org.apache.iotdb.tsfile.file.metadata.TsDeviceIndexPageMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadataIndex;
 import org.apache.iotdb.tsfile.file.metadata.TsDigest;
@@ -220,7 +222,7 @@ public class TsFileSequenceReader implements AutoCloseable {
    */
   public long getPositionOfFirstDeviceMetaIndex() throws IOException {
     TsFileMetaData metaData = readFileMetadata();
-    Optional<Long> data = metaData.getDeviceMap().values().stream()
+    Optional<Long> data = readDeviceMetadataIndexMap(metaData).values().stream()
         .map(TsDeviceMetadataIndex::getOffset)
         .min(Comparator.comparing(Long::valueOf));
     if (data.isPresent()) {
@@ -231,6 +233,55 @@ public class TsFileSequenceReader implements AutoCloseable {
     }
   }
 
+  /**
+   * get the index of the TsDeviceMetadata of the given device. If the device index of the file is
+   * paged, only the page which may contain the device is read. this function does not modify the
+   * position of the file reader.
+   *
+   * @param fileMetaData -the file metadata of this file
+   * @param deviceId -device id
+   * @return -the index, or null if the file does not contain the device
+   */
+  public TsDeviceMetadataIndex readDeviceMetadataIndex(TsFileMetaData fileMetaData,
+      String deviceId) throws IOException {
+    if (!fileMetaData.isDeviceIndexPaged()) {
+      return fileMetaData.getDeviceMetadataIndex(deviceId);
+    }
+    TsDeviceIndexPageMetadata pageMetadata = fileMetaData.getDeviceIndexPage(deviceId);
+    if (pageMetadata == null) {
+      return null;
+    }
+    return readDeviceIndexPage(pageMetadata).getDeviceMetadataIndex(deviceId);
+  }
+
+  /**
+   * get the index of the TsDeviceMetadata of all devices. If the device index of the file is
+   * paged, all pages are read. this function does not modify the position of the file reader.
+   *
+   * @param fileMetaData -the file metadata of this file
+   * @return -device id -> index of the TsDeviceMetadata
+   */
+  public Map<String, TsDeviceMetadataIndex> readDeviceMetadataIndexMap(
+      TsFileMetaData fileMetaData) throws IOException {
+    if (!fileMetaData.isDeviceIndexPaged()) {
+      return fileMetaData.getDeviceMap();
+    }
+    Map<String, TsDeviceMetadataIndex> deviceIndexMap = new HashMap<>();
+    for (TsDeviceIndexPageMetadata pageMetadata : fileMetaData.getDeviceIndexPages()) {
+      readDeviceIndexPage(pageMetadata).putAllInto(deviceIndexMap);
+    }
+    return deviceIndexMap;
+  }
+
+  /**
+   * this function does not modify the position of the file reader.
+   */
+  public TsDeviceIndexPage readDeviceIndexPage(TsDeviceIndexPageMetadata pageMetadata)
+      throws IOException {
+    return TsDeviceIndexPage
+        .deserializeFrom(readData(pageMetadata.getOffset(), pageMetadata.getLen()));
+  }
+
   /**
    * this function does not modify the position of the file reader.
    */
@@ -339,6 +390,35 @@ public class TsFileSequenceReader implements AutoCloseable {
     return new Chunk(header, buffer);
   }
 
+  /**
+   * read several chunks of the file with a single I/O. The byte range from the first chunk header
+   * to the end of the last chunk is read at once, so the chunks should be close to each other in
+   * the file. This function does not modify the position of the file reader.
+   *
+   * @param metaDataList -given chunk meta data list, sorted by the offset of the chunk header
+   * @return -chunks in the same order as metaDataList
+   */
+  public List<Chunk> readMemChunks(List<ChunkMetaData> metaDataList) throws IOException {
+    List<Chunk> chunks = new ArrayList<>(metaDataList.size());
+    if (metaDataList.isEmpty()) {
+      return chunks;
+    }
+    long startOffset = metaDataList.get(0).getOffsetOfChunkHeader();
+    ChunkMetaData lastMetaData = metaDataList.get(metaDataList.size() - 1);
+    ChunkHeader lastHeader = readChunkHeader(lastMetaData.getOffsetOfChunkHeader(), false);
+    long endOffset = lastMetaData.getOffsetOfChunkHeader() + lastHeader.getSerializedSize()
+        + lastHeader.getDataSize();
+    ByteBuffer buffer = readData(startOffset, (int) (endOffset - startOffset));
+    for (ChunkMetaData metaData : metaDataList) {
+      ByteBuffer chunkBuffer = buffer.duplicate();
+      chunkBuffer.position((int) (metaData.getOffsetOfChunkHeader() - startOffset));
+      ChunkHeader header = ChunkHeader.deserializeFrom(chunkBuffer, false);
+      chunkBuffer.limit(chunkBuffer.position() + header.getDataSize());
+      chunks.add(new Chunk(header, chunkBuffer.slice()));
+    }
+    return chunks;
+  }
+
   /**
    * not thread safe.
    *
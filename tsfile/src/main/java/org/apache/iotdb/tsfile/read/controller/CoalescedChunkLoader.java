@@ -0,0 +1,241 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.controller;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+
+/**
+ * A chunk loader that knows in advance the list of chunks a series reader will consume.
+ * <p>
+ * The chunk list is planned into read groups: consecutive chunks whose headers lie within
+ * <code>maxCoalescedReadSize</code> bytes of the first chunk of the group are fetched by a single
+ * read of {@link TsFileSequenceReader#readMemChunks(List)}. When an executor is given, up to
+ * <code>prefetchDepth</code> groups following the one being consumed are read asynchronously, so
+ * that decoding the chunks of one group overlaps with the I/O of the next ones.
+ * <p>
+ * Chunks that are not in the planned list are loaded directly, just like {@link ChunkLoaderImpl}.
+ */
+public class CoalescedChunkLoader implements ChunkLoader {
+
+  private TsFileSequenceReader reader;
+  private Executor executor;
+  private int prefetchDepth;
+  private PrefetchStatistics statistics;
+
+  private List<List<ChunkMetaData>> readGroups;
+  /**
+   * offset of chunk header -> index of the read group which contains the chunk.
+   */
+  private Map<Long, Integer> groupIndexOfChunk = new HashMap<>();
+
+  private int currentGroupIndex = -1;
+  private Map<Long, Chunk> currentChunks = new HashMap<>();
+
+  /**
+   * index of read group -> the asynchronous read of the group.
+   */
+  private Map<Integer, FutureTask<List<Chunk>>> prefetchTasks = new HashMap<>();
+
+  /**
+   * constructor of CoalescedChunkLoader which reads ahead only the group following the one being
+   * consumed.
+   */
+  public CoalescedChunkLoader(TsFileSequenceReader fileSequenceReader,
+      List<ChunkMetaData> chunkMetaDataList, long maxCoalescedReadSize, Executor executor) {
+    this(fileSequenceReader, chunkMetaDataList, maxCoalescedReadSize, executor, 1, null);
+  }
+
+  /**
+   * constructor of CoalescedChunkLoader.
+   *
+   * @param fileSequenceReader file sequence reader
+   * @param chunkMetaDataList chunks that will be loaded, in the order of consumption
+   * @param maxCoalescedReadSize max distance in bytes between the first and the last chunk header
+   * of a read group
+   * @param executor executor that performs the asynchronous reads. Null to read synchronously.
+   * @param prefetchDepth how many groups are read ahead of the one being consumed. When <= 0,
+   * every group is read synchronously.
+   * @param statistics counts the groups read synchronously and asynchronously. Null if not needed.
+   */
+  public CoalescedChunkLoader(TsFileSequenceReader fileSequenceReader,
+      List<ChunkMetaData> chunkMetaDataList, long maxCoalescedReadSize, Executor executor,
+      int prefetchDepth, PrefetchStatistics statistics) {
+    this.reader = fileSequenceReader;
+    this.readGroups = planReadGroups(chunkMetaDataList, maxCoalescedReadSize);
+    this.prefetchDepth = Math.min(prefetchDepth, readGroups.size());
+    this.executor = this.prefetchDepth > 0 ? executor : null;
+    this.statistics = statistics;
+    for (int i = 0; i < readGroups.size(); i++) {
+      for (ChunkMetaData chunkMetaData : readGroups.get(i)) {
+        groupIndexOfChunk.put(chunkMetaData.getOffsetOfChunkHeader(), i);
+      }
+    }
+    prefetchFollowingGroups(-1);
+  }
+
+  /**
+   * split the chunk list into groups of consecutive chunks that can be read at once. Each group is
+   * sorted by the offset of the chunk header.
+   */
+  static List<List<ChunkMetaData>> planReadGroups(List<ChunkMetaData> chunkMetaDataList,
+      long maxCoalescedReadSize) {
+    List<List<ChunkMetaData>> groups = new ArrayList<>();
+    List<ChunkMetaData> group = new ArrayList<>();
+    long minOffset = Long.MAX_VALUE;
+    long maxOffset = Long.MIN_VALUE;
+    for (ChunkMetaData chunkMetaData : chunkMetaDataList) {
+      long offset = chunkMetaData.getOffsetOfChunkHeader();
+      if (!group.isEmpty() && Math.max(maxOffset, offset) - Math.min(minOffset, offset)
+          > maxCoalescedReadSize) {
+        groups.add(group);
+        group = new ArrayList<>();
+        minOffset = Long.MAX_VALUE;
+        maxOffset = Long.MIN_VALUE;
+      }
+      group.add(chunkMetaData);
+      minOffset = Math.min(minOffset, offset);
+      maxOffset = Math.max(maxOffset, offset);
+    }
+    if (!group.isEmpty()) {
+      groups.add(group);
+    }
+    for (List<ChunkMetaData> readGroup : groups) {
+      readGroup.sort(Comparator.comparingLong(ChunkMetaData::getOffsetOfChunkHeader));
+    }
+    return groups;
+  }
+
+  @Override
+  public Chunk getChunk(ChunkMetaData chunkMetaData) throws IOException {
+    Integer groupIndex = groupIndexOfChunk.get(chunkMetaData.getOffsetOfChunkHeader());
+    Chunk chunk;
+    if (groupIndex == null) {
+      chunk = reader.readMemChunk(chunkMetaData);
+    } else {
+      if (groupIndex != currentGroupIndex) {
+        loadGroup(groupIndex);
+      }
+      chunk = currentChunks.get(chunkMetaData.getOffsetOfChunkHeader());
+    }
+    Chunk chunkRet = new Chunk(chunk.getHeader(), chunk.getData().duplicate());
+    chunkRet.setDeletedAt(chunkMetaData.getDeletedAt());
+    return chunkRet;
+  }
+
+  private void loadGroup(int groupIndex) throws IOException {
+    List<Chunk> chunks;
+    FutureTask<List<Chunk>> prefetchTask = prefetchTasks.remove(groupIndex);
+    if (prefetchTask != null) {
+      chunks = waitPrefetch(prefetchTask);
+    } else {
+      chunks = reader.readMemChunks(readGroups.get(groupIndex));
+      if (statistics != null) {
+        statistics.recordSyncReadChunkGroup();
+      }
+    }
+    currentGroupIndex = groupIndex;
+    currentChunks.clear();
+    List<ChunkMetaData> group = readGroups.get(groupIndex);
+    for (int i = 0; i < group.size(); i++) {
+      currentChunks.put(group.get(i).getOffsetOfChunkHeader(), chunks.get(i));
+    }
+    prefetchFollowingGroups(groupIndex);
+  }
+
+  /**
+   * make sure that the <code>prefetchDepth</code> groups following the given one are being read,
+   * and cancel the reads of the groups out of this window, e.g., the groups that are skipped.
+   */
+  private void prefetchFollowingGroups(int groupIndex) {
+    if (executor == null) {
+      return;
+    }
+    Iterator<Entry<Integer, FutureTask<List<Chunk>>>> iterator = prefetchTasks.entrySet()
+        .iterator();
+    while (iterator.hasNext()) {
+      Entry<Integer, FutureTask<List<Chunk>>> entry = iterator.next();
+      if (entry.getKey() <= groupIndex || entry.getKey() > groupIndex + prefetchDepth) {
+        entry.getValue().cancel(false);
+        iterator.remove();
+      }
+    }
+    int lastGroupIndex = Math.min(groupIndex + prefetchDepth, readGroups.size() - 1);
+    for (int i = groupIndex + 1; i <= lastGroupIndex; i++) {
+      if (!prefetchTasks.containsKey(i)) {
+        List<ChunkMetaData> group = readGroups.get(i);
+        FutureTask<List<Chunk>> prefetchTask = new FutureTask<>(() -> reader.readMemChunks(group));
+        prefetchTasks.put(i, prefetchTask);
+        executor.execute(prefetchTask);
+      }
+    }
+  }
+
+  private List<Chunk> waitPrefetch(FutureTask<List<Chunk>> prefetchTask) throws IOException {
+    boolean finished = prefetchTask.isDone();
+    long startTime = System.nanoTime();
+    try {
+      List<Chunk> chunks = prefetchTask.get();
+      if (statistics != null) {
+        statistics.recordPrefetchedChunkGroup(finished ? 0 : System.nanoTime() - startTime);
+      }
+      return chunks;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for chunks of " + reader.getFileName(), e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  /**
+   * cancel the reads of the groups that have not started yet and drop the chunks read so far, but
+   * leave the file reader open, e.g., when the reader is shared by other queries.
+   */
+  public void cancelPrefetch() {
+    for (FutureTask<List<Chunk>> prefetchTask : prefetchTasks.values()) {
+      prefetchTask.cancel(false);
+    }
+    prefetchTasks.clear();
+    currentChunks.clear();
+    currentGroupIndex = -1;
+  }
+
+  @Override
+  public void close() throws IOException {
+    cancelPrefetch();
+    reader.close();
+  }
+
+}
@@ -116,7 +116,11 @@ public class MetadataQuerierByFileImpl implements MetadataQuerier {
       Set<String> selectedMeasurements = deviceMeasurements.getValue();
 
       // get the index information of TsDeviceMetadata
-      TsDeviceMetadataIndex index = fileMetaData.getDeviceMetadataIndex(selectedDevice);
+      TsDeviceMetadataIndex index = tsFileReader
+          .readDeviceMetadataIndex(fileMetaData, selectedDevice);
+      if (index == null) {
+        continue;
+      }
       TsDeviceMetadata tsDeviceMetadata = tsFileReader.readTsDeviceMetaData(index);
 
       // d1
@@ -173,13 +177,13 @@ public class MetadataQuerierByFileImpl implements MetadataQuerier {
 
   private List<ChunkMetaData> loadChunkMetadata(Path path) throws IOException {
 
-    if (!fileMetaData.containsDevice(path.getDevice())) {
+    // get the index information of TsDeviceMetadata
+    TsDeviceMetadataIndex index = tsFileReader
+        .readDeviceMetadataIndex(fileMetaData, path.getDevice());
+    if (index == null) {
       return new ArrayList<>();
     }
 
-    // get the index information of TsDeviceMetadata
-    TsDeviceMetadataIndex index = fileMetaData.getDeviceMetadataIndex(path.getDevice());
-
     // read TsDeviceMetadata from file
     TsDeviceMetadata tsDeviceMetadata = tsFileReader.readTsDeviceMetaData(index);
 
@@ -222,7 +226,11 @@ public class MetadataQuerierByFileImpl implements MetadataQuerier {
       String selectedDevice = deviceMeasurements.getKey();
       Set<String> selectedMeasurements = deviceMeasurements.getValue();
 
-      TsDeviceMetadataIndex index = fileMetaData.getDeviceMetadataIndex(selectedDevice);
+      TsDeviceMetadataIndex index = tsFileReader
+          .readDeviceMetadataIndex(fileMetaData, selectedDevice);
+      if (index == null) {
+        continue;
+      }
       TsDeviceMetadata tsDeviceMetadata = tsFileReader.readTsDeviceMetaData(index);
 
       for (ChunkGroupMetaData chunkGroupMetaData : tsDeviceMetadata
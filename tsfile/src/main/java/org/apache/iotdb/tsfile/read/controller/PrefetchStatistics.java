@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.controller;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts how much of the data of a query is read ahead of its consumption. The counters are
+ * updated by the readers of all the series of the query, which may run in different threads.
+ */
+public class PrefetchStatistics {
+
+  private final AtomicLong prefetchedChunkGroupNum = new AtomicLong();
+  private final AtomicLong syncReadChunkGroupNum = new AtomicLong();
+  private final AtomicLong prefetchedMetaDataNum = new AtomicLong();
+  private final AtomicLong syncReadMetaDataNum = new AtomicLong();
+  /**
+   * time spent by readers waiting for the prefetches that were not finished when they were needed.
+   */
+  private final AtomicLong prefetchWaitTimeInNs = new AtomicLong();
+
+  /**
+   * @param waitTimeInNs how long the reader waited for the prefetch to finish
+   */
+  public void recordPrefetchedChunkGroup(long waitTimeInNs) {
+    prefetchedChunkGroupNum.incrementAndGet();
+    prefetchWaitTimeInNs.addAndGet(waitTimeInNs);
+  }
+
+  public void recordSyncReadChunkGroup() {
+    syncReadChunkGroupNum.incrementAndGet();
+  }
+
+  /**
+   * @param waitTimeInNs how long the reader waited for the prefetch to finish
+   */
+  public void recordPrefetchedMetaData(long waitTimeInNs) {
+    prefetchedMetaDataNum.incrementAndGet();
+    prefetchWaitTimeInNs.addAndGet(waitTimeInNs);
+  }
+
+  public void recordSyncReadMetaData() {
+    syncReadMetaDataNum.incrementAndGet();
+  }
+
+  public long getPrefetchedChunkGroupNum() {
+    return prefetchedChunkGroupNum.get();
+  }
+
+  public long getSyncReadChunkGroupNum() {
+    return syncReadChunkGroupNum.get();
+  }
+
+  public long getPrefetchedMetaDataNum() {
+    return prefetchedMetaDataNum.get();
+  }
+
+  public long getSyncReadMetaDataNum() {
+    return syncReadMetaDataNum.get();
+  }
+
+  public long getPrefetchWaitTimeInNs() {
+    return prefetchWaitTimeInNs.get();
+  }
+
+  @Override
+  public String toString() {
+    return "prefetched chunk groups: " + prefetchedChunkGroupNum
+        + ", synchronously read chunk groups: " + syncReadChunkGroupNum
+        + ", prefetched metadata: " + prefetchedMetaDataNum
+        + ", synchronously read metadata: " + syncReadMetaDataNum
+        + ", prefetch wait time: " + prefetchWaitTimeInNs.get() / 1000000 + "ms";
+  }
+}
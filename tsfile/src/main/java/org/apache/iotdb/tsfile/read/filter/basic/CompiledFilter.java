@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.filter.basic;
+
+import org.apache.iotdb.tsfile.utils.Binary;
+
+/**
+ * A filter prepared for the points of a series of a known data type, see {@link
+ * org.apache.iotdb.tsfile.read.filter.factory.FilterCompiler}. The value of a point is passed as a
+ * primitive, so the compiled filter of a numeric series evaluates it without boxing. By default,
+ * the value is boxed and passed to {@link Filter#satisfy(long, Object)}.
+ */
+public class CompiledFilter {
+
+  protected final Filter filter;
+
+  public CompiledFilter(Filter filter) {
+    this.filter = filter;
+  }
+
+  public boolean satisfyBoolean(long time, boolean value) {
+    return filter.satisfy(time, value);
+  }
+
+  public boolean satisfyInt(long time, int value) {
+    return filter.satisfy(time, value);
+  }
+
+  public boolean satisfyLong(long time, long value) {
+    return filter.satisfy(time, value);
+  }
+
+  public boolean satisfyFloat(long time, float value) {
+    return filter.satisfy(time, value);
+  }
+
+  public boolean satisfyDouble(long time, double value) {
+    return filter.satisfy(time, value);
+  }
+
+  public boolean satisfyBinary(long time, Binary value) {
+    return filter.satisfy(time, value);
+  }
+
+  public Filter getFilter() {
+    return filter;
+  }
+}
@@ -0,0 +1,438 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.filter.factory;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.filter.basic.CompiledFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.basic.UnaryFilter;
+import org.apache.iotdb.tsfile.read.filter.operator.AndFilter;
+import org.apache.iotdb.tsfile.read.filter.operator.Eq;
+import org.apache.iotdb.tsfile.read.filter.operator.Gt;
+import org.apache.iotdb.tsfile.read.filter.operator.GtEq;
+import org.apache.iotdb.tsfile.read.filter.operator.Lt;
+import org.apache.iotdb.tsfile.read.filter.operator.LtEq;
+import org.apache.iotdb.tsfile.read.filter.operator.NotEq;
+import org.apache.iotdb.tsfile.read.filter.operator.NotFilter;
+import org.apache.iotdb.tsfile.read.filter.operator.OrFilter;
+
+/**
+ * Compile a filter tree into a {@link CompiledFilter} for the points of a series of the given data
+ * type, so that a point is not evaluated by walking the tree with a boxed value.
+ * <p>
+ * For INT32, INT64, FLOAT and DOUBLE series, the conjunctions of the filter are flattened: all the
+ * comparisons of the time are merged into one time range and all the comparisons of the value into
+ * one value range, which are checked on primitives before the remaining terms. The remaining terms
+ * (OR, NOT, !=) are compiled recursively. A term that cannot be compiled, e.g., a comparison with a
+ * constant of another type, is evaluated by {@link Filter#satisfy(long, Object)}, so the compiled
+ * filter always returns the same result as the filter. Series of other types use the filter
+ * directly.
+ */
+public class FilterCompiler {
+
+  private FilterCompiler() {
+    // util class
+  }
+
+  public static CompiledFilter compile(Filter filter, TSDataType dataType) {
+    switch (dataType) {
+      case INT32:
+      case INT64:
+        return new LongCompiledFilter(filter, compileLong(filter, dataType));
+      case FLOAT:
+      case DOUBLE:
+        return new DoubleCompiledFilter(filter, compileDouble(filter, dataType));
+      default:
+        return new CompiledFilter(filter);
+    }
+  }
+
+  private static LongEvaluator compileLong(Filter filter, TSDataType dataType) {
+    List<Filter> conjuncts = new ArrayList<>();
+    flatten(filter, conjuncts);
+    Class<?> valueClass = dataType == TSDataType.INT32 ? Integer.class : Long.class;
+
+    LongRange timeRange = new LongRange();
+    LongRange valueRange = new LongRange();
+    List<LongEvaluator> terms = new ArrayList<>();
+    for (Filter conjunct : conjuncts) {
+      if (isComparison(conjunct, FilterType.TIME_FILTER, Long.class)) {
+        timeRange.intersect((UnaryFilter<?>) conjunct);
+      } else if (isComparison(conjunct, FilterType.VALUE_FILTER, valueClass)) {
+        valueRange.intersect((UnaryFilter<?>) conjunct);
+      } else {
+        terms.add(compileLongTerm(conjunct, dataType, valueClass));
+      }
+    }
+    if (timeRange.isEmpty() || valueRange.isEmpty()) {
+      return (time, value) -> false;
+    }
+
+    long minTime = timeRange.min;
+    long maxTime = timeRange.max;
+    long minValue = valueRange.min;
+    long maxValue = valueRange.max;
+    if (timeRange.isBounded() && valueRange.isBounded()) {
+      terms.add(0, (time, value) -> time >= minTime && time <= maxTime
+          && value >= minValue && value <= maxValue);
+    } else if (timeRange.isBounded()) {
+      terms.add(0, (time, value) -> time >= minTime && time <= maxTime);
+    } else if (valueRange.isBounded()) {
+      terms.add(0, (time, value) -> value >= minValue && value <= maxValue);
+    }
+    return andLong(terms);
+  }
+
+  private static LongEvaluator compileLongTerm(Filter filter, TSDataType dataType,
+      Class<?> valueClass) {
+    if (filter instanceof OrFilter) {
+      LongEvaluator left = compileLong(((OrFilter) filter).getLeft(), dataType);
+      LongEvaluator right = compileLong(((OrFilter) filter).getRight(), dataType);
+      return (time, value) -> left.satisfy(time, value) || right.satisfy(time, value);
+    }
+    if (filter instanceof NotFilter) {
+      LongEvaluator that = compileLong(((NotFilter) filter).getFilter(), dataType);
+      return (time, value) -> !that.satisfy(time, value);
+    }
+    if (filter instanceof NotEq) {
+      UnaryFilter<?> notEq = (UnaryFilter<?>) filter;
+      if (notEq.getFilterType() == FilterType.TIME_FILTER && notEq.getValue() instanceof Long) {
+        long constant = (Long) notEq.getValue();
+        return (time, value) -> time != constant;
+      }
+      if (notEq.getFilterType() == FilterType.VALUE_FILTER && valueClass
+          .isInstance(notEq.getValue())) {
+        long constant = ((Number) notEq.getValue()).longValue();
+        return (time, value) -> value != constant;
+      }
+    }
+    if (dataType == TSDataType.INT32) {
+      return (time, value) -> filter.satisfy(time, (int) value);
+    }
+    return filter::satisfy;
+  }
+
+  private static LongEvaluator andLong(List<LongEvaluator> terms) {
+    switch (terms.size()) {
+      case 0:
+        return (time, value) -> true;
+      case 1:
+        return terms.get(0);
+      case 2:
+        LongEvaluator first = terms.get(0);
+        LongEvaluator second = terms.get(1);
+        return (time, value) -> first.satisfy(time, value) && second.satisfy(time, value);
+      default:
+        LongEvaluator[] evaluators = terms.toArray(new LongEvaluator[0]);
+        return (time, value) -> {
+          for (LongEvaluator evaluator : evaluators) {
+            if (!evaluator.satisfy(time, value)) {
+              return false;
+            }
+          }
+          return true;
+        };
+    }
+  }
+
+  private static DoubleEvaluator compileDouble(Filter filter, TSDataType dataType) {
+    List<Filter> conjuncts = new ArrayList<>();
+    flatten(filter, conjuncts);
+    Class<?> valueClass = dataType == TSDataType.FLOAT ? Float.class : Double.class;
+
+    LongRange timeRange = new LongRange();
+    DoubleRange valueRange = new DoubleRange();
+    List<DoubleEvaluator> terms = new ArrayList<>();
+    for (Filter conjunct : conjuncts) {
+      if (isComparison(conjunct, FilterType.TIME_FILTER, Long.class)) {
+        timeRange.intersect((UnaryFilter<?>) conjunct);
+      } else if (isComparison(conjunct, FilterType.VALUE_FILTER, valueClass)) {
+        valueRange.intersect((UnaryFilter<?>) conjunct);
+      } else {
+        terms.add(compileDoubleTerm(conjunct, dataType, valueClass));
+      }
+    }
+    if (timeRange.isEmpty() || valueRange.isEmpty()) {
+      return (time, value) -> false;
+    }
+
+    long minTime = timeRange.min;
+    long maxTime = timeRange.max;
+    if (timeRange.isBounded() && valueRange.isBounded()) {
+      terms.add(0, (time, value) -> time >= minTime && time <= maxTime
+          && valueRange.contains(value));
+    } else if (timeRange.isBounded()) {
+      terms.add(0, (time, value) -> time >= minTime && time <= maxTime);
+    } else if (valueRange.isBounded()) {
+      terms.add(0, (time, value) -> valueRange.contains(value));
+    }
+    return andDouble(terms);
+  }
+
+  private static DoubleEvaluator compileDoubleTerm(Filter filter, TSDataType dataType,
+      Class<?> valueClass) {
+    if (filter instanceof OrFilter) {
+      DoubleEvaluator left = compileDouble(((OrFilter) filter).getLeft(), dataType);
+      DoubleEvaluator right = compileDouble(((OrFilter) filter).getRight(), dataType);
+      return (time, value) -> left.satisfy(time, value) || right.satisfy(time, value);
+    }
+    if (filter instanceof NotFilter) {
+      DoubleEvaluator that = compileDouble(((NotFilter) filter).getFilter(), dataType);
+      return (time, value) -> !that.satisfy(time, value);
+    }
+    if (filter instanceof NotEq) {
+      UnaryFilter<?> notEq = (UnaryFilter<?>) filter;
+      if (notEq.getFilterType() == FilterType.TIME_FILTER && notEq.getValue() instanceof Long) {
+        long constant = (Long) notEq.getValue();
+        return (time, value) -> time != constant;
+      }
+      if (notEq.getFilterType() == FilterType.VALUE_FILTER && valueClass
+          .isInstance(notEq.getValue())) {
+        double constant = ((Number) notEq.getValue()).doubleValue();
+        return (time, value) -> Double.compare(value, constant) != 0;
+      }
+    }
+    if (dataType == TSDataType.FLOAT) {
+      return (time, value) -> filter.satisfy(time, (float) value);
+    }
+    return filter::satisfy;
+  }
+
+  private static DoubleEvaluator andDouble(List<DoubleEvaluator> terms) {
+    switch (terms.size()) {
+      case 0:
+        return (time, value) -> true;
+      case 1:
+        return terms.get(0);
+      case 2:
+        DoubleEvaluator first = terms.get(0);
+        DoubleEvaluator second = terms.get(1);
+        return (time, value) -> first.satisfy(time, value) && second.satisfy(time, value);
+      default:
+        DoubleEvaluator[] evaluators = terms.toArray(new DoubleEvaluator[0]);
+        return (time, value) -> {
+          for (DoubleEvaluator evaluator : evaluators) {
+            if (!evaluator.satisfy(time, value)) {
+              return false;
+            }
+          }
+          return true;
+        };
+    }
+  }
+
+  private static void flatten(Filter filter, List<Filter> conjuncts) {
+    if (filter instanceof AndFilter) {
+      flatten(((AndFilter) filter).getLeft(), conjuncts);
+      flatten(((AndFilter) filter).getRight(), conjuncts);
+    } else {
+      conjuncts.add(filter);
+    }
+  }
+
+  /**
+   * whether the filter compares the time or the value with a constant of the given class by >,
+   * >=, <, <= or =.
+   */
+  private static boolean isComparison(Filter filter, FilterType filterType,
+      Class<?> constantClass) {
+    if (!(filter instanceof Gt || filter instanceof GtEq || filter instanceof Lt
+        || filter instanceof LtEq || filter instanceof Eq)) {
+      return false;
+    }
+    UnaryFilter<?> unaryFilter = (UnaryFilter<?>) filter;
+    return unaryFilter.getFilterType() == filterType && constantClass
+        .isInstance(unaryFilter.getValue());
+  }
+
+  @FunctionalInterface
+  private interface LongEvaluator {
+
+    boolean satisfy(long time, long value);
+  }
+
+  @FunctionalInterface
+  private interface DoubleEvaluator {
+
+    boolean satisfy(long time, double value);
+  }
+
+  private static class LongCompiledFilter extends CompiledFilter {
+
+    private final LongEvaluator evaluator;
+
+    private LongCompiledFilter(Filter filter, LongEvaluator evaluator) {
+      super(filter);
+      this.evaluator = evaluator;
+    }
+
+    @Override
+    public boolean satisfyInt(long time, int value) {
+      return evaluator.satisfy(time, value);
+    }
+
+    @Override
+    public boolean satisfyLong(long time, long value) {
+      return evaluator.satisfy(time, value);
+    }
+  }
+
+  private static class DoubleCompiledFilter extends CompiledFilter {
+
+    private final DoubleEvaluator evaluator;
+
+    private DoubleCompiledFilter(Filter filter, DoubleEvaluator evaluator) {
+      super(filter);
+      this.evaluator = evaluator;
+    }
+
+    @Override
+    public boolean satisfyFloat(long time, float value) {
+      return evaluator.satisfy(time, value);
+    }
+
+    @Override
+    public boolean satisfyDouble(long time, double value) {
+      return evaluator.satisfy(time, value);
+    }
+  }
+
+  /**
+   * closed range of longs narrowed by comparisons.
+   */
+  private static class LongRange {
+
+    private long min = Long.MIN_VALUE;
+    private long max = Long.MAX_VALUE;
+    private boolean empty = false;
+
+    private void intersect(UnaryFilter<?> comparison) {
+      long constant = ((Number) comparison.getValue()).longValue();
+      if (comparison instanceof Gt) {
+        if (constant == Long.MAX_VALUE) {
+          empty = true;
+        } else {
+          min = Math.max(min, constant + 1);
+        }
+      } else if (comparison instanceof GtEq) {
+        min = Math.max(min, constant);
+      } else if (comparison instanceof Lt) {
+        if (constant == Long.MIN_VALUE) {
+          empty = true;
+        } else {
+          max = Math.min(max, constant - 1);
+        }
+      } else if (comparison instanceof LtEq) {
+        max = Math.min(max, constant);
+      } else {
+        min = Math.max(min, constant);
+        max = Math.min(max, constant);
+      }
+    }
+
+    private boolean isEmpty() {
+      return empty || min > max;
+    }
+
+    private boolean isBounded() {
+      return min != Long.MIN_VALUE || max != Long.MAX_VALUE;
+    }
+  }
+
+  /**
+   * range of doubles narrowed by comparisons. The values are ordered by {@link
+   * Double#compare(double, double)}, which agrees with {@link Float#compareTo(Float)} and {@link
+   * Double#compareTo(Double)} used by the filters, e.g., NaN is larger than any other value.
+   */
+  private static class DoubleRange {
+
+    private boolean hasLower = false;
+    private double lower;
+    private boolean lowerInclusive;
+    private boolean hasUpper = false;
+    private double upper;
+    private boolean upperInclusive;
+
+    private void intersect(UnaryFilter<?> comparison) {
+      double constant = ((Number) comparison.getValue()).doubleValue();
+      if (comparison instanceof Gt) {
+        narrowLower(constant, false);
+      } else if (comparison instanceof GtEq) {
+        narrowLower(constant, true);
+      } else if (comparison instanceof Lt) {
+        narrowUpper(constant, false);
+      } else if (comparison instanceof LtEq) {
+        narrowUpper(constant, true);
+      } else {
+        narrowLower(constant, true);
+        narrowUpper(constant, true);
+      }
+    }
+
+    private void narrowLower(double constant, boolean inclusive) {
+      int cmp = hasLower ? Double.compare(constant, lower) : 1;
+      if (cmp > 0) {
+        hasLower = true;
+        lower = constant;
+        lowerInclusive = inclusive;
+      } else if (cmp == 0) {
+        lowerInclusive &= inclusive;
+      }
+    }
+
+    private void narrowUpper(double constant, boolean inclusive) {
+      int cmp = hasUpper ? Double.compare(constant, upper) : -1;
+      if (cmp < 0) {
+        hasUpper = true;
+        upper = constant;
+        upperInclusive = inclusive;
+      } else if (cmp == 0) {
+        upperInclusive &= inclusive;
+      }
+    }
+
+    private boolean isEmpty() {
+      if (!hasLower || !hasUpper) {
+        return false;
+      }
+      int cmp = Double.compare(lower, upper);
+      return cmp > 0 || (cmp == 0 && !(lowerInclusive && upperInclusive));
+    }
+
+    private boolean isBounded() {
+      return hasLower || hasUpper;
+    }
+
+    private boolean contains(double value) {
+      if (hasLower) {
+        int cmp = Double.compare(value, lower);
+        if (cmp < 0 || (cmp == 0 && !lowerInclusive)) {
+          return false;
+        }
+      }
+      if (hasUpper) {
+        int cmp = Double.compare(value, upper);
+        return cmp < 0 || (cmp == 0 && upperInclusive);
+      }
+      return true;
+    }
+  }
+}
@@ -31,7 +31,9 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.filter.basic.CompiledFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterCompiler;
 import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 
 public abstract class ChunkReader {
@@ -45,7 +47,7 @@ public abstract class ChunkReader {
       TSEncoding.valueOf(TSFileConfig.timeEncoder),
       TSDataType.INT64);
 
-  private Filter filter;
+  private CompiledFilter filter;
 
   private BatchData data;
 
@@ -68,10 +70,12 @@ public abstract class ChunkReader {
    * @param filter filter
    */
   public ChunkReader(Chunk chunk, Filter filter) {
-    this.filter = filter;
     this.chunkDataBuffer = chunk.getData();
     this.deletedAt = chunk.getDeletedAt();
     chunkHeader = chunk.getHeader();
+    if (filter != null) {
+      this.filter = FilterCompiler.compile(filter, chunkHeader.getDataType());
+    }
     this.unCompressor = IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
     valueDecoder = Decoder
         .getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
@@ -24,7 +24,9 @@ import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.filter.basic.CompiledFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterCompiler;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 
@@ -46,13 +48,22 @@ public class PageReader {
 
   private BatchData data = null;
 
-  private Filter filter = null;
+  private CompiledFilter filter = null;
 
   private long deletedAt = -1;
 
   public PageReader(ByteBuffer pageData, TSDataType dataType, Decoder valueDecoder,
       Decoder timeDecoder,
       Filter filter) {
+    this(pageData, dataType, valueDecoder, timeDecoder,
+        filter == null ? null : FilterCompiler.compile(filter, dataType));
+  }
+
+  /**
+   * @param filter the filter compiled for the data type, so that the pages of a chunk share it
+   */
+  public PageReader(ByteBuffer pageData, TSDataType dataType, Decoder valueDecoder,
+      Decoder timeDecoder, CompiledFilter filter) {
     this(pageData, dataType, valueDecoder, timeDecoder);
     this.filter = filter;
   }
@@ -159,84 +170,102 @@ public class PageReader {
     return pageData;
   }
 
+  /**
+   * the data type is checked once per page rather than once per point, so that each type is
+   * decoded and filtered in its own loop.
+   */
   private BatchData getAllPageDataWithFilter() throws IOException {
     BatchData pageData = new BatchData(dataType, true);
 
-    while (timeDecoder.hasNext(timeBuffer)) {
-      long timestamp = timeDecoder.readLong(timeBuffer);
-
-      switch (dataType) {
-        case BOOLEAN:
-          readBoolean(pageData, timestamp);
-          break;
-        case INT32:
-          readInt(pageData, timestamp);
-          break;
-        case INT64:
-          readLong(pageData, timestamp);
-          break;
-        case FLOAT:
-          readFloat(pageData, timestamp);
-          break;
-        case DOUBLE:
-          readDouble(pageData, timestamp);
-          break;
-        case TEXT:
-          readText(pageData, timestamp);
-          break;
-        default:
-          throw new UnSupportedDataTypeException(String.valueOf(dataType));
-      }
+    switch (dataType) {
+      case BOOLEAN:
+        readBoolean(pageData);
+        break;
+      case INT32:
+        readInt(pageData);
+        break;
+      case INT64:
+        readLong(pageData);
+        break;
+      case FLOAT:
+        readFloat(pageData);
+        break;
+      case DOUBLE:
+        readDouble(pageData);
+        break;
+      case TEXT:
+        readText(pageData);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
     }
 
     return pageData;
   }
 
-  private void readBoolean(BatchData pageData, long timestamp) {
-    boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, aBoolean)) {
-      pageData.putTime(timestamp);
-      pageData.putBoolean(aBoolean);
+  private void readBoolean(BatchData pageData) throws IOException {
+    while (timeDecoder.hasNext(timeBuffer)) {
+      long timestamp = timeDecoder.readLong(timeBuffer);
+      boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
+      if (timestamp > deletedAt && filter.satisfyBoolean(timestamp, aBoolean)) {
+        pageData.putTime(timestamp);
+        pageData.putBoolean(aBoolean);
+      }
     }
   }
 
-  private void readInt(BatchData pageData, long timestamp) {
-    int anInt = valueDecoder.readInt(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, anInt)) {
-      pageData.putTime(timestamp);
-      pageData.putInt(anInt);
+  private void readInt(BatchData pageData) throws IOException {
+    while (timeDecoder.hasNext(timeBuffer)) {
+      long timestamp = timeDecoder.readLong(timeBuffer);
+      int anInt = valueDecoder.readInt(valueBuffer);
+      if (timestamp > deletedAt && filter.satisfyInt(timestamp, anInt)) {
+        pageData.putTime(timestamp);
+        pageData.putInt(anInt);
+      }
     }
   }
 
-  private void readLong(BatchData pageData, long timestamp) {
-    long aLong = valueDecoder.readLong(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, aLong)) {
-      pageData.putTime(timestamp);
-      pageData.putLong(aLong);
+  private void readLong(BatchData pageData) throws IOException {
+    while (timeDecoder.hasNext(timeBuffer)) {
+      long timestamp = timeDecoder.readLong(timeBuffer);
+      long aLong = valueDecoder.readLong(valueBuffer);
+      if (timestamp > deletedAt && filter.satisfyLong(timestamp, aLong)) {
+        pageData.putTime(timestamp);
+        pageData.putLong(aLong);
+      }
     }
   }
 
-  private void readFloat(BatchData pageData, long timestamp) {
-    float aFloat = valueDecoder.readFloat(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, aFloat)) {
-      pageData.putTime(timestamp);
-      pageData.putFloat(aFloat);
+  private void readFloat(BatchData pageData) throws IOException {
+    while (timeDecoder.hasNext(timeBuffer)) {
+      long timestamp = timeDecoder.readLong(timeBuffer);
+      float aFloat = valueDecoder.readFloat(valueBuffer);
+      if (timestamp > deletedAt && filter.satisfyFloat(timestamp, aFloat)) {
+        pageData.putTime(timestamp);
+        pageData.putFloat(aFloat);
+      }
     }
   }
 
-  private void readDouble(BatchData pageData, long timestamp) {
-    double aDouble = valueDecoder.readDouble(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, aDouble)) {
-      pageData.putTime(timestamp);
-      pageData.putDouble(aDouble);
+  private void readDouble(BatchData pageData) throws IOException {
+    while (timeDecoder.hasNext(timeBuffer)) {
+      long timestamp = timeDecoder.readLong(timeBuffer);
+      double aDouble = valueDecoder.readDouble(valueBuffer);
+      if (timestamp > deletedAt && filter.satisfyDouble(timestamp, aDouble)) {
+        pageData.putTime(timestamp);
+        pageData.putDouble(aDouble);
+      }
     }
   }
 
-  private void readText(BatchData pageData, long timestamp) {
-    Binary aBinary = valueDecoder.readBinary(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, aBinary)) {
-      pageData.putTime(timestamp);
-      pageData.putBinary(aBinary);
+  private void readText(BatchData pageData) throws IOException {
+    while (timeDecoder.hasNext(timeBuffer)) {
+      long timestamp = timeDecoder.readLong(timeBuffer);
+      Binary aBinary = valueDecoder.readBinary(valueBuffer);
+      if (timestamp > deletedAt && filter.satisfyBinary(timestamp, aBinary)) {
+        pageData.putTime(timestamp);
+        pageData.putBinary(aBinary);
+      }
     }
   }
 
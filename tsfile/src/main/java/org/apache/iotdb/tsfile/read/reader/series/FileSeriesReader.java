@@ -36,6 +36,11 @@ public abstract class FileSeriesReader {
   protected List<ChunkMetaData> chunkMetaDataList;
   protected ChunkReader chunkReader;
   private int chunkToRead;
+  /**
+   * the next satisfied chunk whose metadata has been returned by <code>nextChunkMetaData</code> but
+   * which is not loaded yet.
+   */
+  private ChunkMetaData unloadedChunkMetaData;
 
   private BatchData data;
 
@@ -60,6 +65,16 @@ public abstract class FileSeriesReader {
       return true;
     }
 
+    // the next chunk has been peeked by nextChunkMetaData() and not skipped
+    if (unloadedChunkMetaData != null) {
+      ChunkMetaData chunkMetaData = unloadedChunkMetaData;
+      unloadedChunkMetaData = null;
+      initChunkReader(chunkMetaData);
+      if (chunkReader.hasNextBatch()) {
+        return true;
+      }
+    }
+
     // current chunk does not have additional batch, init new chunk reader
     while (chunkToRead < chunkMetaDataList.size()) {
 
@@ -96,6 +111,38 @@ public abstract class FileSeriesReader {
     chunkReader.skipPageData();
   }
 
+  /**
+   * get the metadata of the next satisfied chunk without loading it, if the current chunk is used
+   * up. The chunk is loaded by the next call of <code>hasNextBatch</code>, unless
+   * <code>skipChunkData</code> is called before.
+   *
+   * @return metadata of the next chunk, or null if the current chunk still has data or there is no
+   * more chunk.
+   */
+  public ChunkMetaData nextChunkMetaData() throws IOException {
+    if (unloadedChunkMetaData != null) {
+      return unloadedChunkMetaData;
+    }
+    if (chunkReader != null && chunkReader.hasNextBatch()) {
+      return null;
+    }
+    while (chunkToRead < chunkMetaDataList.size()) {
+      ChunkMetaData chunkMetaData = nextChunkMeta();
+      if (chunkSatisfied(chunkMetaData)) {
+        unloadedChunkMetaData = chunkMetaData;
+        return chunkMetaData;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * skip the chunk returned by <code>nextChunkMetaData</code> without reading its data.
+   */
+  public void skipChunkData() {
+    unloadedChunkMetaData = null;
+  }
+
   protected abstract void initChunkReader(ChunkMetaData chunkMetaData) throws IOException;
 
   protected abstract boolean chunkSatisfied(ChunkMetaData chunkMetaData);
@@ -50,6 +50,14 @@ public class FileSeriesReaderWithFilter extends FileSeriesReader {
 
   @Override
   protected boolean chunkSatisfied(ChunkMetaData chunkMetaData) {
+    return isChunkSatisfied(chunkMetaData, filter);
+  }
+
+  /**
+   * check whether the time range and the value statistics of a chunk may satisfy the filter, so
+   * that a chunk that does not is skipped without being read.
+   */
+  public static boolean isChunkSatisfied(ChunkMetaData chunkMetaData, Filter filter) {
     DigestForFilter digest = new DigestForFilter(chunkMetaData.getStartTime(),
         chunkMetaData.getEndTime(),
         chunkMetaData.getDigest().getStatistics().get(StatisticConstant.MIN_VALUE),
@@ -201,7 +201,8 @@ public class RestorableTsFileIOWriter extends TsFileIOWriter {
       if (reader.isComplete()) {
         reader.loadMetadataSize();
         TsFileMetaData metaData = reader.readFileMetadata();
-        for (TsDeviceMetadataIndex deviceMetadata : metaData.getDeviceMap().values()) {
+        for (TsDeviceMetadataIndex deviceMetadata : reader.readDeviceMetadataIndexMap(metaData)
+            .values()) {
           if (position > deviceMetadata.getOffset()) {
             position = deviceMetadata.getOffset();
           }
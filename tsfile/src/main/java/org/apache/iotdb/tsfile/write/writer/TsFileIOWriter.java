@@ -25,6 +25,7 @@ import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -35,6 +36,8 @@ import org.apache.iotdb.tsfile.file.footer.ChunkGroupFooter;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetaData;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.TsDeviceIndexPage;
+import org.apache.iotdb.tsfile.file.metadata.TsDeviceIndexPageMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadataIndex;
 import org.apache.iotdb.tsfile.file.metadata.TsDigest;
@@ -235,8 +238,16 @@ public class TsFileIOWriter {
     Map<String, TsDeviceMetadataIndex> tsDeviceMetadataIndexMap = flushTsDeviceMetaDataAndGetIndex(
         this.chunkGroupMetaDataList);
 
-    TsFileMetaData tsFileMetaData = new TsFileMetaData(tsDeviceMetadataIndexMap, schemaDescriptors,
-        TSFileConfig.CURRENT_VERSION);
+    TsFileMetaData tsFileMetaData;
+    if (tsDeviceMetadataIndexMap.size() > TSFileConfig.maxNumberOfDevicesInIndexPage) {
+      // too many devices to keep them all in the file metadata, page the device index
+      tsFileMetaData = new TsFileMetaData(new HashMap<>(), schemaDescriptors,
+          TSFileConfig.CURRENT_VERSION);
+      tsFileMetaData.setDeviceIndexPages(flushDeviceIndexPages(tsDeviceMetadataIndexMap));
+    } else {
+      tsFileMetaData = new TsFileMetaData(tsDeviceMetadataIndexMap, schemaDescriptors,
+          TSFileConfig.CURRENT_VERSION);
+    }
 
     long footerIndex = out.getPosition();
     LOG.debug("start to flush the footer,file pos:{}", footerIndex);
@@ -267,7 +278,7 @@ public class TsFileIOWriter {
   private Map<String, TsDeviceMetadataIndex> flushTsDeviceMetaDataAndGetIndex(
       List<ChunkGroupMetaData> chunkGroupMetaDataList) throws IOException {
 
-    Map<String, TsDeviceMetadataIndex> tsDeviceMetadataIndexMap = new HashMap<>();
+    Map<String, TsDeviceMetadataIndex> tsDeviceMetadataIndexMap = new LinkedHashMap<>();
 
     long offset; /* offset for the flushing TsDeviceMetadata */
 
@@ -291,6 +302,30 @@ public class TsFileIOWriter {
     return tsDeviceMetadataIndexMap;
   }
 
+  /**
+   * split the device index into pages of at most TSFileConfig.maxNumberOfDevicesInIndexPage
+   * devices in string order of deviceId, and flush the pages.
+   *
+   * @param tsDeviceMetadataIndexMap index of all devices, sorted by deviceId
+   * @return metadata of the flushed pages in TsFileMetaData
+   */
+  private List<TsDeviceIndexPageMetadata> flushDeviceIndexPages(
+      Map<String, TsDeviceMetadataIndex> tsDeviceMetadataIndexMap) throws IOException {
+    List<TsDeviceIndexPageMetadata> pageMetadataList = new ArrayList<>();
+    List<Map.Entry<String, TsDeviceMetadataIndex>> entries = new ArrayList<>(
+        tsDeviceMetadataIndexMap.entrySet());
+    // the config is set directly by tests and tools, never loop without advancing
+    int pageSize = Math.max(TSFileConfig.maxNumberOfDevicesInIndexPage, 1);
+    for (int start = 0; start < entries.size(); start += pageSize) {
+      int end = Math.min(start + pageSize, entries.size());
+      TsDeviceIndexPage page = new TsDeviceIndexPage(entries.subList(start, end));
+      long offset = out.getPosition();
+      int size = page.serializeTo(out.wrapAsStream());
+      pageMetadataList.add(new TsDeviceIndexPageMetadata(page.getFirstDevice(), offset, size));
+    }
+    return pageMetadataList;
+  }
+
   /**
    * group all chunk group metadata by device.
    *
@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.common.conf;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TSFileDescriptorTest {
+
+  private int prevMaxNumberOfDevicesInIndexPage;
+
+  @Before
+  public void before() {
+    prevMaxNumberOfDevicesInIndexPage = TSFileConfig.maxNumberOfDevicesInIndexPage;
+    TSFileConfig.maxNumberOfDevicesInIndexPage = 256;
+  }
+
+  @After
+  public void after() {
+    TSFileConfig.maxNumberOfDevicesInIndexPage = prevMaxNumberOfDevicesInIndexPage;
+  }
+
+  @Test
+  public void testCheckMaxNumberOfDevicesInIndexPage() {
+    assertEquals(1, TSFileDescriptor.checkMaxNumberOfDevicesInIndexPage(1));
+    assertEquals(1000, TSFileDescriptor.checkMaxNumberOfDevicesInIndexPage(1000));
+    // invalid values keep the current one
+    assertEquals(256, TSFileDescriptor.checkMaxNumberOfDevicesInIndexPage(0));
+    assertEquals(256, TSFileDescriptor.checkMaxNumberOfDevicesInIndexPage(-8));
+  }
+}
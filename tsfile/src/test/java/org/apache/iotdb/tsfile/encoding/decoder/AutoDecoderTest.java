@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.apache.iotdb.tsfile.encoding.encoder.AutoEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.junit.Test;
+
+public class AutoDecoderTest {
+
+  private static final int ROW_NUM = 1000;
+
+  @Test
+  public void testRegularLong() throws IOException {
+    Encoder encoder = new AutoEncoder(TSDataType.INT64, null);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int i = 0; i < ROW_NUM; i++) {
+      encoder.encode(1000L + i * 10L, out);
+    }
+    encoder.flush(out);
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    assertEquals(TSEncoding.REGULAR, TSEncoding.deserialize(buffer.getShort(0)));
+
+    Decoder decoder = new AutoDecoder(TSDataType.INT64);
+    for (int i = 0; i < ROW_NUM; i++) {
+      assertEquals(1000L + i * 10L, decoder.readLong(buffer));
+    }
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  @Test
+  public void testRepeatedInt() throws IOException {
+    Encoder encoder = new AutoEncoder(TSDataType.INT32, null);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int i = 0; i < ROW_NUM; i++) {
+      encoder.encode(i / 100 - 3, out);
+    }
+    encoder.flush(out);
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    assertEquals(TSEncoding.RLE, TSEncoding.deserialize(buffer.getShort(0)));
+
+    Decoder decoder = new AutoDecoder(TSDataType.INT32);
+    for (int i = 0; i < ROW_NUM; i++) {
+      assertEquals(i / 100 - 3, decoder.readInt(buffer));
+    }
+  }
+
+  @Test
+  public void testDoubleIsLossless() throws IOException {
+    Random random = new Random(1);
+    double[] values = new double[ROW_NUM];
+    for (int i = 0; i < ROW_NUM; i++) {
+      values[i] = random.nextDouble() * 1000;
+    }
+    Encoder encoder = new AutoEncoder(TSDataType.DOUBLE, null);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (double value : values) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+
+    Decoder decoder = new AutoDecoder(TSDataType.DOUBLE);
+    for (double value : values) {
+      assertEquals(Double.doubleToRawLongBits(value),
+          Double.doubleToRawLongBits(decoder.readDouble(buffer)));
+    }
+  }
+
+  @Test
+  public void testBooleanAndText() throws IOException {
+    Encoder booleanEncoder = new AutoEncoder(TSDataType.BOOLEAN, null);
+    Encoder textEncoder = new AutoEncoder(TSDataType.TEXT, null);
+    ByteArrayOutputStream booleanOut = new ByteArrayOutputStream();
+    ByteArrayOutputStream textOut = new ByteArrayOutputStream();
+    for (int i = 0; i < ROW_NUM; i++) {
+      booleanEncoder.encode(i % 3 == 0, booleanOut);
+      textEncoder.encode(new Binary("text" + i), textOut);
+    }
+    booleanEncoder.flush(booleanOut);
+    textEncoder.flush(textOut);
+
+    ByteBuffer booleanBuffer = ByteBuffer.wrap(booleanOut.toByteArray());
+    ByteBuffer textBuffer = ByteBuffer.wrap(textOut.toByteArray());
+    Decoder booleanDecoder = new AutoDecoder(TSDataType.BOOLEAN);
+    Decoder textDecoder = new AutoDecoder(TSDataType.TEXT);
+    for (int i = 0; i < ROW_NUM; i++) {
+      assertEquals(i % 3 == 0, booleanDecoder.readBoolean(booleanBuffer));
+      assertEquals("text" + i, textDecoder.readBinary(textBuffer).getStringValue());
+    }
+  }
+
+  @Test
+  public void testPagesWithDifferentEncodings() throws IOException {
+    // only the first 16 values of a page are sampled
+    Encoder encoder = new AutoEncoder(TSDataType.INT64, null, 16);
+    Random random = new Random(1);
+    long[][] pages = new long[3][ROW_NUM];
+    for (int i = 0; i < ROW_NUM; i++) {
+      pages[0][i] = 1000000000L + i * 3000L;
+      pages[1][i] = random.nextLong();
+      pages[2][i] = i / 50;
+    }
+    ByteBuffer[] buffers = new ByteBuffer[pages.length];
+    for (int i = 0; i < pages.length; i++) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (long value : pages[i]) {
+        encoder.encode(value, out);
+      }
+      encoder.flush(out);
+      buffers[i] = ByteBuffer.wrap(out.toByteArray());
+    }
+    assertEquals(TSEncoding.REGULAR, TSEncoding.deserialize(buffers[0].getShort(0)));
+    assertEquals(TSEncoding.RLE, TSEncoding.deserialize(buffers[2].getShort(0)));
+
+    Decoder decoder = new AutoDecoder(TSDataType.INT64);
+    for (int i = 0; i < pages.length; i++) {
+      decoder.reset();
+      for (long value : pages[i]) {
+        assertEquals(value, decoder.readLong(buffers[i]));
+      }
+      assertFalse(decoder.hasNext(buffers[i]));
+    }
+  }
+}
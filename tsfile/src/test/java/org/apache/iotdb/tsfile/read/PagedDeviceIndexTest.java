@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadataIndex;
+import org.apache.iotdb.tsfile.file.metadata.TsFileMetaData;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PagedDeviceIndexTest {
+
+  private static final String FILE_PATH = "target/pagedDeviceIndexTest.tsfile";
+  private static final int DEVICE_NUM = 50;
+  private int prevMaxNumberOfDevicesInIndexPage;
+
+  @Before
+  public void before() {
+    prevMaxNumberOfDevicesInIndexPage = TSFileConfig.maxNumberOfDevicesInIndexPage;
+  }
+
+  @After
+  public void after() {
+    TSFileConfig.maxNumberOfDevicesInIndexPage = prevMaxNumberOfDevicesInIndexPage;
+    File file = new File(FILE_PATH);
+    if (file.exists()) {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testPagedIndex() throws IOException, WriteProcessException {
+    TSFileConfig.maxNumberOfDevicesInIndexPage = 8;
+    writeFile();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(FILE_PATH)) {
+      TsFileMetaData metaData = reader.readFileMetadata();
+      Assert.assertTrue(metaData.isDeviceIndexPaged());
+      Assert.assertEquals((DEVICE_NUM + 7) / 8, metaData.getDeviceIndexPages().size());
+      Assert.assertTrue(metaData.getDeviceMap().isEmpty());
+      checkIndex(reader, metaData);
+    }
+    checkQuery();
+  }
+
+  @Test
+  public void testFlatIndex() throws IOException, WriteProcessException {
+    TSFileConfig.maxNumberOfDevicesInIndexPage = DEVICE_NUM;
+    writeFile();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(FILE_PATH)) {
+      TsFileMetaData metaData = reader.readFileMetadata();
+      Assert.assertFalse(metaData.isDeviceIndexPaged());
+      Assert.assertEquals(DEVICE_NUM, metaData.getDeviceMap().size());
+      checkIndex(reader, metaData);
+    }
+    checkQuery();
+  }
+
+  @Test
+  public void testInvalidPageSize() throws IOException, WriteProcessException {
+    // a page size that is not positive must not hang the writer
+    TSFileConfig.maxNumberOfDevicesInIndexPage = 0;
+    writeFile();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(FILE_PATH)) {
+      TsFileMetaData metaData = reader.readFileMetadata();
+      Assert.assertTrue(metaData.isDeviceIndexPaged());
+      Assert.assertEquals(DEVICE_NUM, metaData.getDeviceIndexPages().size());
+      checkIndex(reader, metaData);
+    }
+    checkQuery();
+  }
+
+  private void writeFile() throws IOException, WriteProcessException {
+    try (TsFileWriter writer = new TsFileWriter(new File(FILE_PATH))) {
+      writer.addMeasurement(new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.RLE));
+      for (int i = 0; i < DEVICE_NUM; i++) {
+        for (long time = 1; time <= 10; time++) {
+          TSRecord record = new TSRecord(time, getDevice(i));
+          record.addTuple(new LongDataPoint("s1", i * time));
+          writer.write(record);
+        }
+      }
+    }
+  }
+
+  private void checkIndex(TsFileSequenceReader reader, TsFileMetaData metaData)
+      throws IOException {
+    Map<String, TsDeviceMetadataIndex> indexMap = reader.readDeviceMetadataIndexMap(metaData);
+    Assert.assertEquals(DEVICE_NUM, indexMap.size());
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      TsDeviceMetadataIndex index = reader.readDeviceMetadataIndex(metaData, getDevice(i));
+      Assert.assertNotNull(index);
+      Assert.assertEquals(indexMap.get(getDevice(i)).getOffset(), index.getOffset());
+      Assert.assertEquals(1, index.getStartTime());
+      Assert.assertEquals(10, index.getEndTime());
+    }
+    // before the first device, between two devices and after the last device
+    Assert.assertNull(reader.readDeviceMetadataIndex(metaData, "a"));
+    Assert.assertNull(reader.readDeviceMetadataIndex(metaData, "d.5"));
+    Assert.assertNull(reader.readDeviceMetadataIndex(metaData, "e"));
+  }
+
+  private void checkQuery() throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(FILE_PATH)) {
+      ReadOnlyTsFile readOnlyTsFile = new ReadOnlyTsFile(reader);
+      List<Path> paths = new ArrayList<>();
+      paths.add(new Path(getDevice(DEVICE_NUM - 1), "s1"));
+      QueryDataSet dataSet = readOnlyTsFile.query(QueryExpression.create(paths, null));
+      long time = 1;
+      while (dataSet.hasNext()) {
+        RowRecord record = dataSet.next();
+        Assert.assertEquals(time, record.getTimestamp());
+        Assert.assertEquals((DEVICE_NUM - 1) * time, record.getFields().get(0).getLongV());
+        time++;
+      }
+      Assert.assertEquals(11, time);
+    }
+  }
+
+  private String getDevice(int i) {
+    return String.format("d.%03d", i);
+  }
+}
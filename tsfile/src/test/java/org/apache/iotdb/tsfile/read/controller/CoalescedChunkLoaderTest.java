@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.controller;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.TsFileGeneratorForTest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CoalescedChunkLoaderTest {
+
+  private static final String FILE_PATH = TsFileGeneratorForTest.outputDataFile;
+  private TsFileSequenceReader fileReader;
+  private ExecutorService executor;
+
+  @Before
+  public void before() throws InterruptedException, WriteProcessException, IOException {
+    TsFileGeneratorForTest.generateFile(100000, 16 * 1024, 1000);
+    fileReader = new TsFileSequenceReader(FILE_PATH);
+    executor = Executors.newSingleThreadExecutor();
+  }
+
+  @After
+  public void after() throws IOException {
+    executor.shutdownNow();
+    fileReader.close();
+    TsFileGeneratorForTest.after();
+  }
+
+  @Test
+  public void testPlanReadGroups() throws IOException {
+    List<ChunkMetaData> chunkMetaDataList = getChunkMetaDataList();
+    Assert.assertTrue(chunkMetaDataList.size() > 1);
+
+    // every chunk is read alone
+    Assert.assertEquals(chunkMetaDataList.size(),
+        CoalescedChunkLoader.planReadGroups(chunkMetaDataList, 0).size());
+    // all chunks are read at once
+    Assert.assertEquals(1,
+        CoalescedChunkLoader.planReadGroups(chunkMetaDataList, Long.MAX_VALUE).size());
+  }
+
+  @Test
+  public void testSyncRead() throws IOException {
+    List<ChunkMetaData> chunkMetaDataList = getChunkMetaDataList();
+    checkChunks(chunkMetaDataList,
+        new CoalescedChunkLoader(fileReader, chunkMetaDataList, 16 * 1024, null));
+  }
+
+  @Test
+  public void testAsyncRead() throws IOException {
+    List<ChunkMetaData> chunkMetaDataList = getChunkMetaDataList();
+    checkChunks(chunkMetaDataList,
+        new CoalescedChunkLoader(fileReader, chunkMetaDataList, 16 * 1024, executor));
+  }
+
+  @Test
+  public void testReverseAsyncRead() throws IOException {
+    List<ChunkMetaData> chunkMetaDataList = getChunkMetaDataList();
+    Collections.reverse(chunkMetaDataList);
+    checkChunks(chunkMetaDataList,
+        new CoalescedChunkLoader(fileReader, chunkMetaDataList, 16 * 1024, executor));
+  }
+
+  @Test
+  public void testDeepPrefetch() throws IOException {
+    List<ChunkMetaData> chunkMetaDataList = getChunkMetaDataList();
+    PrefetchStatistics statistics = new PrefetchStatistics();
+    checkChunks(chunkMetaDataList,
+        new CoalescedChunkLoader(fileReader, chunkMetaDataList, 0, executor, 3, statistics));
+    Assert.assertEquals(chunkMetaDataList.size(), statistics.getPrefetchedChunkGroupNum());
+    Assert.assertEquals(0, statistics.getSyncReadChunkGroupNum());
+  }
+
+  @Test
+  public void testSkipPrefetchedGroups() throws IOException {
+    List<ChunkMetaData> chunkMetaDataList = getChunkMetaDataList();
+    Assert.assertTrue(chunkMetaDataList.size() > 5);
+    PrefetchStatistics statistics = new PrefetchStatistics();
+    // the second to the fourth chunk are skipped
+    List<ChunkMetaData> consumed = new ArrayList<>(chunkMetaDataList);
+    consumed.subList(1, 4).clear();
+    checkChunks(consumed,
+        new CoalescedChunkLoader(fileReader, chunkMetaDataList, 0, executor, 2, statistics));
+    // the fifth chunk was not in the prefetch window when the first one was loaded
+    Assert.assertEquals(1, statistics.getSyncReadChunkGroupNum());
+    Assert.assertEquals(consumed.size() - 1, statistics.getPrefetchedChunkGroupNum());
+  }
+
+  @Test
+  public void testCancelPrefetch() throws IOException {
+    List<ChunkMetaData> chunkMetaDataList = getChunkMetaDataList();
+    List<Runnable> queuedTasks = new ArrayList<>();
+    CoalescedChunkLoader chunkLoader = new CoalescedChunkLoader(fileReader, chunkMetaDataList, 0,
+        queuedTasks::add, 2, null);
+    Assert.assertEquals(2, queuedTasks.size());
+    chunkLoader.cancelPrefetch();
+    for (Runnable task : queuedTasks) {
+      Assert.assertTrue(((Future<?>) task).isCancelled());
+    }
+    // the file reader is still open
+    checkChunks(chunkMetaDataList.subList(0, 1), new CoalescedChunkLoader(fileReader,
+        chunkMetaDataList, 0, null));
+  }
+
+  private List<ChunkMetaData> getChunkMetaDataList() throws IOException {
+    MetadataQuerierByFileImpl metadataQuerierByFile = new MetadataQuerierByFileImpl(fileReader);
+    return new ArrayList<>(metadataQuerierByFile.getChunkMetaDataList(new Path("d1.s1")));
+  }
+
+  private void checkChunks(List<ChunkMetaData> chunkMetaDataList, ChunkLoader chunkLoader)
+      throws IOException {
+    for (ChunkMetaData chunkMetaData : chunkMetaDataList) {
+      Chunk expected = fileReader.readMemChunk(chunkMetaData);
+      Chunk actual = chunkLoader.getChunk(chunkMetaData);
+      Assert.assertEquals(expected.getHeader().getMeasurementID(),
+          actual.getHeader().getMeasurementID());
+      Assert.assertEquals(expected.getHeader().getDataSize(), actual.getData().remaining());
+      Assert.assertEquals(expected.getData(), actual.getData());
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.filter;
+
+import java.util.Random;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.filter.basic.CompiledFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterCompiler;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+
+/**
+ * Filter benchmark. This class compares the evaluation of a filter tree with boxed values to the
+ * evaluation of the same filter compiled by {@link FilterCompiler}, for a predicate on the time and
+ * the value like "time >= 1000 and time < 9000000 and (value > 100 and value <= 900 or value =
+ * -1)".
+ */
+public class FilterBenchmark {
+
+  private static int numOfPoints = 10000000;
+  private static int numOfRounds = 10;
+
+  public static void main(String[] args) {
+    Filter filter = FilterFactory.and(
+        FilterFactory.and(TimeFilter.gtEq(1000L), TimeFilter.lt(9000000L)),
+        FilterFactory.or(FilterFactory.and(ValueFilter.gt(100L), ValueFilter.ltEq(900L)),
+            ValueFilter.eq(-1L)));
+    CompiledFilter compiledFilter = FilterCompiler.compile(filter, TSDataType.INT64);
+
+    long[] values = new long[numOfPoints];
+    Random random = new Random(0);
+    for (int i = 0; i < numOfPoints; i++) {
+      values[i] = random.nextInt(1000);
+    }
+
+    for (int round = 0; round < numOfRounds; round++) {
+      long startTime = System.nanoTime();
+      int count = 0;
+      for (int i = 0; i < numOfPoints; i++) {
+        if (filter.satisfy(i, values[i])) {
+          count++;
+        }
+      }
+      long filterTime = System.nanoTime() - startTime;
+
+      startTime = System.nanoTime();
+      int compiledCount = 0;
+      for (int i = 0; i < numOfPoints; i++) {
+        if (compiledFilter.satisfyLong(i, values[i])) {
+          compiledCount++;
+        }
+      }
+      long compiledTime = System.nanoTime() - startTime;
+
+      System.out.println(String.format(
+          "Round %d: filter tree %d ms (%d points), compiled filter %d ms (%d points)", round,
+          filterTime / 1000000, count, compiledTime / 1000000, compiledCount));
+    }
+  }
+}
@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.filter;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.filter.basic.CompiledFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterCompiler;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FilterCompilerTest {
+
+  @Test
+  public void testLong() {
+    Filter[] filters = {
+        FilterFactory.and(FilterFactory.and(TimeFilter.gtEq(10L), TimeFilter.lt(90L)),
+            FilterFactory.and(ValueFilter.gt(20L), ValueFilter.ltEq(70L))),
+        FilterFactory.and(TimeFilter.gt(50L),
+            FilterFactory.or(ValueFilter.lt(10L), FilterFactory.not(ValueFilter.lt(60L)))),
+        FilterFactory.and(ValueFilter.notEq(30L), TimeFilter.notEq(31L)),
+        FilterFactory.and(TimeFilter.eq(40L), ValueFilter.eq(40L)),
+        // empty ranges
+        FilterFactory.and(TimeFilter.gt(Long.MAX_VALUE), ValueFilter.gt(0L)),
+        FilterFactory.and(ValueFilter.gt(60L), ValueFilter.lt(50L)),
+        // a constant of another type is never equal to the value
+        ValueFilter.eq(40)
+    };
+    for (Filter filter : filters) {
+      CompiledFilter compiledFilter = FilterCompiler.compile(filter, TSDataType.INT64);
+      for (long time = 0; time < 100; time++) {
+        for (long value = 0; value < 100; value++) {
+          Assert.assertEquals(filter.toString(), filter.satisfy(time, value),
+              compiledFilter.satisfyLong(time, value));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testInt() {
+    Filter[] filters = {
+        FilterFactory.and(TimeFilter.ltEq(80L), ValueFilter.gtEq(Integer.MIN_VALUE)),
+        FilterFactory.or(ValueFilter.eq(5), FilterFactory.and(TimeFilter.gt(20L),
+            ValueFilter.lt(-10))),
+        FilterFactory.and(ValueFilter.gt(Integer.MAX_VALUE), TimeFilter.gt(0L)),
+        FilterFactory.not(FilterFactory.and(ValueFilter.gt(0), ValueFilter.lt(50)))
+    };
+    for (Filter filter : filters) {
+      CompiledFilter compiledFilter = FilterCompiler.compile(filter, TSDataType.INT32);
+      for (long time = 0; time < 100; time++) {
+        for (int value = -50; value < 100; value++) {
+          Assert.assertEquals(filter.toString(), filter.satisfy(time, value),
+              compiledFilter.satisfyInt(time, value));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testFloatAndDouble() {
+    float[] floats = {Float.NEGATIVE_INFINITY, -1.5f, -0.0f, 0.0f, 0.5f, 1.0f, 1.5f, 2.0f,
+        Float.POSITIVE_INFINITY, Float.NaN};
+    Filter[] floatFilters = {
+        FilterFactory.and(ValueFilter.gtEq(0.0f), ValueFilter.lt(1.5f)),
+        FilterFactory.and(ValueFilter.gt(0.5f), ValueFilter.gtEq(0.5f)),
+        FilterFactory.and(ValueFilter.ltEq(1.0f), ValueFilter.lt(1.0f)),
+        FilterFactory.and(ValueFilter.gtEq(1.0f), ValueFilter.ltEq(1.0f)),
+        FilterFactory.and(ValueFilter.gt(1.0f), ValueFilter.lt(1.0f)),
+        FilterFactory.and(TimeFilter.lt(3L), ValueFilter.gt(1.0f)),
+        ValueFilter.eq(Float.NaN),
+        ValueFilter.notEq(-0.0f),
+        FilterFactory.or(ValueFilter.lt(-1.0f), ValueFilter.eq(0.0f))
+    };
+    for (Filter filter : floatFilters) {
+      CompiledFilter compiledFilter = FilterCompiler.compile(filter, TSDataType.FLOAT);
+      for (long time = 0; time < 5; time++) {
+        for (float value : floats) {
+          Assert.assertEquals(filter + " " + value, filter.satisfy(time, value),
+              compiledFilter.satisfyFloat(time, value));
+        }
+      }
+    }
+
+    Filter doubleFilter = FilterFactory.and(TimeFilter.gtEq(1L),
+        FilterFactory.and(ValueFilter.gt(-1.0), ValueFilter.ltEq(Double.NaN)));
+    CompiledFilter compiledFilter = FilterCompiler.compile(doubleFilter, TSDataType.DOUBLE);
+    for (long time = 0; time < 5; time++) {
+      for (float value : floats) {
+        Assert.assertEquals(doubleFilter.satisfy(time, (double) value),
+            compiledFilter.satisfyDouble(time, value));
+      }
+    }
+  }
+
+  @Test
+  public void testOtherTypes() {
+    Filter filter = FilterFactory.and(TimeFilter.gt(10L), ValueFilter.eq(new Binary("a")));
+    CompiledFilter compiledFilter = FilterCompiler.compile(filter, TSDataType.TEXT);
+    Assert.assertTrue(compiledFilter.satisfyBinary(11, new Binary("a")));
+    Assert.assertFalse(compiledFilter.satisfyBinary(10, new Binary("a")));
+    Assert.assertFalse(compiledFilter.satisfyBinary(11, new Binary("b")));
+
+    compiledFilter = FilterCompiler.compile(ValueFilter.eq(true), TSDataType.BOOLEAN);
+    Assert.assertTrue(compiledFilter.satisfyBoolean(0, true));
+    Assert.assertFalse(compiledFilter.satisfyBoolean(0, false));
+  }
+}
@@ -37,6 +37,10 @@ import org.apache.iotdb.tsfile.encoding.encoder.PlainEncoder;
 import org.apache.iotdb.tsfile.encoding.encoder.SinglePrecisionEncoder;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.write.page.PageWriter;
@@ -142,6 +146,35 @@ public class PageReaderTest {
     test.test();
   }
 
+  @Test
+  public void testFilter() throws IOException {
+    PageWriter pageWriter = new PageWriter();
+    pageWriter.setTimeEncoder(new DeltaBinaryEncoder.LongDeltaEncoder());
+    pageWriter.setValueEncoder(new IntRleEncoder(EndianType.BIG_ENDIAN));
+    for (int i = 0; i < 1000; i++) {
+      pageWriter.write(i, i % 10);
+    }
+    ByteBuffer page = ByteBuffer.wrap(pageWriter.getUncompressedBytes().array());
+
+    Filter filter = FilterFactory.and(TimeFilter.lt(500), ValueFilter.gtEq(5));
+    PageReader pageReader = new PageReader(page, TSDataType.INT32,
+        new IntRleDecoder(EndianType.BIG_ENDIAN), new DeltaBinaryDecoder.LongDeltaDecoder(),
+        filter);
+    pageReader.setDeletedAt(99);
+    BatchData data = pageReader.nextBatch();
+
+    int count = 0;
+    while (data.hasNext()) {
+      Assert.assertTrue(data.currentTime() > 99 && data.currentTime() < 500);
+      Assert.assertEquals(data.currentTime() % 10, data.getInt());
+      Assert.assertTrue(data.getInt() >= 5);
+      data.next();
+      count++;
+    }
+    Assert.assertEquals(200, count);
+    Assert.assertFalse(pageReader.hasNextBatch());
+  }
+
   private abstract static class LoopWriteReadTest {
 
     private Encoder encoder;
@@ -19,10 +19,12 @@
 package org.apache.iotdb.tsfile.read.reader;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Path;
@@ -126,4 +128,79 @@ public class ReaderTest {
       }
     }
   }
+
+  @Test
+  public void readWithChunkMetaDataTest() throws IOException {
+    ChunkLoaderImpl seriesChunkLoader = new ChunkLoaderImpl(fileReader);
+    List<ChunkMetaData> chunkMetaDataList = metadataQuerierByFile
+        .getChunkMetaDataList(new Path("d1.s1"));
+    FileSeriesReader seriesReader = new FileSeriesReaderWithoutFilter(seriesChunkLoader,
+        chunkMetaDataList);
+
+    long count = 0;
+    int chunkCount = 0;
+    while (true) {
+      ChunkMetaData chunkMetaData = seriesReader.nextChunkMetaData();
+      if (chunkMetaData != null) {
+        // the same chunk is returned until it is loaded or skipped
+        Assert.assertSame(chunkMetaData, seriesReader.nextChunkMetaData());
+        chunkCount++;
+        if (chunkCount % 2 == 1) {
+          count += chunkMetaData.getNumOfPoints();
+          seriesReader.skipChunkData();
+          continue;
+        }
+      }
+      if (!seriesReader.hasNextBatch()) {
+        break;
+      }
+      // in the middle of a chunk
+      BatchData data = seriesReader.nextBatch();
+      while (data.hasNext()) {
+        data.next();
+        count++;
+      }
+    }
+    Assert.assertEquals(chunkMetaDataList.size(), chunkCount);
+    Assert.assertEquals(rowCount, count);
+  }
+
+  @Test
+  public void chunkStatisticsTest() throws IOException {
+    ChunkLoaderImpl seriesChunkLoader = new ChunkLoaderImpl(fileReader);
+    List<ChunkMetaData> chunkMetaDataList = metadataQuerierByFile
+        .getChunkMetaDataList(new Path("d1.s1"));
+
+    for (ChunkMetaData chunkMetaData : chunkMetaDataList) {
+      Statistics<?> statistics = chunkMetaData.getStatistics();
+      Assert.assertNotNull(statistics);
+
+      FileSeriesReader seriesReader = new FileSeriesReaderWithoutFilter(seriesChunkLoader,
+          Collections.singletonList(chunkMetaData));
+      Integer first = null;
+      int last = 0;
+      int min = Integer.MAX_VALUE;
+      int max = Integer.MIN_VALUE;
+      double sum = 0;
+      while (seriesReader.hasNextBatch()) {
+        BatchData data = seriesReader.nextBatch();
+        while (data.hasNext()) {
+          int value = data.getInt();
+          if (first == null) {
+            first = value;
+          }
+          last = value;
+          min = Math.min(min, value);
+          max = Math.max(max, value);
+          sum += value;
+          data.next();
+        }
+      }
+      Assert.assertEquals(first, statistics.getFirst());
+      Assert.assertEquals(last, statistics.getLast());
+      Assert.assertEquals(min, statistics.getMin());
+      Assert.assertEquals(max, statistics.getMax());
+      Assert.assertEquals(sum, statistics.getSum(), 0.01);
+    }
+  }
 }
@@ -130,6 +130,12 @@ public class TsFileReadWriteTest {
     TSFileConfig.timeEncoder = "TS_2DIFF";
   }
 
+  @Test
+  public void readMeasurementWithAutoEncodingTest() throws IOException, WriteProcessException {
+    writeData(TSDataType.DOUBLE, (i) -> new DoubleDataPoint("sensor_1", i / 7.0), TSEncoding.AUTO);
+    readData((i, field, delta) -> assertEquals(i / 7.0, field.getDoubleV(), 0));
+  }
+
   private void writeData(TSDataType dataType, DataPointProxy proxy, TSEncoding encodingType)
           throws IOException, WriteProcessException {
     int floatCount = 1024 * 1024 * 13 + 1023;